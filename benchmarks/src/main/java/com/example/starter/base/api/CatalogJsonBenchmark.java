@@ -0,0 +1,79 @@
+package com.example.starter.base.api;
+
+import com.example.starter.base.api.CatalogPayloads.CatalogDocument;
+import com.example.starter.base.api.CatalogPayloads.CatalogEntry;
+import com.example.starter.base.content.ImageVariants;
+import com.example.starter.base.entity.PointOfInterest;
+import com.example.starter.base.services.Localizations;
+import com.example.starter.base.services.SyntheticCatalog;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The steps {@link CatalogPayloads} takes for each language when the catalog changes:
+ * mapping POIs to entries, serializing the document and compressing it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class CatalogJsonBenchmark {
+
+    @Param({"20", "10000", "1000000"})
+    private int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ImageVariants variants = new ImageVariants(List.of());
+    private List<PointOfInterest> pois;
+    private Map<String, String> texts;
+    private CatalogDocument document;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        SyntheticCatalog synthetic = SyntheticCatalog.of(size);
+        Localizations localizations = synthetic.localizations();
+        pois = synthetic.catalog(localizations).getPointsOfInterest(Localizations.DEFAULT_LANGUAGE);
+        texts = localizations.getTexts(Localizations.DEFAULT_LANGUAGE);
+        document = new CatalogDocument(Localizations.DEFAULT_LANGUAGE, CatalogPayloads.toEntries(pois, variants), texts);
+        json = objectMapper.writeValueAsBytes(document);
+    }
+
+    @Benchmark
+    public List<CatalogEntry> toEntries() {
+        return CatalogPayloads.toEntries(pois, variants);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(document);
+    }
+
+    @Benchmark
+    public byte[] toEntriesAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(
+                new CatalogDocument(Localizations.DEFAULT_LANGUAGE, CatalogPayloads.toEntries(pois, variants), texts));
+    }
+
+    @Benchmark
+    public PrecompressedPayload compress() {
+        return PrecompressedPayload.of(json, "application/json;charset=UTF-8");
+    }
+}
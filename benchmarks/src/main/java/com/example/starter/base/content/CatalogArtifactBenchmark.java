@@ -0,0 +1,55 @@
+package com.example.starter.base.content;
+
+import com.example.starter.base.services.SyntheticCatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writing the binary catalog at build time and reading it back at startup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class CatalogArtifactBenchmark {
+
+    @Param({"20", "10000", "1000000"})
+    private int size;
+
+    private CatalogContent content;
+    private byte[] artifact;
+
+    @Setup
+    public void setUp() throws IOException {
+        content = SyntheticCatalog.of(size).getContent();
+        artifact = write();
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        CatalogArtifact.write(content, output);
+        return output.toByteArray();
+    }
+
+    @Benchmark
+    public CatalogContent read() throws IOException {
+        return CatalogArtifact.read(new ByteArrayInputStream(artifact));
+    }
+}
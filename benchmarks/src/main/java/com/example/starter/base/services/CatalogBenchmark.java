@@ -0,0 +1,84 @@
+package com.example.starter.base.services;
+
+import com.example.starter.base.entity.PointOfInterest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The catalog lookups behind every list and detail request, and what a content reload
+ * costs to rebuild the catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class CatalogBenchmark {
+
+    private static final Locale[] LOCALES = {
+            Locale.ENGLISH, Locale.forLanguageTag("sl"), Locale.forLanguageTag("de-AT"), Locale.forLanguageTag("nl")
+    };
+
+    @Param({"20", "10000", "1000000"})
+    private int size;
+
+    private SyntheticCatalog synthetic;
+    private Localizations localizations;
+    private POICatalog catalog;
+    private String[] names;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        synthetic = SyntheticCatalog.of(size);
+        localizations = synthetic.localizations();
+        catalog = synthetic.catalog(localizations);
+        names = new String[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = SyntheticCatalog.name(i);
+        }
+    }
+
+    /**
+     * {@code POIService.getPointsOfInterest(Locale)}: resolve the language, return the
+     * pre-built list.
+     */
+    @Benchmark
+    public List<PointOfInterest> getPointsOfInterest() {
+        return catalog.getPointsOfInterest(localizations.resolveLanguage(LOCALES[next++ & 3]));
+    }
+
+    /**
+     * {@code POIService.findByName}, as the detail view does it.
+     */
+    @Benchmark
+    public Optional<PointOfInterest> findByName() {
+        int i = next++;
+        return catalog.findByName(localizations.resolveLanguage(LOCALES[i & 3]), names[(i >>> 2) % names.length]);
+    }
+
+    /**
+     * Every language list, name index and the spatial index, as after a content reload.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public POICatalog buildCatalog() {
+        return synthetic.catalog(localizations);
+    }
+}
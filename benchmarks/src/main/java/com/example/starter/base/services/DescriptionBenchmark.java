@@ -0,0 +1,76 @@
+package com.example.starter.base.services;
+
+import com.example.starter.base.entity.POIDescription;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The work behind the detail view's {@code loadDescription} and
+ * {@code getLocalizedTakeMeText}: parsing a description into its sections and HTML once,
+ * looking one up per request, and the localized button text.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class DescriptionBenchmark {
+
+    @Param({"20", "10000", "1000000"})
+    private int size;
+
+    private SyntheticCatalog synthetic;
+    private Localizations localizations;
+    private Map<String, Map<String, POIDescription>> descriptions;
+    private String[] names;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        synthetic = SyntheticCatalog.of(size);
+        localizations = synthetic.localizations();
+        descriptions = synthetic.descriptions();
+        names = new String[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = SyntheticCatalog.name(i);
+        }
+    }
+
+    /**
+     * What {@link DescriptionService} does once per description file at startup.
+     */
+    @Benchmark
+    public POIDescription parseDescription() {
+        int i = next++;
+        String language = SyntheticCatalog.LANGUAGES.get(i & 3);
+        return new POIDescription(language, synthetic.paragraphs(i >>> 2, language));
+    }
+
+    /**
+     * {@link DescriptionService#find}: the requested language, else English.
+     */
+    @Benchmark
+    public POIDescription lookupDescription() {
+        int i = next++;
+        return DescriptionService.find(descriptions, names[(i >>> 2) % names.length],
+                SyntheticCatalog.LANGUAGES.get(i & 3));
+    }
+
+    @Benchmark
+    public String takeMeText() {
+        return localizations.getText(SyntheticCatalog.LANGUAGES.get(next++ & 3), "takeme", "Take me there!");
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.starter.base.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Title and UI string lookups. {@link #localizedTitles} looks up the title of every POI in
+ * one language, which is what the list view's {@code loadLocalizedTitles} did per request
+ * before the titles moved into {@link Localizations}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class LocalizationBenchmark {
+
+    private static final Locale[] LOCALES = {
+            Locale.ENGLISH, Locale.forLanguageTag("sl-SI"), Locale.forLanguageTag("de-AT"), Locale.forLanguageTag("fr")
+    };
+
+    @Param({"20", "10000", "1000000"})
+    private int size;
+
+    private SyntheticCatalog synthetic;
+    private Localizations localizations;
+    private String[] names;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        synthetic = SyntheticCatalog.of(size);
+        localizations = synthetic.localizations();
+        names = new String[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = SyntheticCatalog.name(i);
+        }
+    }
+
+    @Benchmark
+    public String resolveLanguage() {
+        return localizations.resolveLanguage(LOCALES[next++ & 3]);
+    }
+
+    @Benchmark
+    public String getTitle() {
+        int i = next++;
+        return localizations.getTitle(SyntheticCatalog.LANGUAGES.get(i & 3), names[(i >>> 2) % names.length]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public void localizedTitles(Blackhole blackhole) {
+        String language = SyntheticCatalog.LANGUAGES.get(next++ & 3);
+        for (String name : names) {
+            blackhole.consume(localizations.getTitle(language, name));
+        }
+    }
+
+    /**
+     * Copying the title and UI string tables, as after a content reload.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Localizations buildLocalizations() {
+        return synthetic.localizations();
+    }
+}
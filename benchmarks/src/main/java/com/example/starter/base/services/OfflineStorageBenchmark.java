@@ -0,0 +1,53 @@
+package com.example.starter.base.services;
+
+import com.example.starter.base.entity.PointOfInterest;
+import elemental.json.JsonArray;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Converting the English catalog to the JSON array the Flow views hand to local storage.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class OfflineStorageBenchmark {
+
+    @Param({"20", "10000", "1000000"})
+    private int size;
+
+    private OfflineStorageService service;
+    private List<PointOfInterest> pois;
+
+    @Setup
+    public void setUp() {
+        SyntheticCatalog synthetic = SyntheticCatalog.of(size);
+        service = new OfflineStorageService();
+        pois = synthetic.catalog(synthetic.localizations()).getPointsOfInterest(Localizations.DEFAULT_LANGUAGE);
+    }
+
+    @Benchmark
+    public JsonArray convertPOIsToJsonArray() {
+        return service.convertPOIsToJsonArray(pois);
+    }
+
+    @Benchmark
+    public String convertAndStringify() {
+        return service.convertPOIsToJsonArray(pois).toJson();
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.starter.base.services;
+
+import com.example.starter.base.content.AssetManifest;
+import com.example.starter.base.content.CatalogContent;
+import com.example.starter.base.content.ImageVariants;
+import com.example.starter.base.content.POIRecord;
+import com.example.starter.base.entity.POIDescription;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Generates catalogs of any size in the four languages the app ships with, shaped like the
+ * real content: names, localized titles, coordinates around Polzela, map links and
+ * multi-paragraph descriptions.
+ *
+ * The same size always gives the same catalog. Description text comes from a small pool
+ * of paragraphs shared between POIs, so a million POIs fit in a benchmark heap.
+ */
+public final class SyntheticCatalog {
+
+    public static final List<String> LANGUAGES = List.of("EN", "SL", "DE", "NL");
+
+    private static final double CENTER_LATITUDE = 46.2803;
+    private static final double CENTER_LONGITUDE = 15.0726;
+
+    private static final String[] WORDS = {
+            "castle", "park", "church", "museum", "bakery", "lodge", "mill", "bridge", "chapel", "garden",
+            "grad", "cerkev", "muzej", "vrt", "most", "schloss", "kirche", "garten", "kasteel", "kerk"
+    };
+
+    private static final int PARAGRAPH_POOL = 64;
+    private static final int PARAGRAPHS_PER_DESCRIPTION = 4;
+
+    private final int size;
+    private final CatalogContent content;
+    private final List<List<String>> paragraphPool;
+    private final Map<String, Map<String, POIDescription>> descriptions;
+
+    private SyntheticCatalog(int size) {
+        this.size = size;
+        Random random = new Random(size);
+        this.paragraphPool = paragraphPool(random);
+
+        List<POIRecord> records = new ArrayList<>(size);
+        Map<String, Map<String, String>> titles = new LinkedHashMap<>();
+        Map<String, Map<String, String>> uiStrings = new LinkedHashMap<>();
+        for (String language : LANGUAGES) {
+            titles.put(language, new LinkedHashMap<>(size * 2));
+            uiStrings.put(language, Map.of(
+                    "takeme", "Take me there! (" + language + ")",
+                    "welcome", "Welcome to Polzela (" + language + ")",
+                    "search", "Search (" + language + ")"));
+        }
+        for (int i = 0; i < size; i++) {
+            String name = name(i);
+            String displayName = words(random, 3);
+            double latitude = CENTER_LATITUDE + (random.nextDouble() - 0.5) * 0.1;
+            double longitude = CENTER_LONGITUDE + (random.nextDouble() - 0.5) * 0.1;
+            records.add(new POIRecord(
+                    name,
+                    displayName,
+                    words(random, 6) + ".",
+                    String.format(Locale.ROOT, "https://www.openstreetmap.org/#map=19/%.6f/%.6f", latitude, longitude),
+                    "https://maps.app.goo.gl/" + Integer.toHexString(random.nextInt()),
+                    String.format(Locale.ROOT, "https://maps.apple.com/?daddr=%.6f,%.6f&dirflg=d", latitude, longitude),
+                    latitude,
+                    longitude));
+            for (String language : LANGUAGES) {
+                titles.get(language).put(name, displayName + " " + language.toLowerCase(Locale.ROOT));
+            }
+        }
+        // Descriptions come from the pool, see descriptions()
+        this.content = new CatalogContent(records, titles, uiStrings, Map.of());
+        this.descriptions = buildDescriptions();
+    }
+
+    public static SyntheticCatalog of(int size) {
+        return new SyntheticCatalog(size);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public CatalogContent getContent() {
+        return content;
+    }
+
+    public static String name(int index) {
+        return "poi" + index;
+    }
+
+    public Localizations localizations() {
+        return new Localizations(content.getTitles(), content.getUiStrings());
+    }
+
+    /**
+     * The catalog as {@link POIService} builds it from the same content, without fingerprinted
+     * asset URLs or image variants.
+     */
+    public POICatalog catalog(Localizations localizations) {
+        return POIService.buildCatalog(content, localizations, descriptions, AssetManifest.empty(),
+                ImageVariants.empty());
+    }
+
+    /**
+     * The raw paragraphs of one POI's description in one language.
+     */
+    public List<String> paragraphs(int index, String language) {
+        return paragraphPool.get(Math.floorMod(index * 31 + language.hashCode(), PARAGRAPH_POOL));
+    }
+
+    /**
+     * A description index shaped like {@link DescriptionService}'s, POI name to language to
+     * description. Entries share a handful of description objects to keep the heap small;
+     * lookups cost the same.
+     */
+    public Map<String, Map<String, POIDescription>> descriptions() {
+        return descriptions;
+    }
+
+    private Map<String, Map<String, POIDescription>> buildDescriptions() {
+        List<Map<String, POIDescription>> shared = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            Map<String, POIDescription> byLanguage = new LinkedHashMap<>();
+            for (String language : LANGUAGES) {
+                byLanguage.put(language, new POIDescription(language, paragraphs(i, language)));
+            }
+            shared.add(byLanguage);
+        }
+        Map<String, Map<String, POIDescription>> index = new LinkedHashMap<>(size * 2);
+        for (int i = 0; i < size; i++) {
+            index.put(name(i), shared.get(i % shared.size()));
+        }
+        return index;
+    }
+
+    private static List<List<String>> paragraphPool(Random random) {
+        List<List<String>> pool = new ArrayList<>(PARAGRAPH_POOL);
+        for (int i = 0; i < PARAGRAPH_POOL; i++) {
+            List<String> paragraphs = new ArrayList<>(PARAGRAPHS_PER_DESCRIPTION);
+            for (int p = 0; p < PARAGRAPHS_PER_DESCRIPTION; p++) {
+                // Real paragraphs run to a few hundred characters, some with markup-like text
+                paragraphs.add(words(random, 60 + random.nextInt(40)) + " <Šenek & \"Oljka\">.");
+            }
+            pool.add(List.copyOf(paragraphs));
+        }
+        return pool;
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        text.setCharAt(0, Character.toUpperCase(text.charAt(0)));
+        return text.toString();
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.starter.base.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The production jar, started on a free local port within the memory and CPU budget of
+ * the production machine.
+ *
+ * {@code -XX:MaxRAM} and {@code -XX:ActiveProcessorCount} make the JVM size its heap, GC
+ * threads and thread pools as it does in the 1 GB, one CPU container. Where {@code taskset}
+ * exists the process is also pinned to that many cores, so it really only gets that much
+ * CPU; run the load generator on a machine with spare cores to keep it from competing.
+ */
+final class AppProcess implements AutoCloseable {
+
+    private final Process process;
+    private final URI baseUrl;
+    private final Path log;
+
+    private AppProcess(Process process, URI baseUrl, Path log) {
+        this.process = process;
+        this.baseUrl = baseUrl;
+        this.log = log;
+    }
+
+    static AppProcess start(LoadTestConfig config, Path log) throws IOException, InterruptedException {
+        Path jar = Path.of(config.get("loadtest.app-jar"));
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("No application jar at " + jar.toAbsolutePath()
+                    + ", build it first with mvn package -Pproduction -DskipTests");
+        }
+        int port = freePort();
+        int cpus = config.getInt("loadtest.cpus");
+        Path workDir = Files.createTempDirectory("visit-polzela-loadtest");
+
+        List<String> command = new ArrayList<>();
+        if (cpus > 0 && Files.isExecutable(Path.of("/usr/bin/taskset"))) {
+            command.add("/usr/bin/taskset");
+            command.add("-c");
+            command.add(cpus == 1 ? "0" : "0-" + (cpus - 1));
+        }
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-XX:MaxRAM=" + config.get("loadtest.memory"));
+        if (cpus > 0) {
+            command.add("-XX:ActiveProcessorCount=" + cpus);
+        }
+        for (String arg : config.get("loadtest.jvm-args").split("\\s+")) {
+            if (!arg.isEmpty()) {
+                command.add(arg);
+            }
+        }
+        command.add("-Dquarkus.http.host=127.0.0.1");
+        command.add("-Dquarkus.http.port=" + port);
+        command.add("-Dquarkus.management.port=" + freePort());
+        // Keep the run off the tile upstream and its file caches out of the way
+        command.add("-Dtiles.pack.enabled=false");
+        // Sessions stand in for visitors behind the Fly proxy; here the proxy is the loopback
+        command.add("-Dadmission.trusted-proxies=127.0.0.1,::1");
+        command.add("-Dstatic-files.cache-dir=" + workDir.resolve("static"));
+        command.add("-Dtiles.cache-dir=" + workDir.resolve("tiles"));
+        command.add("-jar");
+        command.add(jar.toAbsolutePath().toString());
+
+        Files.createDirectories(log.toAbsolutePath().getParent());
+        System.out.println("[loadtest] Starting " + String.join(" ", command));
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        AppProcess app = new AppProcess(process, URI.create("http://127.0.0.1:" + port + "/"), log);
+        try {
+            app.awaitReady(config.getDuration("loadtest.startup-timeout"));
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            app.close();
+            throw e;
+        }
+        return app;
+    }
+
+    URI getBaseUrl() {
+        return baseUrl;
+    }
+
+    private void awaitReady(Duration timeout) throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(baseUrl.resolve("/api/catalog/en"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("The application exited with status " + process.exitValue()
+                        + " during startup, see " + log);
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    System.out.println("[loadtest] Application ready at " + baseUrl + " after "
+                            + (System.nanoTime() - start) / 1_000_000 + " ms");
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(250);
+        }
+        throw new IllegalStateException("The application did not start within " + timeout + ", see " + log);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly().waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
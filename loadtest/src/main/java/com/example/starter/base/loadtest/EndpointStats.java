@@ -0,0 +1,56 @@
+package com.example.starter.base.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latencies, bytes and errors of one endpoint. Keeps every sample, so percentiles are exact;
+ * a few minutes of load fit easily.
+ */
+final class EndpointStats {
+
+    /**
+     * The numbers for the report. Latencies are in milliseconds.
+     */
+    record Summary(String endpoint, long requests, long errors, double throughput,
+                   double p50, double p99, double p999, double max, long bytes) {
+    }
+
+    private final String endpoint;
+    private long[] latencies = new long[1024];
+    private int count;
+    private long bytes;
+    private long errors;
+
+    EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    synchronized void record(long nanos, long bodyBytes) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = nanos;
+        bytes += bodyBytes;
+    }
+
+    synchronized void recordError() {
+        errors++;
+    }
+
+    synchronized Summary summarize(double seconds) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        return new Summary(endpoint, count, errors, count / seconds,
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 0.999),
+                count == 0 ? 0 : sorted[count - 1] / 1e6, bytes);
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        // Nearest rank
+        int rank = (int) Math.ceil(fraction * sorted.length);
+        return sorted[Math.max(rank, 1) - 1] / 1e6;
+    }
+}
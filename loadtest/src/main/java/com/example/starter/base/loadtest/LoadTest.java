@@ -0,0 +1,103 @@
+package com.example.starter.base.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Replays tourist sessions against the app and checks the latencies against the SLO gates
+ * in {@code loadtest.properties}. Throws, and so fails the build, when a gate is missed.
+ *
+ * Unless {@code loadtest.url} is set, the production jar is started first, within the
+ * configured memory and CPU budget (see {@link AppProcess}), and stopped afterwards.
+ * Each of the {@code loadtest.users} virtual users starts during the ramp-up and then runs
+ * one {@link TouristSession} after another. Only requests completing after the warmup and
+ * before the end count.
+ */
+public final class LoadTest {
+
+    private static final long PROGRESS_INTERVAL_MILLIS = 10_000;
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.load(args);
+        Path reportPath = Path.of(config.get("loadtest.report"));
+        String url = config.get("loadtest.url");
+
+        Report report;
+        try (AppProcess app = url.isEmpty() ? AppProcess.start(config, reportPath.resolveSibling("app.log")) : null) {
+            report = run(config, app != null ? app.getBaseUrl() : URI.create(url));
+        }
+        report.print();
+        report.write(reportPath);
+        if (!report.failures().isEmpty()) {
+            throw new IllegalStateException("Missed " + report.failures().size() + " SLO gates: "
+                    + String.join("; ", report.failures()));
+        }
+    }
+
+    private static Report run(LoadTestConfig config, URI baseUrl) throws Exception {
+        Site site = Site.discover(newClient(), baseUrl);
+        TouristSession.Mix mix = TouristSession.Mix.of(config);
+        for (String language : mix.languages()) {
+            if (site.getEntries(language) == null) {
+                throw new IllegalArgumentException("No catalog for session.language." + language);
+            }
+        }
+        System.out.println("[loadtest] " + site.getEntries("en").size() + " POIs, " + site.getBundle().size()
+                + " bundle files, sync revision " + site.getRevision());
+
+        int users = config.getInt("loadtest.users");
+        Duration rampUp = config.getDuration("loadtest.ramp-up");
+        long start = System.nanoTime();
+        long windowStart = start + config.getDuration("loadtest.warmup").toNanos();
+        long end = windowStart + config.getDuration("loadtest.duration").toNanos();
+        Metrics metrics = new Metrics(windowStart, end);
+        long seed = config.getLong("loadtest.seed");
+
+        List<Thread> threads = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            long delay = rampUp.toMillis() * i / users;
+            Random random = new Random(seed + i);
+            Thread thread = new Thread(() -> {
+                try {
+                    Thread.sleep(delay);
+                    HttpClient client = newClient();
+                    while (System.nanoTime() - end < 0) {
+                        new TouristSession(client, baseUrl, site, mix, metrics, end, random).run();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "tourist-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+            thread.start();
+        }
+
+        while (System.nanoTime() - end < 0) {
+            Thread.sleep(Math.min(PROGRESS_INTERVAL_MILLIS, Math.max(1, (end - System.nanoTime()) / 1_000_000)));
+            long elapsed = (System.nanoTime() - start) / 1_000_000_000;
+            System.out.println("[loadtest] " + elapsed + " s: " + metrics.getCompleted() + " requests"
+                    + (System.nanoTime() - windowStart < 0 ? " (warming up)" : ""));
+        }
+        for (Thread thread : threads) {
+            // Requests in flight at the end finish within their timeout
+            thread.join(Duration.ofSeconds(30).toMillis());
+        }
+        return Report.of(metrics, users, config);
+    }
+
+    private static HttpClient newClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.starter.base.loadtest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * Settings from {@code loadtest.properties}, overridden by {@code key=value} arguments and
+ * then by system properties, so {@code -Dloadtest.users=200} works with Maven and plain java.
+ */
+final class LoadTestConfig {
+
+    private static final String[] PREFIXES = {"loadtest.", "session.", "slo."};
+
+    private final Properties properties;
+
+    private LoadTestConfig(Properties properties) {
+        this.properties = properties;
+    }
+
+    static LoadTestConfig load(String[] args) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream input = LoadTestConfig.class.getResourceAsStream("/loadtest.properties")) {
+            if (input == null) {
+                throw new IllegalStateException("loadtest.properties is missing from the classpath");
+            }
+            properties.load(new InputStreamReader(input, StandardCharsets.UTF_8));
+        }
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected <key>=<value>: " + arg);
+            }
+            properties.setProperty(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        for (String name : System.getProperties().stringPropertyNames()) {
+            for (String prefix : PREFIXES) {
+                if (name.startsWith(prefix)) {
+                    properties.setProperty(name, System.getProperty(name));
+                }
+            }
+        }
+        return new LoadTestConfig(properties);
+    }
+
+    String get(String key) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing setting " + key);
+        }
+        return value.trim();
+    }
+
+    int getInt(String key) {
+        return Integer.parseInt(get(key));
+    }
+
+    long getLong(String key) {
+        return Long.parseLong(get(key));
+    }
+
+    double getDouble(String key) {
+        return Double.parseDouble(get(key));
+    }
+
+    Duration getDuration(String key) {
+        return Duration.parse(get(key));
+    }
+
+    /**
+     * All settings starting with the prefix, without it, in key order.
+     */
+    Map<String, String> withPrefix(String prefix) {
+        Map<String, String> matching = new TreeMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            if (name.startsWith(prefix)) {
+                matching.put(name.substring(prefix.length()), properties.getProperty(name).trim());
+            }
+        }
+        return matching;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.starter.base.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects the requests completed inside the measurement window, per endpoint. Requests
+ * during warmup or after the end are counted for progress output only.
+ */
+final class Metrics {
+
+    private final long windowStart;
+    private final long windowEnd;
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final AtomicLong completed = new AtomicLong();
+
+    Metrics(long windowStart, long windowEnd) {
+        this.windowStart = windowStart;
+        this.windowEnd = windowEnd;
+    }
+
+    void record(String endpoint, long startNanos, long endNanos, long bodyBytes) {
+        completed.incrementAndGet();
+        if (inWindow(endNanos)) {
+            stats(endpoint).record(endNanos - startNanos, bodyBytes);
+        }
+    }
+
+    void recordError(String endpoint, long endNanos) {
+        completed.incrementAndGet();
+        if (inWindow(endNanos)) {
+            stats(endpoint).recordError();
+        }
+    }
+
+    long getCompleted() {
+        return completed.get();
+    }
+
+    List<EndpointStats.Summary> summarize() {
+        double seconds = (windowEnd - windowStart) / 1e9;
+        List<EndpointStats.Summary> summaries = new ArrayList<>();
+        for (String endpoint : TouristSession.ENDPOINTS) {
+            EndpointStats stats = endpoints.get(endpoint);
+            if (stats != null) {
+                summaries.add(stats.summarize(seconds));
+            }
+        }
+        return summaries;
+    }
+
+    double getWindowSeconds() {
+        return (windowEnd - windowStart) / 1e9;
+    }
+
+    private boolean inWindow(long nanos) {
+        return nanos - windowStart >= 0 && nanos - windowEnd < 0;
+    }
+
+    private EndpointStats stats(String endpoint) {
+        return endpoints.computeIfAbsent(endpoint, EndpointStats::new);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.starter.base.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The results of a run and the SLO gates checked against them.
+ */
+record Report(double seconds, int users, long requests, long errors, double throughput,
+              List<EndpointStats.Summary> endpoints, List<String> failures) {
+
+    private static final List<String> PERCENTILES = List.of("p50", "p99", "p999");
+
+    static Report of(Metrics metrics, int users, LoadTestConfig config) {
+        List<EndpointStats.Summary> endpoints = metrics.summarize();
+        long requests = 0;
+        long errors = 0;
+        for (EndpointStats.Summary summary : endpoints) {
+            requests += summary.requests();
+            errors += summary.errors();
+        }
+        double seconds = metrics.getWindowSeconds();
+        double throughput = requests / seconds;
+
+        List<String> failures = new ArrayList<>();
+        double errorRate = requests + errors == 0 ? 0 : (double) errors / (requests + errors);
+        if (errorRate > config.getDouble("slo.error-rate")) {
+            failures.add(String.format(Locale.ROOT, "error rate %.4f is above %s", errorRate, config.get("slo.error-rate")));
+        }
+        if (throughput < config.getDouble("slo.throughput")) {
+            failures.add(String.format(Locale.ROOT, "throughput %.1f req/s is below %s", throughput, config.get("slo.throughput")));
+        }
+        for (Map.Entry<String, String> gate : config.withPrefix("slo.").entrySet()) {
+            int separator = gate.getKey().lastIndexOf('.');
+            if (separator < 0) {
+                continue;
+            }
+            String endpoint = gate.getKey().substring(0, separator);
+            String percentile = gate.getKey().substring(separator + 1);
+            if (!PERCENTILES.contains(percentile)) {
+                throw new IllegalArgumentException("Unknown percentile in slo." + gate.getKey());
+            }
+            EndpointStats.Summary summary = endpoints.stream()
+                    .filter(candidate -> candidate.endpoint().equals(endpoint))
+                    .findFirst()
+                    .orElse(null);
+            if (summary == null || summary.requests() == 0) {
+                // Not every mix reaches every endpoint, e.g. without shared links
+                continue;
+            }
+            double actual = switch (percentile) {
+                case "p50" -> summary.p50();
+                case "p99" -> summary.p99();
+                default -> summary.p999();
+            };
+            double limit = Double.parseDouble(gate.getValue());
+            if (actual > limit) {
+                failures.add(String.format(Locale.ROOT, "%s %s is %.1f ms, above %s ms", endpoint, percentile, actual, gate.getValue()));
+            }
+        }
+        return new Report(seconds, users, requests, errors, throughput, endpoints, List.copyOf(failures));
+    }
+
+    void print() {
+        System.out.printf(Locale.ROOT, "%n[loadtest] %d users, %.0f s measured, %d requests, %d errors, %.1f req/s%n%n",
+                users, seconds, requests, errors, throughput);
+        System.out.printf(Locale.ROOT, "%-12s %9s %7s %9s %9s %9s %9s %9s %11s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "KB served");
+        for (EndpointStats.Summary summary : endpoints) {
+            System.out.printf(Locale.ROOT, "%-12s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f %11d%n",
+                    summary.endpoint(), summary.requests(), summary.errors(), summary.throughput(),
+                    summary.p50(), summary.p99(), summary.p999(), summary.max(), summary.bytes() / 1024);
+        }
+        System.out.println();
+        if (failures.isEmpty()) {
+            System.out.println("[loadtest] All SLO gates passed");
+        } else {
+            for (String failure : failures) {
+                System.out.println("[loadtest] SLO missed: " + failure);
+            }
+        }
+    }
+
+    void write(Path path) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(path.toFile(), this);
+        System.out.println("[loadtest] Report written to " + path);
+    }
+}
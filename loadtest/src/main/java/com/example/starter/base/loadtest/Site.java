@@ -0,0 +1,111 @@
+package com.example.starter.base.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * What the sessions need to know about the instance under test, read once before the run:
+ * the bundle files the shell loads, every POI's URLs per language and the current sync
+ * revision.
+ */
+final class Site {
+
+    static final List<String> LANGUAGES = List.of("en", "sl", "de", "nl");
+
+    private static final Pattern BUNDLE_FILE = Pattern.compile("(?:src|href)=\"/?(VAADIN/build/[^\"]+)\"");
+
+    /**
+     * One POI in one language. URLs are null when the catalog has none.
+     */
+    record Entry(String name, String displayName, String thumbnailUrl, String imageUrl, String descriptionUrl,
+                 List<String> galleryThumbnailUrls) {
+    }
+
+    private final List<String> bundle;
+    private final Map<String, List<Entry>> entries;
+    private final String epoch;
+    private final long revision;
+
+    private Site(List<String> bundle, Map<String, List<Entry>> entries, String epoch, long revision) {
+        this.bundle = bundle;
+        this.entries = entries;
+        this.epoch = epoch;
+        this.revision = revision;
+    }
+
+    static Site discover(HttpClient client, URI baseUrl) throws IOException, InterruptedException {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        Set<String> bundle = new LinkedHashSet<>();
+        Matcher matcher = BUNDLE_FILE.matcher(fetch(client, baseUrl.resolve("/")));
+        while (matcher.find()) {
+            bundle.add("/" + matcher.group(1));
+        }
+
+        Map<String, List<Entry>> entries = new LinkedHashMap<>();
+        for (String language : LANGUAGES) {
+            JsonNode document = objectMapper.readTree(fetch(client, baseUrl.resolve("/api/catalog/" + language)));
+            List<Entry> pois = new ArrayList<>();
+            for (JsonNode poi : document.path("pois")) {
+                List<String> gallery = new ArrayList<>();
+                for (JsonNode image : poi.path("gallery")) {
+                    gallery.add(image.path("thumbnailUrl").asText());
+                }
+                pois.add(new Entry(poi.path("name").asText(), poi.path("displayName").asText(),
+                        text(poi, "thumbnailUrl"), text(poi, "imageUrl"), text(poi, "descriptionUrl"),
+                        List.copyOf(gallery)));
+            }
+            if (pois.isEmpty()) {
+                throw new IllegalStateException("The " + language + " catalog has no POIs");
+            }
+            entries.put(language, List.copyOf(pois));
+        }
+
+        JsonNode delta = objectMapper.readTree(fetch(client, baseUrl.resolve("/api/sync")));
+        return new Site(List.copyOf(bundle), entries, delta.path("epoch").asText(), delta.path("revision").asLong());
+    }
+
+    List<String> getBundle() {
+        return bundle;
+    }
+
+    List<Entry> getEntries(String language) {
+        return entries.get(language);
+    }
+
+    String getEpoch() {
+        return epoch;
+    }
+
+    long getRevision() {
+        return revision;
+    }
+
+    private static String fetch(HttpClient client, URI uri) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(uri).build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + uri + " returned " + response.statusCode());
+        }
+        return response.body();
+    }
+
+    private static String text(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() || value.asText().isEmpty() ? null : value.asText();
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.starter.base.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * One tourist's visit, making the requests the React client makes:
+ *
+ * <ol>
+ * <li>first visits arriving on a shared link get the server-rendered POI page first</li>
+ * <li>the app shell, and on a first visit the Vite bundle it loads</li>
+ * <li>the offline store sync, from scratch on a first visit and as a delta otherwise</li>
+ * <li>the first page of the list, and on a first visit the thumbnails on it</li>
+ * <li>a few detail pages: description, main image and the thumbnails of the gallery the
+ * catalog lists</li>
+ * <li>maybe a search, and maybe a language switch, after which everything is fetched in
+ * the new language. The switch itself only fetches the first list page again.</li>
+ * </ol>
+ *
+ * Returning visitors have the bundle and catalog in their service worker already. Think
+ * times between steps are exponentially distributed. Each session comes from its own address
+ * in {@code Fly-Client-IP}, as visitors behind the Fly proxy do, so the server's per-client
+ * admission control budgets them separately.
+ */
+final class TouristSession {
+
+    static final String PAGE = "page";
+    static final String SHELL = "shell";
+    static final String BUNDLE = "bundle";
+    static final String SYNC = "sync";
+    static final String LIST = "list";
+    static final String THUMBNAIL = "thumbnail";
+    static final String SEARCH = "search";
+    static final String DESCRIPTION = "description";
+    static final String IMAGE = "image";
+    static final String GALLERY = "gallery";
+
+    static final List<String> ENDPOINTS = List.of(PAGE, SHELL, BUNDLE, SYNC, LIST, THUMBNAIL, SEARCH, DESCRIPTION, IMAGE, GALLERY);
+
+    // Cards per list page, as MainView.tsx requests them
+    private static final int LIST_PAGE_SIZE = 24;
+
+    /**
+     * The session mix from the {@code session.*} settings.
+     */
+    record Mix(double returning, double sharedLink, double search, double localeSwitch, int maxDetails,
+               int thumbnails, List<String> languages, double[] languageWeights, Duration thinkTime) {
+
+        static Mix of(LoadTestConfig config) {
+            List<String> languages = List.copyOf(config.withPrefix("session.language.").keySet());
+            double[] weights = new double[languages.size()];
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = config.getDouble("session.language." + languages.get(i));
+            }
+            return new Mix(config.getDouble("session.returning"), config.getDouble("session.shared-link"),
+                    config.getDouble("session.search"), config.getDouble("session.locale-switch"),
+                    config.getInt("session.max-details"), config.getInt("session.thumbnails"),
+                    languages, weights, config.getDuration("loadtest.think-time"));
+        }
+    }
+
+    private final HttpClient client;
+    private final URI baseUrl;
+    private final Site site;
+    private final Mix mix;
+    private final Metrics metrics;
+    private final long deadline;
+    private final Random random;
+    private final String clientAddress;
+
+    private String language;
+
+    TouristSession(HttpClient client, URI baseUrl, Site site, Mix mix, Metrics metrics, long deadline, Random random) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.site = site;
+        this.mix = mix;
+        this.metrics = metrics;
+        this.deadline = deadline;
+        this.random = random;
+        this.clientAddress = "10." + random.nextInt(256) + "." + random.nextInt(256) + "." + random.nextInt(256);
+    }
+
+    void run() throws InterruptedException {
+        language = pickLanguage();
+        boolean returning = chance(mix.returning());
+
+        if (!returning && chance(mix.sharedLink())) {
+            String name = pickEntry().name();
+            get(PAGE, "/poi/" + encode(name) + ("en".equals(language) ? "" : "?lang=" + language));
+            think();
+        }
+
+        get(SHELL, "/");
+        if (!returning) {
+            for (String file : site.getBundle()) {
+                get(BUNDLE, file);
+            }
+        }
+        get(SYNC, returning
+                ? "/api/sync?epoch=" + encode(site.getEpoch()) + "&since=" + site.getRevision()
+                : "/api/sync?epoch=&since=0");
+        get(LIST, "/api/catalog/" + language + "/page?limit=" + LIST_PAGE_SIZE);
+        if (!returning) {
+            List<Site.Entry> entries = site.getEntries(language);
+            for (int i = 0; i < Math.min(mix.thumbnails(), entries.size()); i++) {
+                if (entries.get(i).thumbnailUrl() != null) {
+                    get(THUMBNAIL, entries.get(i).thumbnailUrl());
+                }
+            }
+        }
+
+        int details = 1 + random.nextInt(mix.maxDetails());
+        int switchAt = chance(mix.localeSwitch()) ? random.nextInt(details) : -1;
+        int searchAt = chance(mix.search()) ? random.nextInt(details) : -1;
+        for (int i = 0; i < details && !isOver(); i++) {
+            think();
+            if (i == switchAt) {
+                String previous = language;
+                while (mix.languages().size() > 1 && language.equals(previous)) {
+                    language = pickLanguage();
+                }
+                get(LIST, "/api/catalog/" + language + "/page?limit=" + LIST_PAGE_SIZE);
+            }
+            if (i == searchAt) {
+                get(SEARCH, "/api/search?q=" + encode(searchTerm()) + "&lang=" + language + "&limit=50");
+                think();
+            }
+            Site.Entry entry = pickEntry();
+            if (entry.descriptionUrl() != null) {
+                get(DESCRIPTION, entry.descriptionUrl());
+            }
+            if (entry.imageUrl() != null) {
+                get(IMAGE, entry.imageUrl());
+            }
+            for (String url : entry.galleryThumbnailUrls()) {
+                get(GALLERY, url);
+            }
+        }
+    }
+
+    private void get(String endpoint, String path) throws InterruptedException {
+        if (isOver()) {
+            return;
+        }
+        HttpRequest request = HttpRequest.newBuilder(baseUrl.resolve(path))
+                .header("Accept-Encoding", "gzip, deflate, br")
+                .header("Accept-Language", language)
+                .header("Fly-Client-IP", clientAddress)
+                .timeout(Duration.ofSeconds(30))
+                .build();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            long end = System.nanoTime();
+            int status = response.statusCode();
+            if (status < 400) {
+                metrics.record(endpoint, start, end, response.body().length);
+            } else {
+                metrics.recordError(endpoint, end);
+            }
+        } catch (IOException e) {
+            metrics.recordError(endpoint, System.nanoTime());
+        }
+    }
+
+    private void think() throws InterruptedException {
+        long mean = mix.thinkTime().toMillis();
+        if (mean > 0) {
+            long pause = (long) (-Math.log(1 - random.nextDouble()) * mean);
+            Thread.sleep(Math.min(pause, Math.max(0, (deadline - System.nanoTime()) / 1_000_000)));
+        }
+    }
+
+    private boolean isOver() {
+        return System.nanoTime() - deadline >= 0;
+    }
+
+    private boolean chance(double probability) {
+        return random.nextDouble() < probability;
+    }
+
+    private String pickLanguage() {
+        double total = 0;
+        for (double weight : mix.languageWeights()) {
+            total += weight;
+        }
+        double pick = random.nextDouble() * total;
+        for (int i = 0; i < mix.languageWeights().length; i++) {
+            pick -= mix.languageWeights()[i];
+            if (pick < 0) {
+                return mix.languages().get(i);
+            }
+        }
+        return mix.languages().get(mix.languages().size() - 1);
+    }
+
+    private Site.Entry pickEntry() {
+        List<Site.Entry> entries = site.getEntries(language);
+        return entries.get(random.nextInt(entries.size()));
+    }
+
+    private String searchTerm() {
+        // What a tourist types: the start of a word from some POI's title
+        String[] words = pickEntry().displayName().split("\\s+");
+        String word = words[random.nextInt(words.length)];
+        return word.substring(0, Math.min(word.length(), 3 + random.nextInt(4))).toLowerCase(Locale.ROOT);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}
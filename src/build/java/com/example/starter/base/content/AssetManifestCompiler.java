@@ -0,0 +1,50 @@
+package com.example.starter.base.content;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Build step that hashes the static assets into {@link AssetManifest#RESOURCE_PATH}.
+ *
+ * Run by the exec-maven-plugin in the process-classes phase, after {@link ImageVariantCompiler},
+ * with the static resources directory, the manifest file to write, and the directories to
+ * fingerprint. Files whose names already carry a hash, such as the image variants, are left
+ * out; they are immutable by name. So are the compressed siblings of a previous build, see
+ * {@link PrecompressCompiler}.
+ */
+public final class AssetManifestCompiler {
+
+    private AssetManifestCompiler() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            throw new IllegalArgumentException("Usage: AssetManifestCompiler <resources dir> <manifest file> <dir>...");
+        }
+        Path resources = Path.of(args[0]);
+        Path manifest = Path.of(args[1]);
+
+        List<String> directories = Arrays.asList(args).subList(2, args.length);
+        for (String directory : directories) {
+            Path dir = resources.resolve(directory);
+            if (!Files.isDirectory(dir)) {
+                throw new IllegalStateException("Asset directory " + dir + " does not exist");
+            }
+        }
+        Map<String, AssetManifest.Asset> assets = AssetManifest.scan(resources, directories);
+        long totalBytes = assets.values().stream().mapToLong(AssetManifest.Asset::size).sum();
+
+        Files.createDirectories(manifest.getParent());
+        try (Writer writer = Files.newBufferedWriter(manifest, StandardCharsets.UTF_8)) {
+            new AssetManifest(assets).write(writer);
+        }
+        System.out.println("[assets] Fingerprinted " + assets.size() + " assets (" + totalBytes / 1024 + " KB) into "
+                + manifest);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.starter.base.content;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Encodes images as <a href="https://blurha.sh">BlurHash</a> strings: a few cosine
+ * components of the image in about 30 characters, which the client decodes into a blurred
+ * preview while the real image loads.
+ *
+ * Used by {@link ImageVariantCompiler} at build time; the client's decoder is
+ * {@code utils/blurhash.ts}.
+ */
+final class BlurHash {
+
+    private static final String BASE83 =
+            "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz#$%*+,-.:;=?@[]^_{|}~";
+
+    private BlurHash() {
+    }
+
+    /**
+     * Encodes with {@code componentsX} by {@code componentsY} components, each 1 to 9. Pass
+     * a small copy of the image, the result is the same and it costs a fraction.
+     */
+    static String encode(BufferedImage image, int componentsX, int componentsY) {
+        if (componentsX < 1 || componentsX > 9 || componentsY < 1 || componentsY > 9) {
+            throw new IllegalArgumentException("Components must be between 1 and 9");
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int[] rgb = image.getRGB(0, 0, width, height, null, 0, width);
+        double[] red = new double[rgb.length];
+        double[] green = new double[rgb.length];
+        double[] blue = new double[rgb.length];
+        for (int i = 0; i < rgb.length; i++) {
+            red[i] = toLinear((rgb[i] >> 16) & 0xff);
+            green[i] = toLinear((rgb[i] >> 8) & 0xff);
+            blue[i] = toLinear(rgb[i] & 0xff);
+        }
+
+        double[][] factors = new double[componentsX * componentsY][];
+        for (int j = 0; j < componentsY; j++) {
+            for (int i = 0; i < componentsX; i++) {
+                double normalization = i == 0 && j == 0 ? 1 : 2;
+                double r = 0;
+                double g = 0;
+                double b = 0;
+                for (int y = 0; y < height; y++) {
+                    double basisY = Math.cos(Math.PI * j * y / height);
+                    for (int x = 0; x < width; x++) {
+                        double basis = basisY * Math.cos(Math.PI * i * x / width);
+                        int pixel = y * width + x;
+                        r += basis * red[pixel];
+                        g += basis * green[pixel];
+                        b += basis * blue[pixel];
+                    }
+                }
+                double scale = normalization / (width * height);
+                factors[j * componentsX + i] = new double[]{r * scale, g * scale, b * scale};
+            }
+        }
+
+        StringBuilder hash = new StringBuilder();
+        encode83((componentsX - 1) + (componentsY - 1) * 9, 1, hash);
+
+        double maximum = 1;
+        if (factors.length > 1) {
+            double actualMaximum = 0;
+            for (int i = 1; i < factors.length; i++) {
+                for (double value : factors[i]) {
+                    actualMaximum = Math.max(actualMaximum, Math.abs(value));
+                }
+            }
+            int quantizedMaximum = (int) Math.max(0, Math.min(82, Math.floor(actualMaximum * 166 - 0.5)));
+            maximum = (quantizedMaximum + 1) / 166.0;
+            encode83(quantizedMaximum, 1, hash);
+        } else {
+            encode83(0, 1, hash);
+        }
+
+        double[] dc = factors[0];
+        encode83((toSrgb(dc[0]) << 16) + (toSrgb(dc[1]) << 8) + toSrgb(dc[2]), 4, hash);
+        for (int i = 1; i < factors.length; i++) {
+            double[] ac = factors[i];
+            encode83(quantizeAc(ac[0], maximum) * 19 * 19 + quantizeAc(ac[1], maximum) * 19 + quantizeAc(ac[2], maximum),
+                    2, hash);
+        }
+        return hash.toString();
+    }
+
+    private static int quantizeAc(double value, double maximum) {
+        double scaled = Math.signum(value / maximum) * Math.sqrt(Math.abs(value / maximum));
+        return (int) Math.max(0, Math.min(18, Math.floor(scaled * 9 + 9.5)));
+    }
+
+    private static void encode83(int value, int length, StringBuilder out) {
+        for (int i = 1; i <= length; i++) {
+            int digit = (value / (int) Math.pow(83, length - i)) % 83;
+            out.append(BASE83.charAt(digit));
+        }
+    }
+
+    private static double toLinear(int value) {
+        double v = value / 255.0;
+        return v <= 0.04045 ? v / 12.92 : Math.pow((v + 0.055) / 1.055, 2.4);
+    }
+
+    private static int toSrgb(double value) {
+        double v = Math.max(0, Math.min(1, value));
+        return v <= 0.0031308
+                ? (int) Math.round(v * 12.92 * 255)
+                : (int) Math.round((1.055 * Math.pow(v, 1 / 2.4) - 0.055) * 255);
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.starter.base.content;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Build step that compiles the POI text files into {@link CatalogArtifact#RESOURCE_PATH}.
+ *
+ * Run by the exec-maven-plugin in the process-classes phase with two arguments: the static
+ * resources directory and the artifact file to write. Any malformed line fails the build.
+ */
+public final class CatalogCompiler {
+
+    private CatalogCompiler() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: CatalogCompiler <resources dir> <output file>");
+        }
+        Path resources = Path.of(args[0]);
+        Path output = Path.of(args[1]);
+
+        CatalogContentParser parser = new CatalogContentParser();
+        CatalogContent content = parser.parse(ContentSource.directory(resources));
+
+        for (String warning : parser.getWarnings()) {
+            System.out.println("[catalog] WARNING " + warning);
+        }
+        if (parser.hasErrors()) {
+            for (String error : parser.getErrors()) {
+                System.err.println("[catalog] ERROR " + error);
+            }
+            throw new IllegalStateException("POI content has " + parser.getErrors().size()
+                    + " error(s), see the messages above");
+        }
+
+        Files.createDirectories(output.getParent());
+        try (OutputStream out = Files.newOutputStream(output)) {
+            CatalogArtifact.write(content, out);
+        }
+        System.out.println("[catalog] Compiled " + content.getPointsOfInterest().size() + " POIs into "
+                + output + " (" + Files.size(output) + " bytes)");
+    }
+}
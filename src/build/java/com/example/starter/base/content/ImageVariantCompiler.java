@@ -0,0 +1,219 @@
+package com.example.starter.base.content;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Build step that downscales every image in {@code images/} to the widths in {@link #WIDTHS}.
+ *
+ * Run by the exec-maven-plugin in the process-classes phase with three arguments: the static
+ * resources directory, the variant cache directory, and the manifest file to write. Variants
+ * are cached by the SHA-256 of the source image, so only new or changed images are decoded
+ * and scaled again; the cache lives outside {@code target/} and survives {@code mvn clean}.
+ *
+ * Every image also gets a {@link BlurHash} from a small copy, so clients can show a blurred
+ * preview at the right aspect ratio before the image arrives.
+ *
+ * WebP sources are decoded through the ImageIO WebP plugin on the build classpath. Variants
+ * are written as JPEG, or PNG when the source has transparency, since the JDK has no WebP
+ * encoder. Images no reader understands keep being served as they are.
+ */
+public final class ImageVariantCompiler {
+
+    static final int[] WIDTHS = {320, 640, 1280};
+
+    private static final float JPEG_QUALITY = 0.8f;
+
+    // Width of the copy the blurhash is computed from; more pixels give the same hash
+    private static final int PLACEHOLDER_SOURCE_WIDTH = 32;
+
+    private ImageVariantCompiler() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            throw new IllegalArgumentException("Usage: ImageVariantCompiler <resources dir> <cache dir> <manifest file>");
+        }
+        Path resources = Path.of(args[0]);
+        Path cache = Path.of(args[1]);
+        Path manifest = Path.of(args[2]);
+
+        Path images = resources.resolve("images");
+        Path output = resources.resolve(ImageVariants.VARIANTS_DIR);
+        Files.createDirectories(cache);
+        Files.createDirectories(output);
+
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(images)) {
+            files = stream.filter(Files::isRegularFile).sorted().toList();
+        }
+
+        List<ImageVariants.Source> sources = new ArrayList<>();
+        int generated = 0;
+        long originalBytes = 0;
+        long smallestBytes = 0;
+        for (Path file : files) {
+            byte[] bytes = Files.readAllBytes(file);
+            String hash = AssetManifest.contentHash(bytes);
+
+            ImageVariants.Source source = readCached(cache, file.getFileName().toString(), hash);
+            if (source == null) {
+                source = generate(file, bytes, hash, cache);
+                if (source == null) {
+                    continue;
+                }
+                generated++;
+            }
+
+            for (int width : source.widths()) {
+                Files.copy(cache.resolve(cacheFileName(source, width)), output.resolve(source.variantFileName(width)),
+                        StandardCopyOption.REPLACE_EXISTING);
+            }
+            if (!source.widths().isEmpty()) {
+                originalBytes += bytes.length;
+                smallestBytes += Files.size(output.resolve(source.variantFileName(source.widths().get(0))));
+            }
+            sources.add(source);
+        }
+
+        Files.createDirectories(manifest.getParent());
+        try (Writer writer = Files.newBufferedWriter(manifest, StandardCharsets.UTF_8)) {
+            new ImageVariants(sources).write(writer);
+        }
+        System.out.println("[images] " + sources.size() + " images, " + generated + " regenerated, smallest variants "
+                + smallestBytes / 1024 + " KB instead of " + originalBytes / 1024 + " KB");
+    }
+
+    private static ImageVariants.Source generate(Path file, byte[] bytes, String hash, Path cache) throws IOException {
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(bytes));
+        if (image == null) {
+            System.out.println("[images] WARNING no ImageIO reader for " + file.getFileName() + ", serving the original only");
+            return null;
+        }
+
+        boolean transparent = image.getColorModel().hasAlpha();
+        String extension = transparent ? "png" : "jpg";
+        List<Integer> widths = new ArrayList<>();
+        for (int width : WIDTHS) {
+            if (width >= image.getWidth()) {
+                break;
+            }
+            BufferedImage scaled = scale(image, width, transparent);
+            Path target = cache.resolve(hash + "-" + width + "." + extension);
+            if (transparent) {
+                ImageIO.write(scaled, "png", target.toFile());
+            } else {
+                writeJpeg(scaled, target);
+            }
+            widths.add(width);
+        }
+
+        String placeholder = placeholder(image);
+        ImageVariants.Source source = new ImageVariants.Source(file.getFileName().toString(), hash,
+                image.getWidth(), image.getHeight(), extension, List.copyOf(widths), placeholder);
+        Files.writeString(cache.resolve(hash + ".meta"), image.getWidth() + ";" + image.getHeight() + ";"
+                + extension + ";" + String.join(",", widths.stream().map(String::valueOf).toList()) + ";" + placeholder);
+        return source;
+    }
+
+    private static ImageVariants.Source readCached(Path cache, String name, String hash) throws IOException {
+        Path meta = cache.resolve(hash + ".meta");
+        if (!Files.exists(meta)) {
+            return null;
+        }
+        String[] fields = Files.readString(meta).trim().split(";", 5);
+        if (fields.length != 5) {
+            // Written before placeholders were added
+            return null;
+        }
+        List<Integer> widths = new ArrayList<>();
+        if (!fields[3].isEmpty()) {
+            for (String width : fields[3].split(",")) {
+                widths.add(Integer.parseInt(width));
+            }
+        }
+        ImageVariants.Source source = new ImageVariants.Source(name, hash, Integer.parseInt(fields[0]),
+                Integer.parseInt(fields[1]), fields[2], List.copyOf(widths), fields[4]);
+        for (int width : widths) {
+            if (!Files.exists(cache.resolve(cacheFileName(source, width)))) {
+                return null;
+            }
+        }
+        return source;
+    }
+
+    /**
+     * A blurhash with four components along the longer side and three along the shorter.
+     */
+    private static String placeholder(BufferedImage image) {
+        int width = Math.min(PLACEHOLDER_SOURCE_WIDTH, image.getWidth());
+        BufferedImage small = scale(image, width, false);
+        boolean landscape = image.getWidth() >= image.getHeight();
+        return BlurHash.encode(small, landscape ? 4 : 3, landscape ? 3 : 4);
+    }
+
+    private static String cacheFileName(ImageVariants.Source source, int width) {
+        return source.hash() + "-" + width + "." + source.extension();
+    }
+
+    /**
+     * Halves the image until it is within 2x of the target width, then does one bicubic step;
+     * a single large bicubic step skips most source pixels and looks aliased.
+     */
+    private static BufferedImage scale(BufferedImage image, int width, boolean transparent) {
+        BufferedImage current = image;
+        while (current.getWidth() / 2 >= width) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2, transparent);
+        }
+        int height = Math.max(1, Math.round((float) image.getHeight() * width / image.getWidth()));
+        return draw(current, width, height, transparent);
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height, boolean transparent) {
+        BufferedImage target = new BufferedImage(width, height,
+                transparent ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            if (!transparent) {
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, width, height);
+            }
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    private static void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(JPEG_QUALITY);
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+}
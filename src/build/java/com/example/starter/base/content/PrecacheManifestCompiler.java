@@ -0,0 +1,213 @@
+package com.example.starter.base.content;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Build step that writes the service worker's precache manifest, {@code precache-manifest.js},
+ * from the resources that actually exist.
+ *
+ * Run by the exec-maven-plugin in the process-classes phase, after the catalog, the image
+ * variants and the asset manifest, with the static resources directory, the directory
+ * holding those three artifacts and the Leaflet version. Entries fall into three tiers:
+ * <ul>
+ *   <li>critical: the app shell, Leaflet, UI images and the catalog per language, cached on install</li>
+ *   <li>background: one thumbnail per POI, fetched once the app is idle</li>
+ *   <li>lazy: full-size POI images, other variants and description files, cached on first use</li>
+ * </ul>
+ * The manifest's version hashes every entry, so any change to it installs a new service worker.
+ */
+public final class PrecacheManifestCompiler {
+
+    public static final String OUTPUT_FILE = "precache-manifest.js";
+
+    // Smallest variant used for the background tier, matching the list thumbnails
+    private static final int THUMBNAIL_WIDTH = 320;
+
+    // Shell files outside images/, relative to the resources directory
+    private static final List<String> SHELL_DIRS = List.of("frontend", "js", "styles", "icons");
+    private static final Set<String> SHELL_FILES = Set.of(
+            "offline.html", "manifest.webmanifest", "favicon.ico", "sw-register.js");
+
+    // Served from the Leaflet webjar, so not in the resources directory
+    private static final List<String> LEAFLET_FILES = List.of(
+            "leaflet.js", "leaflet.css", "images/marker-icon.png", "images/marker-icon-2x.png", "images/marker-shadow.png");
+
+    record Entry(String url, long size, String hash) {
+    }
+
+    private PrecacheManifestCompiler() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            throw new IllegalArgumentException("Usage: PrecacheManifestCompiler <resources dir> <catalog dir> <leaflet version>");
+        }
+        Path resources = Path.of(args[0]);
+        Path catalogDir = Path.of(args[1]);
+        String leafletVersion = args[2];
+
+        CatalogContent content;
+        try (InputStream in = Files.newInputStream(catalogDir.resolve("catalog.bin"))) {
+            content = CatalogArtifact.read(in);
+        }
+        AssetManifest assets;
+        try (InputStream in = Files.newInputStream(catalogDir.resolve("assets.txt"))) {
+            assets = AssetManifest.read(in);
+        }
+        ImageVariants variants;
+        try (InputStream in = Files.newInputStream(catalogDir.resolve("image-variants.txt"))) {
+            variants = ImageVariants.read(in);
+        }
+
+        Set<String> poiNames = new HashSet<>();
+        content.getPointsOfInterest().forEach(poi -> poiNames.add(poi.name()));
+
+        List<Entry> critical = new ArrayList<>();
+        List<Entry> background = new ArrayList<>();
+        List<Entry> lazy = new ArrayList<>();
+
+        // Served by the app itself; revalidated against the server rather than hashed here
+        critical.add(new Entry("/", -1, null));
+        critical.add(new Entry("/index.html", -1, null));
+        for (String language : content.getTitles().keySet()) {
+            critical.add(new Entry("/api/catalog/" + language.toLowerCase(Locale.ROOT), -1, null));
+        }
+        for (String file : LEAFLET_FILES) {
+            // The version stands in for a content hash, so a Leaflet upgrade changes the manifest
+            critical.add(new Entry("/webjars/leaflet/dist/" + file, -1, "leaflet-" + leafletVersion));
+        }
+        for (String file : SHELL_FILES.stream().sorted().toList()) {
+            addFile(critical, resources, file);
+        }
+        for (String dir : SHELL_DIRS) {
+            Path path = resources.resolve(dir);
+            if (!Files.isDirectory(path)) {
+                continue;
+            }
+            try (Stream<Path> files = Files.walk(path)) {
+                for (Path file : files.filter(Files::isRegularFile).sorted().toList()) {
+                    String relative = resources.relativize(file).toString().replace('\\', '/');
+                    // Compressed siblings are picked by the server, not fetched by name
+                    if (!PrecompressedAssets.isSibling(relative)) {
+                        addFile(critical, resources, relative);
+                    }
+                }
+            }
+        }
+
+        for (Map.Entry<String, AssetManifest.Asset> asset : assets.getAssets().entrySet()) {
+            String path = asset.getKey();
+            String url = AssetManifest.URL_PREFIX + assets.fingerprint(path);
+            if (!path.startsWith("images/")) {
+                lazy.add(new Entry(url, asset.getValue().size(), asset.getValue().hash()));
+                continue;
+            }
+            String imageName = path.substring("images/".length());
+            if (!poiNames.contains(poiName(imageName))) {
+                // UI images (flags, buttons, coat of arms) are referenced by their plain URL
+                critical.add(new Entry("/" + path, asset.getValue().size(), asset.getValue().hash()));
+                continue;
+            }
+            lazy.add(new Entry(url, asset.getValue().size(), asset.getValue().hash()));
+
+            ImageVariants.Source source = variants.getSource(imageName).orElse(null);
+            if (source == null) {
+                continue;
+            }
+            boolean thumbnail = false;
+            for (int width : source.widths()) {
+                Path file = resources.resolve("images").resolve(source.variantPath(width));
+                Entry entry = new Entry(AssetManifest.URL_PREFIX + "images/" + source.variantPath(width),
+                        Files.size(file), source.hash());
+                // Only the main image of each POI appears in the list
+                if (!thumbnail && width >= THUMBNAIL_WIDTH && poiNames.contains(ImageVariants.stem(imageName))) {
+                    background.add(entry);
+                    thumbnail = true;
+                } else {
+                    lazy.add(entry);
+                }
+            }
+        }
+
+        StringBuilder versionSource = new StringBuilder();
+        for (List<Entry> tier : List.of(critical, background, lazy)) {
+            for (Entry entry : tier) {
+                versionSource.append(entry.url()).append(';').append(entry.hash()).append('\n');
+            }
+        }
+        String version = AssetManifest.contentHash(versionSource.toString().getBytes(StandardCharsets.UTF_8));
+
+        StringBuilder js = new StringBuilder();
+        js.append("// Generated by PrecacheManifestCompiler at build time, do not edit\n");
+        js.append("self.PRECACHE_MANIFEST = {\n");
+        js.append("  \"version\": \"").append(version).append("\",\n");
+        appendTier(js, "critical", critical, true);
+        appendTier(js, "background", background, true);
+        appendTier(js, "lazy", lazy, false);
+        js.append("};\n");
+
+        Path output = resources.resolve(OUTPUT_FILE);
+        Files.writeString(output, js.toString(), StandardCharsets.UTF_8);
+        System.out.println("[precache] " + version + ": " + describe("critical", critical) + ", "
+                + describe("background", background) + ", " + describe("lazy", lazy));
+    }
+
+    private static void addFile(List<Entry> tier, Path resources, String relativePath) throws IOException {
+        Path file = resources.resolve(relativePath);
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        tier.add(new Entry("/" + relativePath, bytes.length, AssetManifest.contentHash(bytes)));
+    }
+
+    /**
+     * Maps an image file to the POI it belongs to: {@code castle2.webp} and
+     * {@code castle.webp} both belong to {@code castle}.
+     */
+    static String poiName(String imageName) {
+        String stem = ImageVariants.stem(imageName);
+        int end = stem.length();
+        while (end > 0 && Character.isDigit(stem.charAt(end - 1))) {
+            end--;
+        }
+        return stem.substring(0, end);
+    }
+
+    private static void appendTier(StringBuilder js, String name, List<Entry> entries, boolean comma) {
+        js.append("  \"").append(name).append("\": [");
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            js.append(i == 0 ? "\n" : ",\n");
+            js.append("    {\"url\": \"").append(escape(entry.url())).append('"');
+            if (entry.size() >= 0) {
+                js.append(", \"size\": ").append(entry.size());
+            }
+            if (entry.hash() != null) {
+                js.append(", \"hash\": \"").append(entry.hash()).append('"');
+            }
+            js.append('}');
+        }
+        js.append(entries.isEmpty() ? "]" : "\n  ]").append(comma ? ",\n" : "\n");
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static String describe(String name, List<Entry> entries) {
+        long bytes = entries.stream().mapToLong(entry -> Math.max(0, entry.size())).sum();
+        return name + " " + entries.size() + " files / " + bytes / 1024 + " KB";
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.starter.base.content;
+
+import com.example.starter.base.api.Compression;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Build step that writes brotli and gzip siblings of the compressible static assets at
+ * maximum compression, and lists them in {@link PrecompressedAssets#RESOURCE_PATH}.
+ *
+ * Run by the exec-maven-plugin in the process-classes phase, after every step that writes
+ * into the resources directory, with the static resources directory, the list file to write
+ * and optionally further directories as {@code dir=url-prefix}, such as the built Vite
+ * bundle. Siblings of files from such a directory are written into the resources directory
+ * under their URL path, so all of them are served the same way.
+ *
+ * A sibling newer than its file is kept as it is, so only changed files are compressed
+ * again on an incremental build.
+ */
+public final class PrecompressCompiler {
+
+    // Below this, the encoding headers cost about as much as they save
+    private static final int MIN_SIZE = 256;
+
+    private PrecompressCompiler() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: PrecompressCompiler <resources dir> <list file> [<dir>=<url prefix>...]");
+        }
+        Path resources = Path.of(args[0]);
+        Path list = Path.of(args[1]);
+        if (!Compression.isBrotliAvailable()) {
+            System.out.println("[precompress] Brotli is not available on this platform, writing gzip only");
+        }
+
+        Map<String, PrecompressedAssets.Asset> assets = new TreeMap<>();
+        long[] totals = new long[3];
+        compress(resources, "", resources, assets, totals);
+        for (int i = 2; i < args.length; i++) {
+            int separator = args[i].lastIndexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected <dir>=<url prefix>: " + args[i]);
+            }
+            Path dir = Path.of(args[i].substring(0, separator));
+            String prefix = args[i].substring(separator + 1);
+            if (!Files.isDirectory(dir)) {
+                // The Vite bundle only exists in a production build
+                System.out.println("[precompress] Skipping " + dir + ", it does not exist");
+                continue;
+            }
+            compress(dir, prefix.isEmpty() || prefix.endsWith("/") ? prefix : prefix + "/", resources, assets, totals);
+        }
+
+        Files.createDirectories(list.getParent());
+        try (Writer writer = Files.newBufferedWriter(list, StandardCharsets.UTF_8)) {
+            new PrecompressedAssets(assets).write(writer);
+        }
+        System.out.println("[precompress] Compressed " + assets.size() + " assets: " + totals[0] / 1024 + " KB, "
+                + totals[1] / 1024 + " KB as brotli, " + totals[2] / 1024 + " KB as gzip, into " + list);
+    }
+
+    private static void compress(Path dir, String prefix, Path resources, Map<String, PrecompressedAssets.Asset> assets,
+                                 long[] totals) throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.walk(dir)) {
+            files = stream.filter(Files::isRegularFile).sorted().toList();
+        }
+        for (Path file : files) {
+            String path = prefix + dir.relativize(file).toString().replace('\\', '/');
+            if (PrecompressedAssets.isSibling(path) || !PrecompressedAssets.isCompressible(path)) {
+                continue;
+            }
+            long size = Files.size(file);
+            if (size < MIN_SIZE) {
+                continue;
+            }
+
+            byte[] bytes = null;
+            List<String> encodings = new ArrayList<>(2);
+            long[] sizes = new long[2];
+            String[] candidates = {PrecompressedAssets.BROTLI, PrecompressedAssets.GZIP};
+            for (int i = 0; i < candidates.length; i++) {
+                Path sibling = resources.resolve(PrecompressedAssets.siblingPath(path, candidates[i]));
+                if (Files.exists(sibling) && Files.getLastModifiedTime(sibling).compareTo(Files.getLastModifiedTime(file)) >= 0) {
+                    encodings.add(candidates[i]);
+                    sizes[i] = Files.size(sibling);
+                    continue;
+                }
+                if (bytes == null) {
+                    bytes = Files.readAllBytes(file);
+                }
+                byte[] compressed = i == 0 ? Compression.brotli(bytes) : Compression.gzip(bytes);
+                if (compressed == null || compressed.length >= size) {
+                    Files.deleteIfExists(sibling);
+                    continue;
+                }
+                Files.createDirectories(sibling.getParent());
+                Files.write(sibling, compressed);
+                encodings.add(candidates[i]);
+                sizes[i] = compressed.length;
+            }
+
+            if (!encodings.isEmpty()) {
+                assets.put(path, new PrecompressedAssets.Asset(List.copyOf(encodings), size));
+                totals[0] += size;
+                totals[1] += sizes[0];
+                totals[2] += sizes[1];
+            }
+        }
+    }
+}
@@ -0,0 +1,317 @@
+package com.example.starter.base.content;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+
+/**
+ * Build step that trains an AppCDS archive for the production jar and measures what it
+ * saves on a cold start.
+ *
+ * Run by the exec-maven-plugin in the package phase of the {@code appcds} profile, and by the
+ * Dockerfile with the JVM of the runtime image, with the jar, the archive to write, the
+ * report to write and optionally the number of measured starts per variant.
+ *
+ * <ol>
+ * <li>Starts the jar with {@code -XX:DumpLoadedClassList}, requests the catalog, list,
+ * detail, asset, search and sync paths in every language, and stops it.</li>
+ * <li>Dumps a static archive of the listed classes, JDK classes included, so it works
+ * whether or not the JVM ships a default CDS archive.</li>
+ * <li>Starts the jar repeatedly with and without the archive and records the time to
+ * the first catalog response and the resident set size after one visitor's requests.</li>
+ * </ol>
+ *
+ * A JVM refuses an archive written by a different JVM build or for a different jar, so the
+ * archive must be trained with the exact JVM and jar path it is used with.
+ */
+public final class StartupTraining {
+
+    private static final List<String> LANGUAGES = List.of("en", "sl", "de", "nl");
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(120);
+
+    // Details, descriptions and images requested per language
+    private static final int DETAILS = 3;
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private StartupTraining() {
+    }
+
+    /**
+     * Time to the first catalog response, and resident set size in KB or -1 where it cannot
+     * be read, of one cold start.
+     */
+    record Start(long firstResponseMillis, long rssKb) {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 3) {
+            throw new IllegalArgumentException("Usage: StartupTraining <app jar> <archive> <report> [<runs>]");
+        }
+        Path jar = Path.of(args[0]).toAbsolutePath();
+        Path archive = Path.of(args[1]).toAbsolutePath();
+        Path report = Path.of(args[2]).toAbsolutePath();
+        int runs = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalStateException("No application jar at " + jar);
+        }
+        Files.createDirectories(archive.getParent());
+        Files.createDirectories(report.getParent());
+        Path classList = archive.resolveSibling(archive.getFileName() + ".classlist");
+        Path workDir = Files.createTempDirectory("visit-polzela-appcds");
+
+        long start = System.nanoTime();
+        try (App app = App.start(jar, workDir, List.of("-XX:DumpLoadedClassList=" + classList))) {
+            app.awaitReady();
+            for (int round = 0; round < 2; round++) {
+                visit(app.client, app.baseUrl, true);
+            }
+        }
+        System.out.println("[appcds] Trained in " + (System.nanoTime() - start) / 1_000_000 + " ms, "
+                + Files.readAllLines(classList).size() + " classes loaded");
+
+        dump(jar, classList, archive, workDir);
+        System.out.println("[appcds] Wrote " + archive + " (" + Files.size(archive) / 1024 + " KB)");
+
+        List<Start> without = new ArrayList<>();
+        List<Start> with = new ArrayList<>();
+        for (int i = 0; i < runs; i++) {
+            // Alternate, so that disk caches warming up favor neither variant
+            without.add(measure(jar, workDir, List.of()));
+            with.add(measure(jar, workDir, List.of("-Xshare:on", "-XX:SharedArchiveFile=" + archive)));
+        }
+
+        ObjectNode document = JSON.createObjectNode();
+        document.put("jvm", System.getProperty("java.vm.name") + " " + System.getProperty("java.vm.version"));
+        document.put("archive", archive.toString());
+        document.put("archiveBytes", Files.size(archive));
+        document.put("runs", runs);
+        document.set("withoutArchive", summarize(without));
+        document.set("withArchive", summarize(with));
+        JSON.writerWithDefaultPrettyPrinter().writeValue(report.toFile(), document);
+
+        System.out.println("[appcds] First response: " + median(without, Start::firstResponseMillis) + " ms without, "
+                + median(with, Start::firstResponseMillis) + " ms with the archive");
+        System.out.println("[appcds] RSS after the first visit: " + median(without, Start::rssKb) / 1024 + " MB without, "
+                + median(with, Start::rssKb) / 1024 + " MB with the archive");
+        System.out.println("[appcds] Report written to " + report);
+    }
+
+    private static void dump(Path jar, Path classList, Path archive, Path workDir) throws IOException, InterruptedException {
+        Files.deleteIfExists(archive);
+        Path log = workDir.resolve("dump.log");
+        Process process = new ProcessBuilder(java(), "-Xshare:dump",
+                "-XX:SharedClassListFile=" + classList,
+                "-XX:SharedArchiveFile=" + archive,
+                "-cp", jar.toString())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        if (process.waitFor() != 0 || !Files.isRegularFile(archive)) {
+            throw new IllegalStateException("Dumping the archive failed:\n" + Files.readString(log));
+        }
+    }
+
+    private static Start measure(Path jar, Path workDir, List<String> jvmArgs) throws IOException, InterruptedException {
+        try (App app = App.start(jar, workDir, jvmArgs)) {
+            long firstResponse = app.awaitReady();
+            visit(app.client, app.baseUrl, false);
+            return new Start(firstResponse, app.rssKb());
+        }
+    }
+
+    /**
+     * The requests of a visitor who browses the list, opens a few POIs and searches, in
+     * every language. The training run also requests what else the server can serve.
+     */
+    private static void visit(HttpClient client, URI baseUrl, boolean everything) throws IOException, InterruptedException {
+        get(client, baseUrl, "/", true);
+        get(client, baseUrl, "/api/sync?epoch=&since=0", true);
+        for (String language : LANGUAGES) {
+            JsonNode catalog = JSON.readTree(get(client, baseUrl, "/api/catalog/" + language, false));
+            get(client, baseUrl, "/api/catalog/" + language, true);
+            get(client, baseUrl, "/api/catalog/" + language + "/page?limit=24", false);
+
+            JsonNode pois = catalog.path("pois");
+            List<String> names = new ArrayList<>();
+            for (int i = 0; i < Math.min(DETAILS, pois.size()); i++) {
+                JsonNode poi = pois.get(i);
+                names.add(poi.path("name").asText());
+                get(client, baseUrl, "/poi/" + encode(poi.path("name").asText()) + "?lang=" + language, true);
+                for (String url : List.of("descriptionUrl", "imageUrl", "thumbnailUrl")) {
+                    if (poi.hasNonNull(url)) {
+                        get(client, baseUrl, poi.get(url).asText(), true);
+                    }
+                }
+            }
+            get(client, baseUrl, "/api/search?q=grad&lang=" + language + "&limit=50", false);
+            if (everything) {
+                get(client, baseUrl, "/api/nearby?lat=46.2803&lng=15.0726&k=5&lang=" + language, false);
+                if (names.size() >= 2) {
+                    get(client, baseUrl, "/api/tours?stops=" + encode(String.join(",", names)) + "&lang=" + language, false);
+                }
+            }
+        }
+        if (everything) {
+            get(client, baseUrl, "/sitemap.xml", true);
+        }
+    }
+
+    private static byte[] get(HttpClient client, URI baseUrl, String path, boolean compressed)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(baseUrl.resolve(path)).timeout(Duration.ofSeconds(30));
+        if (compressed) {
+            request.header("Accept-Encoding", "br, gzip");
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray()).body();
+    }
+
+    private static ObjectNode summarize(List<Start> starts) {
+        ObjectNode summary = JSON.createObjectNode();
+        ArrayNode firstResponses = summary.putArray("firstResponseMillis");
+        ArrayNode rss = summary.putArray("rssKb");
+        for (Start start : starts) {
+            firstResponses.add(start.firstResponseMillis());
+            rss.add(start.rssKb());
+        }
+        summary.put("medianFirstResponseMillis", median(starts, Start::firstResponseMillis));
+        summary.put("medianRssKb", median(starts, Start::rssKb));
+        return summary;
+    }
+
+    private static long median(List<Start> starts, ToLongFunction<Start> value) {
+        long[] values = starts.stream().mapToLong(value).sorted().toArray();
+        return values.length == 0 ? -1 : values[values.length / 2];
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String java() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    /**
+     * The jar, started on free local ports with the tile pack off and its caches in a
+     * scratch directory.
+     */
+    private static final class App implements AutoCloseable {
+
+        private final Process process;
+        private final long started;
+        private final URI baseUrl;
+        private final Path log;
+        private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+        private App(Process process, long started, URI baseUrl, Path log) {
+            this.process = process;
+            this.started = started;
+            this.baseUrl = baseUrl;
+            this.log = log;
+        }
+
+        static App start(Path jar, Path workDir, List<String> jvmArgs) throws IOException {
+            int port = freePort();
+            List<String> command = new ArrayList<>();
+            command.add(java());
+            command.addAll(jvmArgs);
+            command.addAll(Arrays.asList(
+                    "-Dquarkus.http.host=127.0.0.1",
+                    "-Dquarkus.http.port=" + port,
+                    "-Dquarkus.management.port=" + freePort(),
+                    "-Dtiles.pack.enabled=false",
+                    "-Dstatic-files.cache-dir=" + Files.createTempDirectory(workDir, "static"),
+                    "-Dtiles.cache-dir=" + workDir.resolve("tiles"),
+                    "-jar", jar.toString()));
+            Path log = workDir.resolve("app-" + port + ".log");
+            long started = System.nanoTime();
+            Process process = new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(log.toFile())
+                    .start();
+            return new App(process, started, URI.create("http://127.0.0.1:" + port + "/"), log);
+        }
+
+        /**
+         * Polls the catalog until it answers and returns the milliseconds since the
+         * process was started.
+         */
+        long awaitReady() throws IOException, InterruptedException {
+            HttpRequest request = HttpRequest.newBuilder(baseUrl.resolve("/api/catalog/en"))
+                    .timeout(Duration.ofSeconds(5))
+                    .build();
+            long deadline = started + STARTUP_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("The application exited with status " + process.exitValue()
+                            + " during startup:\n" + Files.readString(log));
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return (System.nanoTime() - started) / 1_000_000;
+                    }
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(5);
+            }
+            throw new IllegalStateException("The application did not start within " + STARTUP_TIMEOUT + ", see " + log);
+        }
+
+        long rssKb() throws IOException {
+            Path status = Path.of("/proc", Long.toString(process.pid()), "status");
+            if (!Files.isReadable(status)) {
+                return -1;
+            }
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Stops the application. If interrupted while waiting for it to exit, kills it and
+         * keeps the interrupt for the caller.
+         */
+        @Override
+        public void close() {
+            process.destroy();
+            try {
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly().waitFor();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private static int freePort() throws IOException {
+            try (ServerSocket socket = new ServerSocket(0)) {
+                return socket.getLocalPort();
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+import React, { useEffect, useMemo, useRef, useState } from 'react';
+import { blurhashToDataUrl } from '../utils/blurhash';
+
+interface LazyImageProps {
+  src: string;
+  srcSet?: string;
+  sizes?: string;
+  alt: string;
+  className?: string;
+  // Intrinsic size of the image and its blurhash, from the catalog
+  width?: number | null;
+  height?: number | null;
+  placeholder?: string | null;
+}
+
+/**
+ * An image that is only requested once it comes near the viewport. Until it has loaded it
+ * keeps its place with a box of the image's aspect ratio, filled with the blurred preview
+ * when the catalog has one, so the list neither jumps nor shows empty cards while scrolling.
+ */
+export const LazyImage: React.FC<LazyImageProps> = ({
+  src, srcSet, sizes, alt, className, width, height, placeholder
+}) => {
+  const ref = useRef<HTMLImageElement>(null);
+  const [visible, setVisible] = useState(false);
+  const [loaded, setLoaded] = useState(false);
+  const preview = useMemo(
+    () => (placeholder ? blurhashToDataUrl(placeholder, width, height) : null),
+    [placeholder, width, height]
+  );
+
+  useEffect(() => {
+    const element = ref.current;
+    if (!element || visible) {
+      return;
+    }
+    if (!('IntersectionObserver' in window)) {
+      setVisible(true);
+      return;
+    }
+    const observer = new IntersectionObserver(entries => {
+      if (entries.some(entry => entry.isIntersecting)) {
+        setVisible(true);
+        observer.disconnect();
+      }
+    }, { rootMargin: '200px' });
+    observer.observe(element);
+    return () => observer.disconnect();
+  }, [visible]);
+
+  const style: React.CSSProperties = {};
+  if (width && height) {
+    style.aspectRatio = `${width} / ${height}`;
+  }
+  if (preview && !loaded) {
+    style.backgroundImage = `url(${preview})`;
+    style.backgroundSize = 'cover';
+  }
+
+  return (
+    <img
+      ref={ref}
+      src={visible ? src : undefined}
+      srcSet={visible ? srcSet : undefined}
+      sizes={sizes}
+      alt={alt}
+      width={width ?? undefined}
+      height={height ?? undefined}
+      style={style}
+      onLoad={() => setLoaded(true)}
+      className={`${className || ''} ${loaded ? '' : 'lazy-placeholder'}`.trim()}
+      decoding="async"
+    />
+  );
+};
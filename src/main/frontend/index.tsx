@@ -38,6 +38,11 @@ if ('serviceWorker' in navigator) {
     navigator.serviceWorker.register('/sw.js')
       .then((registration) => {
         console.log('SW registered: ', registration);
+        // Let the worker fetch the POI thumbnails once the page has settled
+        navigator.serviceWorker.ready.then((ready) => {
+          const idle = (window as any).requestIdleCallback || ((callback: () => void) => setTimeout(callback, 2000));
+          idle(() => ready.active?.postMessage({ type: 'PRECACHE_BACKGROUND' }));
+        });
       })
       .catch((registrationError) => {
         console.log('SW registration failed: ', registrationError);
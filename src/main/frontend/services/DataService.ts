@@ -1,11 +1,18 @@
 import { openDB } from 'idb';
-import { POI, POITitle, Language } from '../types/POI';
+import { POI, POITitle, Language, LANGUAGES, CatalogDocument, CatalogPage, POICard, SyncDelta, SearchResult } from '../types/POI';
 
 const DB_NAME = 'visit-polzela';
 const POI_STORE = 'pois';
 const TITLES_STORE = 'titles';
-const DATA_VERSION = 7; // Increment this to force reload of POIs
-const VERSION_KEY = 'data-version';
+// Position of the offline store in the server's catalog history, see /api/sync
+const SYNC_EPOCH_KEY = 'sync-epoch';
+const SYNC_REVISION_KEY = 'sync-revision';
+// Cursors of pages served from the offline store, which are plain offsets
+const OFFLINE_CURSOR_PREFIX = 'offline:';
+
+// Lower case without diacritics, matching the server's search folding
+const fold = (text: string): string =>
+  text.normalize('NFD').replace(/\p{M}+/gu, '').toLowerCase();
 
 export class DataService {
   private static instance: DataService;
@@ -36,89 +43,155 @@ export class DataService {
     return this.db;
   }
 
-  async loadPOIsFromStatic(): Promise<POI[]> {
+  async fetchCatalog(language: Language): Promise<CatalogDocument> {
+    // The server keeps an ETag per language, so unchanged catalogs come back as a 304
+    const response = await fetch(`/api/catalog/${language.toLowerCase()}`);
+    if (!response.ok) {
+      throw new Error(`Catalog request failed with status ${response.status}`);
+    }
+    return response.json();
+  }
+
+  async loadCatalogs(): Promise<POI[]> {
     try {
-      const response = await fetch('/pointsofinterest/pois.txt');
-      const text = await response.text();
-      const lines = text.trim().split('\n');
-
-      const pois: POI[] = lines.map((line, index) => {
-        const parts = line.split(';');
-        return {
-          name: parts[0],
-          displayName: parts[1],
-          description: parts[2],
-          imagePath: `/images/${parts[0]}.webp`,
-          mapUrl: parts[3],
-          navigationUrl: parts[4],
-          appleNavigationUrl: parts[5] || parts[4],
-          order: index
-        };
-      });
+      const documents = await Promise.all(LANGUAGES.map(language => this.fetchCatalog(language)));
+      const byLanguage = new Map<Language, CatalogDocument>();
+      LANGUAGES.forEach((language, index) => byLanguage.set(language, documents[index]));
+
+      const pois: POI[] = byLanguage.get('EN')!.pois.map(entry => ({
+        name: entry.name,
+        displayName: entry.displayName,
+        description: entry.description,
+        imagePath: entry.imageUrl,
+        thumbnailPath: entry.thumbnailUrl,
+        srcset: entry.srcset,
+        width: entry.width,
+        height: entry.height,
+        placeholder: entry.placeholder,
+        gallery: entry.gallery,
+        descriptionPath: entry.descriptionUrl,
+        mapUrl: entry.mapUrl,
+        navigationUrl: entry.navigationUrl,
+        appleNavigationUrl: entry.appleNavigationUrl || entry.navigationUrl,
+        lat: entry.lat,
+        lng: entry.lng,
+        order: entry.order
+      }));
+
+      // Titles and UI strings per key, in the shape the rest of the app already reads
+      const titles = new Map<string, POITitle>();
+      const titleFor = (name: string): POITitle => {
+        let title = titles.get(name);
+        if (!title) {
+          title = { name, en: '', sl: '', de: '', nl: '' };
+          titles.set(name, title);
+        }
+        return title;
+      };
+      for (const [language, document] of byLanguage) {
+        const langKey = language.toLowerCase() as keyof Omit<POITitle, 'name'>;
+        for (const entry of document.pois) {
+          titleFor(entry.name)[langKey] = entry.displayName;
+        }
+        for (const [key, text] of Object.entries(document.texts)) {
+          titleFor(key)[langKey] = text;
+        }
+      }
 
       // Store in IndexedDB for offline access
       const db = await this.initDB();
-      const tx = db.transaction(POI_STORE, 'readwrite');
+      const tx = db.transaction([POI_STORE, TITLES_STORE], 'readwrite');
       for (const poi of pois) {
-        await tx.store.put(poi);
+        await tx.objectStore(POI_STORE).put(poi);
+      }
+      for (const title of titles.values()) {
+        await tx.objectStore(TITLES_STORE).put(title);
       }
       await tx.done;
 
       return pois;
     } catch (error) {
-      console.error('Error loading POIs from static file:', error);
+      console.error('Error loading catalog from server:', error);
       // Fallback to IndexedDB
       return this.getPOIsFromDB();
     }
   }
 
-  async loadTitlesFromStatic(): Promise<POITitle[]> {
-    try {
-      const response = await fetch('/pointsofinterest/poititles.txt');
-      const text = await response.text();
-      const lines = text.trim().split('\n');
-
-      const titles: POITitle[] = lines.map(line => {
-        const parts = line.split(';');
-        const title: POITitle = {
-          name: parts[0],
-          en: '',
-          sl: '',
-          de: '',
-          nl: ''
-        };
-
-        // Parse language-specific titles
-        for (let i = 1; i < parts.length; i++) {
-          const part = parts[i].trim();
-          if (part.startsWith('EN:')) {
-            title.en = part.substring(3);
-          } else if (part.startsWith('SL:')) {
-            title.sl = part.substring(3);
-          } else if (part.startsWith('DE:')) {
-            title.de = part.substring(3);
-          } else if (part.startsWith('NL:')) {
-            title.nl = part.substring(3);
-          }
-        }
+  /**
+   * Brings the offline store up to date with the records changed since the last sync,
+   * deleting tombstoned POIs. A first visit, or a new server epoch, replaces everything.
+   */
+  async syncCatalog(): Promise<void> {
+    const epoch = localStorage.getItem(SYNC_EPOCH_KEY) || '';
+    const since = localStorage.getItem(SYNC_REVISION_KEY) || '0';
+    const response = await fetch(`/api/sync?epoch=${encodeURIComponent(epoch)}&since=${since}`);
+    if (!response.ok) {
+      throw new Error(`Sync request failed with status ${response.status}`);
+    }
+    const delta: SyncDelta = await response.json();
 
-        return title;
-      });
+    const db = await this.initDB();
+    const tx = db.transaction([POI_STORE, TITLES_STORE], 'readwrite');
+    const poiStore = tx.objectStore(POI_STORE);
+    const titleStore = tx.objectStore(TITLES_STORE);
+    if (delta.reset) {
+      await poiStore.clear();
+      await titleStore.clear();
+    }
 
-      // Store in IndexedDB for offline access
-      const db = await this.initDB();
-      const tx = db.transaction(TITLES_STORE, 'readwrite');
-      for (const title of titles) {
-        await tx.store.put(title);
+    for (const record of delta.pois) {
+      const poi: POI = {
+        name: record.name,
+        displayName: record.titles.EN || record.name,
+        description: record.description,
+        imagePath: record.imageUrl,
+        thumbnailPath: record.thumbnailUrl,
+        srcset: record.srcset,
+        width: record.width,
+        height: record.height,
+        placeholder: record.placeholder,
+        gallery: record.gallery,
+        descriptionPath: record.descriptionUrl,
+        descriptions: record.descriptions,
+        mapUrl: record.mapUrl,
+        navigationUrl: record.navigationUrl,
+        appleNavigationUrl: record.appleNavigationUrl || record.navigationUrl,
+        lat: record.lat,
+        lng: record.lng,
+        order: record.order
+      };
+      await poiStore.put(poi);
+      await titleStore.put(this.toTitle(record.name, record.titles));
+    }
+    for (const tombstone of delta.deleted) {
+      await poiStore.delete(tombstone.name);
+      await titleStore.delete(tombstone.name);
+    }
+    if (delta.texts) {
+      const byKey = new Map<string, Record<string, string>>();
+      for (const [language, texts] of Object.entries(delta.texts)) {
+        for (const [key, text] of Object.entries(texts)) {
+          byKey.set(key, { ...byKey.get(key), [language]: text });
+        }
+      }
+      for (const [key, texts] of byKey) {
+        await titleStore.put(this.toTitle(key, texts));
       }
-      await tx.done;
-
-      return titles;
-    } catch (error) {
-      console.error('Error loading titles from static file:', error);
-      // Fallback to IndexedDB
-      return this.getTitlesFromDB();
     }
+    await tx.done;
+
+    localStorage.setItem(SYNC_EPOCH_KEY, delta.epoch);
+    localStorage.setItem(SYNC_REVISION_KEY, delta.revision.toString());
+  }
+
+  private toTitle(name: string, byLanguage: Record<string, string>): POITitle {
+    return {
+      name,
+      en: byLanguage.EN || '',
+      sl: byLanguage.SL || '',
+      de: byLanguage.DE || '',
+      nl: byLanguage.NL || ''
+    };
   }
 
   async getPOIsFromDB(): Promise<POI[]> {
@@ -157,6 +230,83 @@ export class DataService {
       });
   }
 
+  /**
+   * Fetches one page of list cards, starting after the cursor of the previous page.
+   * Offline, pages through the POIs in IndexedDB instead.
+   */
+  async fetchCatalogPage(language: Language, cursor: string | null, limit: number): Promise<CatalogPage> {
+    if (!cursor?.startsWith(OFFLINE_CURSOR_PREFIX)) {
+      try {
+        const params = new URLSearchParams({ limit: limit.toString() });
+        if (cursor) {
+          params.set('cursor', cursor);
+        }
+        const response = await fetch(`/api/catalog/${language.toLowerCase()}/page?${params}`);
+        if (!response.ok) {
+          throw new Error(`Catalog page request failed with status ${response.status}`);
+        }
+        return response.json();
+      } catch (error) {
+        console.error('Error loading catalog page, reading the offline store:', error);
+      }
+    }
+    // Online cursors and offline offsets both count from the start of the catalog order
+    const offset = cursor?.startsWith(OFFLINE_CURSOR_PREFIX)
+      ? parseInt(cursor.substring(OFFLINE_CURSOR_PREFIX.length), 10)
+      : 0;
+    const pois = await this.getPOIsWithLocalizedTitles(language);
+    const page = pois.slice(offset, offset + limit);
+    return {
+      language,
+      pois: page.map(poi => this.toCard(poi)),
+      next: offset + limit < pois.length ? `${OFFLINE_CURSOR_PREFIX}${offset + limit}` : null
+    };
+  }
+
+  /**
+   * Returns the POIs matching a query as list cards, best match first. Offline, falls back
+   * to a plain substring match on the stored POIs' titles and short descriptions.
+   */
+  async searchPOIs(query: string, language: Language): Promise<POICard[]> {
+    try {
+      const params = new URLSearchParams({ q: query, lang: language.toLowerCase(), limit: '50' });
+      const response = await fetch(`/api/search?${params}`);
+      if (!response.ok) {
+        throw new Error(`Search request failed with status ${response.status}`);
+      }
+      const results: SearchResult[] = await response.json();
+      return results.map(({ poi }) => ({
+        name: poi.name,
+        displayName: poi.displayName,
+        thumbnailUrl: poi.thumbnailUrl,
+        srcset: poi.srcset,
+        width: poi.width,
+        height: poi.height,
+        placeholder: poi.placeholder,
+        order: poi.order
+      }));
+    } catch (error) {
+      const needle = fold(query.trim());
+      const pois = await this.getPOIsWithLocalizedTitles(language);
+      return pois
+        .filter(poi => fold(`${poi.displayName} ${poi.description}`).includes(needle))
+        .map(poi => this.toCard(poi));
+    }
+  }
+
+  private toCard(poi: POI): POICard {
+    return {
+      name: poi.name,
+      displayName: poi.displayName,
+      thumbnailUrl: poi.thumbnailPath || poi.imagePath,
+      srcset: poi.srcset || null,
+      width: poi.width ?? null,
+      height: poi.height ?? null,
+      placeholder: poi.placeholder ?? null,
+      order: poi.order
+    };
+  }
+
   async getLocalizedText(key: string, language: Language): Promise<string> {
     const titles = await this.getTitlesFromDB();
     const title = titles.find(t => t.name === key);
@@ -171,24 +321,11 @@ export class DataService {
 
   async initializeData(): Promise<void> {
     try {
-      // Always reload titles to ensure we have the latest translations
-      await this.loadTitlesFromStatic();
-
-      // Check version in localStorage
-      const storedVersion = localStorage.getItem(VERSION_KEY);
-      const currentVersion = DATA_VERSION.toString();
-
-      // Force reload if version changed or POIs are empty
-      const pois = await this.getPOIsFromDB();
-      if (storedVersion !== currentVersion || pois.length === 0) {
-        console.log('[DataService] Reloading POIs due to version change or empty cache');
-        // Load POI data from static files
-        await this.loadPOIsFromStatic();
-        // Update stored version
-        localStorage.setItem(VERSION_KEY, currentVersion);
-      }
+      // One small request fetches only what changed since the last visit
+      await this.syncCatalog();
     } catch (error) {
-      console.error('Error initializing data:', error);
+      console.error('Error syncing catalog, loading it in full:', error);
+      await this.loadCatalogs();
     }
   }
 }
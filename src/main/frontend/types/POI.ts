@@ -3,12 +3,33 @@ export interface POI {
   displayName: string;
   description: string;
   imagePath: string;
+  thumbnailPath?: string;
+  srcset?: string | null;
+  // Intrinsic image size and blurhash preview, null when unknown
+  width?: number | null;
+  height?: number | null;
+  placeholder?: string | null;
+  gallery?: GalleryImage[];
+  descriptionPath?: string | null;
+  // Description paragraphs per language, filled in by delta sync
+  descriptions?: Record<string, string[]>;
   mapUrl: string;
   navigationUrl: string;
   appleNavigationUrl: string;
+  lat?: number | null;
+  lng?: number | null;
   order: number;
 }
 
+// One gallery image of a POI, in order; size is in bytes
+export interface GalleryImage {
+  url: string;
+  thumbnailUrl: string;
+  width: number | null;
+  height: number | null;
+  size: number;
+}
+
 export interface POITitle {
   name: string;
   en: string;
@@ -18,3 +39,89 @@ export interface POITitle {
 }
 
 export type Language = 'EN' | 'SL' | 'DE' | 'NL';
+
+export const LANGUAGES: Language[] = ['EN', 'SL', 'DE', 'NL'];
+
+// Shape of GET /api/catalog/{language}
+export interface CatalogEntry {
+  name: string;
+  displayName: string;
+  description: string;
+  imageUrl: string;
+  thumbnailUrl: string;
+  srcset: string | null;
+  width: number | null;
+  height: number | null;
+  placeholder: string | null;
+  gallery: GalleryImage[];
+  descriptionUrl: string | null;
+  mapUrl: string;
+  navigationUrl: string;
+  appleNavigationUrl: string;
+  lat: number | null;
+  lng: number | null;
+  order: number;
+}
+
+export interface CatalogDocument {
+  language: string;
+  pois: CatalogEntry[];
+  texts: Record<string, string>;
+}
+
+// A card of the list view, one entry of GET /api/catalog/{language}/page
+export interface POICard {
+  name: string;
+  displayName: string;
+  thumbnailUrl: string;
+  srcset: string | null;
+  width: number | null;
+  height: number | null;
+  placeholder: string | null;
+  order: number;
+}
+
+// Shape of GET /api/catalog/{language}/page; next is null after the last page
+export interface CatalogPage {
+  language: string;
+  pois: POICard[];
+  next: string | null;
+}
+
+// Shape of GET /api/sync?epoch=...&since=...
+export interface SyncRecord {
+  name: string;
+  revision: number;
+  order: number;
+  titles: Record<string, string>;
+  description: string;
+  descriptions: Record<string, string[]>;
+  imageUrl: string;
+  thumbnailUrl: string;
+  srcset: string | null;
+  width: number | null;
+  height: number | null;
+  placeholder: string | null;
+  gallery: GalleryImage[];
+  descriptionUrl: string | null;
+  mapUrl: string;
+  navigationUrl: string;
+  appleNavigationUrl: string;
+  lat: number | null;
+  lng: number | null;
+}
+
+export interface SyncDelta {
+  epoch: string;
+  revision: number;
+  reset: boolean;
+  pois: SyncRecord[];
+  deleted: { name: string; revision: number }[];
+  texts: Record<string, Record<string, string>> | null;
+}
+
+// One result of GET /api/search
+export interface SearchResult {
+  poi: CatalogEntry;
+  score: number;
+}
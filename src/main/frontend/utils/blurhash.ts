@@ -0,0 +1,111 @@
+// Decodes the blurhash placeholders of the catalog (see content/BlurHash.java) into small
+// data URLs the browser can scale up as a background while the real image loads.
+
+const BASE83 = '0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz#$%*+,-.:;=?@[]^_{|}~';
+
+// Pixels of the decoded preview; it is blurred anyway, so scaling up costs nothing visible
+const PREVIEW_SIZE = 32;
+
+const decoded = new Map<string, string | null>();
+
+const decode83 = (text: string): number => {
+  let value = 0;
+  for (const char of text) {
+    value = value * 83 + BASE83.indexOf(char);
+  }
+  return value;
+};
+
+const toLinear = (value: number): number => {
+  const v = value / 255;
+  return v <= 0.04045 ? v / 12.92 : Math.pow((v + 0.055) / 1.055, 2.4);
+};
+
+const toSrgb = (value: number): number => {
+  const v = Math.max(0, Math.min(1, value));
+  return v <= 0.0031308
+    ? Math.round(v * 12.92 * 255)
+    : Math.round((1.055 * Math.pow(v, 1 / 2.4) - 0.055) * 255);
+};
+
+const signPow = (value: number, exponent: number): number =>
+  Math.sign(value) * Math.pow(Math.abs(value), exponent);
+
+const render = (hash: string, width: number, height: number): string | null => {
+  if (hash.length < 6) {
+    return null;
+  }
+  const sizeFlag = decode83(hash[0]);
+  const componentsX = (sizeFlag % 9) + 1;
+  const componentsY = Math.floor(sizeFlag / 9) + 1;
+  if (hash.length !== 4 + 2 * componentsX * componentsY) {
+    return null;
+  }
+  const maximum = (decode83(hash[1]) + 1) / 166;
+
+  const colors: number[][] = [];
+  const dc = decode83(hash.substring(2, 6));
+  colors.push([toLinear(dc >> 16), toLinear((dc >> 8) & 255), toLinear(dc & 255)]);
+  for (let i = 1; i < componentsX * componentsY; i++) {
+    const ac = decode83(hash.substring(4 + i * 2, 6 + i * 2));
+    colors.push([
+      signPow((Math.floor(ac / (19 * 19)) - 9) / 9, 2) * maximum,
+      signPow((Math.floor(ac / 19) % 19 - 9) / 9, 2) * maximum,
+      signPow((ac % 19 - 9) / 9, 2) * maximum
+    ]);
+  }
+
+  const canvas = document.createElement('canvas');
+  canvas.width = width;
+  canvas.height = height;
+  const context = canvas.getContext('2d');
+  if (!context) {
+    return null;
+  }
+  const image = context.createImageData(width, height);
+  for (let y = 0; y < height; y++) {
+    for (let x = 0; x < width; x++) {
+      let r = 0;
+      let g = 0;
+      let b = 0;
+      for (let j = 0; j < componentsY; j++) {
+        const basisY = Math.cos((Math.PI * y * j) / height);
+        for (let i = 0; i < componentsX; i++) {
+          const basis = Math.cos((Math.PI * x * i) / width) * basisY;
+          const color = colors[i + j * componentsX];
+          r += color[0] * basis;
+          g += color[1] * basis;
+          b += color[2] * basis;
+        }
+      }
+      const pixel = 4 * (x + y * width);
+      image.data[pixel] = toSrgb(r);
+      image.data[pixel + 1] = toSrgb(g);
+      image.data[pixel + 2] = toSrgb(b);
+      image.data[pixel + 3] = 255;
+    }
+  }
+  context.putImageData(image, 0, 0);
+  return canvas.toDataURL();
+};
+
+/**
+ * Returns a data URL of the blurred preview, or null when the hash is malformed. Previews
+ * are cached, a card re-rendered while scrolling does not decode again.
+ */
+export const blurhashToDataUrl = (hash: string, width?: number | null, height?: number | null): string | null => {
+  if (decoded.has(hash)) {
+    return decoded.get(hash)!;
+  }
+  const portrait = !!width && !!height && height > width;
+  const previewWidth = portrait ? Math.round(PREVIEW_SIZE * width! / height!) : PREVIEW_SIZE;
+  const previewHeight = width && height && !portrait ? Math.round(PREVIEW_SIZE * height / width) : PREVIEW_SIZE;
+  let url: string | null = null;
+  try {
+    url = render(hash, Math.max(1, previewWidth), Math.max(1, previewHeight));
+  } catch (error) {
+    console.warn('Could not decode image placeholder:', error);
+  }
+  decoded.set(hash, url);
+  return url;
+};
@@ -1,4 +1,4 @@
-import { POI } from '../types/POI';
+import { POI, POICard } from '../types/POI';
 
 /**
  * Generate Organization structured data for the main page
@@ -78,7 +78,7 @@ export const generateBreadcrumbSchema = (items: { name: string; url: string }[])
 /**
  * Generate ItemList structured data for the main page POI list
  */
-export const generatePOIListSchema = (pois: POI[]) => {
+export const generatePOIListSchema = (pois: POICard[]) => {
   const siteUrl = typeof globalThis.window === 'undefined' ? '' : globalThis.window.location.origin;
 
   return {
@@ -93,7 +93,7 @@ export const generatePOIListSchema = (pois: POI[]) => {
         '@type': 'TouristAttraction',
         name: poi.displayName,
         url: `${siteUrl}/poi/${encodeURIComponent(poi.name)}`,
-        image: `${siteUrl}${poi.imagePath}`
+        image: `${siteUrl}${poi.thumbnailUrl}`
       }
     }))
   };
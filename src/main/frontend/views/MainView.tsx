@@ -1,17 +1,30 @@
-import React, { useState, useEffect } from 'react';
+import React, { useState, useEffect, useRef, useCallback } from 'react';
 import { Link } from 'react-router-dom';
-import { POI, Language } from '../types/POI';
+import { POICard, Language } from '../types/POI';
 import { DataService } from '../services/DataService';
 import { SEO } from '../components/SEO';
+import { LazyImage } from '../components/LazyImage';
 import { generateOrganizationSchema, generatePOIListSchema } from '../utils/seoHelpers';
 import '../styles/main-view-styles.css';
 
+// Cards per catalog page; the next page is fetched as the end of the list scrolls into view
+const PAGE_SIZE = 24;
+
 export default function MainView() {
-  const [pois, setPois] = useState<POI[]>([]);
+  const [pois, setPois] = useState<POICard[]>([]);
+  // Cursor of the next page, null once the last page is in
+  const [nextCursor, setNextCursor] = useState<string | null>(null);
+  const [loadingPage, setLoadingPage] = useState(false);
+  const pageRequest = useRef(0);
+  const sentinel = useRef<HTMLDivElement>(null);
   const [language, setLanguage] = useState<Language>('EN');
   const [loading, setLoading] = useState(true);
   const [welcomeText, setWelcomeText] = useState<string>('Welcome to');
   const [showInstallButton, setShowInstallButton] = useState(true);
+  const [searchText, setSearchText] = useState<string>('Search');
+  const [query, setQuery] = useState('');
+  // Matching POIs in rank order, or null when not searching
+  const [matches, setMatches] = useState<POICard[] | null>(null);
   const dataService = DataService.getInstance();
 
   useEffect(() => {
@@ -58,23 +71,81 @@ export default function MainView() {
   };
 
   const loadPOIs = async () => {
+    // A language switch starts over; responses for the previous language are dropped
+    const request = ++pageRequest.current;
+    setPois([]);
+    setNextCursor(null);
+    await loadPage(null, request);
+  };
+
+  const loadPage = async (cursor: string | null, request: number) => {
+    setLoadingPage(true);
     try {
-      const localizedPOIs = await dataService.getPOIsWithLocalizedTitles(language);
-      setPois(localizedPOIs);
+      const page = await dataService.fetchCatalogPage(language, cursor, PAGE_SIZE);
+      if (request === pageRequest.current) {
+        setPois(previous => cursor === null ? page.pois : [...previous, ...page.pois]);
+        setNextCursor(page.next);
+      }
     } catch (error) {
       console.error('Error loading POIs:', error);
+    } finally {
+      if (request === pageRequest.current) {
+        setLoadingPage(false);
+      }
     }
   };
 
+  const loadNextPage = useCallback(() => {
+    if (nextCursor && !loadingPage) {
+      loadPage(nextCursor, pageRequest.current);
+    }
+  }, [nextCursor, loadingPage, language]);
+
+  // Fetch the next page when the end of the list comes near the viewport
+  useEffect(() => {
+    const element = sentinel.current;
+    if (!element || !nextCursor || matches !== null) {
+      return;
+    }
+    const observer = new IntersectionObserver(entries => {
+      if (entries.some(entry => entry.isIntersecting)) {
+        loadNextPage();
+      }
+    }, { rootMargin: '400px' });
+    observer.observe(element);
+    return () => observer.disconnect();
+  }, [loadNextPage, nextCursor, matches]);
+
   const loadWelcomeText = async () => {
     try {
       const text = await dataService.getLocalizedText('welcome', language);
       setWelcomeText(text);
+      const search = await dataService.getLocalizedText('search', language);
+      setSearchText(search === 'search' ? 'Search' : search);
     } catch (error) {
       console.error('Error loading welcome text:', error);
     }
   };
 
+  // Search as you type, once the user pauses
+  useEffect(() => {
+    if (!query.trim()) {
+      setMatches(null);
+      return;
+    }
+    let cancelled = false;
+    const timer = setTimeout(async () => {
+      const found = await dataService.searchPOIs(query, language);
+      if (!cancelled) {
+        setMatches(found);
+      }
+    }, 150);
+    return () => {
+      cancelled = true;
+      clearTimeout(timer);
+    };
+  }, [query, language]);
+
   const handleLanguageChange = (newLanguage: Language) => {
     setLanguage(newLanguage);
     // Save language selection to localStorage
@@ -153,6 +224,8 @@ export default function MainView() {
 
   const alternateLocales = Object.values(localeMap).filter(loc => loc !== localeMap[language]);
 
+  const visiblePois = matches === null ? pois : matches;
+
   // Generate structured data
   const organizationSchema = generateOrganizationSchema();
   const poiListSchema = generatePOIListSchema(pois);
@@ -225,21 +298,38 @@ export default function MainView() {
         </div>
       </div>
 
+      {/* Search */}
+      <div className="search-container">
+        <input
+          type="search"
+          className="search-input"
+          placeholder={searchText}
+          aria-label={searchText}
+          value={query}
+          onChange={event => setQuery(event.target.value)}
+        />
+      </div>
+
       {/* POI grid */}
       <div className="poi-container">
-        {pois.map(poi => (
+        {visiblePois.map(poi => (
           <Link key={poi.name} to={`/poi/${encodeURIComponent(poi.name)}`} className="poi-link">
             <div className="poi-item">
               <h2 className="poi-title">{poi.displayName}</h2>
-              <img
-                src={poi.imagePath}
+              <LazyImage
+                src={poi.thumbnailUrl}
+                srcSet={poi.srcset || undefined}
+                sizes="(max-width: 768px) 50vw, 280px"
+                width={poi.width}
+                height={poi.height}
+                placeholder={poi.placeholder}
                 alt={poi.displayName}
                 className="poi-image"
-                loading="lazy"
               />
             </div>
           </Link>
         ))}
+        {matches === null && nextCursor && <div ref={sentinel} className="poi-list-sentinel" />}
       </div>
     </div>
   );
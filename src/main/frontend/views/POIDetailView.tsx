@@ -38,7 +38,7 @@ export default function POIDetailView() {
         setPoi(localizedPOI || poiData);
 
         // Load description
-        const desc = await loadDescription(poiData.name);
+        const desc = await loadDescription(poiData);
         setDescription(desc);
 
         // Get localized "Take me there!" text
@@ -52,9 +52,15 @@ export default function POIDetailView() {
     }
   };
 
-  const loadDescription = async (poiName: string): Promise<string> => {
+  const loadDescription = async (poiData: POI): Promise<string> => {
+    // Synced records already carry the paragraphs, also offline
+    const synced = poiData.descriptions?.[language] || poiData.descriptions?.EN;
+    if (synced && synced.length > 0) {
+      return synced.join('\n\n');
+    }
     try {
-      const response = await fetch(`/poi-descriptions/${poiName}.txt`);
+      // The catalog hands out a content-hashed URL, so the file is cached until it changes
+      const response = await fetch(poiData.descriptionPath || `/api/assets/poi-descriptions/${poiData.name}.txt`);
       if (!response.ok) {
         return 'Description not available.';
       }
@@ -88,20 +94,6 @@ export default function POIDetailView() {
     localStorage.setItem('selectedLanguage', newLanguage);
   };
 
-  const parseCoordinates = (mapUrl: string): { lat: number; lng: number } => {
-    try {
-      const parts = mapUrl.split('/');
-      if (parts.length >= 2) {
-        const lat = parseFloat(parts[parts.length - 2]);
-        const lng = parseFloat(parts[parts.length - 1]);
-        return { lat, lng };
-      }
-    } catch (error) {
-      console.error('Error parsing coordinates:', error);
-    }
-    return { lat: 46.2803, lng: 15.0726 }; // Default to Polzela center
-  };
-
   const NavigationButton = ({
     imagePath,
     altText,
@@ -123,22 +115,21 @@ export default function POIDetailView() {
   );
 
   const ImageGallery = ({ poi }: { poi: POI }) => {
-    const basePath = poi.imagePath.replace('.webp', '');
     const [enlargedImage, setEnlargedImage] = useState<string | null>(null);
 
     return (
       <>
         <div className="image-gallery">
-          {[1, 2, 3].map(i => (
+          {(poi.gallery || []).map(image => (
             <img
-              key={i}
-              src={`/images/${poi.name}${i}.webp`}
+              key={image.url}
+              src={image.thumbnailUrl}
+              width={image.width ?? undefined}
+              height={image.height ?? undefined}
               alt={poi.displayName}
               className="gallery-image"
-              onClick={() => setEnlargedImage(`/images/${poi.name}${i}.webp`)}
-              onError={(e) => {
-                (e.target as HTMLImageElement).style.display = 'none';
-              }}
+              loading="lazy"
+              onClick={() => setEnlargedImage(image.url)}
             />
           ))}
         </div>
@@ -159,7 +150,9 @@ export default function POIDetailView() {
 
   const MapComponent = ({ poi }: { poi: POI }) => {
     const mapRef = React.useRef<HTMLDivElement>(null);
-    const { lat, lng } = parseCoordinates(poi.mapUrl);
+    // Coordinates come parsed with the catalog; default to Polzela center
+    const lat = poi.lat ?? 46.2803;
+    const lng = poi.lng ?? 15.0726;
 
     useEffect(() => {
       let map: any;
@@ -168,7 +161,9 @@ export default function POIDetailView() {
         const L = (window as any).L;
         map = L.map(mapRef.current).setView([lat, lng], 15);
 
-        L.tileLayer('https://{s}.tile.openstreetmap.org/{z}/{x}/{y}.png', {
+        // Tiles come through the server's tile cache, which also keeps them for offline use
+        L.tileLayer('/api/tiles/{z}/{x}/{y}.png', {
+          maxZoom: 19,
           attribution: '&copy; <a href="https://www.openstreetmap.org/copyright">OpenStreetMap</a> contributors'
         }).addTo(map);
 
@@ -204,7 +199,8 @@ export default function POIDetailView() {
   // Generate SEO content
   const seoTitle = `${poi.displayName} - Visit Polzela`;
   const seoDescription = description || poi.description;
-  const canonicalUrl = `/poi/${encodeURIComponent(poi.name)}`;
+  // Same URLs as the server-rendered pages: the default language has no parameter
+  const canonicalUrl = `/poi/${encodeURIComponent(poi.name)}${language === 'EN' ? '' : `?lang=${language.toLowerCase()}`}`;
 
   const localeMap = {
     EN: 'en_US',
@@ -273,6 +269,10 @@ export default function POIDetailView() {
 
       <img
         src={poi.imagePath}
+        srcSet={poi.srcset || undefined}
+        sizes="(max-width: 800px) 100vw, 800px"
+        width={poi.width ?? undefined}
+        height={poi.height ?? undefined}
         alt={poi.displayName}
         className="poi-main-image"
       />
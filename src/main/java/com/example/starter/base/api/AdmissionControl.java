@@ -0,0 +1,247 @@
+package com.example.starter.base.api;
+
+import com.example.starter.base.services.TokenBuckets;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.util.NetUtil;
+import io.quarkus.vertx.http.runtime.RouteConstants;
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps one client from using up the machine: every client gets a budget of requests and
+ * one of response bytes for the image, catalog and description routes (see
+ * {@link TokenBuckets}), and is answered {@code 429} with {@code Retry-After} once either
+ * is spent.
+ *
+ * Runs ahead of every other handler, so a refused request costs a map lookup and nothing
+ * else. Clients are told apart by their address: the one in {@code admission.client-header},
+ * which the Fly proxy sets to the visitor's, if the request comes from one of the
+ * {@code admission.trusted-proxies}, and otherwise the peer address. IPv6 clients are
+ * counted per /64, the smallest network a provider hands out, so rotating addresses within
+ * it does not make new clients. Refusals are counted per route and budget
+ * ({@code admission.rejections}).
+ */
+@ApplicationScoped
+public class AdmissionControl {
+
+    // Ahead of the compression, precompressed file and REST handlers
+    private static final int ORDER = RouteConstants.ROUTE_ORDER_COMPRESSION - 1;
+
+    private static final String REQUESTS = "requests";
+    private static final String BYTES = "bytes";
+
+    private record Guarded(String prefix, String route) {
+    }
+
+    /**
+     * An address range in CIDR notation, e.g. {@code 172.16.0.0/12}.
+     */
+    private record Subnet(byte[] network, int prefixLength) {
+
+        static Subnet parse(String cidr) {
+            int slash = cidr.indexOf('/');
+            byte[] network = NetUtil.createByteArrayFromIpAddressString(slash < 0 ? cidr : cidr.substring(0, slash));
+            if (network == null) {
+                throw new IllegalArgumentException("Not an IP address range: " + cidr);
+            }
+            int prefixLength = slash < 0 ? network.length * 8 : Integer.parseInt(cidr.substring(slash + 1));
+            if (prefixLength < 0 || prefixLength > network.length * 8) {
+                throw new IllegalArgumentException("Not an IP address range: " + cidr);
+            }
+            return new Subnet(network, prefixLength);
+        }
+
+        boolean contains(byte[] address) {
+            if (address.length != network.length) {
+                return false;
+            }
+            int full = prefixLength / 8;
+            for (int i = 0; i < full; i++) {
+                if (address[i] != network[i]) {
+                    return false;
+                }
+            }
+            int rest = prefixLength % 8;
+            int mask = (0xff << (8 - rest)) & 0xff;
+            return rest == 0 || (address[full] & mask) == (network[full] & mask);
+        }
+    }
+
+    // Routes a client may use up the machine with, by path prefix
+    private static final List<Guarded> GUARDED = List.of(
+            new Guarded("/api/assets/images/", "images"),
+            new Guarded("/images/", "images"),
+            new Guarded("/api/assets/poi-descriptions/", "descriptions"),
+            new Guarded("/api/catalog/", "catalog"),
+            new Guarded("/api/sync", "catalog"));
+
+    @Inject
+    private MeterRegistry registry;
+
+    @Inject
+    private Vertx vertx;
+
+    @ConfigProperty(name = "admission.enabled")
+    private boolean enabled;
+
+    @ConfigProperty(name = "admission.client-header")
+    private Optional<String> clientHeader;
+
+    @ConfigProperty(name = "admission.trusted-proxies")
+    private Optional<List<String>> trustedProxyRanges;
+
+    @ConfigProperty(name = "admission.requests.rate")
+    private double requestRate;
+
+    @ConfigProperty(name = "admission.requests.burst")
+    private long requestBurst;
+
+    @ConfigProperty(name = "admission.bytes.rate")
+    private double byteRate;
+
+    @ConfigProperty(name = "admission.bytes.burst")
+    private long byteBurst;
+
+    @ConfigProperty(name = "admission.max-clients")
+    private int maxClients;
+
+    @ConfigProperty(name = "admission.sweep-interval")
+    private Duration sweepInterval;
+
+    private TokenBuckets buckets;
+
+    private List<Subnet> trustedProxies = List.of();
+
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+
+    void register(@Observes Router router) {
+        if (!enabled) {
+            return;
+        }
+        buckets = new TokenBuckets(new TokenBuckets.Budget(requestRate, requestBurst),
+                new TokenBuckets.Budget(byteRate, byteBurst), maxClients);
+        trustedProxies = trustedProxyRanges.orElse(List.of()).stream().map(Subnet::parse).toList();
+        Gauge.builder("admission.clients", buckets, TokenBuckets::size)
+                .description("Clients with a partly used budget")
+                .register(registry);
+        vertx.setPeriodic(sweepInterval.toMillis(), id -> buckets.sweep(System.nanoTime()));
+        router.route().order(ORDER).handler(this::admit);
+    }
+
+    private void admit(RoutingContext context) {
+        String route = routeOf(context.normalizedPath());
+        if (route == null) {
+            context.next();
+            return;
+        }
+        long now = System.nanoTime();
+        TokenBuckets.Client client = buckets.client(clientOf(context.request()), now);
+        long wait = client.tryAcquire(now);
+        if (wait > 0) {
+            reject(context, route, client.isOverBytes(now) ? BYTES : REQUESTS, wait);
+            return;
+        }
+        context.addEndHandler(result -> client.charge(System.nanoTime(), context.response().bytesWritten()));
+        context.next();
+    }
+
+    private void reject(RoutingContext context, String route, String budget, long waitNanos) {
+        rejections.computeIfAbsent(route + '|' + budget, key -> Counter.builder("admission.rejections")
+                .description("Requests refused because the client was over its budget")
+                .tag("route", route)
+                .tag("budget", budget)
+                .register(registry)).increment();
+        long retryAfter = Math.max(1, (waitNanos + 999_999_999) / 1_000_000_000);
+        context.response()
+                .setStatusCode(429)
+                .putHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter))
+                .putHeader(HttpHeaders.CACHE_CONTROL, "no-store")
+                .putHeader(HttpHeaders.CONTENT_TYPE, "text/plain;charset=UTF-8")
+                .end("Too many requests, retry in " + retryAfter + " s");
+    }
+
+    private String clientOf(HttpServerRequest request) {
+        SocketAddress remote = request.remoteAddress();
+        if (remote == null) {
+            return "";
+        }
+        byte[] peer = parse(remote.hostAddress());
+        if (peer == null) {
+            return remote.hostAddress();
+        }
+        if (clientHeader.isPresent() && isTrustedProxy(peer)) {
+            String forwarded = request.getHeader(clientHeader.get());
+            byte[] client = forwarded != null ? parse(forwarded.trim()) : null;
+            if (client != null) {
+                return keyOf(client);
+            }
+        }
+        return keyOf(peer);
+    }
+
+    /**
+     * Parses an address literal, never a host name, with IPv4-mapped IPv6 addresses as IPv4.
+     * Returns null if it is not one.
+     */
+    private static byte[] parse(String literal) {
+        byte[] address = NetUtil.createByteArrayFromIpAddressString(literal);
+        if (address != null && address.length == 16 && isIpv4Mapped(address)) {
+            return new byte[]{address[12], address[13], address[14], address[15]};
+        }
+        return address;
+    }
+
+    private static boolean isIpv4Mapped(byte[] address) {
+        for (int i = 0; i < 10; i++) {
+            if (address[i] != 0) {
+                return false;
+            }
+        }
+        return address[10] == (byte) 0xff && address[11] == (byte) 0xff;
+    }
+
+    private boolean isTrustedProxy(byte[] address) {
+        for (Subnet subnet : trustedProxies) {
+            if (subnet.contains(address)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String keyOf(byte[] address) {
+        if (address.length == 4) {
+            return (address[0] & 0xff) + "." + (address[1] & 0xff) + "." + (address[2] & 0xff) + "." + (address[3] & 0xff);
+        }
+        return HexFormat.of().formatHex(address, 0, 8) + "/64";
+    }
+
+    private static String routeOf(String path) {
+        if (path == null) {
+            return null;
+        }
+        for (Guarded guarded : GUARDED) {
+            if (path.startsWith(guarded.prefix())) {
+                return guarded.route();
+            }
+        }
+        return null;
+    }
+}
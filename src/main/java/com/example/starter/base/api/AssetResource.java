@@ -0,0 +1,274 @@
+package com.example.starter.base.api;
+
+import com.example.starter.base.content.AssetManifest;
+import com.example.starter.base.content.PrecompressedAssets;
+import com.example.starter.base.services.AssetService;
+import com.example.starter.base.services.StaticFileCache;
+import com.example.starter.base.services.StaticFileCache.CachedFile;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import org.jboss.resteasy.reactive.PathPart;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves images, descriptions and POI data files, e.g.
+ * {@code GET /api/assets/images/castle.0123456789abcdef.webp}.
+ *
+ * A fingerprinted name whose hash matches the asset manifest is cached forever; a stale hash
+ * gets the current file with revalidation, and plain names are always revalidated. Names
+ * hashed at build time (the image variants) are immutable as they are.
+ *
+ * Files are extracted from the jar once (see {@link StaticFileCache}) and then sent with
+ * sendfile, so multi-megabyte images never pass through the heap. Supports single byte
+ * ranges, If-Range and If-None-Match. Only the first request for a file leaves the event
+ * loop, to copy it out of the jar on a worker thread.
+ *
+ * Text files with brotli or gzip siblings written at build time are sent as the best
+ * sibling the client accepts, so compressing them costs nothing per request. Range requests
+ * get the uncompressed file.
+ *
+ * Every response found is timed, from the request to the response being ready, and its
+ * body size recorded, per directory, encoding and whether the file had to be extracted
+ * first ({@code assets.served}, {@code assets.served.bytes}).
+ */
+@Path("/assets")
+public class AssetResource {
+
+    static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    static final String REVALIDATE = "no-cache";
+
+    private static final Set<String> DIRECTORIES = Set.of("images", "poi-descriptions", "pointsofinterest");
+
+    private static final long[] UNSATISFIABLE = new long[0];
+
+    @Inject
+    private AssetService assetService;
+
+    @Inject
+    private StaticFileCache fileCache;
+
+    @Inject
+    private MeterRegistry registry;
+
+    private final Map<String, AssetMeters> meters = new ConcurrentHashMap<>();
+
+    @GET
+    @Path("/{path: .+}")
+    public Uni<Response> getAsset(@PathParam("path") String path,
+                                  @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+                                  @HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding,
+                                  @HeaderParam("Range") String range,
+                                  @HeaderParam("If-Range") String ifRange) {
+        long start = System.nanoTime();
+        int slash = path.indexOf('/');
+        if (slash < 0 || !DIRECTORIES.contains(path.substring(0, slash))) {
+            return Uni.createFrom().item(Response.status(Response.Status.NOT_FOUND).build());
+        }
+
+        // Hashed names the manifest does not list were hashed at build time and are served as is
+        AssetManifest.Resolved resolved = AssetManifest.unfingerprint(path);
+        String current = resolved != null ? assetService.getManifest().getHash(resolved.path()) : null;
+        String relativePath = current != null ? resolved.path() : path;
+        boolean immutable = resolved != null && (current == null || current.equals(resolved.hash()));
+        String cacheControl = immutable ? IMMUTABLE : REVALIDATE;
+
+        PrecompressedAssets.Asset compressed = assetService.getPrecompressed().get(relativePath);
+        String encoding = compressed != null && range == null
+                ? PrecompressedPayload.negotiate(acceptEncoding,
+                        compressed.has(PrecompressedAssets.BROTLI), compressed.has(PrecompressedAssets.GZIP))
+                : null;
+        Variant variant = new Variant(PrecompressedAssets.siblingPath(relativePath, encoding), encoding, compressed != null);
+
+        String directory = path.substring(0, slash);
+        Optional<CachedFile> extracted = fileCache.getIfExtracted(variant.file());
+        if (extracted.isPresent()) {
+            Response response = toResponse(relativePath, extracted.get(), variant, cacheControl, ifNoneMatch, range, ifRange);
+            record(directory, variant, "cache", start, response);
+            return Uni.createFrom().item(response);
+        }
+        return Uni.createFrom().item(() -> fileCache.get(variant.file()))
+                .runSubscriptionOn(Infrastructure.getDefaultWorkerPool())
+                .map(cached -> cached
+                        .map(found -> {
+                            Response response = toResponse(relativePath, found, variant, cacheControl, ifNoneMatch, range, ifRange);
+                            record(directory, variant, "jar", start, response);
+                            return response;
+                        })
+                        .orElseGet(() -> Response.status(Response.Status.NOT_FOUND).build()));
+    }
+
+    /**
+     * Latency and body size of the responses for one directory, encoding and source.
+     */
+    private record AssetMeters(Timer latency, DistributionSummary bytes) {
+    }
+
+    private void record(String directory, Variant variant, String source, long start, Response response) {
+        String encoding = variant.encoding() != null ? variant.encoding() : "identity";
+        AssetMeters assetMeters = meters.computeIfAbsent(directory + '|' + encoding + '|' + source, key -> new AssetMeters(
+                Timer.builder("assets.served")
+                        .description("Time to answer an asset request; the body is then sent with sendfile")
+                        .tags("directory", directory, "encoding", encoding, "source", source)
+                        .publishPercentileHistogram()
+                        .register(registry),
+                DistributionSummary.builder("assets.served.bytes")
+                        .description("Body bytes per asset response, 0 for a 304")
+                        .baseUnit("bytes")
+                        .tags("directory", directory, "encoding", encoding, "source", source)
+                        .register(registry)));
+        assetMeters.latency().record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        assetMeters.bytes().record(response.getEntity() instanceof PathPart part ? part.count : 0);
+    }
+
+    /**
+     * The file sent for an asset: the asset itself, or a compressed sibling with its
+     * encoding. {@code negotiated} is true when the choice depended on Accept-Encoding.
+     */
+    record Variant(String file, String encoding, boolean negotiated) {
+    }
+
+    static Response toResponse(String path, CachedFile file, Variant variant, String cacheControl,
+                               String ifNoneMatch, String range, String ifRange) {
+
+        if (matches(ifNoneMatch, file.etagValue())) {
+            Response.ResponseBuilder notModified = Response.notModified()
+                    .header(HttpHeaders.ETAG, file.getEtag())
+                    .header(HttpHeaders.CACHE_CONTROL, cacheControl);
+            if (variant.negotiated()) {
+                notModified.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            return notModified.build();
+        }
+
+        // A stale If-Range means the client's partial copy is outdated: send the whole file
+        boolean rangeApplies = range != null && (ifRange == null || ifRange.trim().equals(file.getEtag()));
+        long[] bounds = rangeApplies ? parseRange(range, file.size()) : null;
+        if (bounds == UNSATISFIABLE) {
+            return Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header("Content-Range", "bytes */" + file.size())
+                    .build();
+        }
+
+        Response.ResponseBuilder response;
+        if (bounds != null) {
+            long length = bounds[1] - bounds[0] + 1;
+            response = Response.status(Response.Status.PARTIAL_CONTENT)
+                    .entity(new PathPart(file.path(), bounds[0], length))
+                    .header("Content-Range", "bytes " + bounds[0] + "-" + bounds[1] + "/" + file.size());
+        } else {
+            response = Response.ok(new PathPart(file.path(), 0, file.size()));
+        }
+        if (variant.encoding() != null) {
+            response.header(HttpHeaders.CONTENT_ENCODING, variant.encoding());
+        } else {
+            response.header("Accept-Ranges", "bytes");
+        }
+        if (variant.negotiated()) {
+            response.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        return response
+                .type(contentType(path))
+                .header(HttpHeaders.ETAG, file.getEtag())
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .build();
+    }
+
+    /**
+     * Parses a single {@code bytes=} range into inclusive bounds. Returns null when the
+     * header should be ignored (another unit, several ranges, malformed), in which case the
+     * whole file is sent, and {@link #UNSATISFIABLE} when it starts past the end.
+     */
+    static long[] parseRange(String header, long size) {
+        String value = header.trim();
+        if (!value.regionMatches(true, 0, "bytes=", 0, 6) || value.indexOf(',') >= 0) {
+            return null;
+        }
+        String spec = value.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes
+                if (last.isEmpty()) {
+                    return null;
+                }
+                long suffix = Long.parseLong(last);
+                if (suffix == 0) {
+                    return UNSATISFIABLE;
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(first);
+                if (!last.isEmpty() && Long.parseLong(last) < start) {
+                    return null;
+                }
+                end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            }
+            if (start >= size) {
+                return UNSATISFIABLE;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String etagValue) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.replace("\"", "").equals(etagValue)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String contentType(String path) {
+        String name = path.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".webp")) {
+            return "image/webp";
+        } else if (name.endsWith(".jpg") || name.endsWith(".jpeg")) {
+            return "image/jpeg";
+        } else if (name.endsWith(".png")) {
+            return "image/png";
+        } else if (name.endsWith(".svg")) {
+            return "image/svg+xml";
+        } else if (name.endsWith(".ico")) {
+            return "image/x-icon";
+        } else if (name.endsWith(".gif")) {
+            return "image/gif";
+        } else if (name.endsWith(".txt")) {
+            return "text/plain;charset=UTF-8";
+        }
+        return "application/octet-stream";
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.starter.base.api;
+
+import com.example.starter.base.content.ImageVariants;
+import com.example.starter.base.entity.GalleryImage;
+import com.example.starter.base.entity.PointOfInterest;
+import com.example.starter.base.services.AssetService;
+import com.example.starter.base.services.ContentReloaded;
+import com.example.starter.base.services.ContentSnapshot;
+import com.example.starter.base.services.ContentState;
+import com.example.starter.base.services.ImageVariantService;
+import com.example.starter.base.services.Localizations;
+import com.example.starter.base.services.SnapshotCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.Startup;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.core.MediaType;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Pre-serialized, pre-compressed JSON catalog per language.
+ *
+ * The payloads are built once per {@link ContentSnapshot}, off the request thread (see
+ * {@link SnapshotCache}). Until the payloads for a new one are ready, requests get the
+ * previous ones.
+ */
+@Startup
+@ApplicationScoped
+public class CatalogPayloads {
+
+    private static final Logger LOG = Logger.getLogger(CatalogPayloads.class);
+
+    @Inject
+    private ContentState contentState;
+
+    @Inject
+    private ObjectMapper objectMapper;
+
+    @Inject
+    private MeterRegistry registry;
+
+    private static final String IMAGE_URL_PREFIX = AssetService.URL_PREFIX + "images/";
+
+    private SnapshotCache<Snapshot> payloads;
+
+    /**
+     * Payloads derived from one content snapshot.
+     */
+    private record Snapshot(ContentSnapshot content, Map<String, PrecompressedPayload> byLanguage) {
+    }
+
+    /**
+     * A POI as sent to the client. {@code srcset} is null when the image has no variants;
+     * the image's intrinsic size and blurhash {@code placeholder} are null when unknown.
+     */
+    public record CatalogEntry(String name, String displayName, String description,
+                               String imageUrl, String thumbnailUrl, String srcset,
+                               Integer width, Integer height, String placeholder, List<GalleryEntry> gallery,
+                               String descriptionUrl,
+                               String mapUrl, String navigationUrl, String appleNavigationUrl,
+                               Double lat, Double lng, int order) {
+    }
+
+    /**
+     * One gallery image, in gallery order. Width and height are null when unknown, {@code size}
+     * is in bytes.
+     */
+    public record GalleryEntry(String url, String thumbnailUrl, Integer width, Integer height, long size) {
+    }
+
+    /**
+     * The catalog for one language, including UI strings such as "takeme".
+     */
+    public record CatalogDocument(String language, List<CatalogEntry> pois, Map<String, String> texts) {
+    }
+
+    @PostConstruct
+    void init() {
+        payloads = new SnapshotCache<>("catalog payloads", contentState::get,
+                (previous, content) -> build(content), Infrastructure.getDefaultWorkerPool());
+        payloads.refresh();
+    }
+
+    void onContentReloaded(@Observes ContentReloaded event) {
+        payloads.refresh();
+    }
+
+    /**
+     * Returns the payload for a language tag such as "en", "SL" or "de-AT", falling back
+     * the same way as the UI does.
+     */
+    public PrecompressedPayload get(String languageTag) {
+        Snapshot current = payloads.get();
+        Locale locale = Locale.forLanguageTag(languageTag == null ? "" : languageTag.replace('_', '-'));
+        String language = current.content().localizations().resolveLanguage(locale);
+        PrecompressedPayload payload = current.byLanguage().get(language);
+        return payload != null ? payload : current.byLanguage().get(Localizations.DEFAULT_LANGUAGE);
+    }
+
+    private Snapshot build(ContentSnapshot content) {
+        Localizations localizations = content.localizations();
+        long start = System.nanoTime();
+        Map<String, PrecompressedPayload> byLanguage = new LinkedHashMap<>();
+
+        for (String language : localizations.getLanguages()) {
+            CatalogDocument document = new CatalogDocument(
+                    language,
+                    toEntries(content.catalog().getPointsOfInterest(language), content.variants()),
+                    localizations.getTexts(language));
+            try {
+                byLanguage.put(language, PrecompressedPayload.of(
+                        objectMapper.writeValueAsBytes(document), MediaType.APPLICATION_JSON + ";charset=UTF-8"));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize catalog for " + language, e);
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        Timer.builder("catalog.payloads.build")
+                .description("Serializing and compressing the catalog for every language")
+                .register(registry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        LOG.infof("Built catalog payloads for %s in %d ms", byLanguage.keySet(), elapsed / 1_000_000);
+        return new Snapshot(content, Collections.unmodifiableMap(byLanguage));
+    }
+
+    static List<CatalogEntry> toEntries(List<PointOfInterest> pois, ImageVariants variants) {
+        List<CatalogEntry> entries = new ArrayList<>(pois.size());
+        for (int i = 0; i < pois.size(); i++) {
+            entries.add(toEntry(pois.get(i), i, variants));
+        }
+        return entries;
+    }
+
+    static CatalogEntry toEntry(PointOfInterest poi, int order, ImageVariants variants) {
+        return new CatalogEntry(
+                poi.getName(),
+                poi.getDisplayName(),
+                poi.getDescription(),
+                poi.getImageUrl(),
+                variants.urlFor(poi.getImagePath(), ImageVariantService.THUMBNAIL_WIDTH, IMAGE_URL_PREFIX, poi.getImageUrl()),
+                variants.srcset(poi.getImagePath(), IMAGE_URL_PREFIX, poi.getImageUrl()),
+                poi.hasImageSize() ? poi.getImageWidth() : null,
+                poi.hasImageSize() ? poi.getImageHeight() : null,
+                poi.getImagePlaceholder(),
+                toGallery(poi, variants),
+                poi.getDescriptionUrl(),
+                poi.getMapUrl(),
+                poi.getNavigationUrl(),
+                poi.getAppleNavigationUrl(),
+                poi.hasCoordinates() ? poi.getLatitude() : null,
+                poi.hasCoordinates() ? poi.getLongitude() : null,
+                order);
+    }
+
+    static List<GalleryEntry> toGallery(PointOfInterest poi, ImageVariants variants) {
+        List<GalleryEntry> gallery = new ArrayList<>(poi.getGallery().size());
+        for (GalleryImage image : poi.getGallery()) {
+            gallery.add(new GalleryEntry(
+                    image.url(),
+                    variants.urlFor(image.path(), ImageVariantService.THUMBNAIL_WIDTH, IMAGE_URL_PREFIX, image.url()),
+                    image.hasSize() ? image.width() : null,
+                    image.hasSize() ? image.height() : null,
+                    image.size()));
+        }
+        return gallery;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.starter.base.api;
+
+import com.example.starter.base.content.ImageVariants;
+import com.example.starter.base.entity.PointOfInterest;
+import com.example.starter.base.services.AppMetrics;
+import com.example.starter.base.services.AssetService;
+import com.example.starter.base.services.ImageVariantService;
+import com.example.starter.base.services.POICatalog;
+import com.example.starter.base.services.POIService;
+import io.smallrye.common.annotation.NonBlocking;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * JSON catalog for the React client: localized titles, short descriptions, coordinates
+ * and image URLs for one language, e.g. {@code GET /api/catalog/sl}.
+ *
+ * The list view pages through the catalog instead, a few cards at a time, e.g.
+ * {@code GET /api/catalog/sl/page?limit=24&cursor=...&bbox=46.25,15.02,46.33,15.12}.
+ */
+@Path("/catalog")
+public class CatalogResource {
+
+    // Clients revalidate every time; an unchanged catalog costs a 304 and no body
+    static final String CACHE_CONTROL = "no-cache";
+
+    static final int MAX_PAGE_SIZE = 100;
+
+    private static final String IMAGE_URL_PREFIX = AssetService.URL_PREFIX + "images/";
+
+    @Inject
+    private CatalogPayloads payloads;
+
+    @Inject
+    private POIService poiService;
+
+    @Inject
+    private AppMetrics metrics;
+
+    /**
+     * What a list card needs; the rest of a POI comes from the offline store or the
+     * detail view.
+     */
+    public record PageEntry(String name, String displayName, String thumbnailUrl, String srcset,
+                            Integer width, Integer height, String placeholder, int order) {
+    }
+
+    /**
+     * One page of the catalog. {@code next} is the cursor for the following page, null
+     * after the last.
+     */
+    public record CatalogPage(String language, List<PageEntry> pois, String next) {
+    }
+
+    @GET
+    @Path("/{language}")
+    @NonBlocking
+    public Response getCatalog(@PathParam("language") String language,
+                               @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch,
+                               @HeaderParam(HttpHeaders.ACCEPT_ENCODING) String acceptEncoding) {
+        metrics.countLocale("catalog", Locale.forLanguageTag(language.replace('_', '-')));
+        return payloads.get(language).toResponse(ifNoneMatch, acceptEncoding, CACHE_CONTROL);
+    }
+
+    /**
+     * POIs in catalog order, optionally only those inside a {@code south,west,north,east}
+     * bounding box. Pages are stable across content reloads: a cursor continues after the
+     * POI it was issued for.
+     */
+    @GET
+    @Path("/{language}/page")
+    @NonBlocking
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getPage(@PathParam("language") String language,
+                            @QueryParam("cursor") String cursor,
+                            @QueryParam("limit") @DefaultValue("24") int limit,
+                            @QueryParam("bbox") String bbox) {
+        Predicate<PointOfInterest> filter = bbox != null ? parseBoundingBox(bbox) : poi -> true;
+        if (filter == null) {
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+        Locale locale = Locale.forLanguageTag(language.replace('_', '-'));
+        String resolved = metrics.countLocale("catalog-page", locale);
+
+        POIService.Page page;
+        try {
+            page = poiService.getPage(locale, cursor, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)), filter);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+
+        ImageVariants variants = page.variants();
+        List<PageEntry> entries = new ArrayList<>(page.pois().size());
+        for (POICatalog.Listed listed : page.pois()) {
+            PointOfInterest poi = listed.poi();
+            entries.add(new PageEntry(
+                    poi.getName(),
+                    poi.getDisplayName(),
+                    variants.urlFor(poi.getImagePath(), ImageVariantService.THUMBNAIL_WIDTH, IMAGE_URL_PREFIX, poi.getImageUrl()),
+                    variants.srcset(poi.getImagePath(), IMAGE_URL_PREFIX, poi.getImageUrl()),
+                    poi.hasImageSize() ? poi.getImageWidth() : null,
+                    poi.hasImageSize() ? poi.getImageHeight() : null,
+                    poi.getImagePlaceholder(),
+                    listed.order()));
+        }
+        return Response.ok(new CatalogPage(resolved, entries, page.nextCursor()))
+                .header(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL)
+                .build();
+    }
+
+    /**
+     * Parses {@code south,west,north,east} into a filter, or returns null if malformed.
+     * POIs without coordinates are never inside.
+     */
+    static Predicate<PointOfInterest> parseBoundingBox(String bbox) {
+        String[] parts = bbox.split(",");
+        if (parts.length != 4) {
+            return null;
+        }
+        double[] bounds = new double[4];
+        try {
+            for (int i = 0; i < 4; i++) {
+                bounds[i] = Double.parseDouble(parts[i].trim());
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        double south = bounds[0], west = bounds[1], north = bounds[2], east = bounds[3];
+        if (!(south <= north) || !(west <= east) || !(Math.abs(south) <= 90) || !(Math.abs(north) <= 90)
+                || !(Math.abs(west) <= 180) || !(Math.abs(east) <= 180)) {
+            return null;
+        }
+        return poi -> poi.hasCoordinates()
+                && poi.getLatitude() >= south && poi.getLatitude() <= north
+                && poi.getLongitude() >= west && poi.getLongitude() <= east;
+    }
+}
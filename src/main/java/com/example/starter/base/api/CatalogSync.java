@@ -0,0 +1,261 @@
+package com.example.starter.base.api;
+
+import com.example.starter.base.api.CatalogPayloads.CatalogEntry;
+import com.example.starter.base.api.CatalogPayloads.GalleryEntry;
+import com.example.starter.base.entity.POIDescription;
+import com.example.starter.base.services.ContentReloaded;
+import com.example.starter.base.services.ContentSnapshot;
+import com.example.starter.base.services.ContentState;
+import com.example.starter.base.services.DescriptionService;
+import com.example.starter.base.services.Localizations;
+import com.example.starter.base.services.SnapshotCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.quarkus.runtime.Startup;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Revision history of the catalog for delta sync.
+ *
+ * Every POI record (titles in all languages, descriptions, URLs, coordinates) carries the
+ * revision at which it last changed; the UI strings carry one revision for all of them.
+ * When a new {@link ContentSnapshot} is swapped in, each record's hash is compared with the
+ * previous one off the request thread (see {@link SnapshotCache}), and changed records get
+ * the next revision; requests are answered from the previous revision until then. Removed
+ * POIs leave a tombstone.
+ *
+ * Revisions only count within an epoch. The epoch is the hash of the content the process
+ * started with, so every instance and restart of the same build agrees on it, while a new
+ * deployment with different content makes clients start over.
+ */
+@Startup
+@ApplicationScoped
+public class CatalogSync {
+
+    private static final Logger LOG = Logger.getLogger(CatalogSync.class);
+
+    @Inject
+    private ContentState contentState;
+
+    @Inject
+    private ObjectMapper objectMapper;
+
+    private SnapshotCache<State> states;
+
+    public CatalogSync() {
+    }
+
+    /**
+     * A history outside the container, e.g. in tests, starting from the current content.
+     */
+    CatalogSync(ContentState contentState, ObjectMapper objectMapper) {
+        this.contentState = contentState;
+        this.objectMapper = objectMapper;
+        init();
+    }
+
+    /**
+     * One POI with everything the offline store keeps for it.
+     */
+    public record SyncRecord(String name, long revision, int order,
+                             Map<String, String> titles, String description,
+                             Map<String, List<String>> descriptions,
+                             String imageUrl, String thumbnailUrl, String srcset,
+                             Integer width, Integer height, String placeholder,
+                             List<GalleryEntry> gallery, String descriptionUrl,
+                             String mapUrl, String navigationUrl, String appleNavigationUrl,
+                             Double lat, Double lng) {
+
+        SyncRecord withRevision(long next) {
+            return new SyncRecord(name, next, order, titles, description, descriptions, imageUrl, thumbnailUrl,
+                    srcset, width, height, placeholder, gallery, descriptionUrl, mapUrl, navigationUrl, appleNavigationUrl,
+                    lat, lng);
+        }
+    }
+
+    /**
+     * A POI that was removed at {@code revision}.
+     */
+    public record Tombstone(String name, long revision) {
+    }
+
+    /**
+     * Everything that changed after the client's revision. With {@code reset} set, the client
+     * must drop its copy first; {@code texts} is null when the UI strings did not change.
+     */
+    public record SyncDelta(String epoch, long revision, boolean reset, List<SyncRecord> pois,
+                            List<Tombstone> deleted, Map<String, Map<String, String>> texts) {
+
+        /**
+         * The delta for a given {@code since} and epoch only changes with the revision, so
+         * epoch and revision make a strong ETag.
+         */
+        public String etag() {
+            return "\"" + epoch + "." + revision + "\"";
+        }
+    }
+
+    private record Versioned(SyncRecord record, String hash) {
+    }
+
+    private record State(String epoch, long revision,
+                         Map<String, Versioned> records, Map<String, Tombstone> tombstones,
+                         Map<String, Map<String, String>> texts, String textsHash, long textsRevision) {
+    }
+
+    @PostConstruct
+    void init() {
+        states = new SnapshotCache<>("catalog sync state", contentState::get, this::advance,
+                Infrastructure.getDefaultWorkerPool());
+        states.refresh();
+    }
+
+    void onContentReloaded(@Observes ContentReloaded event) {
+        states.refresh();
+    }
+
+    /**
+     * Returns the changes after {@code since}. A client from another epoch, or one that
+     * claims a revision from the future, gets a full reset.
+     */
+    public SyncDelta changesSince(String epoch, long since) {
+        State current = states.get();
+        boolean reset = !current.epoch().equals(epoch) || since < 0 || since > current.revision();
+        long from = reset ? 0 : since;
+
+        List<SyncRecord> pois = new ArrayList<>();
+        for (Versioned versioned : current.records().values()) {
+            if (versioned.record().revision() > from) {
+                pois.add(versioned.record());
+            }
+        }
+        List<Tombstone> deleted = new ArrayList<>();
+        if (!reset) {
+            for (Tombstone tombstone : current.tombstones().values()) {
+                if (tombstone.revision() > from) {
+                    deleted.add(tombstone);
+                }
+            }
+        }
+        Map<String, Map<String, String>> texts = current.textsRevision() > from ? current.texts() : null;
+        return new SyncDelta(current.epoch(), current.revision(), reset, pois, deleted, texts);
+    }
+
+    private State advance(State previous, ContentSnapshot content) {
+        Localizations localizations = content.localizations();
+        Map<String, SyncRecord> records = buildRecords(content);
+        Map<String, Map<String, String>> texts = new LinkedHashMap<>();
+        for (String language : localizations.getLanguages()) {
+            texts.put(language, localizations.getTexts(language));
+        }
+        String textsHash = hash(texts);
+
+        if (previous == null) {
+            Map<String, Versioned> versioned = new LinkedHashMap<>();
+            StringBuilder epochSource = new StringBuilder(textsHash);
+            records.forEach((name, record) -> {
+                Versioned entry = new Versioned(record.withRevision(1), hash(record));
+                versioned.put(name, entry);
+                epochSource.append(entry.hash());
+            });
+            String epoch = PrecompressedPayload.hash(epochSource.toString().getBytes(StandardCharsets.UTF_8)).substring(0, 12);
+            LOG.infof("Catalog sync epoch %s with %d POIs", epoch, versioned.size());
+            return new State(epoch, 1, Collections.unmodifiableMap(versioned),
+                    Map.of(), Collections.unmodifiableMap(texts), textsHash, 1);
+        }
+
+        long next = previous.revision() + 1;
+        boolean changed = false;
+        Map<String, Versioned> versioned = new LinkedHashMap<>();
+        for (Map.Entry<String, SyncRecord> entry : records.entrySet()) {
+            String recordHash = hash(entry.getValue());
+            Versioned old = previous.records().get(entry.getKey());
+            if (old != null && old.hash().equals(recordHash)) {
+                versioned.put(entry.getKey(), old);
+            } else {
+                versioned.put(entry.getKey(), new Versioned(entry.getValue().withRevision(next), recordHash));
+                changed = true;
+            }
+        }
+
+        Map<String, Tombstone> tombstones = new LinkedHashMap<>(previous.tombstones());
+        tombstones.keySet().removeAll(versioned.keySet());
+        for (String name : previous.records().keySet()) {
+            if (!versioned.containsKey(name)) {
+                tombstones.put(name, new Tombstone(name, next));
+                changed = true;
+            }
+        }
+
+        long textsRevision = previous.textsRevision();
+        if (!textsHash.equals(previous.textsHash())) {
+            textsRevision = next;
+            changed = true;
+        }
+
+        long revision = changed ? next : previous.revision();
+        if (changed) {
+            LOG.infof("Catalog sync advanced to revision %d", revision);
+        }
+        return new State(previous.epoch(), revision, Collections.unmodifiableMap(versioned),
+                Collections.unmodifiableMap(tombstones), Collections.unmodifiableMap(texts), textsHash, textsRevision);
+    }
+
+    /**
+     * Merges the per-language catalog entries into one record per POI, with revision 0.
+     */
+    private Map<String, SyncRecord> buildRecords(ContentSnapshot content) {
+        Localizations localizations = content.localizations();
+        Map<String, Map<String, String>> titles = new LinkedHashMap<>();
+        for (String language : localizations.getLanguages()) {
+            for (CatalogEntry entry : CatalogPayloads.toEntries(content.catalog().getPointsOfInterest(language),
+                    content.variants())) {
+                titles.computeIfAbsent(entry.name(), name -> new LinkedHashMap<>()).put(language, entry.displayName());
+            }
+        }
+
+        List<CatalogEntry> entries = new ArrayList<>(CatalogPayloads.toEntries(
+                content.catalog().getPointsOfInterest(Localizations.DEFAULT_LANGUAGE), content.variants()));
+        entries.sort(Comparator.comparingInt(CatalogEntry::order));
+
+        Map<String, SyncRecord> records = new LinkedHashMap<>();
+        for (CatalogEntry entry : entries) {
+            Map<String, List<String>> descriptions = new LinkedHashMap<>();
+            for (String language : localizations.getLanguages()) {
+                POIDescription description = DescriptionService.find(content.descriptions(), entry.name(), language);
+                if (description != null) {
+                    descriptions.put(language, description.getParagraphs());
+                }
+            }
+            records.put(entry.name(), new SyncRecord(
+                    entry.name(), 0, entry.order(),
+                    titles.getOrDefault(entry.name(), Map.of()), entry.description(), descriptions,
+                    entry.imageUrl(), entry.thumbnailUrl(), entry.srcset(),
+                    entry.width(), entry.height(), entry.placeholder(), entry.gallery(), entry.descriptionUrl(),
+                    entry.mapUrl(), entry.navigationUrl(), entry.appleNavigationUrl(),
+                    entry.lat(), entry.lng()));
+        }
+        return records;
+    }
+
+    private String hash(Object value) {
+        try {
+            return PrecompressedPayload.hash(objectMapper.writeValueAsBytes(value));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize sync record", e);
+        }
+    }
+}
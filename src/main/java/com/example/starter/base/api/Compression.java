@@ -0,0 +1,77 @@
+package com.example.starter.base.api;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import org.jboss.logging.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Maximum-level gzip and brotli encoders for content that is compressed once and served
+ * many times.
+ */
+public final class Compression {
+
+    private static final Logger LOG = Logger.getLogger(Compression.class);
+
+    public static final String GZIP = "gzip";
+    public static final String BROTLI = "br";
+
+    private static final int BROTLI_MAX_QUALITY = 11;
+
+    private Compression() {
+    }
+
+    public static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 3));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(data);
+        } catch (IOException e) {
+            // Writing to memory does not fail
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Compresses with brotli at maximum quality, or returns null when the native brotli
+     * library is not available on this platform.
+     */
+    public static byte[] brotli(byte[] data) {
+        if (!isBrotliAvailable()) {
+            return null;
+        }
+        try {
+            return Encoder.compress(data, new Encoder.Parameters().setQuality(BROTLI_MAX_QUALITY));
+        } catch (IOException e) {
+            LOG.warn("Brotli compression failed", e);
+            return null;
+        }
+    }
+
+    public static boolean isBrotliAvailable() {
+        return BrotliHolder.AVAILABLE;
+    }
+
+    // Loads the native library on first use only
+    private static final class BrotliHolder {
+        static final boolean AVAILABLE = load();
+
+        private static boolean load() {
+            try {
+                Brotli4jLoader.ensureAvailability();
+                return true;
+            } catch (Throwable e) {
+                LOG.warn("Brotli is not available, serving gzip only: " + e.getMessage());
+                return false;
+            }
+        }
+    }
+}
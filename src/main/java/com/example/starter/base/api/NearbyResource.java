@@ -0,0 +1,76 @@
+package com.example.starter.base.api;
+
+import com.example.starter.base.api.CatalogPayloads.CatalogEntry;
+import com.example.starter.base.services.AppMetrics;
+import com.example.starter.base.services.POICatalog;
+import com.example.starter.base.services.POIService;
+import io.smallrye.common.annotation.NonBlocking;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * "What's near me": the POIs closest to a location, nearest first, e.g.
+ * {@code GET /api/nearby?lat=46.2803&lng=15.0726&k=5&lang=sl}.
+ *
+ * Without {@code radius} it returns the {@code k} nearest POIs; with {@code radius} (in
+ * meters) it returns every POI within it, still capped at {@code k}.
+ */
+@Path("/nearby")
+public class NearbyResource {
+
+    static final int MAX_LIMIT = 100;
+
+    @Inject
+    private POIService poiService;
+
+    @Inject
+    private AppMetrics metrics;
+
+    /**
+     * A catalog entry with its distance from the query location in whole meters.
+     */
+    public record NearbyEntry(CatalogEntry poi, long distance) {
+    }
+
+    @GET
+    @NonBlocking
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getNearby(@QueryParam("lat") Double lat,
+                              @QueryParam("lng") Double lng,
+                              @QueryParam("k") @DefaultValue("10") int k,
+                              @QueryParam("radius") Double radius,
+                              @QueryParam("lang") @DefaultValue("en") String language) {
+        if (lat == null || lng == null || !(Math.abs(lat) <= 90) || !(Math.abs(lng) <= 180)
+                || (radius != null && !(radius >= 0))) {
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+        int limit = Math.max(1, Math.min(k, MAX_LIMIT));
+        Locale locale = Locale.forLanguageTag(language.replace('_', '-'));
+        metrics.countLocale("nearby", locale);
+
+        POIService.Found found = radius != null
+                ? poiService.findWithinRadius(locale, lat, lng, radius, limit)
+                : poiService.findNearest(locale, lat, lng, limit);
+
+        List<NearbyEntry> entries = new ArrayList<>(found.pois().size());
+        for (POICatalog.Nearby nearby : found.pois()) {
+            entries.add(new NearbyEntry(CatalogPayloads.toEntry(nearby.poi(), nearby.order(), found.variants()),
+                    Math.round(nearby.distanceMeters())));
+        }
+        // Answers depend on the caller's position, so there is nothing worth caching
+        return Response.ok(entries)
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .build();
+    }
+}
@@ -0,0 +1,307 @@
+package com.example.starter.base.api;
+
+import com.example.starter.base.services.Localizations;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Renders the server-side HTML of a POI page and the sitemap.
+ *
+ * A page is the application shell (the built {@code index.html}) with the generic meta
+ * tags replaced by the POI's, and the POI's title, image and description already inside
+ * the outlet. The React app renders over it once its bundle has loaded. Without a built
+ * shell (development), pages are standalone documents.
+ */
+final class PageRenderer {
+
+    static final String SITE_NAME = "Visit Polzela";
+
+    private static final Map<String, String> OG_LOCALES = Map.of(
+            "EN", "en_US", "SL", "sl_SI", "DE", "de_DE", "NL", "nl_NL");
+
+    private static final Pattern HTML_TAG = Pattern.compile("<html[^>]*>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern HEAD_TAG = Pattern.compile("<head[^>]*>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern OUTLET = Pattern.compile("<div id=\"outlet\">\\s*</div>");
+    // Tags of the shell that describe the site in general and would contradict the page's own
+    private static final Pattern GENERIC_HEAD = Pattern.compile(
+            "(?is)<title>.*?</title>\\s*"
+                    + "|<meta\\s+(?:name=\"(?:title|description|keywords)\"|property=\"og:[^\"]*\"|name=\"twitter:[^\"]*\")[^>]*>\\s*"
+                    + "|<link\\s+rel=\"canonical\"[^>]*>\\s*");
+
+    private static final String STYLE = """
+            <style>
+              .prerendered-poi { max-width: 800px; margin: 0 auto; padding: 16px; font-family: sans-serif; line-height: 1.5; }
+              .prerendered-poi img { width: 100%; height: auto; border-radius: 8px; }
+              .prerendered-poi .languages { list-style: none; padding: 0; display: flex; gap: 12px; }
+            </style>
+            """;
+
+    // Following a link to one language makes it the app's language too
+    private static final String LANGUAGE_SCRIPT =
+            "<script>try{if(new URLSearchParams(location.search).has('lang'))"
+                    + "localStorage.setItem('selectedLanguage','%s')}catch(e){}</script>\n";
+
+    /**
+     * What a POI page is rendered from, in one language. Two equal sources render the
+     * same page.
+     */
+    record PageSource(String language, String name, String title, String summary, String descriptionHtml,
+                      String imageUrl, String srcset, Integer imageWidth, Integer imageHeight,
+                      Double latitude, Double longitude,
+                      String navigationUrl, String appleNavigationUrl, String navigationText) {
+    }
+
+    private final String baseUrl;
+    private final String shell;
+    private final List<String> languages;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param baseUrl   absolute site URL without a trailing slash, for canonical links
+     * @param shell     the built application {@code index.html}, or null
+     * @param languages every language a page exists in, the default first
+     */
+    PageRenderer(String baseUrl, String shell, List<String> languages, ObjectMapper objectMapper) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.shell = shell != null && OUTLET.matcher(shell).find() ? shell : null;
+        this.languages = languages;
+        this.objectMapper = objectMapper;
+    }
+
+    boolean hasShell() {
+        return shell != null;
+    }
+
+    /**
+     * Absolute URL of a POI page in a language; the default language has no parameter.
+     */
+    String pageUrl(String name, String language) {
+        String url = baseUrl + "/poi/" + URLEncoder.encode(name, StandardCharsets.UTF_8).replace("+", "%20");
+        return language.equals(Localizations.DEFAULT_LANGUAGE) ? url : url + "?lang=" + hreflang(language);
+    }
+
+    String render(PageSource page) {
+        String head = head(page);
+        String content = content(page);
+        if (shell == null) {
+            return "<!DOCTYPE html>\n<html lang=\"" + hreflang(page.language()) + "\">\n<head>\n"
+                    + "<meta charset=\"UTF-8\" />\n"
+                    + "<meta name=\"viewport\" content=\"width=device-width, initial-scale=1\" />\n"
+                    + head + "</head>\n<body>\n<div id=\"outlet\">" + content + "</div>\n</body>\n</html>\n";
+        }
+
+        String html = GENERIC_HEAD.matcher(shell).replaceAll("");
+        html = HTML_TAG.matcher(html).replaceFirst(Matcher.quoteReplacement("<html lang=\"" + hreflang(page.language()) + "\">"));
+        if (!html.contains("<base ")) {
+            // Relative bundle URLs in the shell must resolve from the root, not from /poi/
+            Matcher headTag = HEAD_TAG.matcher(html);
+            if (headTag.find()) {
+                html = html.substring(0, headTag.end()) + "\n  <base href=\"/\" />" + html.substring(headTag.end());
+            }
+        }
+        int headEnd = html.toLowerCase(Locale.ROOT).indexOf("</head>");
+        html = html.substring(0, headEnd) + head + html.substring(headEnd);
+        return OUTLET.matcher(html).replaceFirst(Matcher.quoteReplacement("<div id=\"outlet\">" + content + "</div>"));
+    }
+
+    private String head(PageSource page) {
+        String url = pageUrl(page.name(), page.language());
+        String title = page.title() + " | " + SITE_NAME;
+        String summary = page.summary() != null ? page.summary() : "";
+        String image = absolute(page.imageUrl());
+
+        StringBuilder head = new StringBuilder();
+        head.append("<title>").append(escape(title)).append("</title>\n");
+        meta(head, "name", "description", summary);
+        head.append("<link rel=\"canonical\" href=\"").append(escape(url)).append("\" />\n");
+        for (String language : languages) {
+            head.append("<link rel=\"alternate\" hreflang=\"").append(hreflang(language)).append("\" href=\"")
+                    .append(escape(pageUrl(page.name(), language))).append("\" />\n");
+        }
+        head.append("<link rel=\"alternate\" hreflang=\"x-default\" href=\"")
+                .append(escape(pageUrl(page.name(), Localizations.DEFAULT_LANGUAGE))).append("\" />\n");
+
+        meta(head, "property", "og:type", "place");
+        meta(head, "property", "og:title", title);
+        meta(head, "property", "og:description", summary);
+        meta(head, "property", "og:url", url);
+        if (image != null) {
+            meta(head, "property", "og:image", image);
+        }
+        meta(head, "property", "og:locale", ogLocale(page.language()));
+        for (String language : languages) {
+            if (!language.equals(page.language())) {
+                meta(head, "property", "og:locale:alternate", ogLocale(language));
+            }
+        }
+        meta(head, "property", "og:site_name", SITE_NAME);
+        meta(head, "name", "twitter:card", "summary_large_image");
+        meta(head, "name", "twitter:title", title);
+        meta(head, "name", "twitter:description", summary);
+        if (image != null) {
+            meta(head, "name", "twitter:image", image);
+        }
+
+        head.append("<script type=\"application/ld+json\">").append(structuredData(page, url, image)).append("</script>\n");
+        head.append(STYLE);
+        head.append(String.format(LANGUAGE_SCRIPT, page.language()));
+        return head.toString();
+    }
+
+    private String content(PageSource page) {
+        StringBuilder html = new StringBuilder();
+        html.append("<main class=\"prerendered-poi\">");
+        html.append("<nav><a href=\"/\">").append(SITE_NAME).append("</a></nav>");
+        html.append("<h1>").append(escape(page.title())).append("</h1>");
+        if (page.imageUrl() != null) {
+            html.append("<img src=\"").append(escape(page.imageUrl())).append('"');
+            if (page.srcset() != null) {
+                html.append(" srcset=\"").append(escape(page.srcset())).append("\" sizes=\"(max-width: 800px) 100vw, 800px\"");
+            }
+            if (page.imageWidth() != null && page.imageHeight() != null) {
+                // Reserves the image's space before it loads
+                html.append(" width=\"").append(page.imageWidth()).append("\" height=\"").append(page.imageHeight()).append('"');
+            }
+            html.append(" alt=\"").append(escape(page.title())).append("\" />");
+        }
+        if (page.summary() != null && !page.summary().isBlank()) {
+            html.append("<p><strong>").append(escape(page.summary())).append("</strong></p>");
+        }
+        html.append(page.descriptionHtml());
+        if (page.navigationUrl() != null) {
+            html.append("<p><a href=\"").append(escape(page.navigationUrl())).append("\" rel=\"noopener\">")
+                    .append(escape(page.navigationText())).append("</a>");
+            if (page.appleNavigationUrl() != null) {
+                html.append(" · <a href=\"").append(escape(page.appleNavigationUrl())).append("\" rel=\"noopener\">Apple Maps</a>");
+            }
+            html.append("</p>");
+        }
+        html.append("<ul class=\"languages\">");
+        for (String language : languages) {
+            if (!language.equals(page.language())) {
+                html.append("<li><a href=\"").append(escape(pageUrl(page.name(), language))).append("\" hreflang=\"")
+                        .append(hreflang(language)).append("\" lang=\"").append(hreflang(language)).append("\">")
+                        .append(escape(languageName(language))).append("</a></li>");
+            }
+        }
+        html.append("</ul></main>");
+        return html.toString();
+    }
+
+    private String structuredData(PageSource page, String url, String image) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("@context", "https://schema.org");
+        data.put("@type", "TouristAttraction");
+        data.put("name", page.title());
+        data.put("description", page.summary());
+        data.put("url", url);
+        if (image != null) {
+            data.put("image", image);
+        }
+        data.put("address", Map.of("@type", "PostalAddress", "addressLocality", "Polzela", "addressCountry", "SI"));
+        if (page.latitude() != null && page.longitude() != null) {
+            data.put("geo", Map.of("@type", "GeoCoordinates", "latitude", page.latitude(), "longitude", page.longitude()));
+        }
+        data.put("inLanguage", hreflang(page.language()));
+        try {
+            // "</" would end the script element early
+            return objectMapper.writeValueAsString(data).replace("</", "<\\/");
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize structured data for " + page.name(), e);
+        }
+    }
+
+    /**
+     * The sitemap: the home page and every POI page, each language a URL of its own that
+     * lists the others as alternates.
+     */
+    String sitemap(List<PageSource> pages) {
+        StringBuilder xml = new StringBuilder();
+        xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+        xml.append("<urlset xmlns=\"http://www.sitemaps.org/schemas/sitemap/0.9\"\n");
+        xml.append("        xmlns:xhtml=\"http://www.w3.org/1999/xhtml\"\n");
+        xml.append("        xmlns:image=\"http://www.google.com/schemas/sitemap-image/1.1\">\n");
+
+        xml.append("  <url>\n    <loc>").append(escape(baseUrl + "/")).append("</loc>\n");
+        xml.append("    <changefreq>weekly</changefreq>\n    <priority>1.0</priority>\n");
+        for (String language : languages) {
+            String url = baseUrl + "/?lang=" + hreflang(language);
+            xml.append("    <xhtml:link rel=\"alternate\" hreflang=\"").append(hreflang(language))
+                    .append("\" href=\"").append(escape(url)).append("\"/>\n");
+        }
+        xml.append("  </url>\n");
+
+        for (PageSource page : pages) {
+            xml.append("  <url>\n    <loc>").append(escape(pageUrl(page.name(), page.language()))).append("</loc>\n");
+            xml.append("    <changefreq>monthly</changefreq>\n    <priority>0.8</priority>\n");
+            for (String language : languages) {
+                xml.append("    <xhtml:link rel=\"alternate\" hreflang=\"").append(hreflang(language))
+                        .append("\" href=\"").append(escape(pageUrl(page.name(), language))).append("\"/>\n");
+            }
+            xml.append("    <xhtml:link rel=\"alternate\" hreflang=\"x-default\" href=\"")
+                    .append(escape(pageUrl(page.name(), Localizations.DEFAULT_LANGUAGE))).append("\"/>\n");
+            String image = absolute(page.imageUrl());
+            if (image != null) {
+                xml.append("    <image:image>\n      <image:loc>").append(escape(image)).append("</image:loc>\n");
+                xml.append("      <image:title>").append(escape(page.title())).append("</image:title>\n    </image:image>\n");
+            }
+            xml.append("  </url>\n");
+        }
+        xml.append("</urlset>\n");
+        return xml.toString();
+    }
+
+    private String absolute(String url) {
+        if (url == null) {
+            return null;
+        }
+        return url.startsWith("/") ? baseUrl + url : url;
+    }
+
+    private static void meta(StringBuilder head, String attribute, String key, String content) {
+        head.append("<meta ").append(attribute).append("=\"").append(key).append("\" content=\"")
+                .append(escape(content)).append("\" />\n");
+    }
+
+    static String hreflang(String language) {
+        return language.toLowerCase(Locale.ROOT);
+    }
+
+    private static String ogLocale(String language) {
+        return OG_LOCALES.getOrDefault(language, hreflang(language));
+    }
+
+    private static String languageName(String language) {
+        Locale locale = Locale.forLanguageTag(hreflang(language));
+        String name = locale.getDisplayLanguage(locale);
+        return name.isEmpty() ? language : name.substring(0, 1).toUpperCase(locale) + name.substring(1);
+    }
+
+    static String escape(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(text.length() + 16);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.starter.base.api;
+
+import com.example.starter.base.services.AppMetrics;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Serves the {@link PrerenderedPages} at the URLs the React app uses, {@code /poi/{name}}
+ * with an optional {@code ?lang=}, and the generated {@code /sitemap.xml}.
+ *
+ * These are plain Vert.x routes because the REST endpoints all live under {@code /api}.
+ * Unknown POIs fall through to the application, which shows its own not-found view.
+ */
+@ApplicationScoped
+public class PageRoutes {
+
+    // Clients revalidate every time; an unchanged page costs a 304 and no body
+    static final String CACHE_CONTROL = "no-cache";
+
+    @Inject
+    private PrerenderedPages pages;
+
+    @Inject
+    private AppMetrics metrics;
+
+    @ConfigProperty(name = "prerender.enabled")
+    private boolean enabled;
+
+    void register(@Observes Router router) {
+        if (!enabled) {
+            return;
+        }
+        router.get("/poi/:name").handler(context -> {
+            String lang = context.queryParams().get("lang");
+            metrics.countLocale("page", Locale.forLanguageTag(lang == null ? "en" : lang.replace('_', '-')));
+            respond(context, pages.getPage(context.pathParam("name"), lang));
+        });
+        router.get("/sitemap.xml").handler(context -> respond(context, Optional.of(pages.getSitemap())));
+    }
+
+    private static void respond(RoutingContext context, Optional<PrecompressedPayload> found) {
+        if (found.isEmpty()) {
+            context.next();
+            return;
+        }
+        PrecompressedPayload payload = found.get();
+        HttpServerRequest request = context.request();
+        HttpServerResponse response = context.response();
+        String encoding = payload.negotiate(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        response.putHeader(HttpHeaders.ETAG, payload.getEtag(encoding))
+                .putHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL)
+                .putHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (payload.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatusCode(304).end();
+            return;
+        }
+        response.putHeader(HttpHeaders.CONTENT_TYPE, payload.getContentType());
+        if (encoding != null) {
+            response.putHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+        }
+        response.end(Buffer.buffer(payload.getBody(encoding)));
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.starter.base.api;
+
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Locale;
+
+/**
+ * A response body that is serialized once and kept in memory as identity, gzip and brotli
+ * bytes, together with a strong ETag. Serving it is a header check and a byte copy.
+ */
+public final class PrecompressedPayload {
+
+    private final String contentType;
+    private final String etagValue;
+    private final byte[] identity;
+    private final byte[] gzip;
+    private final byte[] brotli;
+
+    private PrecompressedPayload(String contentType, String etagValue, byte[] identity, byte[] gzip, byte[] brotli) {
+        this.contentType = contentType;
+        this.etagValue = etagValue;
+        this.identity = identity;
+        this.gzip = gzip;
+        this.brotli = brotli;
+    }
+
+    /**
+     * Compresses the body with every available encoder. Encodings that do not make the body
+     * smaller are dropped.
+     */
+    public static PrecompressedPayload of(byte[] body, String contentType) {
+        byte[] gzip = Compression.gzip(body);
+        byte[] brotli = Compression.brotli(body);
+        return new PrecompressedPayload(
+                contentType,
+                hash(body),
+                body,
+                gzip.length < body.length ? gzip : null,
+                brotli != null && brotli.length < body.length ? brotli : null);
+    }
+
+    public static PrecompressedPayload of(String body, String contentType) {
+        return of(body.getBytes(StandardCharsets.UTF_8), contentType);
+    }
+
+    static String hash(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * The strong ETag of the uncompressed body, including quotes.
+     */
+    public String getEtag() {
+        return "\"" + etagValue + "\"";
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public int size() {
+        return identity.length;
+    }
+
+    /**
+     * Returns true if an If-None-Match header matches this payload in any encoding.
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            tag = tag.replace("\"", "");
+            if (tag.equals(etagValue)
+                    || tag.equals(etagValue + "-" + Compression.BROTLI)
+                    || tag.equals(etagValue + "-" + Compression.GZIP)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds a 200 with the best encoding the client accepts, or a 304 if the client
+     * already has this payload.
+     */
+    public Response toResponse(String ifNoneMatch, String acceptEncoding, String cacheControl) {
+        String encoding = negotiate(acceptEncoding);
+        String etag = getEtag(encoding);
+
+        if (matches(ifNoneMatch)) {
+            return Response.notModified()
+                    .header(HttpHeaders.ETAG, etag)
+                    .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        Response.ResponseBuilder response = Response.ok(getBody(encoding), contentType)
+                .header(HttpHeaders.ETAG, etag)
+                .header(HttpHeaders.CACHE_CONTROL, cacheControl)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (encoding != null) {
+            response.header(HttpHeaders.CONTENT_ENCODING, encoding);
+        }
+        return response.build();
+    }
+
+    /**
+     * The best encoding of this payload the client accepts, or null for identity.
+     */
+    public String negotiate(String acceptEncoding) {
+        return negotiate(acceptEncoding, brotli != null, gzip != null);
+    }
+
+    /**
+     * The ETag sent with the body in the given encoding (null for identity).
+     */
+    public String getEtag(String encoding) {
+        return encoding == null ? getEtag() : "\"" + etagValue + "-" + encoding + "\"";
+    }
+
+    /**
+     * The body in an encoding returned by {@link #negotiate(String)}.
+     */
+    public byte[] getBody(String encoding) {
+        if (Compression.BROTLI.equals(encoding)) {
+            return brotli;
+        }
+        if (Compression.GZIP.equals(encoding)) {
+            return gzip;
+        }
+        return identity;
+    }
+
+    /**
+     * Picks brotli, then gzip, from an Accept-Encoding header, honouring {@code q=0}.
+     * Returns null when only the identity encoding is acceptable.
+     */
+    public static String negotiate(String acceptEncoding, boolean brotliAvailable, boolean gzipAvailable) {
+        if (acceptEncoding == null || acceptEncoding.isEmpty()) {
+            return null;
+        }
+
+        // A coding listed by name wins over "*", whichever comes first: "*, br;q=0" is gzip
+        Boolean brotli = null;
+        Boolean gzip = null;
+        boolean acceptsAny = false;
+        for (String token : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = token.split(";");
+            String coding = parts[0].trim();
+            boolean accepted = !isRejected(parts);
+            if (coding.equals(Compression.BROTLI)) {
+                brotli = accepted;
+            } else if (coding.equals(Compression.GZIP)) {
+                gzip = accepted;
+            } else if (coding.equals("*")) {
+                acceptsAny = accepted;
+            }
+        }
+        boolean acceptsBrotli = brotli != null ? brotli : acceptsAny;
+        boolean acceptsGzip = gzip != null ? gzip : acceptsAny;
+
+        if (brotliAvailable && acceptsBrotli) {
+            return Compression.BROTLI;
+        }
+        if (gzipAvailable && acceptsGzip) {
+            return Compression.GZIP;
+        }
+        return null;
+    }
+
+    private static boolean isRejected(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) <= 0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.starter.base.api;
+
+import com.example.starter.base.content.PrecompressedAssets;
+import com.example.starter.base.services.AssetService;
+import com.example.starter.base.services.StaticFileCache;
+import com.example.starter.base.services.StaticFileCache.CachedFile;
+import io.quarkus.vertx.http.runtime.RouteConstants;
+import io.vertx.core.http.HttpHeaders;
+import io.vertx.core.http.HttpServerResponse;
+import io.vertx.ext.web.Router;
+import io.vertx.ext.web.RoutingContext;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import java.util.Optional;
+
+/**
+ * Sends the brotli or gzip sibling of a static resource or Vite bundle file, written at
+ * build time (see {@code PrecompressCompiler}), when the client accepts one.
+ *
+ * Runs ahead of the static resource handler and the Vaadin servlet. Requests for files
+ * without siblings, or from clients that accept neither encoding, pass through to them
+ * unchanged apart from {@code Vary: Accept-Encoding}. Siblings are sent with sendfile from
+ * the {@link StaticFileCache}, so no request compresses anything.
+ */
+@ApplicationScoped
+public class PrecompressedRoutes {
+
+    // Vite names bundle files by content hash
+    private static final String BUNDLE_PREFIX = "VAADIN/build/";
+
+    @Inject
+    private AssetService assetService;
+
+    @Inject
+    private StaticFileCache fileCache;
+
+    void register(@Observes Router router) {
+        router.get().order(RouteConstants.ROUTE_ORDER_BEFORE_DEFAULT).handler(this::serve);
+    }
+
+    private void serve(RoutingContext context) {
+        String path = context.normalizedPath();
+        PrecompressedAssets.Asset asset = path.length() > 1
+                ? assetService.getPrecompressed().get(path.substring(1))
+                : null;
+        if (asset == null) {
+            context.next();
+            return;
+        }
+        String relativePath = path.substring(1);
+        context.response().putHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        String encoding = PrecompressedPayload.negotiate(context.request().getHeader(HttpHeaders.ACCEPT_ENCODING),
+                asset.has(PrecompressedAssets.BROTLI), asset.has(PrecompressedAssets.GZIP));
+        if (encoding == null) {
+            context.next();
+            return;
+        }
+
+        String sibling = PrecompressedAssets.siblingPath(relativePath, encoding);
+        Optional<CachedFile> extracted = fileCache.getIfExtracted(sibling);
+        if (extracted.isPresent()) {
+            send(context, relativePath, encoding, extracted);
+            return;
+        }
+        context.vertx().executeBlocking(() -> fileCache.get(sibling), false).onComplete(result -> {
+            if (result.succeeded()) {
+                send(context, relativePath, encoding, result.result());
+            } else {
+                context.fail(result.cause());
+            }
+        });
+    }
+
+    private static void send(RoutingContext context, String relativePath, String encoding, Optional<CachedFile> found) {
+        if (found.isEmpty()) {
+            // Listed but missing from the jar: let the uncompressed file be served instead
+            context.next();
+            return;
+        }
+        CachedFile file = found.get();
+        HttpServerResponse response = context.response();
+        response.putHeader(HttpHeaders.ETAG, file.getEtag())
+                .putHeader(HttpHeaders.CACHE_CONTROL,
+                        relativePath.startsWith(BUNDLE_PREFIX) ? AssetResource.IMMUTABLE : AssetResource.REVALIDATE);
+
+        String ifNoneMatch = context.request().getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && (ifNoneMatch.contains(file.getEtag()) || ifNoneMatch.trim().equals("*"))) {
+            response.setStatusCode(304).end();
+            return;
+        }
+        response.putHeader(HttpHeaders.CONTENT_TYPE, PrecompressedAssets.contentType(relativePath))
+                .putHeader(HttpHeaders.CONTENT_ENCODING, encoding)
+                .sendFile(file.path().toString());
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.starter.base.api;
+
+import com.example.starter.base.entity.POIDescription;
+import com.example.starter.base.entity.PointOfInterest;
+import com.example.starter.base.services.ContentReloaded;
+import com.example.starter.base.services.ContentSnapshot;
+import com.example.starter.base.services.ContentState;
+import com.example.starter.base.services.DescriptionService;
+import com.example.starter.base.services.Localizations;
+import com.example.starter.base.services.SnapshotCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.Startup;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Server-rendered HTML for every POI in every language, plus the sitemap, kept in memory
+ * pre-compressed with ETags.
+ *
+ * Pages are built per {@link ContentSnapshot}, off the request thread (see
+ * {@link SnapshotCache}), so lookups are safe on an event loop. When a new one is swapped
+ * in, only pages whose source content changed are rendered and compressed again; the
+ * others keep their bytes and ETag.
+ */
+@Startup
+@ApplicationScoped
+public class PrerenderedPages {
+
+    private static final Logger LOG = Logger.getLogger(PrerenderedPages.class);
+
+    // Written by the Vaadin production build
+    static final String SHELL_RESOURCE = "/META-INF/VAADIN/webapp/index.html";
+
+    private static final String HTML = "text/html;charset=UTF-8";
+    private static final String XML = "application/xml;charset=UTF-8";
+
+    @Inject
+    private ContentState contentState;
+
+    @Inject
+    private ObjectMapper objectMapper;
+
+    @Inject
+    private MeterRegistry registry;
+
+    @ConfigProperty(name = "site.base-url")
+    private String baseUrl;
+
+    private String shell;
+
+    private SnapshotCache<Snapshot> snapshots;
+
+    private record Page(PageRenderer.PageSource source, PrecompressedPayload payload) {
+    }
+
+    private record Snapshot(ContentSnapshot content, Map<String, Page> pages, PrecompressedPayload sitemap) {
+    }
+
+    @PostConstruct
+    void init() {
+        shell = loadShell();
+        snapshots = new SnapshotCache<>("prerendered pages", contentState::get, this::build,
+                Infrastructure.getDefaultWorkerPool());
+        snapshots.refresh();
+    }
+
+    void onContentReloaded(@Observes ContentReloaded event) {
+        snapshots.refresh();
+    }
+
+    /**
+     * The page of a POI in the language of a tag such as "sl" or "de-AT" (the default
+     * language when null), or empty for an unknown POI.
+     */
+    public Optional<PrecompressedPayload> getPage(String name, String languageTag) {
+        Snapshot current = snapshots.get();
+        String language = languageTag == null || languageTag.isBlank()
+                ? Localizations.DEFAULT_LANGUAGE
+                : current.content().localizations().resolveLanguage(Locale.forLanguageTag(languageTag.replace('_', '-')));
+        Page page = current.pages().get(key(language, name));
+        return page != null ? Optional.of(page.payload()) : Optional.empty();
+    }
+
+    public PrecompressedPayload getSitemap() {
+        return snapshots.get().sitemap();
+    }
+
+    private Snapshot build(Snapshot previous, ContentSnapshot content) {
+        Localizations localizations = content.localizations();
+        long start = System.nanoTime();
+        List<String> languages = new ArrayList<>(localizations.getLanguages());
+        PageRenderer renderer = new PageRenderer(baseUrl, shell, languages, objectMapper);
+        Map<String, Page> previousPages = previous != null ? previous.pages() : Map.of();
+        Map<String, Page> pages = new HashMap<>();
+        List<PageRenderer.PageSource> sources = new ArrayList<>();
+        int rendered = 0;
+
+        for (String language : languages) {
+            List<PointOfInterest> pois = content.catalog().getPointsOfInterest(language);
+            for (int i = 0; i < pois.size(); i++) {
+                PageRenderer.PageSource source = toSource(language, pois.get(i), i, content);
+                String key = key(language, source.name());
+                Page page = previousPages.get(key);
+                if (page == null || !page.source().equals(source)) {
+                    page = new Page(source, PrecompressedPayload.of(renderer.render(source), HTML));
+                    rendered++;
+                }
+                pages.put(key, page);
+                sources.add(source);
+            }
+        }
+        PrecompressedPayload sitemap = PrecompressedPayload.of(renderer.sitemap(sources), XML);
+
+        long elapsed = System.nanoTime() - start;
+        Timer.builder("prerender.build")
+                .description("Rendering the changed POI pages and the sitemap")
+                .register(registry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        LOG.infof("Built %d prerendered pages in %d ms (%d rendered%s)", pages.size(),
+                elapsed / 1_000_000, rendered, renderer.hasShell() ? "" : ", no application shell");
+        return new Snapshot(content, Collections.unmodifiableMap(pages), sitemap);
+    }
+
+    private PageRenderer.PageSource toSource(String language, PointOfInterest poi, int order, ContentSnapshot content) {
+        CatalogPayloads.CatalogEntry entry = CatalogPayloads.toEntry(poi, order, content.variants());
+        POIDescription description = DescriptionService.find(content.descriptions(), poi.getName(), language);
+        return new PageRenderer.PageSource(
+                language,
+                entry.name(),
+                entry.displayName(),
+                entry.description(),
+                description != null ? description.getHtml() : "",
+                entry.imageUrl(),
+                entry.srcset(),
+                entry.width(),
+                entry.height(),
+                entry.lat(),
+                entry.lng(),
+                entry.navigationUrl(),
+                entry.appleNavigationUrl(),
+                content.localizations().getText(language, "takeme", "Take me there!"));
+    }
+
+    private static String key(String language, String name) {
+        return language + "/" + name;
+    }
+
+    private static String loadShell() {
+        try (InputStream in = PrerenderedPages.class.getResourceAsStream(SHELL_RESOURCE)) {
+            if (in == null) {
+                LOG.info("No application shell on the classpath, prerendered pages are standalone");
+                return null;
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + SHELL_RESOURCE, e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.starter.base.api;
+
+import com.example.starter.base.api.CatalogPayloads.CatalogEntry;
+import com.example.starter.base.services.AppMetrics;
+import com.example.starter.base.services.SearchService;
+import io.smallrye.common.annotation.NonBlocking;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Full-text search over titles and descriptions, best match first, e.g.
+ * {@code GET /api/search?q=senek&lang=de&limit=10}.
+ *
+ * Matching ignores case and diacritics, treats the last word as a prefix while the user
+ * is still typing, and tolerates one typo per word.
+ */
+@Path("/search")
+public class SearchResource {
+
+    static final int MAX_LIMIT = 100;
+
+    // Longer queries are not typed by hand
+    static final int MAX_QUERY_LENGTH = 200;
+
+    @Inject
+    private SearchService searchService;
+
+    @Inject
+    private AppMetrics metrics;
+
+    /**
+     * A catalog entry with its search score.
+     */
+    public record SearchEntry(CatalogEntry poi, double score) {
+    }
+
+    @GET
+    @NonBlocking
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response search(@QueryParam("q") @DefaultValue("") String query,
+                           @QueryParam("limit") @DefaultValue("20") int limit,
+                           @QueryParam("lang") @DefaultValue("en") String language) {
+        if (query.length() > MAX_QUERY_LENGTH) {
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+        Locale locale = Locale.forLanguageTag(language.replace('_', '-'));
+        metrics.countLocale("search", locale);
+        SearchService.Results results = searchService.search(query, locale, Math.max(1, Math.min(limit, MAX_LIMIT)));
+        List<SearchEntry> entries = new ArrayList<>(results.matches().size());
+        for (SearchService.Match match : results.matches()) {
+            entries.add(new SearchEntry(CatalogPayloads.toEntry(match.poi(), match.order(), results.variants()),
+                    Math.round(match.score() * 1000) / 1000.0));
+        }
+        return Response.ok(entries).build();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.starter.base.api;
+
+import com.example.starter.base.api.CatalogSync.SyncDelta;
+import io.smallrye.common.annotation.NonBlocking;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Delta sync for the offline store, e.g. {@code GET /api/sync?epoch=k3Jd9xQ2aB1c&since=4}.
+ *
+ * Returns the POI records and UI strings that changed after revision {@code since}, plus
+ * tombstones for removed POIs. A client without a revision, or from another epoch, gets
+ * everything with {@code reset: true}.
+ */
+@Path("/sync")
+public class SyncResource {
+
+    @Inject
+    private CatalogSync catalogSync;
+
+    @GET
+    @NonBlocking
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response getChanges(@QueryParam("epoch") @DefaultValue("") String epoch,
+                               @QueryParam("since") @DefaultValue("0") long since,
+                               @HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+        SyncDelta delta = catalogSync.changesSince(epoch, since);
+        String etag = delta.etag();
+        if (etag.equals(ifNoneMatch)) {
+            return Response.notModified()
+                    .header(HttpHeaders.ETAG, etag)
+                    .header(HttpHeaders.CACHE_CONTROL, CatalogResource.CACHE_CONTROL)
+                    .build();
+        }
+        return Response.ok(delta)
+                .header(HttpHeaders.ETAG, etag)
+                .header(HttpHeaders.CACHE_CONTROL, CatalogResource.CACHE_CONTROL)
+                .build();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.starter.base.api;
+
+import com.example.starter.base.services.TileCache;
+import com.example.starter.base.services.TileCache.CachedTile;
+import com.example.starter.base.services.TilePackService;
+import com.example.starter.base.services.TilePackService.TilePack;
+import io.smallrye.common.annotation.NonBlocking;
+import io.smallrye.mutiny.Uni;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.HeaderParam;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import org.jboss.logging.Logger;
+import org.jboss.resteasy.reactive.PathPart;
+
+import java.util.Optional;
+
+/**
+ * Map tiles through the local tile cache, e.g. {@code GET /api/tiles/15/17760/11507.png},
+ * and the offline tile pack at {@code GET /api/tiles/pack}.
+ *
+ * Cached tiles are sent with sendfile straight from the event loop; a miss prepares its
+ * file on a worker and waits for the upstream without holding a thread. The pack is only
+ * available when enabled, once one has been found on disk or built (see {@link TilePackService}).
+ */
+@Path("/tiles")
+public class TileResource {
+
+    private static final Logger LOG = Logger.getLogger(TileResource.class);
+
+    // Tiles change rarely; a week matches what the OpenStreetMap tile servers send
+    static final String TILE_CACHE_CONTROL = "public, max-age=604800";
+
+    @Inject
+    private TileCache tileCache;
+
+    @Inject
+    private TilePackService tilePackService;
+
+    @GET
+    @Path("/{z}/{x}/{y}.png")
+    public Uni<Response> getTile(@PathParam("z") int z, @PathParam("x") int x, @PathParam("y") int y) {
+        if (!tileCache.isValid(z, x, y)) {
+            return Uni.createFrom().item(Response.status(Response.Status.NOT_FOUND).build());
+        }
+        Optional<CachedTile> fresh = tileCache.getIfFresh(z, x, y);
+        if (fresh.isPresent()) {
+            return Uni.createFrom().item(toResponse(fresh.get()));
+        }
+        return Uni.createFrom().completionStage(() -> tileCache.get(z, x, y))
+                .map(tile -> tile
+                        .map(TileResource::toResponse)
+                        .orElseGet(() -> Response.status(Response.Status.NOT_FOUND).build()))
+                .onFailure().recoverWithItem(error -> {
+                    LOG.warnf("Could not fetch tile %d/%d/%d: %s", z, x, y, error.getMessage());
+                    return Response.status(Response.Status.BAD_GATEWAY).build();
+                });
+    }
+
+    @GET
+    @Path("/pack")
+    @NonBlocking
+    public Response getPack(@HeaderParam(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+        Optional<TilePack> pack = tilePackService.getPack();
+        if (pack.isEmpty()) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+        TilePack current = pack.get();
+        if (current.getEtag().equals(ifNoneMatch)) {
+            return Response.notModified()
+                    .header(HttpHeaders.ETAG, current.getEtag())
+                    .header(HttpHeaders.CACHE_CONTROL, AssetResource.REVALIDATE)
+                    .build();
+        }
+        return Response.ok(new PathPart(current.path(), 0, current.size()))
+                .type("application/octet-stream")
+                .header(HttpHeaders.ETAG, current.getEtag())
+                .header(HttpHeaders.CACHE_CONTROL, AssetResource.REVALIDATE)
+                .build();
+    }
+
+    private static Response toResponse(CachedTile tile) {
+        return Response.ok(new PathPart(tile.path(), 0, tile.size()))
+                .type("image/png")
+                .header(HttpHeaders.CACHE_CONTROL, TILE_CACHE_CONTROL)
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.starter.base.api;
+
+import com.example.starter.base.api.CatalogPayloads.CatalogEntry;
+import com.example.starter.base.services.AppMetrics;
+import com.example.starter.base.entity.PointOfInterest;
+import com.example.starter.base.services.TourPlanner;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.StringJoiner;
+
+/**
+ * Walking tour through several POIs in the shortest order, e.g.
+ * {@code GET /api/tours?stops=castle,park,icecream&lat=46.2803&lng=15.0726&lang=sl}.
+ *
+ * Without {@code lat}/{@code lng} the tour starts at the first stop; with
+ * {@code return=true} it ends where it started. Distances are straight lines, and the
+ * walking time allows for paths that are not.
+ */
+@Path("/tours")
+public class TourResource {
+
+    // 4.5 km/h, on paths about a third longer than the straight line
+    static final double WALKING_METERS_PER_MINUTE = 75;
+    static final double DETOUR_FACTOR = 1.3;
+
+    private static final String GOOGLE_DIRECTIONS = "https://www.google.com/maps/dir/?api=1&travelmode=walking";
+
+    @Inject
+    private TourPlanner tourPlanner;
+
+    @Inject
+    private AppMetrics metrics;
+
+    /**
+     * One stop with the distance from the previous one in whole meters.
+     */
+    public record TourStop(CatalogEntry poi, long distance) {
+    }
+
+    /**
+     * A planned tour with a Google Maps link that walks all of it.
+     */
+    public record TourPayload(List<TourStop> stops, long returnDistance, long distance, long walkingMinutes,
+                              String navigationUrl) {
+    }
+
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    public Response plan(@QueryParam("stops") @DefaultValue("") String stops,
+                         @QueryParam("lat") Double lat,
+                         @QueryParam("lng") Double lng,
+                         @QueryParam("return") @DefaultValue("false") boolean returnToStart,
+                         @QueryParam("lang") @DefaultValue("en") String language) {
+        if ((lat != null && !(Math.abs(lat) <= 90)) || (lng != null && !(Math.abs(lng) <= 180))) {
+            return Response.status(Response.Status.BAD_REQUEST).build();
+        }
+        List<String> names = Arrays.stream(stops.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .toList();
+
+        Locale locale = Locale.forLanguageTag(language.replace('_', '-'));
+        metrics.countLocale("tours", locale);
+        TourPlanner.Tour tour;
+        try {
+            tour = tourPlanner.plan(locale, names, lat, lng, returnToStart);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .type(MediaType.TEXT_PLAIN_TYPE)
+                    .entity(e.getMessage())
+                    .build();
+        }
+
+        List<TourStop> tourStops = new ArrayList<>(tour.legs().size());
+        for (TourPlanner.Leg leg : tour.legs()) {
+            tourStops.add(new TourStop(CatalogPayloads.toEntry(leg.poi(), leg.order(), tour.variants()),
+                    Math.round(leg.distanceMeters())));
+        }
+        long walkingMinutes = Math.round(tour.distanceMeters() * DETOUR_FACTOR / WALKING_METERS_PER_MINUTE);
+        return Response.ok(new TourPayload(tourStops, Math.round(tour.returnMeters()), Math.round(tour.distanceMeters()),
+                walkingMinutes, navigationUrl(tour))).build();
+    }
+
+    /**
+     * Directions from the start through every stop. Google Maps takes at most nine
+     * waypoints in a link, so longer tours get none.
+     */
+    static String navigationUrl(TourPlanner.Tour tour) {
+        String origin = coordinates(tour.startLatitude(), tour.startLongitude());
+        // A tour without a start point begins at its first stop, which is then the origin
+        List<TourPlanner.Leg> legs = tour.legs().stream()
+                .filter(leg -> !coordinates(leg.poi()).equals(origin))
+                .toList();
+        if (legs.isEmpty()) {
+            return GOOGLE_DIRECTIONS + "&destination=" + origin;
+        }
+        String destination = tour.roundTrip() ? origin : coordinates(legs.get(legs.size() - 1).poi());
+        List<TourPlanner.Leg> waypoints = tour.roundTrip() ? legs : legs.subList(0, legs.size() - 1);
+
+        StringBuilder url = new StringBuilder(GOOGLE_DIRECTIONS)
+                .append("&origin=").append(origin)
+                .append("&destination=").append(destination);
+        if (!waypoints.isEmpty() && waypoints.size() <= 9) {
+            StringJoiner joined = new StringJoiner("|");
+            waypoints.forEach(leg -> joined.add(coordinates(leg.poi())));
+            url.append("&waypoints=").append(URLEncoder.encode(joined.toString(), StandardCharsets.UTF_8));
+        }
+        return url.toString();
+    }
+
+    private static String coordinates(PointOfInterest poi) {
+        return coordinates(poi.getLatitude(), poi.getLongitude());
+    }
+
+    private static String coordinates(double latitude, double longitude) {
+        return String.format(Locale.ROOT, "%.6f,%.6f", latitude, longitude);
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.starter.base.content;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Content hashes of the static assets, written at build time by {@code AssetManifestCompiler}.
+ *
+ * One line per asset: {@code path;hash;size}, with paths relative to {@code META-INF/resources}.
+ * An asset's fingerprinted name puts the hash before the extension, e.g.
+ * {@code images/castle.webp} becomes {@code images/castle.0123456789abcdef.webp}. The files are
+ * not copied under that name; the server maps it back to the original file.
+ */
+public final class AssetManifest {
+
+    public static final String RESOURCE_PATH = "/META-INF/catalog/assets.txt";
+
+    // Route that serves fingerprinted assets, see AssetResource
+    public static final String URL_PREFIX = "/api/assets/";
+
+    // name.<16 hex>.ext, as produced here and by ImageVariantCompiler
+    private static final Pattern FINGERPRINTED = Pattern.compile("(.*)\\.([0-9a-f]{16})(\\.[A-Za-z0-9]+)$");
+
+    private static final int HASH_LENGTH = 16;
+
+    private static final AssetManifest EMPTY = new AssetManifest(Map.of());
+
+    /**
+     * Hash and size in bytes of one asset.
+     */
+    public record Asset(String hash, long size) {
+    }
+
+    /**
+     * An asset name with its fingerprint removed.
+     */
+    public record Resolved(String path, String hash) {
+    }
+
+    private final Map<String, Asset> assets;
+
+    public AssetManifest(Map<String, Asset> assets) {
+        this.assets = Collections.unmodifiableMap(new LinkedHashMap<>(assets));
+    }
+
+    public static AssetManifest empty() {
+        return EMPTY;
+    }
+
+    public Map<String, Asset> getAssets() {
+        return assets;
+    }
+
+    public String getHash(String path) {
+        Asset asset = assets.get(path);
+        return asset != null ? asset.hash() : null;
+    }
+
+    /**
+     * Returns the fingerprinted name of an asset, or the path unchanged if the manifest does
+     * not list it or it has no extension.
+     */
+    public String fingerprint(String path) {
+        String hash = getHash(path);
+        if (hash == null) {
+            return path;
+        }
+        int slash = path.lastIndexOf('/');
+        int dot = path.lastIndexOf('.');
+        if (dot <= slash + 1) {
+            // No extension to put the hash in front of
+            return path;
+        }
+        return path.substring(0, dot) + "." + hash + path.substring(dot);
+    }
+
+    /**
+     * Splits a fingerprinted name into the original path and its hash. Returns null if the
+     * name carries no fingerprint.
+     */
+    public static Resolved unfingerprint(String name) {
+        Matcher matcher = FINGERPRINTED.matcher(name);
+        if (!matcher.matches()) {
+            return null;
+        }
+        return new Resolved(matcher.group(1) + matcher.group(3), matcher.group(2));
+    }
+
+    /**
+     * Hashes the files in the given directories of a resources root, skipping names that
+     * already carry a hash and compressed siblings. Missing directories are skipped.
+     */
+    public static Map<String, Asset> scan(Path root, List<String> directories) throws IOException {
+        Map<String, Asset> assets = new LinkedHashMap<>();
+        for (String directory : directories) {
+            Path dir = root.resolve(directory);
+            if (!Files.isDirectory(dir)) {
+                continue;
+            }
+            List<Path> files;
+            try (Stream<Path> stream = Files.walk(dir)) {
+                files = stream.filter(Files::isRegularFile).sorted().toList();
+            }
+            for (Path file : files) {
+                String path = root.relativize(file).toString().replace('\\', '/');
+                if (unfingerprint(path) != null || PrecompressedAssets.isSibling(path)) {
+                    continue;
+                }
+                byte[] bytes = Files.readAllBytes(file);
+                assets.put(path, new Asset(contentHash(bytes), bytes.length));
+            }
+        }
+        return assets;
+    }
+
+    public void write(Writer output) {
+        PrintWriter out = new PrintWriter(output);
+        out.println("# path;hash;size");
+        assets.forEach((path, asset) -> out.println(path + ";" + asset.hash() + ";" + asset.size()));
+        out.flush();
+    }
+
+    public static AssetManifest read(InputStream input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Map<String, Asset> assets = new LinkedHashMap<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(";", -1);
+            if (fields.length != 3) {
+                throw new IOException("Malformed asset manifest line: " + line);
+            }
+            try {
+                assets.put(fields[0], new Asset(fields[1], Long.parseLong(fields[2])));
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed asset manifest line: " + line, e);
+            }
+        }
+        return new AssetManifest(assets);
+    }
+
+    /**
+     * The first 16 hex digits of the SHA-256 of a file, as used in fingerprinted names.
+     */
+    static String contentHash(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return HexFormat.of().formatHex(digest).substring(0, HASH_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
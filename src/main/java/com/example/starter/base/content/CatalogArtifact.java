@@ -0,0 +1,155 @@
+package com.example.starter.base.content;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary form of {@link CatalogContent}, written at build time by
+ * {@code CatalogCompiler} and read at startup without any text parsing.
+ *
+ * Layout: magic, format version, then the POI rows, titles, UI strings and descriptions.
+ * Strings are a length-prefixed UTF-8 byte run; maps and lists are count-prefixed.
+ */
+public final class CatalogArtifact {
+
+    public static final String RESOURCE_PATH = "/META-INF/catalog/catalog.bin";
+
+    private static final int MAGIC = 0x504F4943; // "POIC"
+    private static final int VERSION = 1;
+
+    private CatalogArtifact() {
+    }
+
+    public static void write(CatalogContent content, OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(output));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+
+        out.writeInt(content.getPointsOfInterest().size());
+        for (POIRecord poi : content.getPointsOfInterest()) {
+            writeString(out, poi.name());
+            writeString(out, poi.displayName());
+            writeString(out, poi.description());
+            writeString(out, poi.mapUrl());
+            writeString(out, poi.navigationUrl());
+            writeString(out, poi.appleNavigationUrl());
+            out.writeDouble(poi.latitude());
+            out.writeDouble(poi.longitude());
+        }
+
+        writeTables(out, content.getTitles());
+        writeTables(out, content.getUiStrings());
+
+        out.writeInt(content.getDescriptions().size());
+        for (Map.Entry<String, Map<String, List<String>>> poi : content.getDescriptions().entrySet()) {
+            writeString(out, poi.getKey());
+            out.writeInt(poi.getValue().size());
+            for (Map.Entry<String, List<String>> language : poi.getValue().entrySet()) {
+                writeString(out, language.getKey());
+                out.writeInt(language.getValue().size());
+                for (String paragraph : language.getValue()) {
+                    writeString(out, paragraph);
+                }
+            }
+        }
+        out.flush();
+    }
+
+    public static CatalogContent read(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(input));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a catalog artifact");
+        }
+        int version = in.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported catalog artifact version " + version);
+        }
+
+        int poiCount = in.readInt();
+        List<POIRecord> pointsOfInterest = new ArrayList<>(poiCount);
+        for (int i = 0; i < poiCount; i++) {
+            pointsOfInterest.add(new POIRecord(
+                    readString(in),
+                    readString(in),
+                    readString(in),
+                    readString(in),
+                    readString(in),
+                    readString(in),
+                    in.readDouble(),
+                    in.readDouble()));
+        }
+
+        Map<String, Map<String, String>> titles = readTables(in);
+        Map<String, Map<String, String>> uiStrings = readTables(in);
+
+        int descriptionCount = in.readInt();
+        Map<String, Map<String, List<String>>> descriptions = new LinkedHashMap<>();
+        for (int i = 0; i < descriptionCount; i++) {
+            String poi = readString(in);
+            int languageCount = in.readInt();
+            Map<String, List<String>> byLanguage = new LinkedHashMap<>();
+            for (int j = 0; j < languageCount; j++) {
+                String language = readString(in);
+                int paragraphCount = in.readInt();
+                List<String> paragraphs = new ArrayList<>(paragraphCount);
+                for (int k = 0; k < paragraphCount; k++) {
+                    paragraphs.add(readString(in));
+                }
+                byLanguage.put(language, paragraphs);
+            }
+            descriptions.put(poi, byLanguage);
+        }
+
+        return new CatalogContent(pointsOfInterest, titles, uiStrings, descriptions);
+    }
+
+    private static void writeTables(DataOutputStream out, Map<String, Map<String, String>> tables) throws IOException {
+        out.writeInt(tables.size());
+        for (Map.Entry<String, Map<String, String>> table : tables.entrySet()) {
+            writeString(out, table.getKey());
+            out.writeInt(table.getValue().size());
+            for (Map.Entry<String, String> entry : table.getValue().entrySet()) {
+                writeString(out, entry.getKey());
+                writeString(out, entry.getValue());
+            }
+        }
+    }
+
+    private static Map<String, Map<String, String>> readTables(DataInputStream in) throws IOException {
+        int tableCount = in.readInt();
+        Map<String, Map<String, String>> tables = new LinkedHashMap<>();
+        for (int i = 0; i < tableCount; i++) {
+            String language = readString(in);
+            int entryCount = in.readInt();
+            Map<String, String> table = new LinkedHashMap<>();
+            for (int j = 0; j < entryCount; j++) {
+                table.put(readString(in), readString(in));
+            }
+            tables.put(language, table);
+        }
+        return tables;
+    }
+
+    // DataOutput.writeUTF is limited to 64 KB, which a long description could exceed
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.starter.base.content;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything the app knows about its POIs, in structured form: the rows of pois.txt, the
+ * titles and UI strings of poititles.txt and the paragraphs of every description file.
+ *
+ * Produced either by {@link CatalogContentParser} from the text files or by
+ * {@link CatalogArtifact} from the compiled build artifact. Instances are immutable.
+ */
+public final class CatalogContent {
+
+    private final List<POIRecord> pointsOfInterest;
+    private final Map<String, Map<String, String>> titles;
+    private final Map<String, Map<String, String>> uiStrings;
+    private final Map<String, Map<String, List<String>>> descriptions;
+
+    public CatalogContent(List<POIRecord> pointsOfInterest,
+                          Map<String, Map<String, String>> titles,
+                          Map<String, Map<String, String>> uiStrings,
+                          Map<String, Map<String, List<String>>> descriptions) {
+        this.pointsOfInterest = List.copyOf(pointsOfInterest);
+        this.titles = copyTables(titles);
+        this.uiStrings = copyTables(uiStrings);
+
+        Map<String, Map<String, List<String>>> copy = new LinkedHashMap<>();
+        descriptions.forEach((poi, byLanguage) -> {
+            Map<String, List<String>> languages = new LinkedHashMap<>();
+            byLanguage.forEach((language, paragraphs) -> languages.put(language, List.copyOf(paragraphs)));
+            copy.put(poi, Collections.unmodifiableMap(languages));
+        });
+        this.descriptions = Collections.unmodifiableMap(copy);
+    }
+
+    private static Map<String, Map<String, String>> copyTables(Map<String, Map<String, String>> tables) {
+        Map<String, Map<String, String>> copy = new LinkedHashMap<>();
+        tables.forEach((language, table) -> copy.put(language, Collections.unmodifiableMap(new LinkedHashMap<>(table))));
+        return Collections.unmodifiableMap(copy);
+    }
+
+    /**
+     * The POIs in file order.
+     */
+    public List<POIRecord> getPointsOfInterest() {
+        return pointsOfInterest;
+    }
+
+    /**
+     * POI titles by language tag, then POI name.
+     */
+    public Map<String, Map<String, String>> getTitles() {
+        return titles;
+    }
+
+    /**
+     * UI strings (poititles.txt keys that are not POIs) by language tag, then key.
+     */
+    public Map<String, Map<String, String>> getUiStrings() {
+        return uiStrings;
+    }
+
+    /**
+     * Description paragraphs by POI name, then language tag.
+     */
+    public Map<String, Map<String, List<String>>> getDescriptions() {
+        return descriptions;
+    }
+}
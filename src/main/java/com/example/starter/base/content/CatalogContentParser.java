@@ -0,0 +1,242 @@
+package com.example.starter.base.content;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses and validates pois.txt, poititles.txt and poi-descriptions/&lt;name&gt;.txt.
+ *
+ * Malformed lines are skipped and recorded in {@link #getErrors()}; the build-time
+ * {@code CatalogCompiler} fails on any error, while the runtime fallback only logs them.
+ * Gaps that do not break anything (a missing translation, a POI without coordinates) are
+ * recorded in {@link #getWarnings()}.
+ */
+public final class CatalogContentParser {
+
+    private static final int POI_FIELDS = 6;
+
+    // Used in image file names and URLs, so keep it to safe characters
+    private static final Pattern POI_NAME = Pattern.compile("[A-Za-z0-9_-]+");
+
+    // "EN", "SL", or a regional variant such as "DE-AT"
+    private static final Pattern LANGUAGE_TAG = Pattern.compile("[A-Z]{2}(-[A-Z]{2})?");
+    private static final Pattern LANGUAGE_PREFIX = Pattern.compile("^([A-Z]{2}(?:-[A-Z]{2})?):(.*)$");
+
+    private static final Pattern OSM_COORDINATES = Pattern.compile("#map=\\d+/(-?\\d+(?:\\.\\d+)?)/(-?\\d+(?:\\.\\d+)?)");
+    private static final Pattern APPLE_COORDINATES = Pattern.compile("daddr=(-?\\d+(?:\\.\\d+)?),(-?\\d+(?:\\.\\d+)?)");
+
+    // The map and Apple Maps URLs may point at slightly different spots; beyond this they
+    // probably point at different places
+    private static final double COORDINATE_MISMATCH_METERS = 100;
+
+    private final List<String> errors = new ArrayList<>();
+    private final List<String> warnings = new ArrayList<>();
+
+    public CatalogContent parse(ContentSource source) throws IOException {
+        List<POIRecord> pointsOfInterest = parsePointsOfInterest(source.readLines(ContentSource.POIS_FILE));
+
+        Set<String> poiNames = new HashSet<>();
+        for (POIRecord poi : pointsOfInterest) {
+            poiNames.add(poi.name());
+        }
+
+        Map<String, Map<String, String>> titles = new LinkedHashMap<>();
+        Map<String, Map<String, String>> uiStrings = new LinkedHashMap<>();
+        parseTitles(source.readLines(ContentSource.TITLES_FILE), poiNames, titles, uiStrings);
+
+        Map<String, Map<String, List<String>>> descriptions = new LinkedHashMap<>();
+        for (POIRecord poi : pointsOfInterest) {
+            String file = ContentSource.DESCRIPTIONS_DIR + poi.name() + ".txt";
+            if (!source.exists(file)) {
+                warnings.add(file + ": missing, POI '" + poi.name() + "' has no description");
+                continue;
+            }
+            descriptions.put(poi.name(), parseDescription(file, source.readLines(file)));
+        }
+
+        return new CatalogContent(pointsOfInterest, titles, uiStrings, descriptions);
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public List<String> getWarnings() {
+        return warnings;
+    }
+
+    public boolean hasErrors() {
+        return !errors.isEmpty();
+    }
+
+    List<POIRecord> parsePointsOfInterest(List<String> lines) {
+        List<POIRecord> pointsOfInterest = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank()) {
+                continue;
+            }
+
+            String location = ContentSource.POIS_FILE + ":" + (i + 1);
+            String[] parts = line.split(";");
+            if (parts.length < POI_FIELDS) {
+                errors.add(location + ": expected " + POI_FIELDS + " fields separated by ';' but found " + parts.length);
+                continue;
+            }
+
+            String name = parts[0].trim();
+            if (!POI_NAME.matcher(name).matches()) {
+                errors.add(location + ": invalid POI name '" + name + "'");
+                continue;
+            }
+            if (!seen.add(name)) {
+                errors.add(location + ": duplicate POI name '" + name + "'");
+                continue;
+            }
+
+            String mapUrl = parts[3].trim();
+            String appleNavigationUrl = parts[5].trim();
+            double[] coordinates = parseCoordinates(mapUrl, appleNavigationUrl);
+            if (coordinates == null) {
+                warnings.add(location + ": POI '" + name + "' has no coordinates in its map URLs");
+                coordinates = new double[]{Double.NaN, Double.NaN};
+            } else if (Math.abs(coordinates[0]) > 90 || Math.abs(coordinates[1]) > 180) {
+                errors.add(location + ": coordinates out of range for POI '" + name + "'");
+                continue;
+            } else {
+                double[] apple = parseCoordinates("", appleNavigationUrl);
+                double mismatch = apple != null ? approximateDistance(coordinates, apple) : 0;
+                if (mismatch > COORDINATE_MISMATCH_METERS) {
+                    warnings.add(location + ": map and Apple Maps URLs of POI '" + name + "' are "
+                            + Math.round(mismatch) + " m apart, using the map URL");
+                }
+            }
+
+            pointsOfInterest.add(new POIRecord(
+                    name,
+                    parts[1].trim(),
+                    parts[2].trim(),
+                    mapUrl,
+                    parts[4].trim(),
+                    appleNavigationUrl,
+                    coordinates[0],
+                    coordinates[1]));
+        }
+
+        return pointsOfInterest;
+    }
+
+    /**
+     * Reads the coordinates from the OSM map URL ("#map=zoom/lat/lng"), or from the Apple
+     * Maps URL ("daddr=lat,lng") when the map URL has none. Returns null if neither has them.
+     */
+    static double[] parseCoordinates(String mapUrl, String appleNavigationUrl) {
+        Matcher osm = OSM_COORDINATES.matcher(mapUrl);
+        if (osm.find()) {
+            return new double[]{Double.parseDouble(osm.group(1)), Double.parseDouble(osm.group(2))};
+        }
+        Matcher apple = APPLE_COORDINATES.matcher(appleNavigationUrl);
+        if (apple.find()) {
+            return new double[]{Double.parseDouble(apple.group(1)), Double.parseDouble(apple.group(2))};
+        }
+        return null;
+    }
+
+    /**
+     * Distance in meters between two nearby coordinates, on a locally flat earth.
+     */
+    static double approximateDistance(double[] a, double[] b) {
+        double metersPerDegree = 111_195;
+        double dLat = (a[0] - b[0]) * metersPerDegree;
+        double dLng = (a[1] - b[1]) * metersPerDegree * Math.cos(Math.toRadians((a[0] + b[0]) / 2));
+        return Math.sqrt(dLat * dLat + dLng * dLng);
+    }
+
+    /**
+     * Splits poititles.txt in a single pass into every language. Keys that match a POI name
+     * are titles; every other key (e.g. {@code takeme}, {@code welcome}) is a UI string.
+     */
+    void parseTitles(List<String> lines, Set<String> poiNames,
+                     Map<String, Map<String, String>> titles, Map<String, Map<String, String>> uiStrings) {
+        Set<String> seen = new HashSet<>();
+
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (line.isBlank()) {
+                continue;
+            }
+
+            String location = ContentSource.TITLES_FILE + ":" + (i + 1);
+            String[] parts = line.split(";");
+            String key = parts[0].trim();
+            if (parts.length < 2 || key.isEmpty()) {
+                errors.add(location + ": expected a key followed by LANG:text entries");
+                continue;
+            }
+            if (!seen.add(key)) {
+                errors.add(location + ": duplicate key '" + key + "'");
+                continue;
+            }
+
+            Map<String, Map<String, String>> target = poiNames.contains(key) ? titles : uiStrings;
+            for (int j = 1; j < parts.length; j++) {
+                String part = parts[j].trim();
+                int separator = part.indexOf(':');
+                String language = separator > 0 ? part.substring(0, separator) : "";
+                if (!LANGUAGE_TAG.matcher(language).matches()) {
+                    errors.add(location + ": entry '" + part + "' for '" + key + "' does not start with a language tag like EN:");
+                    continue;
+                }
+                target.computeIfAbsent(language, l -> new LinkedHashMap<>())
+                        .put(key, part.substring(separator + 1));
+            }
+        }
+    }
+
+    /**
+     * Each "XX:" prefixed line starts a language; lines without a prefix continue the
+     * previous language as a new paragraph.
+     */
+    Map<String, List<String>> parseDescription(String file, List<String> lines) {
+        Map<String, List<String>> paragraphs = new LinkedHashMap<>();
+        List<String> current = null;
+
+        for (int i = 0; i < lines.size(); i++) {
+            String text = lines.get(i).trim();
+            if (text.isEmpty()) {
+                continue;
+            }
+
+            Matcher matcher = LANGUAGE_PREFIX.matcher(text);
+            if (matcher.matches()) {
+                current = paragraphs.computeIfAbsent(matcher.group(1), l -> new ArrayList<>());
+                text = matcher.group(2).trim();
+                if (text.isEmpty()) {
+                    continue;
+                }
+            } else if (current == null) {
+                errors.add(file + ":" + (i + 1) + ": text before the first language prefix");
+                continue;
+            }
+            current.add(text);
+        }
+
+        paragraphs.entrySet().removeIf(entry -> {
+            if (entry.getValue().isEmpty()) {
+                warnings.add(file + ": empty " + entry.getKey() + " description");
+                return true;
+            }
+            return false;
+        });
+        return paragraphs;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.starter.base.content;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Where the POI text files are read from. Paths are relative to the static resources root,
+ * e.g. {@code pointsofinterest/pois.txt}.
+ */
+public interface ContentSource {
+
+    String POIS_FILE = "pointsofinterest/pois.txt";
+    String TITLES_FILE = "pointsofinterest/poititles.txt";
+    String DESCRIPTIONS_DIR = "poi-descriptions/";
+
+    String CLASSPATH_ROOT = "/META-INF/resources/";
+
+    boolean exists(String relativePath);
+
+    /**
+     * Reads a UTF-8 file line by line. A missing file is reported as an IOException.
+     */
+    List<String> readLines(String relativePath) throws IOException;
+
+    /**
+     * Reads from {@code META-INF/resources} on the classpath.
+     */
+    static ContentSource classpath() {
+        return new ContentSource() {
+            @Override
+            public boolean exists(String relativePath) {
+                return ContentSource.class.getResource(CLASSPATH_ROOT + relativePath) != null;
+            }
+
+            @Override
+            public List<String> readLines(String relativePath) throws IOException {
+                InputStream is = ContentSource.class.getResourceAsStream(CLASSPATH_ROOT + relativePath);
+                if (is == null) {
+                    throw new IOException("Resource not found: " + CLASSPATH_ROOT + relativePath);
+                }
+
+                List<String> lines = new ArrayList<>();
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        lines.add(line);
+                    }
+                }
+                return lines;
+            }
+
+            @Override
+            public String toString() {
+                return "classpath:" + CLASSPATH_ROOT;
+            }
+        };
+    }
+
+    /**
+     * Reads from a directory laid out like {@code META-INF/resources}.
+     */
+    static ContentSource directory(Path root) {
+        return new ContentSource() {
+            @Override
+            public boolean exists(String relativePath) {
+                return Files.isRegularFile(root.resolve(relativePath));
+            }
+
+            @Override
+            public List<String> readLines(String relativePath) throws IOException {
+                return Files.readAllLines(root.resolve(relativePath), StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public String toString() {
+                return root.toString();
+            }
+        };
+    }
+
+    /**
+     * Reads each file from {@code first} if it has it, otherwise from {@code fallback}, so
+     * an external directory only needs the files that differ from the bundled ones.
+     */
+    static ContentSource overlay(ContentSource first, ContentSource fallback) {
+        return new ContentSource() {
+            @Override
+            public boolean exists(String relativePath) {
+                return first.exists(relativePath) || fallback.exists(relativePath);
+            }
+
+            @Override
+            public List<String> readLines(String relativePath) throws IOException {
+                return first.exists(relativePath) ? first.readLines(relativePath) : fallback.readLines(relativePath);
+            }
+
+            @Override
+            public String toString() {
+                return first + " over " + fallback;
+            }
+        };
+    }
+}
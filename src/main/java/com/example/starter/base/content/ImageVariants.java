@@ -0,0 +1,158 @@
+package com.example.starter.base.content;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Manifest of the downscaled copies of every image in {@code images/}, written at build time
+ * by {@code ImageVariantCompiler}.
+ *
+ * One line per source image: {@code name;hash;width;height;extension;w1,w2,...;blurhash}, the
+ * blurhash last since its alphabet includes the separator. The variant
+ * files live in {@code images/variants/<stem>-<width>.<hash>.<extension>}, so their URLs
+ * change whenever the source image does. URLs are built from a prefix that maps to
+ * {@code images/}, such as the image route's.
+ */
+public final class ImageVariants {
+
+    public static final String RESOURCE_PATH = "/META-INF/catalog/image-variants.txt";
+    public static final String VARIANTS_DIR = "images/variants/";
+
+    private static final ImageVariants EMPTY = new ImageVariants(List.of());
+
+    /**
+     * A source image, the widths it was downscaled to, smallest first, and its
+     * {@code BlurHash}, or null if it has none.
+     */
+    public record Source(String name, String hash, int width, int height, String extension, List<Integer> widths,
+                         String placeholder) {
+
+        public String variantFileName(int variantWidth) {
+            return stem(name) + "-" + variantWidth + "." + hash + "." + extension;
+        }
+
+        /**
+         * Path of a variant relative to {@code images/}.
+         */
+        public String variantPath(int variantWidth) {
+            return "variants/" + variantFileName(variantWidth);
+        }
+    }
+
+    private final Map<String, Source> sources;
+
+    public ImageVariants(List<Source> sources) {
+        Map<String, Source> byName = new LinkedHashMap<>();
+        for (Source source : sources) {
+            byName.put(source.name(), source);
+        }
+        this.sources = Collections.unmodifiableMap(byName);
+    }
+
+    public static ImageVariants empty() {
+        return EMPTY;
+    }
+
+    public Optional<Source> getSource(String imageName) {
+        return Optional.ofNullable(sources.get(imageName));
+    }
+
+    public Map<String, Source> getSources() {
+        return sources;
+    }
+
+    /**
+     * Returns a srcset value listing every variant plus the original, or null if the image
+     * has no variants.
+     */
+    public String srcset(String imageName, String urlPrefix, String originalUrl) {
+        Source source = sources.get(imageName);
+        if (source == null || source.widths().isEmpty()) {
+            return null;
+        }
+        List<String> candidates = new ArrayList<>();
+        for (int width : source.widths()) {
+            candidates.add(urlPrefix + source.variantPath(width) + " " + width + "w");
+        }
+        candidates.add(originalUrl + " " + source.width() + "w");
+        return String.join(", ", candidates);
+    }
+
+    /**
+     * Returns the URL of the smallest variant at least {@code minWidth} wide, or the original
+     * image if none is.
+     */
+    public String urlFor(String imageName, int minWidth, String urlPrefix, String originalUrl) {
+        Source source = sources.get(imageName);
+        if (source != null) {
+            for (int width : source.widths()) {
+                if (width >= minWidth) {
+                    return urlPrefix + source.variantPath(width);
+                }
+            }
+        }
+        return originalUrl;
+    }
+
+    public void write(Writer output) {
+        PrintWriter out = new PrintWriter(output);
+        out.println("# name;hash;width;height;extension;variant widths;blurhash");
+        for (Source source : sources.values()) {
+            out.println(String.join(";",
+                    source.name(),
+                    source.hash(),
+                    Integer.toString(source.width()),
+                    Integer.toString(source.height()),
+                    source.extension(),
+                    source.widths().stream().map(String::valueOf).collect(Collectors.joining(",")),
+                    source.placeholder() != null ? source.placeholder() : ""));
+        }
+        out.flush();
+    }
+
+    public static ImageVariants read(InputStream input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        List<Source> sources = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(";", 7);
+            if (fields.length != 7) {
+                throw new IOException("Malformed image variant line: " + line);
+            }
+            try {
+                List<Integer> widths = new ArrayList<>();
+                if (!fields[5].isEmpty()) {
+                    for (String width : fields[5].split(",")) {
+                        widths.add(Integer.parseInt(width));
+                    }
+                }
+                sources.add(new Source(fields[0], fields[1], Integer.parseInt(fields[2]),
+                        Integer.parseInt(fields[3]), fields[4], List.copyOf(widths),
+                        fields[6].isEmpty() ? null : fields[6]));
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed image variant line: " + line, e);
+            }
+        }
+        return new ImageVariants(sources);
+    }
+
+    static String stem(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(0, dot) : fileName;
+    }
+}
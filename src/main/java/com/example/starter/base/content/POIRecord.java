@@ -0,0 +1,19 @@
+package com.example.starter.base.content;
+
+/**
+ * One validated line of pois.txt, with its coordinates already parsed.
+ * Latitude and longitude are NaN when neither map URL carries coordinates.
+ */
+public record POIRecord(String name,
+                        String displayName,
+                        String description,
+                        String mapUrl,
+                        String navigationUrl,
+                        String appleNavigationUrl,
+                        double latitude,
+                        double longitude) {
+
+    public boolean hasCoordinates() {
+        return !Double.isNaN(latitude) && !Double.isNaN(longitude);
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.starter.base.content;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The static assets that have brotli and gzip siblings, written at build time by
+ * {@code PrecompressCompiler}.
+ *
+ * One line per asset: {@code path;encodings;size}, e.g. {@code sw.js;br,gzip;18342}, with
+ * paths relative to {@code META-INF/resources} as they appear in the URL. The siblings sit
+ * next to them as {@code sw.js.br} and {@code sw.js.gz}; an encoding that did not make the
+ * file smaller is not listed and has no sibling.
+ */
+public final class PrecompressedAssets {
+
+    public static final String RESOURCE_PATH = "/META-INF/catalog/precompressed.txt";
+
+    public static final String BROTLI = "br";
+    public static final String GZIP = "gzip";
+
+    private static final PrecompressedAssets EMPTY = new PrecompressedAssets(Map.of());
+
+    // Text formats worth compressing, with the content type to send the siblings with
+    private static final Map<String, String> CONTENT_TYPES = Map.ofEntries(
+            Map.entry("js", "text/javascript;charset=UTF-8"),
+            Map.entry("mjs", "text/javascript;charset=UTF-8"),
+            Map.entry("css", "text/css;charset=UTF-8"),
+            Map.entry("html", "text/html;charset=UTF-8"),
+            Map.entry("txt", "text/plain;charset=UTF-8"),
+            Map.entry("json", "application/json"),
+            Map.entry("map", "application/json"),
+            Map.entry("webmanifest", "application/manifest+json"),
+            Map.entry("xml", "application/xml"),
+            Map.entry("svg", "image/svg+xml"),
+            Map.entry("ico", "image/x-icon"));
+
+    /**
+     * Encodings of one asset, brotli first, and its uncompressed size.
+     */
+    public record Asset(List<String> encodings, long size) {
+
+        public boolean has(String encoding) {
+            return encodings.contains(encoding);
+        }
+    }
+
+    private final Map<String, Asset> assets;
+
+    public PrecompressedAssets(Map<String, Asset> assets) {
+        this.assets = Collections.unmodifiableMap(new LinkedHashMap<>(assets));
+    }
+
+    public static PrecompressedAssets empty() {
+        return EMPTY;
+    }
+
+    public Map<String, Asset> getAssets() {
+        return assets;
+    }
+
+    /**
+     * The asset at a path relative to {@code META-INF/resources}, or null if it has no
+     * compressed siblings.
+     */
+    public Asset get(String path) {
+        return assets.get(path);
+    }
+
+    /**
+     * The file holding an asset in an encoding: the asset itself for null, else a sibling.
+     */
+    public static String siblingPath(String path, String encoding) {
+        if (encoding == null) {
+            return path;
+        }
+        return path + (BROTLI.equals(encoding) ? ".br" : ".gz");
+    }
+
+    /**
+     * Whether a file is a compressed sibling written by the build, which other build steps
+     * must not treat as an asset of its own.
+     */
+    public static boolean isSibling(String name) {
+        return name.endsWith(".br") || name.endsWith(".gz");
+    }
+
+    public static boolean isCompressible(String name) {
+        return CONTENT_TYPES.containsKey(extension(name));
+    }
+
+    /**
+     * The content type of a compressible file, or null for other files.
+     */
+    public static String contentType(String name) {
+        return CONTENT_TYPES.get(extension(name));
+    }
+
+    private static String extension(String name) {
+        int slash = name.lastIndexOf('/');
+        int dot = name.lastIndexOf('.');
+        return dot > slash ? name.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+    }
+
+    public void write(Writer output) {
+        PrintWriter out = new PrintWriter(output);
+        out.println("# path;encodings;size");
+        assets.forEach((path, asset) -> out.println(path + ";" + String.join(",", asset.encodings()) + ";" + asset.size()));
+        out.flush();
+    }
+
+    public static PrecompressedAssets read(InputStream input) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Map<String, Asset> assets = new LinkedHashMap<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(";", -1);
+            if (fields.length != 3 || fields[1].isEmpty()) {
+                throw new IOException("Malformed precompressed asset line: " + line);
+            }
+            try {
+                assets.put(fields[0], new Asset(List.of(fields[1].split(",")), Long.parseLong(fields[2])));
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed precompressed asset line: " + line, e);
+            }
+        }
+        return new PrecompressedAssets(assets);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.starter.base.entity;
+
+/**
+ * One image of a POI's gallery: its path relative to {@code images/}, its URL, intrinsic size
+ * and size in bytes. Width and height are 0 when unknown, e.g. for an image replaced in the
+ * content directory.
+ */
+public record GalleryImage(String path, String url, int width, int height, long size) {
+
+    public boolean hasSize() {
+        return width > 0 && height > 0;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.starter.base.entity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One language of a POI description, split and rendered once when the descriptions are
+ * indexed so that views only need to look it up.
+ */
+public final class POIDescription {
+
+    // The detail view shows the description in (at most) this many blocks
+    private static final int SECTION_COUNT = 3;
+
+    private final String language;
+    private final List<String> paragraphs;
+    private final List<String> sections;
+    private final String html;
+
+    public POIDescription(String language, List<String> paragraphs) {
+        this.language = language;
+        this.paragraphs = List.copyOf(paragraphs);
+        this.sections = List.copyOf(splitIntoSections(this.paragraphs));
+        this.html = toHtml(this.paragraphs);
+    }
+
+    private static List<String> splitIntoSections(List<String> paragraphs) {
+        List<String> sections = new ArrayList<>(SECTION_COUNT);
+        int paragraphsPerSection = (int) Math.ceil((double) paragraphs.size() / SECTION_COUNT);
+
+        for (int i = 0; i < SECTION_COUNT && paragraphsPerSection > 0; i++) {
+            int from = i * paragraphsPerSection;
+            int to = Math.min(from + paragraphsPerSection, paragraphs.size());
+            if (from < to) {
+                sections.add(String.join("\n\n", paragraphs.subList(from, to)));
+            }
+        }
+        return sections;
+    }
+
+    private static String toHtml(List<String> paragraphs) {
+        StringBuilder html = new StringBuilder();
+        for (String paragraph : paragraphs) {
+            html.append("<p>");
+            appendEscaped(html, paragraph);
+            html.append("</p>");
+        }
+        return html.toString();
+    }
+
+    private static void appendEscaped(StringBuilder out, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    /**
+     * The language the text is written in, which may differ from the requested one when a
+     * translation is missing.
+     */
+    public String getLanguage() {
+        return language;
+    }
+
+    public List<String> getParagraphs() {
+        return paragraphs;
+    }
+
+    public List<String> getSections() {
+        return sections;
+    }
+
+    /**
+     * The paragraphs as escaped {@code <p>} elements, ready to embed in a page.
+     */
+    public String getHtml() {
+        return html;
+    }
+
+    public String getText() {
+        return String.join("\n\n", paragraphs);
+    }
+}
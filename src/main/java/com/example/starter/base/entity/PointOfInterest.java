@@ -1,10 +1,6 @@
 package com.example.starter.base.entity;
 
-import com.vaadin.flow.server.StreamResource;
-
-import java.io.File;
-import java.io.InputStream;
-import java.net.URL;
+import java.util.List;
 
 public class PointOfInterest {
 
@@ -12,9 +8,18 @@ public class PointOfInterest {
     private String displayName;
     private String description;
     private String imagePath;
+    private String imageUrl;
+    private String descriptionUrl;
     private String mapUrl;
     private String navigationUrl;
     private String appleNavigationUrl;
+    private double latitude = Double.NaN;
+    private double longitude = Double.NaN;
+    // Intrinsic size and blurhash of the image, 0 and null when unknown
+    private int imageWidth;
+    private int imageHeight;
+    private String imagePlaceholder;
+    private List<GalleryImage> gallery = List.of();
 
     public PointOfInterest(String name, String displayName, String description, String imagePath, String mapUrl, String navigationUrl, String appleNavigationUrl) {
         this.name = name;
@@ -44,38 +49,12 @@ public class PointOfInterest {
 
     public String getDisplayName() { return displayName; }
     public String getDescription() { return description; }
-    public StreamResource getImageResource() {
-        return new StreamResource(getDisplayName(), () -> {
-            String fullPath = "/images/" + imagePath;
-            System.out.println("Attempting to load resource from: " + fullPath);
-            InputStream inputStream = getClass().getResourceAsStream("/META-INF/resources" + fullPath);
-            if (inputStream == null) {
-                System.out.println("Resource not found: " + fullPath);
-                listResources("META-INF/resources");
-            }
-            return inputStream;
-        });
-    }
-    public String getMapUrl() { return mapUrl; }
+    public String getImageUrl() { return imageUrl; }
+    public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
 
-    private void listResources(String path) {
-        try {
-            URL resourceUrl = Thread.currentThread().getContextClassLoader().getResource(path);
-            if (resourceUrl != null) {
-                File file = new File(resourceUrl.toURI());
-                if (file.isDirectory()) {
-                    System.out.println("Contents of " + path + ":");
-                    for (String fileName : file.list()) {
-                        System.out.println(fileName);
-                    }
-                }
-            } else {
-                System.out.println("Resource directory not found: " + path);
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-    }
+    public String getDescriptionUrl() { return descriptionUrl; }
+    public void setDescriptionUrl(String descriptionUrl) { this.descriptionUrl = descriptionUrl; }
+    public String getMapUrl() { return mapUrl; }
 
     public String getImagePath() {
         return imagePath;
@@ -112,4 +91,51 @@ public class PointOfInterest {
     public void setAppleNavigationUrl(String appleNavigationUrl) {
         this.appleNavigationUrl = appleNavigationUrl;
     }
-}
\ No newline at end of file
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public void setCoordinates(double latitude, double longitude) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public boolean hasCoordinates() {
+        return !Double.isNaN(latitude) && !Double.isNaN(longitude);
+    }
+
+    public int getImageWidth() {
+        return imageWidth;
+    }
+
+    public int getImageHeight() {
+        return imageHeight;
+    }
+
+    public String getImagePlaceholder() {
+        return imagePlaceholder;
+    }
+
+    public void setImage(int width, int height, String placeholder) {
+        this.imageWidth = width;
+        this.imageHeight = height;
+        this.imagePlaceholder = placeholder;
+    }
+
+    public boolean hasImageSize() {
+        return imageWidth > 0 && imageHeight > 0;
+    }
+
+    public List<GalleryImage> getGallery() {
+        return gallery;
+    }
+
+    public void setGallery(List<GalleryImage> gallery) {
+        this.gallery = List.copyOf(gallery);
+    }
+}
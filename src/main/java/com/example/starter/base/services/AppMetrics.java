@@ -0,0 +1,64 @@
+package com.example.starter.base.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.quarkus.runtime.StartupEvent;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup time and per-language request counts. Exported with the JVM, HTTP server and
+ * service meters on the management interface, {@code GET :9000/q/metrics}.
+ *
+ * Counters are created on first use and cached. Their tags come from small fixed sets,
+ * endpoints and resolved languages, so the number of series stays bounded whatever
+ * clients send.
+ */
+@ApplicationScoped
+public class AppMetrics {
+
+    @Inject
+    private MeterRegistry registry;
+
+    @Inject
+    private LocalizationService localizationService;
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    void onStart(@Observes StartupEvent event) {
+        // From JVM start, so it includes class loading and the @Startup content indexes
+        long startupMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        TimeGauge.builder("app.startup.duration", () -> startupMillis, TimeUnit.MILLISECONDS)
+                .description("Time from JVM start until the application was ready")
+                .register(registry);
+    }
+
+    /**
+     * Counts a request to an endpoint under the language it is served in, and whether that
+     * is the language asked for or the EN fallback. Returns the resolved language.
+     */
+    public String countLocale(String endpoint, Locale locale) {
+        String language = localizationService.resolveLanguage(locale);
+        boolean requested = locale != null
+                && (language.equalsIgnoreCase(locale.getLanguage()) || language.equalsIgnoreCase(locale.toLanguageTag()));
+        counter("app.requests", "endpoint", endpoint, "language", language).increment();
+        counter("localization.lookups", "kind", "language", "result", requested ? "hit" : "miss").increment();
+        return language;
+    }
+
+    private Counter counter(String name, String firstTag, String firstValue, String secondTag, String secondValue) {
+        return counters.computeIfAbsent(name + '|' + firstValue + '|' + secondValue,
+                key -> Counter.builder(name)
+                        .tag(firstTag, firstValue)
+                        .tag(secondTag, secondValue)
+                        .register(registry));
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.starter.base.services;
+
+import com.example.starter.base.content.AssetManifest;
+import com.example.starter.base.content.PrecompressedAssets;
+import io.quarkus.runtime.Startup;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the URLs of static assets from the manifest written at build time.
+ *
+ * A listed asset gets a fingerprinted URL such as
+ * {@code /api/assets/images/castle.0123456789abcdef.webp}, which clients may cache forever;
+ * a changed file gets a new URL. Without a manifest, e.g. in dev mode, URLs are plain and
+ * revalidated on every use.
+ *
+ * Also holds the list of assets with brotli and gzip siblings; without one, every asset is
+ * served uncompressed.
+ *
+ * Files in {@code content.dir} override the bundled ones: they are hashed with every
+ * {@link ContentSnapshot}, and lose their compressed siblings and image variants, which were
+ * built from the bundled copy.
+ */
+@Startup
+@ApplicationScoped
+public class AssetService {
+
+    private static final Logger LOG = Logger.getLogger(AssetService.class);
+
+    public static final String URL_PREFIX = AssetManifest.URL_PREFIX;
+
+    private static final String IMAGES_DIR = "images/";
+
+    // Directories of the content directory that may override bundled assets
+    private static final List<String> CONTENT_DIRECTORIES = List.of("images", "poi-descriptions", "pointsofinterest");
+
+    @ConfigProperty(name = "content.dir")
+    private Optional<Path> contentDir;
+
+    @Inject
+    private ContentState state;
+
+    private AssetManifest bundledManifest = AssetManifest.empty();
+
+    private PrecompressedAssets bundledPrecompressed = PrecompressedAssets.empty();
+
+    /**
+     * The asset lists of one version of the content, and the names of the images in
+     * {@code images/} that the content directory replaces.
+     */
+    record Assets(AssetManifest manifest, PrecompressedAssets precompressed, Set<String> overriddenImages) {
+    }
+
+    @PostConstruct
+    void init() {
+        loadManifest();
+        loadPrecompressed();
+    }
+
+    Assets bundled() {
+        return new Assets(bundledManifest, bundledPrecompressed, Set.of());
+    }
+
+    /**
+     * Hashes the files in the content directory and builds asset lists with them over the
+     * bundled assets. Without a content directory, these are the bundled lists.
+     */
+    Assets build() throws IOException {
+        if (contentDir.isEmpty()) {
+            return bundled();
+        }
+        Map<String, AssetManifest.Asset> external = AssetManifest.scan(contentDir.get(), CONTENT_DIRECTORIES);
+
+        Map<String, AssetManifest.Asset> assets = new LinkedHashMap<>(bundledManifest.getAssets());
+        assets.putAll(external);
+        Map<String, PrecompressedAssets.Asset> compressed = new LinkedHashMap<>(bundledPrecompressed.getAssets());
+        compressed.keySet().removeAll(external.keySet());
+
+        LOG.infof("Hashed %d assets in %s", external.size(), contentDir.get());
+        return new Assets(new AssetManifest(assets), new PrecompressedAssets(compressed), external.keySet().stream()
+                .filter(path -> path.startsWith(IMAGES_DIR))
+                .map(path -> path.substring(IMAGES_DIR.length()))
+                .collect(Collectors.toSet()));
+    }
+
+    private void loadManifest() {
+        try (InputStream is = getClass().getResourceAsStream(AssetManifest.RESOURCE_PATH)) {
+            if (is == null) {
+                LOG.info("No asset manifest found, serving assets under their plain names");
+                return;
+            }
+            bundledManifest = AssetManifest.read(is);
+            LOG.infof("Loaded asset manifest with %d assets", bundledManifest.getAssets().size());
+        } catch (IOException e) {
+            LOG.error("Error reading the asset manifest, serving assets under their plain names", e);
+        }
+    }
+
+    private void loadPrecompressed() {
+        try (InputStream is = getClass().getResourceAsStream(PrecompressedAssets.RESOURCE_PATH)) {
+            if (is == null) {
+                LOG.info("No precompressed asset list found, serving static assets uncompressed");
+                return;
+            }
+            bundledPrecompressed = PrecompressedAssets.read(is);
+            LOG.infof("Loaded %d precompressed assets", bundledPrecompressed.getAssets().size());
+        } catch (IOException e) {
+            LOG.error("Error reading the precompressed asset list, serving static assets uncompressed", e);
+        }
+    }
+
+    public AssetManifest getManifest() {
+        return state.get().manifest();
+    }
+
+    public PrecompressedAssets getPrecompressed() {
+        return state.get().precompressed();
+    }
+
+    /**
+     * Returns the URL of an asset given its path under {@code META-INF/resources},
+     * e.g. {@code images/castle.webp}.
+     */
+    public String url(String path) {
+        return url(getManifest(), path);
+    }
+
+    static String url(AssetManifest manifest, String path) {
+        return URL_PREFIX + manifest.fingerprint(path);
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.starter.base.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position in a paged listing of the catalog, handed to clients as a URL-safe
+ * string. It names the last POI of the previous page and remembers its position.
+ *
+ * Resuming goes by the name: the next page starts right after that POI wherever a reload
+ * has put it, or at the old position if it has been deleted. That is only seamless while
+ * the POIs around the cursor keep their order: a reload between pages that moves POIs
+ * across it, adds them before it or deletes it can skip or repeat some.
+ */
+public record CatalogCursor(int position, String name) {
+
+    /**
+     * The cursor that continues after the given POI.
+     */
+    public static CatalogCursor after(POICatalog.Listed last) {
+        return new CatalogCursor(last.order(), last.poi().getName());
+    }
+
+    /**
+     * Parses a cursor from {@link #encode()}. Throws IllegalArgumentException if it is malformed.
+     */
+    public static CatalogCursor decode(String cursor) {
+        String text = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        int colon = text.indexOf(':');
+        if (colon <= 0 || colon == text.length() - 1) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        int position = Integer.parseInt(text.substring(0, colon));
+        if (position < 0) {
+            throw new IllegalArgumentException("Malformed cursor");
+        }
+        return new CatalogCursor(position, text.substring(colon + 1));
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((position + ":" + name).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Where the next page starts in the given catalog: after the named POI, or at the old
+     * position if it is gone.
+     */
+    int resumeIn(POICatalog catalog) {
+        int current = catalog.positionOf(name);
+        return current >= 0 ? current + 1 : Math.min(position, catalog.size());
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.starter.base.services;
+
+/**
+ * Fired by {@link ContentWatcher} after a new {@link ContentSnapshot} has been swapped in.
+ * Observers rebuild what they derive from it right away, on the watcher's thread, instead
+ * of on the first request that notices the change.
+ */
+public record ContentReloaded(ContentSnapshot snapshot) {
+}
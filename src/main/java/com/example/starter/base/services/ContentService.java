@@ -0,0 +1,118 @@
+package com.example.starter.base.services;
+
+import com.example.starter.base.content.CatalogArtifact;
+import com.example.starter.base.content.CatalogContent;
+import com.example.starter.base.content.CatalogContentParser;
+import com.example.starter.base.content.ContentSource;
+import io.quarkus.runtime.LaunchMode;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Reads the {@link CatalogContent} the other services build their snapshots from; the
+ * active content is part of the {@link ContentState}.
+ *
+ * Production builds ship the catalog pre-compiled at {@link CatalogArtifact#RESOURCE_PATH},
+ * which loads without any text parsing. In dev mode, or when the artifact is missing, the
+ * text files are parsed from the classpath instead so that edits show up on reload.
+ *
+ * With {@code content.dir} set, the text files are parsed from that directory instead,
+ * falling back to the bundled copy for every file it does not have. Such content replaces
+ * the bundled content only as a whole: with any malformed line, startup keeps the bundled
+ * content and {@link #read()} throws.
+ */
+@ApplicationScoped
+public class ContentService {
+
+    private static final Logger LOG = Logger.getLogger(ContentService.class);
+
+    @ConfigProperty(name = "content.dir")
+    private Optional<Path> contentDir;
+
+    @Inject
+    private ContentState state;
+
+    public CatalogContent getContent() {
+        return state.get().content();
+    }
+
+    public Optional<Path> getContentDir() {
+        return contentDir;
+    }
+
+    /**
+     * Reads the content again without swapping it in, from the content directory if one
+     * is configured. Throws if the directory's content has errors.
+     */
+    public CatalogContent read() throws IOException {
+        return contentDir.isPresent() ? readDirectory(contentDir.get()) : load();
+    }
+
+    /**
+     * Reads the content for startup, falling back to the bundled content if the content
+     * directory's has errors.
+     */
+    CatalogContent load() {
+        if (contentDir.isPresent()) {
+            try {
+                return readDirectory(contentDir.get());
+            } catch (IOException e) {
+                LOG.errorf("Not using the content in %s, falling back to the bundled content: %s",
+                        contentDir.get(), e.getMessage());
+            }
+        }
+
+        long start = System.nanoTime();
+
+        try (InputStream is = getClass().getResourceAsStream(CatalogArtifact.RESOURCE_PATH)) {
+            if (is != null && LaunchMode.current() != LaunchMode.DEVELOPMENT) {
+                CatalogContent compiled = CatalogArtifact.read(is);
+                LOG.infof("Loaded compiled catalog with %d POIs in %d ms",
+                        compiled.getPointsOfInterest().size(), (System.nanoTime() - start) / 1_000_000);
+                return compiled;
+            }
+        } catch (IOException e) {
+            LOG.error("Error reading the compiled catalog, falling back to the text files", e);
+        }
+
+        try {
+            CatalogContentParser parser = new CatalogContentParser();
+            CatalogContent parsed = parser.parse(ContentSource.classpath());
+            parser.getErrors().forEach(error -> LOG.warn("Skipped malformed content: " + error));
+            parser.getWarnings().forEach(LOG::debug);
+            LOG.infof("Parsed catalog text files with %d POIs in %d ms",
+                    parsed.getPointsOfInterest().size(), (System.nanoTime() - start) / 1_000_000);
+            return parsed;
+        } catch (IOException e) {
+            LOG.error("Error reading points of interest from file", e);
+            return new CatalogContent(List.of(), Map.of(), Map.of(), Map.of());
+        }
+    }
+
+    private CatalogContent readDirectory(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            throw new IOException("Content directory " + dir + " does not exist");
+        }
+        long start = System.nanoTime();
+        CatalogContentParser parser = new CatalogContentParser();
+        CatalogContent parsed = parser.parse(ContentSource.overlay(ContentSource.directory(dir), ContentSource.classpath()));
+        parser.getWarnings().forEach(LOG::debug);
+        if (parser.hasErrors()) {
+            parser.getErrors().forEach(error -> LOG.error("Malformed content: " + error));
+            throw new IOException("The content in " + dir + " has " + parser.getErrors().size() + " error(s)");
+        }
+        LOG.infof("Parsed catalog text files in %s with %d POIs in %d ms",
+                dir, parsed.getPointsOfInterest().size(), (System.nanoTime() - start) / 1_000_000);
+        return parsed;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.starter.base.services;
+
+import com.example.starter.base.content.AssetManifest;
+import com.example.starter.base.content.CatalogContent;
+import com.example.starter.base.content.ImageVariants;
+import com.example.starter.base.content.PrecompressedAssets;
+import com.example.starter.base.entity.POIDescription;
+
+import java.util.Map;
+
+/**
+ * Everything built from one version of the content: the parsed files, titles and UI strings,
+ * descriptions (POI name to language to description), assets and the catalog. Replaced as a
+ * whole on reload (see {@link ContentState}), so callers can tell by identity whether it
+ * changed and never see parts of two versions.
+ */
+public record ContentSnapshot(CatalogContent content,
+                              Localizations localizations,
+                              Map<String, Map<String, POIDescription>> descriptions,
+                              AssetManifest manifest,
+                              PrecompressedAssets precompressed,
+                              ImageVariants variants,
+                              POICatalog catalog) {
+}
@@ -0,0 +1,91 @@
+package com.example.starter.base.services;
+
+import com.example.starter.base.content.CatalogContent;
+import com.example.starter.base.content.ImageVariants;
+import com.example.starter.base.entity.POIDescription;
+import io.quarkus.runtime.Startup;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Holds the active {@link ContentSnapshot} in a single volatile field.
+ *
+ * A reload reads the content and the assets, builds every part of the next snapshot from
+ * them and only then swaps it in with one write, so a request sees either the previous
+ * version or the next, never a mix. The services' getters read this field; a caller that
+ * needs several parts to match reads {@link #get()} once and takes them from the snapshot.
+ */
+@Startup
+@ApplicationScoped
+public class ContentState {
+
+    private static final Logger LOG = Logger.getLogger(ContentState.class);
+
+    @Inject
+    private ContentService contentService;
+
+    @Inject
+    private AssetService assetService;
+
+    @Inject
+    private ImageVariantService imageVariantService;
+
+    @Inject
+    private LocalizationService localizationService;
+
+    @Inject
+    private DescriptionService descriptionService;
+
+    @Inject
+    private POIService poiService;
+
+    @Inject
+    private StaticFileCache fileCache;
+
+    private volatile ContentSnapshot snapshot;
+
+    @PostConstruct
+    void init() {
+        AssetService.Assets assets;
+        try {
+            assets = assetService.build();
+        } catch (IOException e) {
+            LOG.errorf(e, "Could not hash the assets in %s, serving the bundled assets only",
+                    contentService.getContentDir().orElse(null));
+            assets = assetService.bundled();
+        }
+        snapshot = build(contentService.load(), assets);
+    }
+
+    public ContentSnapshot get() {
+        return snapshot;
+    }
+
+    /**
+     * Re-reads the content and the assets, builds the next snapshot and swaps it in. Files
+     * cached from the previous content are dropped afterwards. If the content cannot be
+     * read, nothing is swapped and the exception is thrown.
+     */
+    public synchronized ContentSnapshot reload() throws IOException {
+        CatalogContent content = contentService.read();
+        AssetService.Assets assets = assetService.build();
+        ContentSnapshot next = build(content, assets);
+        snapshot = next;
+        fileCache.invalidate();
+        return next;
+    }
+
+    private ContentSnapshot build(CatalogContent content, AssetService.Assets assets) {
+        ImageVariants variants = imageVariantService.build(assets.overriddenImages());
+        Localizations localizations = localizationService.build(content);
+        Map<String, Map<String, POIDescription>> descriptions = descriptionService.build(content, localizations);
+        POICatalog catalog = poiService.build(content, localizations, descriptions, assets.manifest(), variants);
+        return new ContentSnapshot(content, localizations, descriptions, assets.manifest(), assets.precompressed(),
+                variants, catalog);
+    }
+}
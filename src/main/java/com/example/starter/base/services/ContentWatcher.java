@@ -0,0 +1,167 @@
+package com.example.starter.base.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.Startup;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Event;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Reloads the catalog when files in {@code content.dir} change, so editors can publish new
+ * POIs, titles, descriptions and images without a redeploy.
+ *
+ * Changes are collected until the directory has been quiet for the debounce interval, so
+ * copying a batch of files triggers one reload. A reload whose content has errors is
+ * rejected and logged, and the previous catalog stays in service.
+ */
+@Startup
+@ApplicationScoped
+public class ContentWatcher {
+
+    private static final Logger LOG = Logger.getLogger(ContentWatcher.class);
+
+    @ConfigProperty(name = "content.dir")
+    private Optional<Path> contentDir;
+
+    @ConfigProperty(name = "content.watch.enabled")
+    private boolean enabled;
+
+    @ConfigProperty(name = "content.watch.debounce")
+    private Duration debounce;
+
+    @Inject
+    private ContentState state;
+
+    @Inject
+    private Event<ContentReloaded> reloaded;
+
+    @Inject
+    private MeterRegistry registry;
+
+    private WatchService watchService;
+
+    private Counter successCounter;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    void init() {
+        if (contentDir.isEmpty() || !enabled) {
+            return;
+        }
+        successCounter = reloadCounter("success");
+        rejectedCounter = reloadCounter("rejected");
+        Path dir = contentDir.get();
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            registerAll(dir);
+        } catch (IOException e) {
+            LOG.errorf(e, "Could not watch %s, content changes need a restart", dir);
+            return;
+        }
+        Thread thread = new Thread(this::watch, "content-watcher");
+        thread.setDaemon(true);
+        thread.start();
+        LOG.infof("Watching %s for content changes", dir);
+    }
+
+    @PreDestroy
+    void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                LOG.debug("Could not close the content watch service", e);
+            }
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                handle(key);
+                // Wait for the directory to go quiet before reloading
+                while ((key = watchService.poll(debounce.toMillis(), TimeUnit.MILLISECONDS)) != null) {
+                    handle(key);
+                }
+                reload();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // Shutting down
+        }
+    }
+
+    private void handle(WatchKey key) {
+        Path dir = (Path) key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE) {
+                Path created = dir.resolve((Path) event.context());
+                if (Files.isDirectory(created)) {
+                    try {
+                        registerAll(created);
+                    } catch (IOException e) {
+                        LOG.errorf(e, "Could not watch %s", created);
+                    }
+                }
+            }
+        }
+        key.reset();
+    }
+
+    private void reload() {
+        long start = System.nanoTime();
+        try {
+            ContentSnapshot snapshot = state.reload();
+            reloaded.fire(new ContentReloaded(snapshot));
+            successCounter.increment();
+            LOG.infof("Reloaded content from %s with %d POIs in %d ms",
+                    contentDir.get(), snapshot.catalog().size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (IOException e) {
+            rejectedCounter.increment();
+            LOG.errorf("Content change in %s rejected, keeping the current catalog: %s", contentDir.get(), e.getMessage());
+        } catch (RuntimeException e) {
+            rejectedCounter.increment();
+            LOG.errorf(e, "Content change in %s rejected, keeping the current catalog", contentDir.get());
+        }
+    }
+
+    private void registerAll(Path root) throws IOException {
+        List<Path> dirs;
+        try (Stream<Path> stream = Files.walk(root)) {
+            dirs = stream.filter(Files::isDirectory).toList();
+        }
+        for (Path dir : dirs) {
+            dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        }
+    }
+
+    private Counter reloadCounter(String result) {
+        return Counter.builder("content.reloads")
+                .description("Content reloads after changes in the content directory")
+                .tag("result", result)
+                .register(registry);
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.starter.base.services;
+
+import com.example.starter.base.content.CatalogContent;
+import com.example.starter.base.content.POIRecord;
+import com.example.starter.base.entity.POIDescription;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.Startup;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Indexes the poi-descriptions/&lt;name&gt;.txt files with the rest of each
+ * {@link ContentSnapshot}.
+ *
+ * Every POI gets one pre-split {@link POIDescription} per language, already merged with
+ * the EN fallback, so a detail view costs one lookup.
+ */
+@Startup
+@ApplicationScoped
+public class DescriptionService {
+
+    private static final Logger LOG = Logger.getLogger(DescriptionService.class);
+
+    @Inject
+    private ContentState state;
+
+    @Inject
+    private MeterRegistry registry;
+
+    private Counter hits;
+    private Counter fallbacks;
+    private Counter misses;
+
+    @PostConstruct
+    void init() {
+        hits = lookupCounter("hit");
+        fallbacks = lookupCounter("fallback");
+        misses = lookupCounter("miss");
+    }
+
+    /**
+     * Returns the description in the locale's language, falling back to EN.
+     */
+    public Optional<POIDescription> getDescription(String poiName, Locale locale) {
+        ContentSnapshot current = state.get();
+        String language = current.localizations().resolveLanguage(locale);
+        POIDescription description = find(current.descriptions(), poiName, language);
+        // Fallbacks are merged into the index, so tell them apart by their language
+        (description == null ? misses : description.getLanguage().equals(language) ? hits : fallbacks).increment();
+        return Optional.ofNullable(description);
+    }
+
+    public boolean hasDescription(String poiName) {
+        return getDescriptions().containsKey(poiName);
+    }
+
+    /**
+     * The current index, POI name to language to description. Replaced as a whole on
+     * reload, so callers can tell by identity whether it changed.
+     */
+    public Map<String, Map<String, POIDescription>> getDescriptions() {
+        return state.get().descriptions();
+    }
+
+    /**
+     * Looks up a description in an index, falling back to EN, without counting the lookup.
+     * Returns null if the POI has none.
+     */
+    public static POIDescription find(Map<String, Map<String, POIDescription>> descriptions, String poiName,
+                                      String language) {
+        Map<String, POIDescription> byLanguage = descriptions.get(poiName);
+        if (byLanguage == null) {
+            return null;
+        }
+        POIDescription description = byLanguage.get(language);
+        return description != null ? description : byLanguage.get(Localizations.DEFAULT_LANGUAGE);
+    }
+
+    private Counter lookupCounter(String result) {
+        return Counter.builder("description.lookups")
+                .description("Description lookups: in the requested language, the EN fallback, or none")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Builds an index from the given content and the languages of its titles.
+     */
+    Map<String, Map<String, POIDescription>> build(CatalogContent content, Localizations localizations) {
+        Set<String> expectedLanguages = localizations.getLanguages();
+        Map<String, Map<String, POIDescription>> index = new LinkedHashMap<>();
+        int missingCount = 0;
+
+        for (POIRecord poi : content.getPointsOfInterest()) {
+            Map<String, List<String>> paragraphs = content.getDescriptions().get(poi.name());
+            if (paragraphs == null) {
+                LOG.warnf("POI '%s' has no description file", poi.name());
+                missingCount++;
+                continue;
+            }
+
+            Map<String, POIDescription> parsed = new LinkedHashMap<>();
+            paragraphs.forEach((language, text) -> parsed.put(language, new POIDescription(language, text)));
+
+            Set<String> missing = new LinkedHashSet<>(expectedLanguages);
+            missing.removeAll(parsed.keySet());
+            if (!missing.isEmpty()) {
+                LOG.warnf("POI '%s' is missing descriptions in %s", poi.name(), missing);
+                missingCount++;
+            }
+
+            index.put(poi.name(), withFallbacks(parsed, expectedLanguages));
+        }
+
+        LOG.infof("Indexed descriptions for %d of %d POIs (%d incomplete)",
+                index.size(), content.getPointsOfInterest().size(), missingCount);
+        return Collections.unmodifiableMap(index);
+    }
+
+    /**
+     * Fills every expected language that has no text of its own with the EN description,
+     * so lookups never need a second probe.
+     */
+    private static Map<String, POIDescription> withFallbacks(Map<String, POIDescription> parsed,
+                                                             Set<String> languages) {
+        Map<String, POIDescription> merged = new LinkedHashMap<>(parsed);
+        POIDescription fallback = parsed.get(Localizations.DEFAULT_LANGUAGE);
+        if (fallback != null) {
+            for (String language : languages) {
+                merged.putIfAbsent(language, fallback);
+            }
+        }
+        return Collections.unmodifiableMap(merged);
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.starter.base.services;
+
+/**
+ * Great-circle distances between all POIs of a catalog, computed once per catalog.
+ *
+ * The matrix grows with the square of the catalog, so above {@link #MAX_PRECOMPUTED}
+ * points it is not stored and distances are computed on demand instead; a tour of fifty
+ * stops needs a few thousand of them either way.
+ */
+public final class DistanceMatrix {
+
+    // 2000 points take 16 MB as floats
+    static final int MAX_PRECOMPUTED = 2000;
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final int size;
+    private final float[] distances;
+
+    public DistanceMatrix(double[] latitudes, double[] longitudes) {
+        if (latitudes.length != longitudes.length) {
+            throw new IllegalArgumentException("Latitude and longitude arrays differ in length");
+        }
+        this.latitudes = latitudes.clone();
+        this.longitudes = longitudes.clone();
+        this.size = latitudes.length;
+        if (size > MAX_PRECOMPUTED) {
+            distances = null;
+            return;
+        }
+        distances = new float[size * size];
+        for (int i = 0; i < size; i++) {
+            for (int j = i + 1; j < size; j++) {
+                float distance = (float) SpatialIndex.distanceMeters(latitudes[i], longitudes[i], latitudes[j], longitudes[j]);
+                distances[i * size + j] = distance;
+                distances[j * size + i] = distance;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isPrecomputed() {
+        return distances != null;
+    }
+
+    /**
+     * Distance in meters between two points; NaN if either has no coordinates.
+     */
+    public double distance(int from, int to) {
+        if (distances != null) {
+            return distances[from * size + to];
+        }
+        return SpatialIndex.distanceMeters(latitudes[from], longitudes[from], latitudes[to], longitudes[to]);
+    }
+
+    /**
+     * Distance in meters from arbitrary coordinates to a point.
+     */
+    public double distanceFrom(double latitude, double longitude, int to) {
+        return SpatialIndex.distanceMeters(latitude, longitude, latitudes[to], longitudes[to]);
+    }
+
+    public double getLatitude(int index) {
+        return latitudes[index];
+    }
+
+    public double getLongitude(int index) {
+        return longitudes[index];
+    }
+}
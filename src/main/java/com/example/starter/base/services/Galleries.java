@@ -0,0 +1,80 @@
+package com.example.starter.base.services;
+
+import com.example.starter.base.content.AssetManifest;
+import com.example.starter.base.content.ImageVariants;
+import com.example.starter.base.entity.GalleryImage;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Finds the gallery images of every POI in the asset manifest, which lists each file in
+ * {@code images/} with its size: {@code <poi><n>.<extension>}, ordered by {@code n}, as
+ * many as there are and gaps allowed. Built with the catalog so views never probe for them.
+ */
+final class Galleries {
+
+    private static final String IMAGES_DIR = "images/";
+
+    private record Numbered(BigInteger number, GalleryImage image) {
+    }
+
+    private Galleries() {
+    }
+
+    /**
+     * Maps each POI with gallery images to them, in order. An image named after one POI plus
+     * digits that is itself another POI's main image belongs to that POI; otherwise it goes
+     * to the POI with the longest matching name.
+     *
+     * @param url builds the URL of a path under {@code META-INF/resources}
+     */
+    static Map<String, List<GalleryImage>> index(Collection<String> poiNames, AssetManifest manifest,
+                                                 ImageVariants variants, Function<String, String> url) {
+        Set<String> names = new HashSet<>(poiNames);
+        Map<String, List<Numbered>> found = new HashMap<>();
+        for (Map.Entry<String, AssetManifest.Asset> asset : manifest.getAssets().entrySet()) {
+            String path = asset.getKey();
+            if (!path.startsWith(IMAGES_DIR) || path.indexOf('/', IMAGES_DIR.length()) >= 0) {
+                continue;
+            }
+            String fileName = path.substring(IMAGES_DIR.length());
+            int dot = fileName.lastIndexOf('.');
+            if (dot <= 0) {
+                continue;
+            }
+            String stem = fileName.substring(0, dot);
+            if (names.contains(stem)) {
+                continue;
+            }
+            // Longest POI name first, so "route661" goes to "route66" rather than "route"
+            for (int split = stem.length() - 1; split > 0 && Character.isDigit(stem.charAt(split)); split--) {
+                String poi = stem.substring(0, split);
+                if (names.contains(poi)) {
+                    ImageVariants.Source source = variants.getSource(fileName).orElse(null);
+                    GalleryImage image = new GalleryImage(fileName, url.apply(path),
+                            source != null ? source.width() : 0, source != null ? source.height() : 0,
+                            asset.getValue().size());
+                    found.computeIfAbsent(poi, key -> new ArrayList<>())
+                            .add(new Numbered(new BigInteger(stem.substring(split)), image));
+                    break;
+                }
+            }
+        }
+
+        Map<String, List<GalleryImage>> galleries = new HashMap<>();
+        found.forEach((poi, images) -> galleries.put(poi, images.stream()
+                .sorted(Comparator.comparing(Numbered::number).thenComparing(numbered -> numbered.image().path()))
+                .map(Numbered::image)
+                .toList()));
+        return galleries;
+    }
+}
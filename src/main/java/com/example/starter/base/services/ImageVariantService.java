@@ -0,0 +1,67 @@
+package com.example.starter.base.services;
+
+import com.example.starter.base.content.ImageVariants;
+import io.quarkus.runtime.Startup;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Set;
+
+/**
+ * Looks up the downscaled copies of the images in {@code images/}.
+ *
+ * The manifest is written at build time (see {@link ImageVariants}). Without it, e.g. in
+ * dev mode before a full build, every lookup falls back to the original image.
+ */
+@Startup
+@ApplicationScoped
+public class ImageVariantService {
+
+    private static final Logger LOG = Logger.getLogger(ImageVariantService.class);
+
+    /**
+     * Width of the list thumbnails; browsers that understand srcset pick a larger variant on
+     * high-density screens.
+     */
+    public static final int THUMBNAIL_WIDTH = 320;
+
+    @Inject
+    private ContentState state;
+
+    private ImageVariants bundled = ImageVariants.empty();
+
+    @PostConstruct
+    void init() {
+        try (InputStream is = getClass().getResourceAsStream(ImageVariants.RESOURCE_PATH)) {
+            if (is == null) {
+                LOG.info("No image variant manifest found, serving original images");
+                return;
+            }
+            bundled = ImageVariants.read(is);
+            LOG.infof("Loaded image variants for %d images", bundled.getSources().size());
+        } catch (IOException e) {
+            LOG.error("Error reading the image variant manifest, serving original images", e);
+        }
+    }
+
+    public ImageVariants getVariants() {
+        return state.get().variants();
+    }
+
+    /**
+     * The bundled variants without those of images replaced in the content directory, which
+     * were scaled from the bundled copy. Those images are served at their original size.
+     */
+    ImageVariants build(Set<String> overriddenImages) {
+        if (overriddenImages.isEmpty()) {
+            return bundled;
+        }
+        return new ImageVariants(bundled.getSources().values().stream()
+                .filter(source -> !overriddenImages.contains(source.name()))
+                .toList());
+    }
+}
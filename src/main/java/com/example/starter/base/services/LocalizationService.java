@@ -0,0 +1,83 @@
+package com.example.starter.base.services;
+
+import com.example.starter.base.content.CatalogContent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.quarkus.runtime.Startup;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.Locale;
+
+/**
+ * Serves POI titles and UI strings from poititles.txt.
+ *
+ * The file is split into every language at once (see {@link ContentService}). Reads go
+ * through the immutable {@link Localizations} of the active {@link ContentSnapshot}, so they
+ * need no locks. Keys that match a POI name in pois.txt are titles; every other key
+ * (e.g. {@code takeme}, {@code welcome}) is a UI string.
+ */
+@Startup
+@ApplicationScoped
+public class LocalizationService {
+
+    @Inject
+    private ContentState state;
+
+    @Inject
+    private MeterRegistry registry;
+
+    private Counter titleHits;
+    private Counter titleMisses;
+    private Counter textHits;
+    private Counter textMisses;
+
+    @PostConstruct
+    void init() {
+        titleHits = lookupCounter("title", "hit");
+        titleMisses = lookupCounter("title", "miss");
+        textHits = lookupCounter("text", "hit");
+        textMisses = lookupCounter("text", "miss");
+    }
+
+    public Localizations getLocalizations() {
+        return state.get().localizations();
+    }
+
+    public String resolveLanguage(Locale locale) {
+        return getLocalizations().resolveLanguage(locale);
+    }
+
+    /**
+     * Returns the localized POI title, or null if poititles.txt has none for the POI.
+     */
+    public String getTitle(String poiName, Locale locale) {
+        Localizations current = getLocalizations();
+        String title = current.getTitle(current.resolveLanguage(locale), poiName);
+        (title != null ? titleHits : titleMisses).increment();
+        return title;
+    }
+
+    public String getText(String key, Locale locale, String defaultText) {
+        Localizations current = getLocalizations();
+        String text = current.getTexts(current.resolveLanguage(locale)).get(key);
+        (text != null ? textHits : textMisses).increment();
+        return text != null ? text : defaultText;
+    }
+
+    private Counter lookupCounter(String kind, String result) {
+        return Counter.builder("localization.lookups")
+                .description("Title and UI string lookups, and request languages resolved (see AppMetrics)")
+                .tag("kind", kind)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Builds the titles and UI strings of the given content.
+     */
+    Localizations build(CatalogContent content) {
+        return new Localizations(content.getTitles(), content.getUiStrings());
+    }
+}
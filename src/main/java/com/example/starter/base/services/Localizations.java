@@ -0,0 +1,103 @@
+package com.example.starter.base.services;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of poititles.txt, split into POI titles and UI strings.
+ *
+ * Every language table is pre-merged with its fallback chain when the snapshot is built
+ * (e.g. {@code DE-AT} falls back to {@code DE}, and every language falls back to
+ * {@code EN}). A lookup is therefore at most three hash lookups, whatever the locale.
+ */
+public final class Localizations {
+
+    public static final String DEFAULT_LANGUAGE = "EN";
+
+    private final Map<String, Map<String, String>> titlesByLanguage;
+    private final Map<String, Map<String, String>> uiStringsByLanguage;
+
+    Localizations(Map<String, Map<String, String>> titlesByLanguage,
+                  Map<String, Map<String, String>> uiStringsByLanguage) {
+        Set<String> languages = new LinkedHashSet<>();
+        languages.add(DEFAULT_LANGUAGE);
+        languages.addAll(titlesByLanguage.keySet());
+        languages.addAll(uiStringsByLanguage.keySet());
+
+        this.titlesByLanguage = mergeFallbacks(languages, titlesByLanguage);
+        this.uiStringsByLanguage = mergeFallbacks(languages, uiStringsByLanguage);
+    }
+
+    private static Map<String, Map<String, String>> mergeFallbacks(Set<String> languages,
+                                                                   Map<String, Map<String, String>> tables) {
+        Map<String, String> defaults = tables.getOrDefault(DEFAULT_LANGUAGE, Map.of());
+
+        Map<String, Map<String, String>> merged = new LinkedHashMap<>();
+        for (String tag : languages) {
+            Map<String, String> table = new LinkedHashMap<>(defaults);
+
+            int separator = tag.indexOf('-');
+            if (separator > 0) {
+                table.putAll(tables.getOrDefault(tag.substring(0, separator), Map.of()));
+            }
+            table.putAll(tables.getOrDefault(tag, Map.of()));
+            merged.put(tag, Collections.unmodifiableMap(table));
+        }
+        return Collections.unmodifiableMap(merged);
+    }
+
+    /**
+     * Resolves a locale to the most specific language tag present in poititles.txt,
+     * falling back from {@code de-AT} to {@code DE} and finally to {@code EN}.
+     */
+    public String resolveLanguage(Locale locale) {
+        if (locale == null || locale.getLanguage().isEmpty()) {
+            return DEFAULT_LANGUAGE;
+        }
+
+        String language = locale.getLanguage().toUpperCase(Locale.ROOT);
+        if (!locale.getCountry().isEmpty()) {
+            String tag = language + "-" + locale.getCountry().toUpperCase(Locale.ROOT);
+            if (titlesByLanguage.containsKey(tag)) {
+                return tag;
+            }
+        }
+        return titlesByLanguage.containsKey(language) ? language : DEFAULT_LANGUAGE;
+    }
+
+    /**
+     * Returns the POI title for a resolved language tag, or null if the POI has no title.
+     */
+    public String getTitle(String language, String poiName) {
+        return table(titlesByLanguage, language).get(poiName);
+    }
+
+    /**
+     * Returns a UI string (e.g. {@code takeme}) for a resolved language tag, or the given
+     * default if the key is unknown.
+     */
+    public String getText(String language, String key, String defaultText) {
+        return table(uiStringsByLanguage, language).getOrDefault(key, defaultText);
+    }
+
+    public Map<String, String> getTitles(String language) {
+        return table(titlesByLanguage, language);
+    }
+
+    public Map<String, String> getTexts(String language) {
+        return table(uiStringsByLanguage, language);
+    }
+
+    public Set<String> getLanguages() {
+        return titlesByLanguage.keySet();
+    }
+
+    private static Map<String, String> table(Map<String, Map<String, String>> tables, String language) {
+        Map<String, String> table = tables.get(language);
+        return table != null ? table : tables.get(DEFAULT_LANGUAGE);
+    }
+}
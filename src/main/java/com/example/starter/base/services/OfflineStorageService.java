@@ -80,7 +80,7 @@ public class OfflineStorageService {
     /**
      * Converts POI objects to JSON array for storage
      */
-    private JsonArray convertPOIsToJsonArray(List<PointOfInterest> pois) {
+    JsonArray convertPOIsToJsonArray(List<PointOfInterest> pois) {
         JsonArray array = jsonFactory.createArray();
         
         for (int i = 0; i < pois.size(); i++) {
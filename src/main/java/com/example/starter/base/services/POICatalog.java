@@ -0,0 +1,163 @@
+package com.example.starter.base.services;
+
+import com.example.starter.base.entity.PointOfInterest;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Immutable snapshot of the POI catalog.
+ *
+ * Holds one pre-built list per language plus a name index and a {@link SpatialIndex}, so
+ * lookups never touch the classpath. Each {@link ContentSnapshot} has its own, swapped in
+ * as a whole by {@link ContentState}, which means readers always see a consistent catalog.
+ * The {@link PointOfInterest} instances are shared between requests and must not be
+ * modified.
+ */
+public final class POICatalog {
+
+    private final List<PointOfInterest> defaultPointsOfInterest;
+    private final Map<String, PointOfInterest> defaultIndex;
+    private final Map<String, List<PointOfInterest>> pointsByLanguage;
+    private final Map<String, Map<String, PointOfInterest>> indexByLanguage;
+    private final Map<String, Integer> positions;
+    private final SpatialIndex spatialIndex;
+
+    /**
+     * A POI found by a location query, with its position in the catalog order.
+     */
+    public record Nearby(PointOfInterest poi, int order, double distanceMeters) {
+    }
+
+    /**
+     * A POI of a page with its position in the catalog order.
+     */
+    public record Listed(PointOfInterest poi, int order) {
+    }
+
+    /**
+     * Consecutive POIs in catalog order. {@code next} is the position to continue from, or
+     * -1 after the last page.
+     */
+    public record Page(List<Listed> pois, int next) {
+    }
+
+    POICatalog(List<PointOfInterest> defaultPointsOfInterest, Map<String, List<PointOfInterest>> pointsByLanguage) {
+        this.defaultPointsOfInterest = List.copyOf(defaultPointsOfInterest);
+        this.defaultIndex = index(this.defaultPointsOfInterest);
+
+        Map<String, List<PointOfInterest>> lists = new LinkedHashMap<>();
+        Map<String, Map<String, PointOfInterest>> indexes = new LinkedHashMap<>();
+        for (Map.Entry<String, List<PointOfInterest>> entry : pointsByLanguage.entrySet()) {
+            List<PointOfInterest> pois = List.copyOf(entry.getValue());
+            lists.put(entry.getKey(), pois);
+            indexes.put(entry.getKey(), index(pois));
+        }
+        this.pointsByLanguage = Collections.unmodifiableMap(lists);
+        this.indexByLanguage = Collections.unmodifiableMap(indexes);
+
+        Map<String, Integer> positions = new LinkedHashMap<>();
+        for (int i = 0; i < this.defaultPointsOfInterest.size(); i++) {
+            positions.putIfAbsent(this.defaultPointsOfInterest.get(i).getName(), i);
+        }
+        this.positions = Collections.unmodifiableMap(positions);
+
+        // Every language list has the same POIs in the same order, so one index serves all
+        double[] latitudes = new double[this.defaultPointsOfInterest.size()];
+        double[] longitudes = new double[latitudes.length];
+        for (int i = 0; i < latitudes.length; i++) {
+            latitudes[i] = this.defaultPointsOfInterest.get(i).getLatitude();
+            longitudes[i] = this.defaultPointsOfInterest.get(i).getLongitude();
+        }
+        this.spatialIndex = new SpatialIndex(latitudes, longitudes);
+    }
+
+    private static Map<String, PointOfInterest> index(List<PointOfInterest> pois) {
+        Map<String, PointOfInterest> index = new LinkedHashMap<>();
+        for (PointOfInterest poi : pois) {
+            index.putIfAbsent(poi.getName(), poi);
+        }
+        return Collections.unmodifiableMap(index);
+    }
+
+    /**
+     * Returns the POIs for an upper-case language code, in file order. Languages without
+     * titles get the display names from pois.txt.
+     */
+    public List<PointOfInterest> getPointsOfInterest(String languageCode) {
+        return pointsByLanguage.getOrDefault(languageCode, defaultPointsOfInterest);
+    }
+
+    /**
+     * Looks up a single POI by its name (the first column of pois.txt).
+     */
+    public Optional<PointOfInterest> findByName(String languageCode, String name) {
+        Map<String, PointOfInterest> index = indexByLanguage.getOrDefault(languageCode, defaultIndex);
+        return Optional.ofNullable(index.get(name));
+    }
+
+    /**
+     * Position of a POI in the catalog order, or -1 if there is no such POI.
+     */
+    public int positionOf(String name) {
+        return positions.getOrDefault(name, -1);
+    }
+
+    /**
+     * Returns up to {@code limit} POIs accepted by {@code filter}, starting at position
+     * {@code from} of the catalog order. With a selective filter this scans past the
+     * rejected POIs, which is fine at the catalog sizes a municipality has.
+     */
+    public Page page(String languageCode, int from, int limit, Predicate<PointOfInterest> filter) {
+        List<PointOfInterest> pois = getPointsOfInterest(languageCode);
+        List<Listed> listed = new ArrayList<>(Math.min(limit, pois.size()));
+        int position = Math.max(0, from);
+        for (; position < pois.size() && listed.size() < limit; position++) {
+            PointOfInterest poi = pois.get(position);
+            if (filter.test(poi)) {
+                listed.add(new Listed(poi, position));
+            }
+        }
+        return new Page(listed, position < pois.size() ? position : -1);
+    }
+
+    /**
+     * Returns up to {@code k} POIs closest to the given coordinates, nearest first. POIs
+     * without coordinates never appear.
+     */
+    public List<Nearby> findNearest(String languageCode, double latitude, double longitude, int k) {
+        return toNearby(languageCode, spatialIndex.nearest(latitude, longitude, k));
+    }
+
+    /**
+     * Returns up to {@code k} POIs within {@code radiusMeters} of the given coordinates,
+     * nearest first.
+     */
+    public List<Nearby> findWithinRadius(String languageCode, double latitude, double longitude, double radiusMeters,
+                                         int k) {
+        return toNearby(languageCode, spatialIndex.withinRadius(latitude, longitude, radiusMeters, k));
+    }
+
+    private List<Nearby> toNearby(String languageCode, List<SpatialIndex.Hit> hits) {
+        List<PointOfInterest> pois = getPointsOfInterest(languageCode);
+        List<Nearby> nearby = new ArrayList<>(hits.size());
+        for (SpatialIndex.Hit hit : hits) {
+            nearby.add(new Nearby(pois.get(hit.position()), hit.position(), hit.distanceMeters()));
+        }
+        return nearby;
+    }
+
+    public Set<String> getLanguages() {
+        return pointsByLanguage.keySet();
+    }
+
+    public int size() {
+        return defaultPointsOfInterest.size();
+    }
+}
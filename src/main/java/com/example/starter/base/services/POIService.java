@@ -1,107 +1,215 @@
 package com.example.starter.base.services;
 
+import com.example.starter.base.content.AssetManifest;
+import com.example.starter.base.content.CatalogContent;
+import com.example.starter.base.content.ContentSource;
+import com.example.starter.base.content.ImageVariants;
+import com.example.starter.base.entity.GalleryImage;
+import com.example.starter.base.entity.POIDescription;
+import com.example.starter.base.content.POIRecord;
 import com.example.starter.base.entity.PointOfInterest;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.quarkus.runtime.Startup;
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
+
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
 
 
+@Startup
 @ApplicationScoped
 public class POIService {
 
     @Inject
     private OfflineStorageService offlineStorage;
 
-    private Map<String, Map<String, String>> titlesCache = new HashMap<>();
+    @Inject
+    private ContentState state;
+
+    @Inject
+    private MeterRegistry registry;
+
+    /**
+     * One page of a listing, and the cursor that continues it, null after the last page.
+     * {@code variants} are the image variants of the same content as the POIs.
+     */
+    public record Page(List<POICatalog.Listed> pois, String nextCursor, ImageVariants variants) {
+    }
+
+    /**
+     * POIs found by a location query, nearest first, with the image variants of the same
+     * content.
+     */
+    public record Found(List<POICatalog.Nearby> pois, ImageVariants variants) {
+    }
+
+    private Timer loadTimer;
+    private Timer listTimer;
+    private Timer findTimer;
+    private Timer nearbyTimer;
+    private Timer pageTimer;
+
+    @PostConstruct
+    void init() {
+        loadTimer = Timer.builder("poi.catalog.load")
+                .description("Building the catalog from the content, at startup and on reload")
+                .register(registry);
+        listTimer = lookupTimer("list");
+        findTimer = lookupTimer("find");
+        nearbyTimer = lookupTimer("nearby");
+        pageTimer = lookupTimer("page");
+        Gauge.builder("poi.catalog.size", this, service -> service.getCatalog().size())
+                .description("POIs in the active catalog")
+                .register(registry);
+    }
 
     public List<PointOfInterest> getPointsOfInterest() {
         return getPointsOfInterest(Locale.ENGLISH); // Default to English
     }
 
     public List<PointOfInterest> getPointsOfInterest(Locale locale) {
-        List<PointOfInterest> pointsOfInterest = new ArrayList<>();
-        String resourcePath = "/META-INF/resources/pointsofinterest/pois.txt";
-
-        // Load titles for the specified locale
-        Map<String, String> localizedTitles = loadLocalizedTitles(locale);
-
-        try (InputStream is = getClass().getResourceAsStream(resourcePath);
-             BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
-
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(";");
-                if (parts.length >= 6) {
-                    String name = parts[0].trim();
-                    String displayName = localizedTitles.getOrDefault(name, parts[1].trim());
-
-                    PointOfInterest poi = new PointOfInterest(
-                            name,  // name (1st argument in CSV)
-                            displayName,  // localized displayName from poititles.txt
-                            parts[2].trim(),  // short description (3rd argument in CSV)
-                            name + ".webp",  // imagePath (1st argument + ".webp")
-                            parts[3].trim(),  // mapUrl (4th argument in CSV)
-                            parts[4].trim(),  // navigationUrl (5th argument in CSV)
-                            parts[5].trim()   // appleNavigationUrl (6th argument in CSV)
-                    );
-                    pointsOfInterest.add(poi);
-                }
-            }
-        } catch (IOException | NullPointerException e) {
-            e.printStackTrace();
-            System.err.println("Error reading points of interest from file");
-        }
+        return listTimer.record(() -> {
+            ContentSnapshot current = state.get();
+            return current.catalog().getPointsOfInterest(current.localizations().resolveLanguage(locale));
+        });
+    }
 
-        return pointsOfInterest;
+    public Optional<PointOfInterest> findByName(Locale locale, String name) {
+        return findTimer.record(() -> {
+            ContentSnapshot current = state.get();
+            return current.catalog().findByName(current.localizations().resolveLanguage(locale), name);
+        });
     }
 
-    private Map<String, String> loadLocalizedTitles(Locale locale) {
-        String languageCode = locale.getLanguage().toUpperCase();
+    /**
+     * Returns up to {@code k} POIs nearest to the given coordinates, closest first.
+     */
+    public Found findNearest(Locale locale, double latitude, double longitude, int k) {
+        return nearbyTimer.record(() -> {
+            ContentSnapshot current = state.get();
+            return new Found(current.catalog().findNearest(current.localizations().resolveLanguage(locale),
+                    latitude, longitude, k), current.variants());
+        });
+    }
 
-        // Check cache first
-        if (titlesCache.containsKey(languageCode)) {
-            return titlesCache.get(languageCode);
+    /**
+     * Returns up to {@code k} POIs within {@code radiusMeters} of the given coordinates,
+     * closest first.
+     */
+    public Found findWithinRadius(Locale locale, double latitude, double longitude, double radiusMeters, int k) {
+        return nearbyTimer.record(() -> {
+            ContentSnapshot current = state.get();
+            return new Found(current.catalog().findWithinRadius(current.localizations().resolveLanguage(locale),
+                    latitude, longitude, radiusMeters, k), current.variants());
+        });
+    }
+
+    /**
+     * Returns up to {@code limit} POIs accepted by {@code filter} in catalog order, starting
+     * after {@code cursor}, or at the beginning without one. Throws IllegalArgumentException
+     * for a malformed cursor.
+     */
+    public Page getPage(Locale locale, String cursor, int limit, Predicate<PointOfInterest> filter) {
+        return pageTimer.record(() -> {
+            ContentSnapshot current = state.get();
+            int from = cursor == null || cursor.isEmpty() ? 0 : CatalogCursor.decode(cursor).resumeIn(current.catalog());
+            POICatalog.Page page = current.catalog().page(current.localizations().resolveLanguage(locale), from, limit,
+                    filter);
+            String next = page.next() >= 0 && !page.pois().isEmpty()
+                    ? CatalogCursor.after(page.pois().get(page.pois().size() - 1)).encode()
+                    : null;
+            return new Page(page.pois(), next, current.variants());
+        });
+    }
+
+    /**
+     * The catalog of the active {@link ContentSnapshot}. Requests that already hold a
+     * previous one keep using it until they finish.
+     */
+    public POICatalog getCatalog() {
+        return state.get().catalog();
+    }
+
+    private Timer lookupTimer(String operation) {
+        return Timer.builder("poi.catalog.lookup")
+                .description("Catalog lookups by the views and REST resources")
+                .tag("operation", operation)
+                .register(registry);
+    }
+
+    /**
+     * Builds the catalog of one version of the content, with the URLs of the given assets.
+     */
+    POICatalog build(CatalogContent content, Localizations localizations,
+                     Map<String, Map<String, POIDescription>> descriptions, AssetManifest manifest,
+                     ImageVariants variants) {
+        return loadTimer.record(() -> buildCatalog(content, localizations, descriptions, manifest, variants));
+    }
+
+    /**
+     * {@link #build} without the timer, for callers outside the container such as the
+     * benchmarks.
+     */
+    static POICatalog buildCatalog(CatalogContent content, Localizations localizations,
+                                   Map<String, Map<String, POIDescription>> descriptions, AssetManifest manifest,
+                                   ImageVariants variants) {
+        List<POIRecord> records = content.getPointsOfInterest();
+        Map<String, List<GalleryImage>> galleries = Galleries.index(
+                records.stream().map(POIRecord::name).toList(), manifest, variants,
+                path -> AssetService.url(manifest, path));
+
+        List<PointOfInterest> defaults = new ArrayList<>(records.size());
+        for (POIRecord record : records) {
+            defaults.add(toPointOfInterest(record, record.displayName(), descriptions, manifest, variants, galleries));
         }
 
-        Map<String, String> titles = new HashMap<>();
-        String resourcePath = "/META-INF/resources/pointsofinterest/poititles.txt";
-
-        try (InputStream is = getClass().getResourceAsStream(resourcePath);
-             BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
-
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(";");
-                if (parts.length >= 2) {
-                    String name = parts[0].trim();
-
-                    // Find the title for the requested language
-                    for (int i = 1; i < parts.length; i++) {
-                        String titlePart = parts[i].trim();
-                        if (titlePart.startsWith(languageCode + ":")) {
-                            String title = titlePart.substring(languageCode.length() + 1);
-                            titles.put(name, title);
-                            break;
-                        }
-                    }
-                }
+        // Each language in poititles.txt gets a pre-built list; titles are already merged
+        // with their fallback language, so a missing title only falls back to pois.txt
+        Map<String, List<PointOfInterest>> byLanguage = new LinkedHashMap<>();
+        for (String language : localizations.getLanguages()) {
+            Map<String, String> localizedTitles = localizations.getTitles(language);
+            List<PointOfInterest> pois = new ArrayList<>(records.size());
+            for (POIRecord record : records) {
+                pois.add(toPointOfInterest(record, localizedTitles.getOrDefault(record.name(), record.displayName()),
+                        descriptions, manifest, variants, galleries));
             }
-        } catch (IOException | NullPointerException e) {
-            e.printStackTrace();
-            System.err.println("Error reading localized titles from file");
+            byLanguage.put(language, pois);
         }
 
-        // Cache the result
-        titlesCache.put(languageCode, titles);
-        return titles;
+        return new POICatalog(defaults, byLanguage);
+    }
+
+    private static PointOfInterest toPointOfInterest(POIRecord record, String displayName,
+                                                     Map<String, Map<String, POIDescription>> descriptions,
+                                                     AssetManifest manifest,
+                                                     ImageVariants variants,
+                                                     Map<String, List<GalleryImage>> galleries) {
+        PointOfInterest poi = new PointOfInterest(
+                record.name(),
+                displayName,  // localized displayName from poititles.txt
+                record.description(),
+                record.name() + ".webp",  // imagePath (name + ".webp")
+                record.mapUrl(),
+                record.navigationUrl(),
+                record.appleNavigationUrl()
+        );
+        poi.setCoordinates(record.latitude(), record.longitude());
+        poi.setImageUrl(AssetService.url(manifest, "images/" + poi.getImagePath()));
+        variants.getSource(poi.getImagePath())
+                .ifPresent(source -> poi.setImage(source.width(), source.height(), source.placeholder()));
+        poi.setGallery(galleries.getOrDefault(record.name(), List.of()));
+        if (descriptions.containsKey(record.name())) {
+            poi.setDescriptionUrl(AssetService.url(manifest, ContentSource.DESCRIPTIONS_DIR + record.name() + ".txt"));
+        }
+        return poi;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,288 @@
+package com.example.starter.base.services;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Immutable inverted index over the POIs of one language.
+ *
+ * Text is folded before it is indexed or searched: lower case, diacritics removed, so
+ * "Šenek", "senek" and "SENEK" are the same term. A query matches a POI when every query
+ * term matches one of its terms exactly, as a prefix (last term only, for search as you
+ * type) or with one typo (terms of four letters or more). Results are ranked by field
+ * weight and term rarity, with exact matches ahead of prefixes and typos.
+ *
+ * Typo candidates come from a table of every term with one letter deleted, so a lookup
+ * costs a handful of hash probes instead of a scan over the dictionary.
+ */
+public final class SearchIndex {
+
+    // Relative weight of a term by where it occurs
+    static final float TITLE_WEIGHT = 4f;
+    static final float OTHER_TITLE_WEIGHT = 2f;
+    static final float SUMMARY_WEIGHT = 1.5f;
+    static final float DESCRIPTION_WEIGHT = 1f;
+
+    private static final float EXACT = 1f;
+    private static final float PREFIX = 0.8f;
+    private static final float TYPO = 0.6f;
+
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_TYPO_LENGTH = 4;
+    // A short prefix like "ka" could expand to half the dictionary
+    private static final int MAX_PREFIX_TERMS = 256;
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /**
+     * A POI found by a query: its position in the list the index was built from and its
+     * score.
+     */
+    public record Hit(int position, double score) {
+    }
+
+    /**
+     * Text of one POI, by field, before analysis.
+     */
+    public record Document(String title, List<String> otherTitles, String summary, List<String> description) {
+    }
+
+    private final int documentCount;
+    private final String[] terms;
+    private final Map<String, Integer> termIds;
+    private final int[][] postings;
+    private final float[][] weights;
+    private final float[] idf;
+    private final Map<String, int[]> deletions;
+
+    /**
+     * Builds the index from analyzed documents (see {@link #analyze}), in list order.
+     */
+    public SearchIndex(List<Map<String, Float>> documents) {
+        this.documentCount = documents.size();
+
+        Map<String, List<Integer>> docsByTerm = new HashMap<>();
+        for (int doc = 0; doc < documents.size(); doc++) {
+            for (String term : documents.get(doc).keySet()) {
+                docsByTerm.computeIfAbsent(term, t -> new ArrayList<>()).add(doc);
+            }
+        }
+        terms = docsByTerm.keySet().toArray(new String[0]);
+        Arrays.sort(terms);
+
+        termIds = new HashMap<>(terms.length * 2);
+        postings = new int[terms.length][];
+        weights = new float[terms.length][];
+        idf = new float[terms.length];
+        Map<String, Set<Integer>> deletionSets = new HashMap<>();
+        for (int id = 0; id < terms.length; id++) {
+            String term = terms[id];
+            termIds.put(term, id);
+            List<Integer> docs = docsByTerm.get(term);
+            postings[id] = new int[docs.size()];
+            weights[id] = new float[docs.size()];
+            for (int i = 0; i < docs.size(); i++) {
+                postings[id][i] = docs.get(i);
+                weights[id][i] = documents.get(docs.get(i)).get(term);
+            }
+            idf[id] = (float) Math.log(1 + (double) documentCount / docs.size());
+            if (term.length() >= MIN_TYPO_LENGTH) {
+                for (String deletion : deletions(term)) {
+                    deletionSets.computeIfAbsent(deletion, d -> new HashSet<>()).add(id);
+                }
+            }
+        }
+        deletions = new HashMap<>(deletionSets.size() * 2);
+        deletionSets.forEach((deletion, ids) -> deletions.put(deletion, ids.stream().mapToInt(Integer::intValue).toArray()));
+    }
+
+    public int getTermCount() {
+        return terms.length;
+    }
+
+    /**
+     * Returns the best {@code limit} matches, highest score first. The last query term is
+     * also matched as a prefix unless the query ends with a space.
+     */
+    public List<Hit> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0 || documentCount == 0) {
+            return List.of();
+        }
+        boolean lastIsPrefix = !Character.isWhitespace(query.charAt(query.length() - 1));
+
+        float[] total = new float[documentCount];
+        int[] matchedTokens = new int[documentCount];
+        float[] best = new float[documentCount];
+        for (int t = 0; t < tokens.size(); t++) {
+            String token = tokens.get(t);
+            Arrays.fill(best, 0f);
+            Map<Integer, Float> candidates = candidates(token, lastIsPrefix && t == tokens.size() - 1);
+            for (Map.Entry<Integer, Float> candidate : candidates.entrySet()) {
+                int id = candidate.getKey();
+                float factor = candidate.getValue() * idf[id];
+                int[] docs = postings[id];
+                float[] termWeights = weights[id];
+                for (int i = 0; i < docs.length; i++) {
+                    best[docs[i]] = Math.max(best[docs[i]], factor * termWeights[i]);
+                }
+            }
+            for (int doc = 0; doc < documentCount; doc++) {
+                if (best[doc] > 0) {
+                    total[doc] += best[doc];
+                    matchedTokens[doc]++;
+                }
+            }
+        }
+
+        List<Hit> hits = new ArrayList<>();
+        for (int doc = 0; doc < documentCount; doc++) {
+            if (matchedTokens[doc] == tokens.size()) {
+                hits.add(new Hit(doc, total[doc]));
+            }
+        }
+        hits.sort((a, b) -> a.score() != b.score()
+                ? Double.compare(b.score(), a.score())
+                : Integer.compare(a.position(), b.position()));
+        return hits.size() > limit ? hits.subList(0, limit) : hits;
+    }
+
+    /**
+     * Terms a query token can stand for, each with how well it matches.
+     */
+    private Map<Integer, Float> candidates(String token, boolean prefix) {
+        Map<Integer, Float> candidates = new HashMap<>();
+        Integer exact = termIds.get(token);
+        if (exact != null) {
+            candidates.put(exact, EXACT);
+        }
+        if (prefix && token.length() >= MIN_PREFIX_LENGTH) {
+            int from = Arrays.binarySearch(terms, token);
+            from = from >= 0 ? from + 1 : -from - 1;
+            for (int id = from; id < terms.length && id < from + MAX_PREFIX_TERMS && terms[id].startsWith(token); id++) {
+                candidates.putIfAbsent(id, PREFIX);
+            }
+        }
+        if (token.length() >= MIN_TYPO_LENGTH) {
+            // Deleting one letter from the token, the term or both covers one insertion,
+            // deletion or substitution; the distance check also allows a transposition
+            Set<String> probes = new HashSet<>(deletions(token));
+            probes.add(token);
+            for (String probe : probes) {
+                Integer id = termIds.get(probe);
+                if (id != null && !candidates.containsKey(id)) {
+                    candidates.put(id, TYPO);
+                }
+                int[] ids = deletions.get(probe);
+                if (ids == null) {
+                    continue;
+                }
+                for (int candidate : ids) {
+                    if (!candidates.containsKey(candidate) && withinOneEdit(token, terms[candidate])) {
+                        candidates.put(candidate, TYPO);
+                    }
+                }
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * Splits a document into folded terms, each weighted by the most important field it
+     * occurs in, plus a small bonus for repetition.
+     */
+    public static Map<String, Float> analyze(Document document) {
+        Map<String, Float> fieldWeights = new LinkedHashMap<>();
+        Map<String, Integer> counts = new HashMap<>();
+        addField(fieldWeights, counts, document.title(), TITLE_WEIGHT);
+        for (String title : document.otherTitles()) {
+            addField(fieldWeights, counts, title, OTHER_TITLE_WEIGHT);
+        }
+        addField(fieldWeights, counts, document.summary(), SUMMARY_WEIGHT);
+        for (String paragraph : document.description()) {
+            addField(fieldWeights, counts, paragraph, DESCRIPTION_WEIGHT);
+        }
+        Map<String, Float> analyzed = new LinkedHashMap<>();
+        fieldWeights.forEach((term, weight) ->
+                analyzed.put(term, weight * (1 + 0.2f * (float) Math.log(counts.get(term)))));
+        return Collections.unmodifiableMap(analyzed);
+    }
+
+    private static void addField(Map<String, Float> fieldWeights, Map<String, Integer> counts, String text, float weight) {
+        if (text == null) {
+            return;
+        }
+        for (String term : tokenize(text)) {
+            fieldWeights.merge(term, weight, Math::max);
+            counts.merge(term, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Lower-cases and strips diacritics: "Šenek" becomes "senek", "Müller" "muller".
+     */
+    public static String fold(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        String folded = MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+        // Letters that carry no combining mark to strip
+        return folded.replace("ß", "ss").replace('đ', 'd').replace('ł', 'l').replace('ø', 'o');
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(fold(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static List<String> deletions(String term) {
+        List<String> result = new ArrayList<>(term.length());
+        for (int i = 0; i < term.length(); i++) {
+            result.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return result;
+    }
+
+    /**
+     * Optimal string alignment distance of at most one: one insertion, deletion,
+     * substitution or swap of neighbouring letters.
+     */
+    static boolean withinOneEdit(String a, String b) {
+        int la = a.length();
+        int lb = b.length();
+        if (Math.abs(la - lb) > 1) {
+            return false;
+        }
+        int start = 0;
+        while (start < la && start < lb && a.charAt(start) == b.charAt(start)) {
+            start++;
+        }
+        if (start == la && start == lb) {
+            return true;
+        }
+        if (la == lb) {
+            if (a.regionMatches(start + 1, b, start + 1, la - start - 1)) {
+                return true;
+            }
+            return start + 1 < la && a.charAt(start) == b.charAt(start + 1) && a.charAt(start + 1) == b.charAt(start)
+                    && a.regionMatches(start + 2, b, start + 2, la - start - 2);
+        }
+        return la > lb
+                ? a.regionMatches(start + 1, b, start, lb - start)
+                : b.regionMatches(start + 1, a, start, la - start);
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.starter.base.services;
+
+import com.example.starter.base.content.ImageVariants;
+import com.example.starter.base.entity.POIDescription;
+import com.example.starter.base.entity.PointOfInterest;
+import io.quarkus.runtime.Startup;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.jboss.logging.Logger;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Full-text search over POI titles and descriptions, one {@link SearchIndex} per language.
+ *
+ * The indexes are built per {@link ContentSnapshot}, off the request thread (see
+ * {@link SnapshotCache}), so searching is safe on an event loop; queries use the previous
+ * indexes until the new ones are ready. Only POIs whose text changed are analyzed again;
+ * the rest reuse their terms from the previous build.
+ */
+@Startup
+@ApplicationScoped
+public class SearchService {
+
+    private static final Logger LOG = Logger.getLogger(SearchService.class);
+
+    @Inject
+    private ContentState contentState;
+
+    private SnapshotCache<State> states;
+
+    /**
+     * A POI found by a query, with its position in the catalog order.
+     */
+    public record Match(PointOfInterest poi, int order, double score) {
+    }
+
+    /**
+     * The matches of a query, with the image variants of the content the index was built
+     * from.
+     */
+    public record Results(List<Match> matches, ImageVariants variants) {
+    }
+
+    private record Analyzed(SearchIndex.Document document, Map<String, Float> terms) {
+    }
+
+    private record State(ContentSnapshot content, Map<String, SearchIndex> byLanguage,
+                         Map<String, Analyzed> analyzed) {
+    }
+
+    @PostConstruct
+    void init() {
+        states = new SnapshotCache<>("search indexes", contentState::get, this::build,
+                Infrastructure.getDefaultWorkerPool());
+        states.refresh();
+    }
+
+    void onContentReloaded(@Observes ContentReloaded event) {
+        states.refresh();
+    }
+
+    /**
+     * Returns up to {@code limit} POIs matching the query in the locale's language, best
+     * match first.
+     */
+    public Results search(String query, Locale locale, int limit) {
+        State current = states.get();
+        String language = current.content().localizations().resolveLanguage(locale);
+        SearchIndex index = current.byLanguage().get(language);
+        if (index == null || query == null || query.isBlank()) {
+            return new Results(List.of(), current.content().variants());
+        }
+        List<PointOfInterest> pois = current.content().catalog().getPointsOfInterest(language);
+        List<Match> matches = new ArrayList<>();
+        for (SearchIndex.Hit hit : index.search(query, limit)) {
+            matches.add(new Match(pois.get(hit.position()), hit.position(), hit.score()));
+        }
+        return new Results(matches, current.content().variants());
+    }
+
+    private State build(State previous, ContentSnapshot content) {
+        Localizations localizations = content.localizations();
+        long start = System.nanoTime();
+        Map<String, Analyzed> previousAnalyzed = previous != null ? previous.analyzed() : Map.of();
+        Map<String, Analyzed> analyzed = new HashMap<>();
+        Map<String, SearchIndex> byLanguage = new LinkedHashMap<>();
+        int reanalyzed = 0;
+
+        for (String language : localizations.getLanguages()) {
+            List<PointOfInterest> pois = content.catalog().getPointsOfInterest(language);
+            List<Map<String, Float>> documents = new ArrayList<>(pois.size());
+            for (PointOfInterest poi : pois) {
+                List<String> otherTitles = new ArrayList<>();
+                for (String other : localizations.getLanguages()) {
+                    String title = localizations.getTitle(other, poi.getName());
+                    if (!other.equals(language) && title != null && !title.equals(poi.getDisplayName())) {
+                        otherTitles.add(title);
+                    }
+                }
+                POIDescription found = DescriptionService.find(content.descriptions(), poi.getName(), language);
+                List<String> description = found != null ? found.getParagraphs() : List.of();
+                SearchIndex.Document document = new SearchIndex.Document(
+                        poi.getDisplayName(), otherTitles, poi.getDescription(), description);
+
+                String key = language + "/" + poi.getName();
+                Analyzed entry = previousAnalyzed.get(key);
+                if (entry == null || !entry.document().equals(document)) {
+                    entry = new Analyzed(document, SearchIndex.analyze(document));
+                    reanalyzed++;
+                }
+                analyzed.put(key, entry);
+                documents.add(entry.terms());
+            }
+            byLanguage.put(language, new SearchIndex(documents));
+        }
+
+        LOG.infof("Built search indexes for %s in %d ms (%d of %d documents analyzed)",
+                byLanguage.keySet(), (System.nanoTime() - start) / 1_000_000, reanalyzed, analyzed.size());
+        return new State(content, Collections.unmodifiableMap(byLanguage),
+                Collections.unmodifiableMap(analyzed));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.starter.base.services;
+
+import org.jboss.logging.Logger;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * A value derived from the active {@link ContentSnapshot}, such as a search index or the
+ * serialized catalog, rebuilt whenever a new snapshot is swapped in.
+ *
+ * Readers get the last built value without ever building or waiting, so {@link #get()} is
+ * safe on an event loop. The owner calls {@link #refresh()} at startup and from its
+ * {@link ContentReloaded} observer; if a reader notices a stale value first, one rebuild is
+ * started on the executor and readers keep the old value until it is done.
+ */
+public final class SnapshotCache<T> {
+
+    private static final Logger LOG = Logger.getLogger(SnapshotCache.class);
+
+    private final String name;
+    private final Supplier<ContentSnapshot> content;
+    private final BiFunction<T, ContentSnapshot, T> builder;
+    private final Executor executor;
+
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+
+    private volatile Built<T> built;
+
+    private record Built<T>(ContentSnapshot content, T value) {
+    }
+
+    /**
+     * @param builder builds the value for a snapshot from the previous value, null on the
+     *                first build, so unchanged parts can be reused
+     */
+    public SnapshotCache(String name, Supplier<ContentSnapshot> content,
+                         BiFunction<T, ContentSnapshot, T> builder, Executor executor) {
+        this.name = name;
+        this.content = content;
+        this.builder = builder;
+        this.executor = executor;
+    }
+
+    /**
+     * The latest value, even if the content has changed since. Only blocks if nothing has
+     * been built yet.
+     */
+    public T get() {
+        Built<T> current = built;
+        if (current == null) {
+            return refresh();
+        }
+        if (current.content() != content.get() && refreshing.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::refreshInBackground);
+            } catch (RejectedExecutionException e) {
+                refreshing.set(false);
+            }
+        }
+        return current.value();
+    }
+
+    /**
+     * Whether the value matches the current content.
+     */
+    public boolean isCurrent() {
+        Built<T> current = built;
+        return current != null && current.content() == content.get();
+    }
+
+    /**
+     * Builds the value for the current content unless it already is, on the calling thread.
+     */
+    public synchronized T refresh() {
+        Built<T> current = built;
+        ContentSnapshot snapshot = content.get();
+        if (current == null || current.content() != snapshot) {
+            current = new Built<>(snapshot, builder.apply(current != null ? current.value() : null, snapshot));
+            built = current;
+        }
+        return current.value();
+    }
+
+    private void refreshInBackground() {
+        try {
+            refresh();
+        } catch (RuntimeException e) {
+            LOG.errorf(e, "Could not rebuild the %s, serving the previous one", name);
+        } finally {
+            refreshing.set(false);
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.example.starter.base.services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable k-d tree over POI coordinates, for "nearest to me" and radius queries.
+ *
+ * Points are stored as unit vectors on the sphere rather than as raw lat/lng, so the
+ * straight-line (chord) distance the tree compares grows with the great-circle distance.
+ * That keeps results exact near the poles and across the antimeridian without any special
+ * cases, and the tree never needs a trigonometric call while searching.
+ *
+ * The tree is implicit: each subrange of the arrays has its node at the middle, so there
+ * are no node objects and a query only walks primitive arrays.
+ */
+public final class SpatialIndex {
+
+    /**
+     * Mean earth radius in meters, as used by the haversine formula.
+     */
+    public static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+    private static final SpatialIndex EMPTY = new SpatialIndex(new double[0], new double[0]);
+
+    /**
+     * A point found by a query: its position in the arrays the index was built from and
+     * its great-circle distance in meters.
+     */
+    public record Hit(int position, double distanceMeters) {
+    }
+
+    private final double[] x;
+    private final double[] y;
+    private final double[] z;
+    private final int[] positions;
+    private final byte[] axes;
+
+    /**
+     * Builds the index in O(n log n). Points with a NaN coordinate are left out.
+     */
+    public SpatialIndex(double[] latitudes, double[] longitudes) {
+        if (latitudes.length != longitudes.length) {
+            throw new IllegalArgumentException("Latitude and longitude arrays differ in length");
+        }
+        int count = 0;
+        for (int i = 0; i < latitudes.length; i++) {
+            if (!Double.isNaN(latitudes[i]) && !Double.isNaN(longitudes[i])) {
+                count++;
+            }
+        }
+        x = new double[count];
+        y = new double[count];
+        z = new double[count];
+        positions = new int[count];
+        axes = new byte[count];
+
+        int n = 0;
+        for (int i = 0; i < latitudes.length; i++) {
+            if (Double.isNaN(latitudes[i]) || Double.isNaN(longitudes[i])) {
+                continue;
+            }
+            double lat = Math.toRadians(latitudes[i]);
+            double lng = Math.toRadians(longitudes[i]);
+            x[n] = Math.cos(lat) * Math.cos(lng);
+            y[n] = Math.cos(lat) * Math.sin(lng);
+            z[n] = Math.sin(lat);
+            positions[n] = i;
+            n++;
+        }
+        build(0, count);
+    }
+
+    public static SpatialIndex empty() {
+        return EMPTY;
+    }
+
+    public int size() {
+        return positions.length;
+    }
+
+    /**
+     * Returns up to {@code k} points closest to the given coordinates, nearest first. Nothing
+     * is close to a NaN coordinate.
+     */
+    public List<Hit> nearest(double latitude, double longitude, int k) {
+        return search(latitude, longitude, Double.POSITIVE_INFINITY, k);
+    }
+
+    /**
+     * Returns up to {@code k} points within {@code radiusMeters} of the given coordinates,
+     * nearest first. Only the k best are kept while searching, so a radius that covers the
+     * whole index costs no more than a {@link #nearest} query.
+     */
+    public List<Hit> withinRadius(double latitude, double longitude, double radiusMeters, int k) {
+        if (!(radiusMeters >= 0)) {
+            return List.of();
+        }
+        // Half the earth's circumference covers everything
+        double angle = Math.min(radiusMeters / EARTH_RADIUS_METERS, Math.PI);
+        double chord = 2 * Math.sin(angle / 2);
+        return search(latitude, longitude, chord * chord, k);
+    }
+
+    private List<Hit> search(double latitude, double longitude, double maxDistance, int k) {
+        int limit = Math.min(k, positions.length);
+        if (limit <= 0 || Double.isNaN(latitude) || Double.isNaN(longitude)) {
+            return List.of();
+        }
+        double[] query = toUnitVector(latitude, longitude);
+        NearestSearch search = new NearestSearch(query, limit, maxDistance);
+        search.visit(0, positions.length);
+
+        // Heap order to nearest-first
+        Integer[] order = new Integer[search.size];
+        for (int i = 0; i < search.size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(search.distances[a], search.distances[b]));
+        List<Hit> hits = new ArrayList<>(search.size);
+        for (int i : order) {
+            hits.add(new Hit(positions[search.nodes[i]], toMeters(search.distances[i])));
+        }
+        return hits;
+    }
+
+    /**
+     * Great-circle distance in meters between two coordinates (haversine).
+     */
+    public static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private void build(int lo, int hi) {
+        if (hi - lo <= 0) {
+            return;
+        }
+        int axis = widestAxis(lo, hi);
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, axis);
+        axes[mid] = (byte) axis;
+        build(lo, mid);
+        build(mid + 1, hi);
+    }
+
+    private int widestAxis(int lo, int hi) {
+        int axis = 0;
+        double widest = -1;
+        for (int a = 0; a < 3; a++) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = lo; i < hi; i++) {
+                double v = coordinate(i, a);
+                min = Math.min(min, v);
+                max = Math.max(max, v);
+            }
+            if (max - min > widest) {
+                widest = max - min;
+                axis = a;
+            }
+        }
+        return axis;
+    }
+
+    /**
+     * Quickselect: moves the element of rank {@code k} on {@code axis} to index k, with
+     * smaller ones before it and larger ones after it.
+     */
+    private void select(int lo, int hi, int k, int axis) {
+        while (hi > lo) {
+            double pivot = coordinate((lo + hi) >>> 1, axis);
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (coordinate(i, axis) < pivot) {
+                    i++;
+                }
+                while (coordinate(j, axis) > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Keeps the k best candidates within {@code maxDistance} in a max-heap on squared chord
+     * distance, so the worst one is always at the root.
+     */
+    private final class NearestSearch {
+
+        private final double[] query;
+        private final double maxDistance;
+        private final int[] nodes;
+        private final double[] distances;
+        private int size;
+
+        NearestSearch(double[] query, int k, double maxDistance) {
+            this.query = query;
+            this.maxDistance = maxDistance;
+            this.nodes = new int[k];
+            this.distances = new double[k];
+        }
+
+        void visit(int lo, int hi) {
+            if (hi - lo <= 0) {
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            double distance = squaredDistance(query, mid);
+            if (distance <= maxDistance) {
+                offer(mid, distance);
+            }
+
+            double diff = query[axes[mid]] - coordinate(mid, axes[mid]);
+            boolean leftFirst = diff <= 0;
+            visit(leftFirst ? lo : mid + 1, leftFirst ? mid : hi);
+            double bound = size < nodes.length ? maxDistance : distances[0];
+            if (diff * diff <= bound) {
+                visit(leftFirst ? mid + 1 : lo, leftFirst ? hi : mid);
+            }
+        }
+
+        private void offer(int node, double distance) {
+            if (size < nodes.length) {
+                int i = size++;
+                nodes[i] = node;
+                distances[i] = distance;
+                while (i > 0) {
+                    int parent = (i - 1) / 2;
+                    if (distances[parent] >= distances[i]) {
+                        break;
+                    }
+                    swapHeap(i, parent);
+                    i = parent;
+                }
+            } else if (distance < distances[0]) {
+                nodes[0] = node;
+                distances[0] = distance;
+                int i = 0;
+                while (true) {
+                    int largest = i;
+                    int left = 2 * i + 1;
+                    int right = left + 1;
+                    if (left < size && distances[left] > distances[largest]) {
+                        largest = left;
+                    }
+                    if (right < size && distances[right] > distances[largest]) {
+                        largest = right;
+                    }
+                    if (largest == i) {
+                        break;
+                    }
+                    swapHeap(i, largest);
+                    i = largest;
+                }
+            }
+        }
+
+        private void swapHeap(int a, int b) {
+            int node = nodes[a];
+            nodes[a] = nodes[b];
+            nodes[b] = node;
+            double distance = distances[a];
+            distances[a] = distances[b];
+            distances[b] = distance;
+        }
+    }
+
+    private double coordinate(int i, int axis) {
+        return axis == 0 ? x[i] : axis == 1 ? y[i] : z[i];
+    }
+
+    private double squaredDistance(double[] query, int i) {
+        double dx = query[0] - x[i];
+        double dy = query[1] - y[i];
+        double dz = query[2] - z[i];
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private void swap(int a, int b) {
+        double t = x[a];
+        x[a] = x[b];
+        x[b] = t;
+        t = y[a];
+        y[a] = y[b];
+        y[b] = t;
+        t = z[a];
+        z[a] = z[b];
+        z[b] = t;
+        int p = positions[a];
+        positions[a] = positions[b];
+        positions[b] = p;
+    }
+
+    private static double[] toUnitVector(double latitude, double longitude) {
+        double lat = Math.toRadians(latitude);
+        double lng = Math.toRadians(longitude);
+        return new double[]{Math.cos(lat) * Math.cos(lng), Math.cos(lat) * Math.sin(lng), Math.sin(lat)};
+    }
+
+    private static double toMeters(double squaredChord) {
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(squaredChord) / 2));
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.starter.base.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Copies static resources out of the application jar into a local directory on first
+ * access, so they can be sent with sendfile instead of being streamed through the heap.
+ *
+ * Every extracted file gets a strong ETag from its SHA-256, computed while copying.
+ * Concurrent first requests for the same file wait for a single extraction, which runs on
+ * the first caller's thread, outside the map, so it never holds up other paths.
+ *
+ * Files in {@code content.dir} take precedence over the jar. They are sent from where they
+ * are, hashed on first access, until {@link #invalidate()} is called after they change.
+ */
+@ApplicationScoped
+public class StaticFileCache {
+
+    private static final Logger LOG = Logger.getLogger(StaticFileCache.class);
+
+    private static final String CLASSPATH_ROOT = "/META-INF/resources/";
+
+    /**
+     * A resource extracted to disk.
+     */
+    public record CachedFile(Path path, long size, String etagValue) {
+
+        /**
+         * The strong ETag, including quotes.
+         */
+        public String getEtag() {
+            return "\"" + etagValue + "\"";
+        }
+    }
+
+    @ConfigProperty(name = "static-files.cache-dir")
+    private Path cacheDir;
+
+    @ConfigProperty(name = "content.dir")
+    private Optional<Path> contentDir;
+
+    @Inject
+    private MeterRegistry registry;
+
+    private final Map<String, CachedFile> files = new ConcurrentHashMap<>();
+
+    // Extractions and hashes in progress, so later callers wait for them instead of repeating them
+    private final Map<String, CompletableFuture<CachedFile>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the file if it has already been extracted. Never blocks, so it is safe to
+     * call on an event-loop thread.
+     */
+    public Optional<CachedFile> getIfExtracted(String relativePath) {
+        return Optional.ofNullable(files.get(relativePath));
+    }
+
+    /**
+     * Returns the extracted file, copying it out of the jar first if needed. Blocks on
+     * I/O the first time; empty if the path is invalid or no such resource exists.
+     */
+    public Optional<CachedFile> get(String relativePath) {
+        if (!isSafe(relativePath)) {
+            return Optional.empty();
+        }
+        CachedFile cached = files.get(relativePath);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        if (contentDir.isPresent() && Files.isRegularFile(contentDir.get().resolve(relativePath))) {
+            return load(relativePath, this::hashExternal, "Could not read %s from the content directory");
+        }
+        if (StaticFileCache.class.getResource(CLASSPATH_ROOT + relativePath) == null) {
+            // Misses are not remembered, so probing random paths cannot grow the map
+            return Optional.empty();
+        }
+        return load(relativePath, this::extract, "Could not extract %s");
+    }
+
+    /**
+     * Forgets every file, so the next request sees the current content directory. Files
+     * from the jar are extracted again on their next request.
+     */
+    public void invalidate() {
+        files.clear();
+        pending.clear();
+    }
+
+    /**
+     * Runs the loader unless another caller already is, then waits for its result. A
+     * result finished after {@link #invalidate()} is returned but not remembered.
+     */
+    private Optional<CachedFile> load(String relativePath, Function<String, CachedFile> loader, String failure) {
+        CompletableFuture<CachedFile> created = new CompletableFuture<>();
+        CompletableFuture<CachedFile> running = pending.putIfAbsent(relativePath, created);
+        if (running == null) {
+            running = created;
+            try {
+                CachedFile file = loader.apply(relativePath);
+                if (file != null) {
+                    files.put(relativePath, file);
+                }
+                if (!pending.remove(relativePath, created) && file != null) {
+                    files.remove(relativePath, file);
+                }
+                created.complete(file);
+            } catch (RuntimeException e) {
+                // Release the waiters whatever went wrong
+                pending.remove(relativePath, created);
+                created.completeExceptionally(e);
+                if (!(e instanceof UncheckedIOException)) {
+                    throw e;
+                }
+                LOG.errorf(e, failure, relativePath);
+                return Optional.empty();
+            }
+        }
+        try {
+            return Optional.ofNullable(running.join());
+        } catch (CompletionException e) {
+            // Logged by the caller that ran the loader
+            return Optional.empty();
+        }
+    }
+
+    private CachedFile hashExternal(String relativePath) {
+        Path file = contentDir.orElseThrow().resolve(relativePath);
+        MessageDigest digest = sha256();
+        try (InputStream in = Files.newInputStream(file);
+             OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+            long size = in.transferTo(out);
+            return new CachedFile(file, size, etag(digest));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private CachedFile extract(String relativePath) {
+        long start = System.nanoTime();
+        Path target = cacheDir.resolve(relativePath);
+        try (InputStream in = StaticFileCache.class.getResourceAsStream(CLASSPATH_ROOT + relativePath)) {
+            if (in == null) {
+                return null;
+            }
+            Files.createDirectories(target.getParent());
+            Path temp = Files.createTempFile(target.getParent(), ".extract", ".tmp");
+            MessageDigest digest = sha256();
+            long size;
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                size = in.transferTo(out);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            String etag = etag(digest);
+            Timer.builder("static.files.extract")
+                    .description("Copying a resource out of the jar on its first request")
+                    .register(registry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            LOG.debugf("Extracted %s (%d bytes)", relativePath, size);
+            return new CachedFile(target, size, etag);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Accepts plain relative paths only, e.g. {@code castle.webp} or {@code variants/x.jpg}.
+     */
+    static boolean isSafe(String relativePath) {
+        if (relativePath == null || relativePath.isEmpty() || relativePath.startsWith("/")
+                || relativePath.contains("\\") || relativePath.contains("\0")) {
+            return false;
+        }
+        for (String segment : relativePath.split("/")) {
+            if (segment.isEmpty() || segment.equals(".") || segment.equals("..")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String etag(MessageDigest digest) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest()).substring(0, 22);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,306 @@
+package com.example.starter.base.services;
+
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Map tiles fetched from an upstream tile server and kept in a bounded on-disk cache, so
+ * maps load from this server and keep working when the upstream is slow or unreachable.
+ *
+ * Tiles are stored as {@code z/x/y.png} under the cache directory. When the cache grows
+ * past its limit, the least recently served tiles are deleted. Tiles older than the
+ * configured max age are fetched again, but still served if the upstream fails.
+ * Concurrent misses for the same tile share a single upstream request.
+ *
+ * The upstream is a URL template, so tests and local runs can point it at a stub server.
+ */
+@ApplicationScoped
+public class TileCache {
+
+    private static final Logger LOG = Logger.getLogger(TileCache.class);
+
+    /**
+     * A tile on disk.
+     */
+    public record CachedTile(Path path, long size, long fetchedAt) {
+    }
+
+    @ConfigProperty(name = "tiles.upstream-url")
+    private String upstreamUrl;
+
+    @ConfigProperty(name = "tiles.cache-dir")
+    private Path cacheDir;
+
+    @ConfigProperty(name = "tiles.cache-max-bytes")
+    private long maxBytes;
+
+    @ConfigProperty(name = "tiles.max-age")
+    private Duration maxAge;
+
+    @ConfigProperty(name = "tiles.max-zoom")
+    private int maxZoom;
+
+    @ConfigProperty(name = "tiles.user-agent")
+    private String userAgent;
+
+    @ConfigProperty(name = "tiles.timeout")
+    private Duration timeout;
+
+    private HttpClient httpClient;
+
+    // Access-ordered, so iteration starts at the least recently used tile; guarded by this
+    private final LinkedHashMap<String, CachedTile> tiles = new LinkedHashMap<>(256, 0.75f, true);
+    private long totalBytes;
+
+    private final Map<String, CompletableFuture<Optional<CachedTile>>> inFlight = new ConcurrentHashMap<>();
+
+    public TileCache() {
+    }
+
+    /**
+     * A cache outside the container, e.g. in tests, with its index loaded from the directory.
+     */
+    TileCache(String upstreamUrl, Path cacheDir, long maxBytes, Duration maxAge, int maxZoom, String userAgent,
+              Duration timeout) {
+        this.upstreamUrl = upstreamUrl;
+        this.cacheDir = cacheDir;
+        this.maxBytes = maxBytes;
+        this.maxAge = maxAge;
+        this.maxZoom = maxZoom;
+        this.userAgent = userAgent;
+        this.timeout = timeout;
+        init();
+    }
+
+    @PostConstruct
+    void init() {
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(timeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+        try {
+            Files.createDirectories(cacheDir);
+            loadIndex();
+        } catch (IOException e) {
+            LOG.errorf(e, "Could not read the tile cache in %s, starting empty", cacheDir);
+        }
+    }
+
+    /**
+     * Whether {@code z/x/y} addresses a tile of the standard web mercator grid.
+     */
+    public boolean isValid(int z, int x, int y) {
+        if (z < 0 || z > maxZoom) {
+            return false;
+        }
+        int tilesPerSide = 1 << z;
+        return x >= 0 && x < tilesPerSide && y >= 0 && y < tilesPerSide;
+    }
+
+    /**
+     * Returns the tile if it is cached and fresh. Never blocks, so it is safe to call on an
+     * event-loop thread.
+     */
+    public Optional<CachedTile> getIfFresh(int z, int x, int y) {
+        CachedTile tile;
+        synchronized (this) {
+            tile = tiles.get(key(z, x, y));
+        }
+        return tile != null && !isStale(tile) ? Optional.of(tile) : Optional.empty();
+    }
+
+    /**
+     * Returns the tile, fetching it from upstream if it is missing or stale. Completes empty
+     * if the upstream has no such tile, and exceptionally if the upstream fails and there is
+     * no copy on disk. Does no disk I/O on the calling thread, so it is safe to call on an
+     * event-loop thread.
+     */
+    public CompletableFuture<Optional<CachedTile>> get(int z, int x, int y) {
+        if (!isValid(z, x, y)) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        Optional<CachedTile> fresh = getIfFresh(z, x, y);
+        if (fresh.isPresent()) {
+            return CompletableFuture.completedFuture(fresh);
+        }
+
+        String key = key(z, x, y);
+        CompletableFuture<Optional<CachedTile>> created = new CompletableFuture<>();
+        CompletableFuture<Optional<CachedTile>> existing = inFlight.putIfAbsent(key, created);
+        if (existing != null) {
+            return existing;
+        }
+        fetch(z, x, y).whenComplete((tile, error) -> {
+            inFlight.remove(key, created);
+            if (error == null) {
+                created.complete(tile);
+                return;
+            }
+            CachedTile stale;
+            synchronized (this) {
+                stale = tiles.get(key);
+            }
+            if (stale != null) {
+                LOG.debugf("Upstream failed for tile %s, serving the cached copy: %s", key, error.getMessage());
+                created.complete(Optional.of(stale));
+            } else {
+                created.completeExceptionally(error);
+            }
+        });
+        return created;
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized int size() {
+        return tiles.size();
+    }
+
+    private CompletableFuture<Optional<CachedTile>> fetch(int z, int x, int y) {
+        String key = key(z, x, y);
+        Path target = cacheDir.resolve(key);
+        // Creating the directory and the file to download into blocks, so it runs on a worker
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                Files.createDirectories(target.getParent());
+                return Files.createTempFile(target.getParent(), ".fetch", ".tmp");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, Infrastructure.getDefaultWorkerPool()).thenCompose(temp -> download(z, x, y, target, temp));
+    }
+
+    private CompletableFuture<Optional<CachedTile>> download(int z, int x, int y, Path target, Path temp) {
+        String key = key(z, x, y);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(upstreamUrl
+                        .replace("{z}", Integer.toString(z))
+                        .replace("{x}", Integer.toString(x))
+                        .replace("{y}", Integer.toString(y))))
+                .timeout(timeout)
+                .header("User-Agent", userAgent)
+                .GET()
+                .build();
+
+        // The body goes straight to disk and never passes through the heap
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofFile(temp))
+                .thenApply(response -> {
+                    try {
+                        if (response.statusCode() == 404) {
+                            Files.deleteIfExists(temp);
+                            return Optional.<CachedTile>empty();
+                        }
+                        if (response.statusCode() != 200) {
+                            Files.deleteIfExists(temp);
+                            throw new IOException("Tile server answered " + response.statusCode() + " for " + key);
+                        }
+                        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                        CachedTile tile = new CachedTile(target, Files.size(target), System.currentTimeMillis());
+                        store(key, tile);
+                        return Optional.of(tile);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .whenComplete((tile, error) -> {
+                    if (error != null) {
+                        try {
+                            Files.deleteIfExists(temp);
+                        } catch (IOException e) {
+                            LOG.debugf("Could not delete %s", temp);
+                        }
+                    }
+                });
+    }
+
+    private void store(String key, CachedTile tile) {
+        List<CachedTile> evicted = new ArrayList<>();
+        synchronized (this) {
+            CachedTile previous = tiles.put(key, tile);
+            if (previous != null) {
+                totalBytes -= previous.size();
+            }
+            totalBytes += tile.size();
+            Iterator<Map.Entry<String, CachedTile>> eldest = tiles.entrySet().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<String, CachedTile> entry = eldest.next();
+                if (entry.getKey().equals(key)) {
+                    continue;
+                }
+                totalBytes -= entry.getValue().size();
+                evicted.add(entry.getValue());
+                eldest.remove();
+            }
+        }
+        // Open responses keep their file handle, so deleting under them is safe
+        for (CachedTile old : evicted) {
+            try {
+                Files.deleteIfExists(old.path());
+            } catch (IOException e) {
+                LOG.warnf("Could not delete evicted tile %s", old.path());
+            }
+        }
+        if (!evicted.isEmpty()) {
+            LOG.debugf("Evicted %d tiles from the tile cache", evicted.size());
+        }
+    }
+
+    /**
+     * Rebuilds the index from the files left by a previous run, oldest first, so their
+     * modification time stands in for the last access.
+     */
+    private void loadIndex() throws IOException {
+        List<CachedTile> found = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(cacheDir, 3)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (!Files.isRegularFile(file)) {
+                    continue;
+                }
+                if (name.endsWith(".tmp")) {
+                    Files.deleteIfExists(file);
+                } else if (name.endsWith(".png") && cacheDir.relativize(file).getNameCount() == 3) {
+                    found.add(new CachedTile(file, Files.size(file), Files.getLastModifiedTime(file).toMillis()));
+                }
+            }
+        }
+        found.sort((a, b) -> Long.compare(a.fetchedAt(), b.fetchedAt()));
+        for (CachedTile tile : found) {
+            store(cacheDir.relativize(tile.path()).toString().replace('\\', '/'), tile);
+        }
+        LOG.infof("Tile cache in %s holds %d tiles (%d KB of %d KB)",
+                cacheDir, size(), getTotalBytes() / 1024, maxBytes / 1024);
+    }
+
+    private boolean isStale(CachedTile tile) {
+        return System.currentTimeMillis() - tile.fetchedAt() > maxAge.toMillis();
+    }
+
+    private static String key(int z, int x, int y) {
+        return z + "/" + x + "/" + y + ".png";
+    }
+}
@@ -0,0 +1,339 @@
+package com.example.starter.base.services;
+
+import io.quarkus.runtime.Startup;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * Builds the offline tile pack: every map tile of the municipality at the zoom levels the
+ * app uses, in one file the service worker downloads and unpacks into its tile cache.
+ *
+ * A pack is only built when none for the configured area is on disk yet, or the one there
+ * is older than {@code tiles.max-age}, so {@code tiles.cache-dir} has to be on persistent
+ * storage for restarts not to fetch the whole area again. The tiles are fetched through
+ * {@link TileCache}, a few at a time, in the background. A tile the upstream does not have
+ * is left out; any other failure abandons the pack until the next start, rather than
+ * publishing one with holes.
+ *
+ * Off by default: building one is bulk downloading, which tile.openstreetmap.org does not
+ * allow, so it refuses to run against that upstream. Point {@code tiles.upstream-url} at a
+ * tile server that permits it first.
+ *
+ * Pack format: a 4-byte big-endian header length, a UTF-8 JSON header
+ * {@code {"tiles":[[z,x,y,offset,length],...]}} with offsets relative to the end of the
+ * header, then the PNG data.
+ */
+@Startup
+@ApplicationScoped
+public class TilePackService {
+
+    private static final Logger LOG = Logger.getLogger(TilePackService.class);
+
+    /**
+     * A finished pack on disk.
+     */
+    public record TilePack(Path path, long size, String etagValue, int tileCount) {
+
+        public String getEtag() {
+            return "\"" + etagValue + "\"";
+        }
+    }
+
+    record TileAddress(int z, int x, int y) {
+    }
+
+    @Inject
+    private TileCache tileCache;
+
+    @ConfigProperty(name = "tiles.cache-dir")
+    private Path cacheDir;
+
+    @ConfigProperty(name = "tiles.upstream-url")
+    private String upstreamUrl;
+
+    @ConfigProperty(name = "tiles.max-age")
+    private Duration maxAge;
+
+    @ConfigProperty(name = "tiles.pack.enabled")
+    private boolean enabled;
+
+    // south,west,north,east in degrees
+    @ConfigProperty(name = "tiles.pack.bbox")
+    private List<Double> bbox;
+
+    @ConfigProperty(name = "tiles.pack.min-zoom")
+    private int minZoom;
+
+    @ConfigProperty(name = "tiles.pack.max-zoom")
+    private int maxZoom;
+
+    @ConfigProperty(name = "tiles.pack.concurrency")
+    private int concurrency;
+
+    private volatile TilePack pack;
+
+    @PostConstruct
+    void init() {
+        if (!enabled) {
+            LOG.info("Tile pack disabled");
+            return;
+        }
+        if (bbox.size() != 4) {
+            LOG.errorf("tiles.pack.bbox needs south,west,north,east, got %s", bbox);
+            return;
+        }
+        if (isOpenStreetMap(upstreamUrl)) {
+            LOG.warnf("Not building a tile pack from %s, its tile usage policy forbids bulk downloads", upstreamUrl);
+            return;
+        }
+        Infrastructure.getDefaultWorkerPool().execute(() -> {
+            try {
+                if (!reuse()) {
+                    build();
+                }
+            } catch (Exception e) {
+                LOG.error("Could not build the tile pack", e);
+            }
+        });
+    }
+
+    /**
+     * Serves the newest pack on disk for the configured area, if any. True if it is recent
+     * enough that no new one needs to be built.
+     */
+    private boolean reuse() {
+        try {
+            Optional<TilePack> existing = latest(packsDir());
+            if (existing.isEmpty()) {
+                return false;
+            }
+            pack = existing.get();
+            Instant written = Files.getLastModifiedTime(existing.get().path()).toInstant();
+            if (written.plus(maxAge).isBefore(Instant.now())) {
+                LOG.infof("The tile pack on disk is older than %s, building a new one", maxAge);
+                return false;
+            }
+            LOG.infof("Using the tile pack on disk: %d tiles, %d KB",
+                    existing.get().tileCount(), existing.get().size() / 1024);
+            return true;
+        } catch (IOException e) {
+            LOG.warn("Could not read the tile pack on disk, building a new one", e);
+            return false;
+        }
+    }
+
+    /**
+     * The current pack, empty until one has been found on disk or built.
+     */
+    public Optional<TilePack> getPack() {
+        return Optional.ofNullable(pack);
+    }
+
+    /**
+     * Fetches every tile of the bounding box and swaps in a new pack. Blocks until done.
+     */
+    public TilePack build() throws IOException {
+        long start = System.nanoTime();
+        List<TileAddress> addresses = tilesFor(bbox.get(0), bbox.get(1), bbox.get(2), bbox.get(3), minZoom, maxZoom);
+        LOG.infof("Building tile pack with up to %d tiles, zoom %d-%d", addresses.size(), minZoom, maxZoom);
+
+        List<Optional<TileCache.CachedTile>> tiles = new ArrayList<>(addresses.size());
+        for (int i = 0; i < addresses.size(); i += concurrency) {
+            List<CompletableFuture<Optional<TileCache.CachedTile>>> batch = new ArrayList<>();
+            for (TileAddress address : addresses.subList(i, Math.min(i + concurrency, addresses.size()))) {
+                batch.add(tileCache.get(address.z(), address.x(), address.y()));
+            }
+            for (CompletableFuture<Optional<TileCache.CachedTile>> future : batch) {
+                tiles.add(future.join());
+            }
+        }
+
+        TilePack next = write(packsDir(), addresses, tiles);
+        TilePack previous = pack;
+        pack = next;
+        if (previous != null && !previous.path().equals(next.path())) {
+            Files.deleteIfExists(previous.path());
+        }
+        LOG.infof("Tile pack ready: %d tiles, %d KB in %d ms",
+                next.tileCount(), next.size() / 1024, (System.nanoTime() - start) / 1_000_000);
+        return next;
+    }
+
+    /**
+     * Packs of other areas or zoom levels live in their own directories, so changing the
+     * configuration does not pick up a pack that covers something else.
+     */
+    private Path packsDir() {
+        String coverage = bbox + "/" + minZoom + "-" + maxZoom;
+        return cacheDir.resolve("packs").resolve(
+                HexFormat.of().formatHex(sha256().digest(coverage.getBytes(StandardCharsets.UTF_8)), 0, 8));
+    }
+
+    /**
+     * The most recently written pack in {@code packs}, if any.
+     */
+    static Optional<TilePack> latest(Path packs) throws IOException {
+        if (!Files.isDirectory(packs)) {
+            return Optional.empty();
+        }
+        Optional<Path> newest;
+        try (Stream<Path> files = Files.list(packs)) {
+            newest = files.filter(file -> file.getFileName().toString().matches("tiles-[A-Za-z0-9_-]+\\.pack"))
+                    .max(Comparator.comparing(TilePackService::lastModified));
+        }
+        return newest.isPresent() ? Optional.of(read(newest.get())) : Optional.empty();
+    }
+
+    /**
+     * Reads back the size, ETag and tile count of a pack from {@link #write}.
+     */
+    static TilePack read(Path file) throws IOException {
+        String name = file.getFileName().toString();
+        String etag = name.substring("tiles-".length(), name.length() - ".pack".length());
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] length = in.readNBytes(4);
+            int headerLength = length.length == 4 ? ByteBuffer.wrap(length).getInt() : -1;
+            byte[] headerBytes = headerLength >= 0 ? in.readNBytes(headerLength) : new byte[0];
+            if (headerLength < 0 || headerBytes.length != headerLength) {
+                throw new IOException("Truncated tile pack " + file);
+            }
+            String header = new String(headerBytes, StandardCharsets.UTF_8);
+            // One opening bracket for the list, then one per tile
+            int count = (int) header.chars().filter(c -> c == '[').count() - 1;
+            return new TilePack(file, Files.size(file), etag, count);
+        }
+    }
+
+    private static Instant lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant();
+        } catch (IOException e) {
+            return Instant.EPOCH;
+        }
+    }
+
+    static boolean isOpenStreetMap(String upstreamUrl) {
+        String host = URI.create(upstreamUrl.replaceAll("[{}]", "")).getHost();
+        if (host == null) {
+            return false;
+        }
+        host = host.toLowerCase(Locale.ROOT);
+        return host.equals("tile.openstreetmap.org") || host.endsWith(".tile.openstreetmap.org");
+    }
+
+    /**
+     * Writes a pack of the tiles that were found into {@code packs}, named after its hash.
+     * {@code tiles} holds the tile of each address, empty where the upstream has none.
+     */
+    static TilePack write(Path packs, List<TileAddress> addresses, List<Optional<TileCache.CachedTile>> tiles)
+            throws IOException {
+        // Tile data goes to a scratch file first, since the header in front of it needs the lengths
+        Files.createDirectories(packs);
+        Path data = Files.createTempFile(packs, ".data", ".tmp");
+        Path temp = Files.createTempFile(packs, ".pack", ".tmp");
+        StringBuilder header = new StringBuilder("{\"tiles\":[");
+        int count = 0;
+        MessageDigest digest = sha256();
+        try {
+            long offset = 0;
+            try (OutputStream out = Files.newOutputStream(data)) {
+                for (int i = 0; i < addresses.size(); i++) {
+                    Optional<TileCache.CachedTile> tile = tiles.get(i);
+                    if (tile.isEmpty()) {
+                        continue;
+                    }
+                    TileAddress address = addresses.get(i);
+                    byte[] bytes = Files.readAllBytes(tile.get().path());
+                    out.write(bytes);
+                    header.append(count++ == 0 ? "[" : ",[").append(address.z()).append(',').append(address.x())
+                            .append(',').append(address.y()).append(',').append(offset).append(',')
+                            .append(bytes.length).append(']');
+                    offset += bytes.length;
+                }
+            }
+            header.append("]}");
+
+            byte[] headerBytes = header.toString().getBytes(StandardCharsets.UTF_8);
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                out.write(ByteBuffer.allocate(4).putInt(headerBytes.length).array());
+                out.write(headerBytes);
+                Files.copy(data, out);
+            }
+        } finally {
+            Files.deleteIfExists(data);
+        }
+        String etag = Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest()).substring(0, 22);
+        Path target = packs.resolve("tiles-" + etag + ".pack");
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return new TilePack(target, Files.size(target), etag, count);
+    }
+
+    /**
+     * Lists the web mercator tiles covering a bounding box at each zoom level, in zoom,
+     * x, y order.
+     */
+    static List<TileAddress> tilesFor(double south, double west, double north, double east, int minZoom, int maxZoom) {
+        List<TileAddress> tiles = new ArrayList<>();
+        for (int z = minZoom; z <= maxZoom; z++) {
+            int minX = tileX(west, z);
+            int maxX = tileX(east, z);
+            // Tile rows count from the north
+            int minY = tileY(north, z);
+            int maxY = tileY(south, z);
+            for (int x = minX; x <= maxX; x++) {
+                for (int y = minY; y <= maxY; y++) {
+                    tiles.add(new TileAddress(z, x, y));
+                }
+            }
+        }
+        return tiles;
+    }
+
+    static int tileX(double longitude, int zoom) {
+        int n = 1 << zoom;
+        return Math.max(0, Math.min(n - 1, (int) Math.floor((longitude + 180) / 360 * n)));
+    }
+
+    static int tileY(double latitude, int zoom) {
+        int n = 1 << zoom;
+        double lat = Math.toRadians(latitude);
+        double y = (1 - Math.log(Math.tan(lat) + 1 / Math.cos(lat)) / Math.PI) / 2 * n;
+        return Math.max(0, Math.min(n - 1, (int) Math.floor(y)));
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
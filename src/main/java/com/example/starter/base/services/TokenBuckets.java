@@ -0,0 +1,235 @@
+package com.example.starter.base.services;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-client token buckets for requests and response bytes, safe to use from every event
+ * loop at once without locks.
+ *
+ * Each bucket is kept as the single {@code long} of the generic cell rate algorithm, the
+ * time at which it will be full again, and updated with compare-and-set: taking tokens
+ * moves that time forward, and the bucket is empty once it is more than the burst ahead of
+ * now. A bucket whose time has passed is full, and so is the same as a new one, which makes
+ * evicting idle clients lossless.
+ *
+ * Requests take a token on admission. Bytes are only known once the response is sent, so
+ * they are charged afterwards and may run the bucket into debt; the client is then turned
+ * away until the debt is paid off.
+ *
+ * Memory is bounded by {@code maxClients}. A new client that would go past it first makes
+ * room: clients whose buckets have refilled are dropped, and if that is not enough, the
+ * least recently seen tenth of the clients, whatever their buckets hold. Every client always
+ * gets buckets of its own, so filling the map with made-up clients only costs the oldest
+ * ones their debt.
+ *
+ * A dropped client's buckets are marked before they leave the map, and a lookup that finds
+ * marked buckets replaces them, so a response that was still open when its client was
+ * dropped charges its bytes to the client's new buckets instead and no charge is lost. A
+ * request admitted in the instant its client is dropped may take its token from the dropped
+ * buckets.
+ */
+public final class TokenBuckets {
+
+    // Marks the byte bucket of a dropped client
+    private static final long DROPPED = Long.MIN_VALUE;
+
+    /**
+     * Refill rate in tokens per second and the number of tokens a full bucket holds.
+     */
+    public record Budget(double ratePerSecond, long burst) {
+
+        public Budget {
+            if (ratePerSecond <= 0 || burst < 1) {
+                throw new IllegalArgumentException("Rate and burst must be positive: " + ratePerSecond + ", " + burst);
+            }
+        }
+
+        double nanosPerToken() {
+            return 1_000_000_000 / ratePerSecond;
+        }
+    }
+
+    private final long nanosPerRequest;
+    private final long requestTolerance;
+    private final double nanosPerByte;
+    private final long byteTolerance;
+    private final int maxClients;
+
+    private final ConcurrentHashMap<String, Client> clients = new ConcurrentHashMap<>();
+
+    // Held only while making room; clients arriving meanwhile are added without waiting
+    private final ReentrantLock makingRoom = new ReentrantLock();
+
+    public TokenBuckets(Budget requests, Budget bytes, int maxClients) {
+        if (maxClients < 1) {
+            throw new IllegalArgumentException("At least one client must fit: " + maxClients);
+        }
+        this.nanosPerRequest = Math.max(1, Math.round(requests.nanosPerToken()));
+        this.requestTolerance = nanosPerRequest * (requests.burst() - 1);
+        this.nanosPerByte = bytes.nanosPerToken();
+        this.byteTolerance = Math.round(nanosPerByte * bytes.burst());
+        this.maxClients = maxClients;
+    }
+
+    /**
+     * The buckets of one client.
+     */
+    public final class Client {
+
+        private final String key;
+
+        // Time at which each bucket is full again, in System.nanoTime()
+        private final AtomicLong requestsFull;
+        private final AtomicLong bytesFull;
+
+        private volatile long lastSeen;
+
+        private Client(String key, long now) {
+            this.key = key;
+            this.requestsFull = new AtomicLong(now);
+            this.bytesFull = new AtomicLong(now);
+            this.lastSeen = now;
+        }
+
+        /**
+         * Takes a request token if the client has one and has no byte debt. Returns 0 if it
+         * did, otherwise the nanoseconds until it can; {@link #isOverBytes(long)} tells which
+         * bucket is short.
+         */
+        public long tryAcquire(long now) {
+            Client current = this;
+            long bytes;
+            while ((bytes = current.bytesFull.get()) == DROPPED) {
+                current = client(key, now);
+            }
+            current.lastSeen = now;
+            long byteWait = bytes - byteTolerance - now;
+            if (byteWait > 0) {
+                return byteWait;
+            }
+            while (true) {
+                long full = current.requestsFull.get();
+                long wait = full - requestTolerance - now;
+                if (wait > 0) {
+                    return wait;
+                }
+                long next = (full - now > 0 ? full : now) + nanosPerRequest;
+                if (current.requestsFull.compareAndSet(full, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        /**
+         * Returns whether the client is in byte debt, i.e. a refusal was for bytes rather than
+         * requests.
+         */
+        public boolean isOverBytes(long now) {
+            long bytes = bytesFull.get();
+            return bytes != DROPPED && bytes - byteTolerance - now > 0;
+        }
+
+        /**
+         * Charges the bytes of a response that was sent, to the client's current buckets if
+         * these were dropped in the meantime.
+         */
+        public void charge(long now, long bytes) {
+            if (bytes <= 0) {
+                return;
+            }
+            long cost = Math.round(bytes * nanosPerByte);
+            Client current = this;
+            while (true) {
+                long full = current.bytesFull.get();
+                if (full == DROPPED) {
+                    current = client(key, now);
+                    continue;
+                }
+                long next = (full - now > 0 ? full : now) + cost;
+                if (current.bytesFull.compareAndSet(full, next)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Marks the buckets dropped if both are full. A charge racing with this either lands
+         * first, and the buckets are no longer full, or sees the mark and goes elsewhere.
+         */
+        private boolean dropIfFull(long now) {
+            long bytes = bytesFull.get();
+            if (bytes == DROPPED) {
+                return true;
+            }
+            return requestsFull.get() - now <= 0 && bytes - now <= 0 && bytesFull.compareAndSet(bytes, DROPPED);
+        }
+
+        private void drop() {
+            bytesFull.set(DROPPED);
+        }
+
+        private boolean isDropped() {
+            return bytesFull.get() == DROPPED;
+        }
+    }
+
+    /**
+     * Returns the buckets of a client, created full on first use. Never returns buckets that
+     * had already been dropped: if the one dropping them has not removed them yet, they are
+     * replaced here.
+     */
+    public Client client(String key, long now) {
+        Client client = clients.get(key);
+        if (client != null && !client.isDropped()) {
+            return client;
+        }
+        if (client == null && clients.size() >= maxClients) {
+            makeRoom(now);
+        }
+        return clients.compute(key,
+                (ignored, existing) -> existing == null || existing.isDropped() ? new Client(key, now) : existing);
+    }
+
+    /**
+     * Forgets the clients whose buckets have refilled. Returns how many were dropped.
+     */
+    public int sweep(long now) {
+        int dropped = 0;
+        for (Client client : clients.values()) {
+            if (client.dropIfFull(now) && clients.remove(client.key, client)) {
+                dropped++;
+            }
+        }
+        return dropped;
+    }
+
+    private void makeRoom(long now) {
+        if (!makingRoom.tryLock()) {
+            return;
+        }
+        try {
+            if (clients.size() < maxClients || sweep(now) > 0 && clients.size() < maxClients) {
+                return;
+            }
+            // Evict a tenth at once, so a stream of new clients sorts the map once per batch
+            int excess = clients.size() - maxClients + Math.max(1, maxClients / 10);
+            List<Client> oldest = new ArrayList<>(clients.values());
+            oldest.sort(Comparator.comparingLong(client -> client.lastSeen - now));
+            for (Client client : oldest.subList(0, Math.min(excess, oldest.size()))) {
+                client.drop();
+                clients.remove(client.key, client);
+            }
+        } finally {
+            makingRoom.unlock();
+        }
+    }
+
+    public int size() {
+        return clients.size();
+    }
+}
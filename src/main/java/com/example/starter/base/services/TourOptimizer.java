@@ -0,0 +1,273 @@
+package com.example.starter.base.services;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Visiting order for a walking tour: node 0 is the start, the others are the stops.
+ *
+ * Up to {@link #EXACT_LIMIT} stops the order is optimal (Held-Karp). Beyond that,
+ * several greedy tours are built in parallel, each improved with 2-opt and Or-opt moves
+ * until no move helps or the deadline passes, and the shortest one wins.
+ *
+ * An open tour (no return to the start) is handled as a closed one through an extra end
+ * node that is zero meters from everything, so both share the same moves.
+ */
+final class TourOptimizer {
+
+    static final int EXACT_LIMIT = 12;
+
+    private static final double EPSILON = 1e-6;
+
+    private TourOptimizer() {
+    }
+
+    /**
+     * Returns the stops (1..n-1) in visiting order.
+     *
+     * @param distances symmetric distances between node 0 (the start) and the stops
+     * @param closed    whether the tour returns to the start
+     * @param deadline  {@link System#nanoTime()} after which the search stops improving
+     * @param starts    number of greedy tours to improve
+     */
+    static int[] solve(double[][] distances, boolean closed, long deadline, int starts) {
+        int stops = distances.length - 1;
+        if (stops <= 1) {
+            return stops == 1 ? new int[]{1} : new int[0];
+        }
+        double[][] d = withEndNode(distances, closed);
+        int end = closed ? 0 : d.length - 1;
+        if (stops <= EXACT_LIMIT) {
+            return heldKarp(d, stops, end);
+        }
+
+        // Tour 0 is the plain nearest-neighbour one; the others pick randomly among the
+        // three nearest, so the local searches start from different places
+        int[] best = IntStream.range(0, Math.max(1, starts))
+                .parallel()
+                .mapToObj(seed -> {
+                    int[] path = greedy(d, stops, end, seed == 0 ? null : new Random(seed));
+                    improve(d, path, deadline);
+                    return path;
+                })
+                .min(Comparator.comparingDouble(path -> length(d, path)))
+                .orElseThrow();
+        return Arrays.copyOfRange(best, 1, stops + 1);
+    }
+
+    /**
+     * Length of a path array as built by {@link #greedy}: start, stops, end.
+     */
+    static double length(double[][] d, int[] path) {
+        double total = 0;
+        for (int i = 0; i + 1 < path.length; i++) {
+            total += d[path[i]][path[i + 1]];
+        }
+        return total;
+    }
+
+    private static double[][] withEndNode(double[][] distances, boolean closed) {
+        if (closed) {
+            return distances;
+        }
+        int n = distances.length;
+        double[][] d = new double[n + 1][n + 1];
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(distances[i], 0, d[i], 0, n);
+        }
+        // Row and column n stay zero: ending anywhere costs nothing
+        return d;
+    }
+
+    private static int[] greedy(double[][] d, int stops, int end, Random random) {
+        int[] path = new int[stops + 2];
+        boolean[] visited = new boolean[stops + 1];
+        path[0] = 0;
+        path[stops + 1] = end;
+        int current = 0;
+        for (int position = 1; position <= stops; position++) {
+            int first = -1;
+            int second = -1;
+            int third = -1;
+            for (int candidate = 1; candidate <= stops; candidate++) {
+                if (visited[candidate]) {
+                    continue;
+                }
+                double distance = d[current][candidate];
+                if (first < 0 || distance < d[current][first]) {
+                    third = second;
+                    second = first;
+                    first = candidate;
+                } else if (second < 0 || distance < d[current][second]) {
+                    third = second;
+                    second = candidate;
+                } else if (third < 0 || distance < d[current][third]) {
+                    third = candidate;
+                }
+            }
+            int next = first;
+            if (random != null) {
+                int pick = random.nextInt(3);
+                if (pick == 1 && second >= 0) {
+                    next = second;
+                } else if (pick == 2 && third >= 0) {
+                    next = third;
+                }
+            }
+            visited[next] = true;
+            path[position] = next;
+            current = next;
+        }
+        return path;
+    }
+
+    /**
+     * Applies improving 2-opt and Or-opt moves until neither finds one or time runs out.
+     * The first and last entries of the path stay in place.
+     */
+    static void improve(double[][] d, int[] path, long deadline) {
+        boolean improved = true;
+        while (improved && System.nanoTime() < deadline) {
+            improved = twoOpt(d, path, deadline) | orOpt(d, path);
+        }
+    }
+
+    private static boolean twoOpt(double[][] d, int[] path, long deadline) {
+        int last = path.length - 2;
+        boolean improved = false;
+        for (int i = 1; i < last; i++) {
+            if (System.nanoTime() >= deadline) {
+                return improved;
+            }
+            for (int j = i + 1; j <= last; j++) {
+                double delta = d[path[i - 1]][path[j]] + d[path[i]][path[j + 1]]
+                        - d[path[i - 1]][path[i]] - d[path[j]][path[j + 1]];
+                if (delta < -EPSILON) {
+                    reverse(path, i, j);
+                    improved = true;
+                }
+            }
+        }
+        return improved;
+    }
+
+    /**
+     * Moves runs of one to three stops elsewhere in the path, in either direction.
+     */
+    private static boolean orOpt(double[][] d, int[] path) {
+        int last = path.length - 2;
+        boolean improved = false;
+        for (int length = 1; length <= 3; length++) {
+            for (int i = 1; i + length - 1 <= last; i++) {
+                int first = path[i];
+                int end = path[i + length - 1];
+                int before = path[i - 1];
+                int after = path[i + length];
+                double removed = d[before][first] + d[end][after] - d[before][after];
+                for (int k = 0; k <= last; k++) {
+                    if (k >= i - 1 && k <= i + length - 1) {
+                        continue;
+                    }
+                    int a = path[k];
+                    int b = path[k + 1];
+                    double forward = d[a][first] + d[end][b] - d[a][b];
+                    double backward = d[a][end] + d[first][b] - d[a][b];
+                    boolean reversed = backward < forward;
+                    if (Math.min(forward, backward) - removed < -EPSILON) {
+                        move(path, i, length, k, reversed);
+                        improved = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return improved;
+    }
+
+    /**
+     * Moves path[i..i+length-1] to between path[k] and path[k+1].
+     */
+    private static void move(int[] path, int i, int length, int k, boolean reversed) {
+        int[] segment = Arrays.copyOfRange(path, i, i + length);
+        if (reversed) {
+            for (int a = 0, b = segment.length - 1; a < b; a++, b--) {
+                int t = segment[a];
+                segment[a] = segment[b];
+                segment[b] = t;
+            }
+        }
+        if (k > i) {
+            // Shift the stops between the segment and the insertion point back
+            System.arraycopy(path, i + length, path, i, k - i - length + 1);
+            System.arraycopy(segment, 0, path, k - length + 1, length);
+        } else {
+            System.arraycopy(path, k + 1, path, k + 1 + length, i - k - 1);
+            System.arraycopy(segment, 0, path, k + 1, length);
+        }
+    }
+
+    private static void reverse(int[] path, int from, int to) {
+        while (from < to) {
+            int t = path[from];
+            path[from++] = path[to];
+            path[to--] = t;
+        }
+    }
+
+    /**
+     * Optimal order by dynamic programming over subsets, O(2^n n^2).
+     */
+    private static int[] heldKarp(double[][] d, int stops, int end) {
+        int subsets = 1 << stops;
+        double[][] cost = new double[subsets][stops];
+        int[][] parent = new int[subsets][stops];
+        for (double[] row : cost) {
+            Arrays.fill(row, Double.POSITIVE_INFINITY);
+        }
+        for (int j = 0; j < stops; j++) {
+            cost[1 << j][j] = d[0][j + 1];
+            parent[1 << j][j] = -1;
+        }
+        for (int mask = 1; mask < subsets; mask++) {
+            for (int j = 0; j < stops; j++) {
+                double current = cost[mask][j];
+                if ((mask & (1 << j)) == 0 || current == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                for (int next = 0; next < stops; next++) {
+                    if ((mask & (1 << next)) != 0) {
+                        continue;
+                    }
+                    int nextMask = mask | (1 << next);
+                    double candidate = current + d[j + 1][next + 1];
+                    if (candidate < cost[nextMask][next]) {
+                        cost[nextMask][next] = candidate;
+                        parent[nextMask][next] = j;
+                    }
+                }
+            }
+        }
+
+        int full = subsets - 1;
+        int last = 0;
+        double best = Double.POSITIVE_INFINITY;
+        for (int j = 0; j < stops; j++) {
+            double total = cost[full][j] + d[j + 1][end];
+            if (total < best) {
+                best = total;
+                last = j;
+            }
+        }
+        int[] order = new int[stops];
+        int mask = full;
+        for (int position = stops - 1; position >= 0; position--) {
+            order[position] = last + 1;
+            int previous = parent[mask][last];
+            mask &= ~(1 << last);
+            last = previous;
+        }
+        return order;
+    }
+}
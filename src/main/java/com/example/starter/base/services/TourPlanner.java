@@ -0,0 +1,167 @@
+package com.example.starter.base.services;
+
+import com.example.starter.base.content.ImageVariants;
+import com.example.starter.base.entity.PointOfInterest;
+import io.quarkus.runtime.Startup;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+import org.jboss.logging.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Plans walking tours: the shortest order to visit a set of POIs from a start point.
+ *
+ * Distances come from a {@link DistanceMatrix} built per {@link ContentSnapshot}, off the
+ * request thread (see {@link SnapshotCache}); requests keep planning with the previous
+ * matrix until the new one is ready rather than waiting for it. The order itself comes
+ * from {@link TourOptimizer} within the configured time budget.
+ */
+@Startup
+@ApplicationScoped
+public class TourPlanner {
+
+    private static final Logger LOG = Logger.getLogger(TourPlanner.class);
+
+    public static final int MAX_STOPS = 50;
+
+    // Greedy tours improved in parallel for larger tours
+    private static final int STARTS = 8;
+
+    @Inject
+    private ContentState contentState;
+
+    @ConfigProperty(name = "tours.time-budget")
+    private Duration timeBudget;
+
+    private SnapshotCache<State> states;
+
+    /**
+     * One stop of a tour, with the straight-line distance from the previous stop (or the
+     * start) in meters.
+     */
+    public record Leg(PointOfInterest poi, int order, double distanceMeters) {
+    }
+
+    /**
+     * A planned tour. For a round trip, {@code returnMeters} is the way back to the start.
+     * {@code variants} are the image variants of the content the stops come from.
+     */
+    public record Tour(double startLatitude, double startLongitude, List<Leg> legs,
+                       boolean roundTrip, double returnMeters, double distanceMeters, ImageVariants variants) {
+    }
+
+    private record State(ContentSnapshot content, DistanceMatrix matrix, Map<String, Integer> positions) {
+    }
+
+    @PostConstruct
+    void init() {
+        states = new SnapshotCache<>("distance matrix", contentState::get, (previous, content) -> build(content),
+                Infrastructure.getDefaultWorkerPool());
+        states.refresh();
+    }
+
+    void onContentReloaded(@Observes ContentReloaded event) {
+        states.refresh();
+    }
+
+    /**
+     * Orders the named POIs into the shortest tour. Without start coordinates the tour
+     * starts at the first named POI. Throws IllegalArgumentException for unknown POIs,
+     * POIs without coordinates or more than {@link #MAX_STOPS} stops.
+     */
+    public Tour plan(Locale locale, List<String> names, Double startLatitude, Double startLongitude,
+                     boolean returnToStart) {
+        State current = states.get();
+        Set<String> unique = new LinkedHashSet<>(names);
+        if (unique.isEmpty() || unique.size() > MAX_STOPS) {
+            throw new IllegalArgumentException("A tour needs 1 to " + MAX_STOPS + " stops");
+        }
+        List<Integer> stops = new ArrayList<>(unique.size());
+        for (String name : unique) {
+            Integer position = current.positions().get(name);
+            if (position == null) {
+                throw new IllegalArgumentException("Unknown POI '" + name + "'");
+            }
+            if (Double.isNaN(current.matrix().getLatitude(position))) {
+                throw new IllegalArgumentException("POI '" + name + "' has no coordinates");
+            }
+            stops.add(position);
+        }
+
+        boolean fixedFirst = startLatitude == null || startLongitude == null;
+        double startLat = fixedFirst ? current.matrix().getLatitude(stops.get(0)) : startLatitude;
+        double startLng = fixedFirst ? current.matrix().getLongitude(stops.get(0)) : startLongitude;
+        // Starting at the first POI makes it node 0, so only the rest are ordered
+        List<Integer> toOrder = fixedFirst ? stops.subList(1, stops.size()) : stops;
+
+        int n = toOrder.size() + 1;
+        double[][] distances = new double[n][n];
+        for (int i = 1; i < n; i++) {
+            double fromStart = fixedFirst
+                    ? current.matrix().distance(stops.get(0), toOrder.get(i - 1))
+                    : current.matrix().distanceFrom(startLat, startLng, toOrder.get(i - 1));
+            distances[0][i] = fromStart;
+            distances[i][0] = fromStart;
+            for (int j = i + 1; j < n; j++) {
+                double distance = current.matrix().distance(toOrder.get(i - 1), toOrder.get(j - 1));
+                distances[i][j] = distance;
+                distances[j][i] = distance;
+            }
+        }
+
+        long start = System.nanoTime();
+        int[] order = TourOptimizer.solve(distances, returnToStart, start + timeBudget.toNanos(), STARTS);
+        long elapsed = System.nanoTime() - start;
+        if (elapsed > timeBudget.toNanos()) {
+            LOG.warnf("Tour of %d stops took %d ms, over the budget", stops.size(), elapsed / 1_000_000);
+        }
+
+        List<PointOfInterest> pois = current.content().catalog()
+                .getPointsOfInterest(current.content().localizations().resolveLanguage(locale));
+        List<Leg> legs = new ArrayList<>(stops.size());
+        if (fixedFirst) {
+            legs.add(new Leg(pois.get(stops.get(0)), stops.get(0), 0));
+        }
+        int previous = 0;
+        double total = 0;
+        for (int node : order) {
+            int position = toOrder.get(node - 1);
+            legs.add(new Leg(pois.get(position), position, distances[previous][node]));
+            total += distances[previous][node];
+            previous = node;
+        }
+        double back = returnToStart ? distances[previous][0] : 0;
+        return new Tour(startLat, startLng, Collections.unmodifiableList(legs), returnToStart, back, total + back,
+                current.content().variants());
+    }
+
+    private State build(ContentSnapshot content) {
+        long start = System.nanoTime();
+        List<PointOfInterest> pois = content.catalog().getPointsOfInterest(Localizations.DEFAULT_LANGUAGE);
+        double[] latitudes = new double[pois.size()];
+        double[] longitudes = new double[pois.size()];
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < pois.size(); i++) {
+            latitudes[i] = pois.get(i).getLatitude();
+            longitudes[i] = pois.get(i).getLongitude();
+            positions.putIfAbsent(pois.get(i).getName(), i);
+        }
+        DistanceMatrix matrix = new DistanceMatrix(latitudes, longitudes);
+        LOG.infof("Built distance matrix for %d POIs in %d ms%s", pois.size(),
+                (System.nanoTime() - start) / 1_000_000, matrix.isPrecomputed() ? "" : " (computed on demand)");
+        return new State(content, matrix, Collections.unmodifiableMap(positions));
+    }
+}
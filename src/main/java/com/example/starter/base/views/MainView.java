@@ -222,22 +222,16 @@ public class MainView extends AppLayout {
         H2 poiTitle = new H2(poi.getDisplayName());
         poiTitle.addClassName("poi-title");
 
-        // Create a placeholder image
-        Image placeholderImage = new Image("/META-INF/resources/images/placeholder.png", "Loading...");
-        placeholderImage.addClassName("poi-image");
-
-        // Create the actual image with lazy loading
-        Image lazyImage = new Image(poi.getImageResource(), poi.getDisplayName());
-        lazyImage.addClassName("poi-image");
-        lazyImage.setVisible(false);
-
-        // Set up lazy loading
-        lazyImage.addAttachListener(event -> {
-            lazyImage.setVisible(true);
-            placeholderImage.setVisible(false);
-        });
+        // One image, fetched by the browser once it scrolls near the viewport
+        Image image = new Image(poi.getImageUrl(), poi.getDisplayName());
+        image.addClassName("poi-image");
+        image.getElement().setAttribute("loading", "lazy");
+        if (poi.hasImageSize()) {
+            image.getElement().setAttribute("width", String.valueOf(poi.getImageWidth()));
+            image.getElement().setAttribute("height", String.valueOf(poi.getImageHeight()));
+        }
 
-        container.add(poiTitle, placeholderImage, lazyImage);
+        container.add(poiTitle, image);
         link.add(container);
 
         return link;
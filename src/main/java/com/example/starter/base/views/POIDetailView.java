@@ -1,6 +1,10 @@
 package com.example.starter.base.views;
 
+import com.example.starter.base.entity.GalleryImage;
+import com.example.starter.base.entity.POIDescription;
 import com.example.starter.base.entity.PointOfInterest;
+import com.example.starter.base.services.DescriptionService;
+import com.example.starter.base.services.LocalizationService;
 import com.example.starter.base.services.POIService;
 import com.vaadin.flow.component.applayout.AppLayout;
 import com.vaadin.flow.component.dependency.CssImport;
@@ -17,7 +21,6 @@ import com.vaadin.flow.router.HasUrlParameter;
 import com.vaadin.flow.router.PreserveOnRefresh;
 import com.vaadin.flow.router.Route;
 
-import com.vaadin.flow.server.VaadinService;
 import com.vaadin.flow.server.VaadinSession;
 import org.jboss.logging.Logger;
 import software.xdev.vaadin.maps.leaflet.registry.LComponentManagementRegistry;
@@ -28,18 +31,15 @@ import com.vaadin.flow.component.dialog.Dialog;
 import com.vaadin.flow.component.dependency.JavaScript;
 import com.vaadin.flow.component.dependency.StyleSheet;
 
-import java.util.List;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Locale;
-import java.util.stream.Stream;
 
 
-@JavaScript("https://unpkg.com/leaflet@1.7.1/dist/leaflet.js")
-@StyleSheet("https://unpkg.com/leaflet@1.7.1/dist/leaflet.css")
+@JavaScript("/webjars/leaflet/dist/leaflet.js")
+@StyleSheet("/webjars/leaflet/dist/leaflet.css")
 @CssImport("./styles/poi-detail-view-styles.css")
 // Disabled - Using React/Hilla POIDetailView.tsx instead (kept for history)
 // @Route("poi")
@@ -47,14 +47,22 @@ import java.util.stream.Stream;
 public class POIDetailView extends AppLayout implements HasUrlParameter<String> {
 
     private static final Logger LOG = Logger.getLogger(POIDetailView.class);
-    private List<PointOfInterest> pointsOfInterest;
+
+    // Map center for POIs without coordinates
+    private static final double POLZELA_LATITUDE = 46.2803;
+    private static final double POLZELA_LONGITUDE = 15.0726;
     private POIService poiService;
+    private final LocalizationService localizationService;
+    private final DescriptionService descriptionService;
     private final LComponentManagementRegistry componentRegistry;
 
     private VerticalLayout content;
 
-    public POIDetailView(POIService poiService, LComponentManagementRegistry componentRegistry) {
+    public POIDetailView(POIService poiService, LocalizationService localizationService,
+                         DescriptionService descriptionService, LComponentManagementRegistry componentRegistry) {
         this.poiService = poiService;
+        this.localizationService = localizationService;
+        this.descriptionService = descriptionService;
         this.componentRegistry = componentRegistry;
 
         this.content = new VerticalLayout();
@@ -62,51 +70,24 @@ public class POIDetailView extends AppLayout implements HasUrlParameter<String>
         content.setAlignItems(FlexComponent.Alignment.CENTER);
         content.setSpacing(true);
         content.setPadding(true);
-
-        // Get POIs with current locale instead of default
-        Locale currentLocale = VaadinSession.getCurrent().getLocale();
-        pointsOfInterest = poiService.getPointsOfInterest(currentLocale);
     }
 
-    private String loadDescription(PointOfInterest poi) {
-        String fileName = poi.getName() + ".txt";
-        String resourcePath = "/META-INF/resources/poi-descriptions/" + fileName;
-
-        try (InputStream is = getClass().getResourceAsStream(resourcePath)) {
-            if (is == null) {
-                return "Description not available.";
-            }
-            String fullDescription = new String(is.readAllBytes(), StandardCharsets.UTF_8);
-            Locale locale = VaadinSession.getCurrent().getLocale();
-            String lang = locale != null ? locale.getLanguage().toUpperCase() : "EN";
-
-            return Stream.of(fullDescription.split("\n"))
-                    .filter(line -> line.startsWith(lang + ":"))
-                    .map(line -> line.substring(lang.length() + 1).trim())
-                    .findFirst()
-                    .orElseGet(() -> Stream.of(fullDescription.split("\n")) // Fallback to EN
-                            .filter(line -> line.startsWith("EN:"))
-                            .map(line -> line.substring(3).trim())
-                            .findFirst()
-                            .orElse("Description not available in the selected language."));
-        } catch (IOException e) {
-            e.printStackTrace();
-            return "Error loading description.";
+    private List<String> loadDescription(PointOfInterest poi, Locale locale) {
+        if (!descriptionService.hasDescription(poi.getName())) {
+            return List.of("Description not available.");
         }
+        return descriptionService.getDescription(poi.getName(), locale)
+                .map(POIDescription::getSections)
+                .orElse(List.of("Description not available in the selected language."));
     }
 
     @Override
     public void setParameter(BeforeEvent event, String parameter) {
         content.removeAll();
 
-        // Refresh POI data with current locale to ensure we have the latest translations
+        // Look the POI up in the current locale to ensure we have the latest translations
         Locale currentLocale = VaadinSession.getCurrent().getLocale();
-        pointsOfInterest = poiService.getPointsOfInterest(currentLocale);
-
-        PointOfInterest poi = pointsOfInterest.stream()
-                .filter(p -> p.getName().equals(parameter))
-                .findFirst()
-                .orElse(null);
+        PointOfInterest poi = poiService.findByName(currentLocale, parameter).orElse(null);
 
         if (poi != null) {
             // The poi.getDisplayName() now contains the localized title from poititles.txt
@@ -114,10 +95,10 @@ public class POIDetailView extends AppLayout implements HasUrlParameter<String>
             title.addClassName("poi-title");
             content.add(title);
 
-            Image image = new Image(poi.getImageResource(), poi.getDisplayName());
+            Image image = new Image(poi.getImageUrl(), poi.getDisplayName());
             image.addClassName("poi-main-image");
 
-            String detailedDescription = loadDescription(poi);
+            List<String> detailedDescription = loadDescription(poi, currentLocale);
             VerticalLayout description = displayDescription(detailedDescription);
 
             HorizontalLayout gallery = createImageGallery(poi);
@@ -126,7 +107,7 @@ public class POIDetailView extends AppLayout implements HasUrlParameter<String>
             map.addClassName("poi-map");
 
             // Get localized "Take me there!" text
-            String takeMeText = getLocalizedTakeMeText(currentLocale);
+            String takeMeText = localizationService.getText("takeme", currentLocale, "Take me there!");
 
             Anchor navigateButtonContainer = createNavigationButton(
                 "/images/navigationbutton.webp",
@@ -150,39 +131,6 @@ public class POIDetailView extends AppLayout implements HasUrlParameter<String>
         setContent(content);
     }
 
-    private String getLocalizedTakeMeText(Locale locale) {
-        String languageCode = locale.getLanguage().toUpperCase();
-        String resourcePath = "/META-INF/resources/pointsofinterest/poititles.txt";
-
-        try (InputStream is = getClass().getResourceAsStream(resourcePath);
-             BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8))) {
-
-            String line;
-            while ((line = reader.readLine()) != null) {
-                if (line.startsWith("takeme;")) {
-                    String[] parts = line.split(";");
-                    for (int i = 1; i < parts.length; i++) {
-                        String part = parts[i].trim();
-                        if (part.startsWith(languageCode + ":")) {
-                            return part.substring(languageCode.length() + 1);
-                        }
-                    }
-                    // Fallback to English if language not found
-                    for (int i = 1; i < parts.length; i++) {
-                        String part = parts[i].trim();
-                        if (part.startsWith("EN:")) {
-                            return part.substring(3);
-                        }
-                    }
-                }
-            }
-        } catch (IOException | NullPointerException e) {
-            e.printStackTrace();
-        }
-
-        return "Take me there!"; // Default fallback
-    }
-
     private Anchor createNavigationButton(String imagePath, String altText, String overlayText, String url) {
         // Use an Anchor so the browser handles the navigation directly (preserves user gesture on iOS)
         Anchor anchor = new Anchor(url, "");
@@ -221,17 +169,18 @@ public class POIDetailView extends AppLayout implements HasUrlParameter<String>
         HorizontalLayout gallery = new HorizontalLayout();
         gallery.addClassName("image-gallery");
 
-        String basePath = poi.getImagePath().replace(".webp", "");
-        for (int i = 1; i <= 3; i++) {
-            String imagePath = "/images/" + basePath + i + ".webp";
-            if (VaadinService.getCurrent().getResourceAsStream(imagePath) != null) {
-                Image image = new Image(imagePath, poi.getDisplayName());
-                image.addClassName("gallery-image");
+        // The gallery is listed with the catalog, so there is nothing to probe for here
+        for (GalleryImage galleryImage : poi.getGallery()) {
+            Image image = new Image(galleryImage.url(), poi.getDisplayName());
+            image.addClassName("gallery-image");
+            if (galleryImage.hasSize()) {
+                image.getElement().setAttribute("width", String.valueOf(galleryImage.width()));
+                image.getElement().setAttribute("height", String.valueOf(galleryImage.height()));
+            }
 
-                image.getElement().addEventListener("click", e -> showEnlargedImage(imagePath, poi.getDisplayName()));
+            image.getElement().addEventListener("click", e -> showEnlargedImage(galleryImage.url(), poi.getDisplayName()));
 
-                gallery.add(image);
-            }
+            gallery.add(image);
         }
 
         return gallery;
@@ -245,16 +194,18 @@ public class POIDetailView extends AppLayout implements HasUrlParameter<String>
         mapContainer.setHeight("400px");
         mapContainer.setWidth("80%");
 
-        // Parse the OSM URL to get coordinates
-        double[] coordinates = parseOsmUrl(poi.getMapUrl());
-        double lat = coordinates[0];
-        double lng = coordinates[1];
+        // Coordinates are parsed once when the catalog loads
+        if (!poi.hasCoordinates()) {
+            LOG.warnf("POI %s has no coordinates, centering the map on Polzela", poi.getName());
+        }
+        double lat = poi.hasCoordinates() ? poi.getLatitude() : POLZELA_LATITUDE;
+        double lng = poi.hasCoordinates() ? poi.getLongitude() : POLZELA_LONGITUDE;
 
         // Use JavaScript to initialize the map after the component is attached
         mapContainer.addAttachListener(event -> getUI().ifPresent(ui -> ui.access(() -> {
             String js = String.format(Locale.US,
                     "var map = L.map(arguments[0]).setView([%f, %f], 15);" +
-                            "L.tileLayer('https://{s}.tile.openstreetmap.org/{z}/{x}/{y}.png', {" +
+                            "L.tileLayer('/api/tiles/{z}/{x}/{y}.png', {" +
                             "    attribution: '&copy; <a href=\"https://www.openstreetmap.org/copyright\">OpenStreetMap</a> contributors'" +
                             "}).addTo(map);" +
                             "L.marker([%f, %f]).addTo(map).bindPopup('%s').openPopup();",
@@ -268,42 +219,18 @@ public class POIDetailView extends AppLayout implements HasUrlParameter<String>
         return mapContainer;
     }
 
-    private double[] parseOsmUrl(String url) {
-        try {
-            String[] parts = url.split("/");
-            if (parts.length >= 5) {
-                double lat = Double.parseDouble(parts[parts.length - 2]);
-                double lng = Double.parseDouble(parts[parts.length - 1]);
-                return new double[]{lat, lng};
-            }
-        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
-            LOG.error("Error parsing OSM URL: " + url, e);
-        }
-        return new double[]{0, 0}; // Default coordinate if parsing fails
-    }
-
-
-    private VerticalLayout displayDescription(String description) {
+    private VerticalLayout displayDescription(List<String> sections) {
         VerticalLayout descriptionLayout = new VerticalLayout();
         descriptionLayout.setSpacing(true);
         descriptionLayout.setPadding(false);
         descriptionLayout.setAlignItems(FlexComponent.Alignment.CENTER);
 
-        String[] paragraphs = description.split("\n\n");
-        int totalParagraphs = paragraphs.length;
-        int paragraphsPerSection = (int) Math.ceil((double) totalParagraphs / 3);
-
-        for (int i = 0; i < 3; i++) {
-            StringBuilder sectionText = new StringBuilder();
-            for (int j = i * paragraphsPerSection; j < Math.min((i + 1) * paragraphsPerSection, totalParagraphs); j++) {
-                sectionText.append(paragraphs[j]).append("\n\n");
-            }
-            if (!sectionText.isEmpty()) {
-                Paragraph p = new Paragraph(sectionText.toString().trim());
-                p.getStyle().set("max-width", "800px");
-                p.getStyle().set("white-space", "pre-wrap");
-                descriptionLayout.add(p);
-            }
+        // Sections are pre-split by DescriptionService
+        for (String section : sections) {
+            Paragraph p = new Paragraph(section);
+            p.getStyle().set("max-width", "800px");
+            p.getStyle().set("white-space", "pre-wrap");
+            descriptionLayout.add(p);
         }
 
         return descriptionLayout;
@@ -317,7 +244,7 @@ public class POIDetailView extends AppLayout implements HasUrlParameter<String>
             }
             return new String(is.readAllBytes(), StandardCharsets.UTF_8).trim();
         } catch (IOException e) {
-            e.printStackTrace();
+            LOG.errorf(e, "Could not read %s", resourcePath);
             return "Error loading map URL.";
         }
     }
@@ -1,103 +1,38 @@
-const CACHE_NAME = 'visit-polzela-v7'; // Increment version to force update
-const urlsToCache = [
-  '/',
-  '/index.html',
-  // Points of interest data files
-  '/pointsofinterest/pois.txt',
-  '/pointsofinterest/poititles.txt',
-  '/pointsofinterest/pois.json',
-  '/pointsofinterest/pois-complete.json',
-  // POI description files
-  '/poi-descriptions/cajhnhayrack.txt',
-  '/poi-descriptions/castle.txt',
-  '/poi-descriptions/clayfigurines.txt',
-  '/poi-descriptions/icecream.txt',
-  '/poi-descriptions/jelovsekgranary.txt',
-  '/poi-descriptions/maurerhouse.txt',
-  '/poi-descriptions/mesicmill.txt',
-  '/poi-descriptions/mountoljka.txt',
-  '/poi-descriptions/noviklostermanor.txt',
-  '/poi-descriptions/park.txt',
-  '/poi-descriptions/plaguememorial.txt',
-  '/poi-descriptions/riverloznica.txt',
-  '/poi-descriptions/romancamp.txt',
-  '/poi-descriptions/standrewchurch.txt',
-  '/poi-descriptions/stmargharetachurch.txt',
-  '/poi-descriptions/stnicholaschurch.txt',
-  '/poi-descriptions/tractormuseum.txt',
-  '/poi-descriptions/fortesa.txt',
-  // Offline scripts
-  '/frontend/offline-handler.js',
-  '/frontend/offline-router.js',
-  '/frontend/offline-store.js',
-  '/js/offline-store.js',
-  // Manifest and icons
-  '/manifest.webmanifest',
-  '/favicon.ico',
-  // Flag images
-  '/images/siflag.webp',
-  '/images/ukflag.webp',
-  '/images/deflag.webp',
-  '/images/nlflag.webp',
-  // UI images
-  '/images/polzela.webp',
-  '/images/grbpolzela.webp',
-  '/images/navigationbutton.webp',
-  '/images/applenavigationbutton.webp',
-  '/images/applenavigationbutton.png',
-  '/images/placeholder.png',
-  // POI images
-  '/images/cajhnhayrack.webp',
-  '/images/castle.webp',
-  '/images/castle1.webp',
-  '/images/castle2.webp',
-  '/images/castle3.webp',
-  '/images/clayfigurines.webp',
-  '/images/icecream.webp',
-  '/images/icecream1.webp',
-  '/images/icecream2.webp',
-  '/images/jelovsekgranary.webp',
-  '/images/maurerhouse.webp',
-  '/images/maurerhouse1.webp',
-  '/images/maurerhouse2.webp',
-  '/images/maurerhouse3.webp',
-  '/images/mesicmill.webp',
-  '/images/mountoljka.webp',
-  '/images/mountoljka1.webp',
-  '/images/mountoljka2.webp',
-  '/images/mountoljka3.webp',
-  '/images/noviklostermanor.webp',
-  '/images/park.webp',
-  '/images/park1.webp',
-  '/images/park2.webp',
-  '/images/park3.webp',
-  '/images/plaguememorial.webp',
-  '/images/riverloznica.webp',
-  '/images/romancamp.webp',
-  '/images/romancamp1.webp',
-  '/images/romancamp2.webp',
-  '/images/standrewchurch.webp',
-  '/images/standrewchurch1.webp',
-  '/images/standrewchurch2.webp',
-  '/images/stmargharetachurch.webp',
-  '/images/stmargharetachurch1.webp',
-  '/images/stnicholaschurch.webp',
-  '/images/stnicholaschurch1.webp',
-  '/images/stnicholaschurch2.webp',
-  '/images/tractormuseum.webp',
-  '/images/fortesa.webp',
-  '/images/fortesa1.webp',
-  '/images/fortesa2.webp'
-];
-
-// Install event - cache resources
+// Precache manifest generated at build time from the real resource set (see
+// PrecacheManifestCompiler). A changed manifest makes the browser install a new worker.
+try {
+  importScripts('/precache-manifest.js');
+} catch (error) {
+  console.warn('[SW] No precache manifest (dev mode?), caching the shell only');
+}
+const PRECACHE = self.PRECACHE_MANIFEST || {
+  version: 'dev',
+  critical: [{ url: '/' }, { url: '/index.html' }],
+  background: [],
+  lazy: []
+};
+
+// The shell cache is replaced with every manifest version; the asset cache outlives
+// versions, since its entries are content-hashed and only pruned once unlisted
+const CACHE_PREFIX = 'visit-polzela-';
+const SHELL_CACHE = `${CACHE_PREFIX}shell-${PRECACHE.version}`;
+const ASSET_CACHE = `${CACHE_PREFIX}assets`;
+// Map tiles, filled at runtime and from the offline tile pack; kept across versions
+const TILE_CACHE = `${CACHE_PREFIX}tiles`;
+const TILE_PACK_URL = '/api/tiles/pack';
+
+// Assets under a content-hashed name (name.<16 hex>.ext) never change, so changed
+// content arrives under a new URL
+const FINGERPRINTED = /\.[0-9a-f]{16}\.[A-Za-z0-9]+$/;
+
+// Install event - cache the critical tier: app shell, UI images and catalogs
 self.addEventListener('install', (event) => {
-  console.log('[SW] Installing service worker...');
+  console.log('[SW] Installing service worker', PRECACHE.version);
   event.waitUntil(
-    caches.open(CACHE_NAME)
+    caches.open(SHELL_CACHE)
       .then((cache) => {
-        console.log('[SW] Caching static resources');
-        return cache.addAll(urlsToCache);
+        console.log('[SW] Caching', PRECACHE.critical.length, 'critical resources');
+        return cache.addAll(PRECACHE.critical.map((entry) => entry.url));
       })
       .then(() => {
         console.log('[SW] Skip waiting to activate immediately');
@@ -109,19 +44,32 @@ self.addEventListener('install', (event) => {
   );
 });
 
-// Activate event - clean up old caches
+// Activate event - drop old shell caches and assets the manifest no longer lists
 self.addEventListener('activate', (event) => {
   console.log('[SW] Activating service worker...');
+  const listed = new Set(
+    [...PRECACHE.critical, ...PRECACHE.background, ...PRECACHE.lazy].map((entry) => entry.url)
+  );
   event.waitUntil(
     caches.keys().then((cacheNames) => {
       return Promise.all(
         cacheNames.map((cacheName) => {
-          if (cacheName !== CACHE_NAME) {
+          if (cacheName.startsWith(CACHE_PREFIX) && cacheName !== SHELL_CACHE
+            && cacheName !== ASSET_CACHE && cacheName !== TILE_CACHE) {
             console.log('[SW] Deleting old cache:', cacheName);
             return caches.delete(cacheName);
           }
         })
       );
+    }).then(() => {
+      if (PRECACHE.version === 'dev') {
+        return;
+      }
+      return caches.open(ASSET_CACHE).then((cache) => cache.keys().then((requests) => Promise.all(
+        requests
+          .filter((request) => !listed.has(new URL(request.url).pathname))
+          .map((request) => cache.delete(request))
+      )));
     }).then(() => {
       console.log('[SW] Claiming clients');
       return self.clients.claim();
@@ -129,6 +77,72 @@ self.addEventListener('activate', (event) => {
   );
 });
 
+// Background tier: POI thumbnails, fetched one at a time once the page reports it is
+// idle, and skipped when the user asked to save data
+let backgroundFill = null;
+const fillBackground = () => {
+  if (backgroundFill) {
+    return backgroundFill;
+  }
+  backgroundFill = caches.open(ASSET_CACHE).then(async (cache) => {
+    for (const entry of PRECACHE.background) {
+      if (await cache.match(entry.url)) {
+        continue;
+      }
+      try {
+        const response = await fetch(entry.url);
+        if (response.ok) {
+          await cache.put(entry.url, response);
+        }
+      } catch (error) {
+        console.log('[SW] Background precache stopped:', error);
+        break;
+      }
+    }
+  }).finally(() => {
+    backgroundFill = null;
+  });
+  return backgroundFill;
+};
+
+// Offline map tiles: one download of the server's tile pack (see TilePackService), split
+// into one cache entry per tile. The pack's ETag is kept under the pack URL, so an
+// unchanged pack costs a 304.
+const fillTilePack = async () => {
+  const cache = await caches.open(TILE_CACHE);
+  const previous = await cache.match(TILE_PACK_URL);
+  const headers = previous ? { 'If-None-Match': previous.headers.get('ETag') } : {};
+  const response = await fetch(TILE_PACK_URL, { headers });
+  if (response.status !== 200) {
+    return;
+  }
+  const etag = response.headers.get('ETag');
+  const buffer = await response.arrayBuffer();
+  const headerLength = new DataView(buffer).getUint32(0);
+  const header = JSON.parse(new TextDecoder().decode(new Uint8Array(buffer, 4, headerLength)));
+  const dataStart = 4 + headerLength;
+  for (const [z, x, y, offset, length] of header.tiles) {
+    const body = buffer.slice(dataStart + offset, dataStart + offset + length);
+    await cache.put(`/api/tiles/${z}/${x}/${y}.png`, new Response(body, {
+      headers: { 'Content-Type': 'image/png' }
+    }));
+  }
+  await cache.put(TILE_PACK_URL, new Response('', { headers: { ETag: etag } }));
+  console.log('[SW] Stored', header.tiles.length, 'map tiles for offline use');
+};
+
+self.addEventListener('message', (event) => {
+  if (event.data && event.data.type === 'PRECACHE_BACKGROUND') {
+    const connection = self.navigator.connection;
+    if (connection && connection.saveData) {
+      return;
+    }
+    event.waitUntil(fillBackground()
+      .then(fillTilePack)
+      .catch((error) => console.log('[SW] Tile pack download stopped:', error)));
+  }
+});
+
 // Fetch event - serve from cache or network
 self.addEventListener('fetch', (event) => {
   const { request } = event;
@@ -161,6 +175,41 @@ self.addEventListener('fetch', (event) => {
     return;
   }
 
+  // Map tiles: cache-first, since the tile cache and the pack hold whole areas
+  if (url.pathname.startsWith('/api/tiles/') && url.pathname !== TILE_PACK_URL) {
+    event.respondWith(
+      caches.open(TILE_CACHE).then((cache) => cache.match(request).then((cached) => {
+        if (cached) {
+          return cached;
+        }
+        return fetch(request).then((response) => {
+          if (response && response.status === 200) {
+            cache.put(request, response.clone());
+          }
+          return response;
+        });
+      }))
+    );
+    return;
+  }
+
+  // For the JSON API and assets under plain names, use network-first so changes show up
+  // immediately; the server answers unchanged ones with a 304, and the cache covers offline use
+  if (url.pathname.startsWith('/api/') && !FINGERPRINTED.test(url.pathname)) {
+    event.respondWith(
+      fetch(request)
+        .then((response) => {
+          if (response && response.status === 200 && request.method === 'GET') {
+            const responseToCache = response.clone();
+            caches.open(SHELL_CACHE).then((cache) => cache.put(request, responseToCache));
+          }
+          return response;
+        })
+        .catch(() => caches.match(request))
+    );
+    return;
+  }
+
   // For all other requests, use cache-first strategy with runtime caching
   event.respondWith(
     caches.match(request)
@@ -193,9 +242,10 @@ self.addEventListener('fetch', (event) => {
               url.pathname.endsWith('.webp') ||
               url.pathname.endsWith('.png') ||
               url.pathname.endsWith('.jpg') ||
-              url.pathname.endsWith('.json')
+              url.pathname.endsWith('.json') ||
+              FINGERPRINTED.test(url.pathname)
             ) {
-              caches.open(CACHE_NAME).then((cache) => {
+              caches.open(FINGERPRINTED.test(url.pathname) ? ASSET_CACHE : SHELL_CACHE).then((cache) => {
                 console.log('[SW] Runtime caching:', url.pathname);
                 cache.put(request, responseToCache);
               });
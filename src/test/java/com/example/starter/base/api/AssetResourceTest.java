@@ -0,0 +1,113 @@
+package com.example.starter.base.api;
+
+import com.example.starter.base.services.StaticFileCache.CachedFile;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import org.jboss.resteasy.reactive.PathPart;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class AssetResourceTest {
+
+    private static final AssetResource.Variant IDENTITY = new AssetResource.Variant("images/castle.webp", null, false);
+
+    @TempDir
+    Path dir;
+
+    private CachedFile file;
+
+    @BeforeEach
+    void extract() throws IOException {
+        Path path = Files.write(dir.resolve("castle.webp"), new byte[1000]);
+        file = new CachedFile(path, 1000, "abc");
+    }
+
+    private Response get(String ifNoneMatch, String range, String ifRange) {
+        return AssetResource.toResponse("images/castle.webp", file, IDENTITY, AssetResource.IMMUTABLE,
+                ifNoneMatch, range, ifRange);
+    }
+
+    @Test
+    void parsesSingleByteRanges() {
+        assertArrayEquals(new long[]{0, 99}, AssetResource.parseRange("bytes=0-99", 1000));
+        assertArrayEquals(new long[]{500, 999}, AssetResource.parseRange("bytes=500-", 1000));
+        assertArrayEquals(new long[]{900, 999}, AssetResource.parseRange("bytes=-100", 1000));
+        assertArrayEquals(new long[]{0, 999}, AssetResource.parseRange("bytes=-5000", 1000));
+        assertArrayEquals(new long[]{990, 999}, AssetResource.parseRange("BYTES= 990-5000 ", 1000));
+    }
+
+    @Test
+    void ignoresRangesItDoesNotSupport() {
+        assertNull(AssetResource.parseRange("items=0-99", 1000));
+        assertNull(AssetResource.parseRange("bytes=0-99,200-299", 1000));
+        assertNull(AssetResource.parseRange("bytes=99-0", 1000));
+        assertNull(AssetResource.parseRange("bytes=-", 1000));
+        assertNull(AssetResource.parseRange("bytes=abc-", 1000));
+        assertNull(AssetResource.parseRange("bytes=100", 1000));
+    }
+
+    @Test
+    void rangesPastTheEndAreUnsatisfiable() {
+        long[] pastTheEnd = AssetResource.parseRange("bytes=1000-", 1000);
+
+        assertSame(pastTheEnd, AssetResource.parseRange("bytes=-0", 1000));
+        assertEquals(0, pastTheEnd.length);
+
+        Response response = get(null, "bytes=1000-1100", null);
+        assertEquals(416, response.getStatus());
+        assertEquals("bytes */1000", response.getHeaderString("Content-Range"));
+    }
+
+    @Test
+    void sendsThePartAsked() {
+        Response response = get(null, "bytes=100-199", null);
+
+        assertEquals(206, response.getStatus());
+        assertEquals("bytes 100-199/1000", response.getHeaderString("Content-Range"));
+        PathPart part = (PathPart) response.getEntity();
+        assertEquals(100, part.offset);
+        assertEquals(100, part.count);
+    }
+
+    @Test
+    void aStaleIfRangeGetsTheWholeFile() {
+        assertEquals(206, get(null, "bytes=100-199", "\"abc\"").getStatus());
+
+        Response stale = get(null, "bytes=100-199", "\"old\"");
+        assertEquals(200, stale.getStatus());
+        assertNull(stale.getHeaderString("Content-Range"));
+        assertEquals(1000, ((PathPart) stale.getEntity()).count);
+        assertEquals("bytes", stale.getHeaderString("Accept-Ranges"));
+    }
+
+    @Test
+    void ifNoneMatchWinsOverRange() {
+        Response response = get("W/\"abc\"", "bytes=100-199", null);
+
+        assertEquals(304, response.getStatus());
+        assertEquals("\"abc\"", response.getHeaderString(HttpHeaders.ETAG));
+        assertEquals(AssetResource.IMMUTABLE, response.getHeaderString(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    void compressedSiblingsDoNotAdvertiseRanges() {
+        Response response = AssetResource.toResponse("pointsofinterest/pois.txt", file,
+                new AssetResource.Variant("pointsofinterest/pois.txt.br", "br", true), AssetResource.REVALIDATE,
+                null, null, null);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("br", response.getHeaderString(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeaderString(HttpHeaders.VARY));
+        assertNull(response.getHeaderString("Accept-Ranges"));
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.starter.base.api;
+
+import com.example.starter.base.api.CatalogSync.SyncDelta;
+import com.example.starter.base.api.CatalogSync.SyncRecord;
+import com.example.starter.base.api.CatalogSync.Tombstone;
+import com.example.starter.base.content.CatalogContent;
+import com.example.starter.base.content.POIRecord;
+import com.example.starter.base.services.ContentSnapshot;
+import com.example.starter.base.services.ContentState;
+import com.example.starter.base.services.TestSnapshots;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogSyncTest {
+
+    private static final class Content extends ContentState {
+
+        private volatile ContentSnapshot snapshot;
+
+        @Override
+        public ContentSnapshot get() {
+            return snapshot;
+        }
+    }
+
+    private final Content state = new Content();
+
+    /**
+     * POI names and their EN description, in file order.
+     */
+    private static Map<String, String> pois(String... nameAndText) {
+        Map<String, String> pois = new LinkedHashMap<>();
+        for (int i = 0; i < nameAndText.length; i += 2) {
+            pois.put(nameAndText[i], nameAndText[i + 1]);
+        }
+        return pois;
+    }
+
+    private static ContentSnapshot snapshot(Map<String, String> descriptions, String welcome) {
+        List<POIRecord> pois = descriptions.keySet().stream()
+                .map(name -> new POIRecord(name, name, name + ".txt", "", "", "", 46.28, 15.07))
+                .toList();
+        Map<String, String> titles = new LinkedHashMap<>();
+        Map<String, Map<String, List<String>>> paragraphs = new LinkedHashMap<>();
+        descriptions.forEach((name, text) -> {
+            titles.put(name, "Der " + name);
+            paragraphs.put(name, Map.of("EN", List.of(text)));
+        });
+        return TestSnapshots.of(new CatalogContent(pois,
+                Map.of("EN", Map.of(), "DE", titles),
+                Map.of("EN", Map.of("welcome", welcome)),
+                paragraphs));
+    }
+
+    private CatalogSync sync(ContentSnapshot content) {
+        state.snapshot = content;
+        return new CatalogSync(state, new ObjectMapper());
+    }
+
+    private void reload(CatalogSync sync, ContentSnapshot content) {
+        state.snapshot = content;
+        sync.onContentReloaded(null);
+    }
+
+    private static List<String> names(SyncDelta delta) {
+        return delta.pois().stream().map(SyncRecord::name).toList();
+    }
+
+    @Test
+    void aNewClientGetsEverything() {
+        CatalogSync sync = sync(snapshot(pois("castle", "Old walls."), "Welcome"));
+
+        SyncDelta delta = sync.changesSince("", 0);
+
+        assertTrue(delta.reset());
+        assertEquals(1, delta.revision());
+        assertEquals(List.of("castle"), names(delta));
+        assertEquals(Map.of("EN", "castle", "DE", "Der castle"), delta.pois().get(0).titles());
+        assertEquals(Map.of("EN", List.of("Old walls."), "DE", List.of("Old walls.")),
+                delta.pois().get(0).descriptions());
+        assertEquals("Welcome", delta.texts().get("DE").get("welcome"));
+        assertEquals(List.of(), delta.deleted());
+    }
+
+    @Test
+    void theEpochIsTheHashOfTheStartingContent() {
+        String epoch = sync(snapshot(pois("castle", "Old walls."), "Welcome")).changesSince("", 0).epoch();
+
+        assertEquals(epoch, sync(snapshot(pois("castle", "Old walls."), "Welcome")).changesSince("", 0).epoch());
+        assertNotEquals(epoch, sync(snapshot(pois("castle", "New walls."), "Welcome")).changesSince("", 0).epoch());
+    }
+
+    @Test
+    void anUpToDateClientGetsNothing() {
+        CatalogSync sync = sync(snapshot(pois("castle", "Old walls."), "Welcome"));
+        String epoch = sync.changesSince("", 0).epoch();
+
+        SyncDelta delta = sync.changesSince(epoch, 1);
+
+        assertFalse(delta.reset());
+        assertEquals(List.of(), delta.pois());
+        assertEquals(List.of(), delta.deleted());
+        assertNull(delta.texts());
+        assertEquals("\"" + epoch + ".1\"", delta.etag());
+    }
+
+    @Test
+    void onlyChangedAndRemovedPoisAdvance() {
+        CatalogSync sync = sync(snapshot(pois("castle", "Old walls.", "mill", "Flour.", "park", "Trees."), "Welcome"));
+        String epoch = sync.changesSince("", 0).epoch();
+
+        reload(sync, snapshot(pois("castle", "Old walls.", "mill", "Bread.", "bridge", "Stone."), "Welcome"));
+        SyncDelta delta = sync.changesSince(epoch, 1);
+
+        assertEquals(2, delta.revision());
+        assertFalse(delta.reset());
+        assertEquals(List.of("mill", "bridge"), names(delta));
+        assertTrue(delta.pois().stream().allMatch(poi -> poi.revision() == 2));
+        assertEquals(List.of(new Tombstone("park", 2)), delta.deleted());
+        assertNull(delta.texts());
+
+        // Clients that were already behind see the tombstone too
+        assertEquals(List.of(new Tombstone("park", 2)), sync.changesSince(epoch, 0).deleted());
+    }
+
+    @Test
+    void identicalContentKeepsTheRevision() {
+        CatalogSync sync = sync(snapshot(pois("castle", "Old walls."), "Welcome"));
+
+        reload(sync, snapshot(pois("castle", "Old walls."), "Welcome"));
+
+        assertEquals(1, sync.changesSince("", 0).revision());
+    }
+
+    @Test
+    void aRestoredPoiLosesItsTombstone() {
+        CatalogSync sync = sync(snapshot(pois("castle", "Old walls.", "park", "Trees."), "Welcome"));
+        String epoch = sync.changesSince("", 0).epoch();
+        reload(sync, snapshot(pois("castle", "Old walls."), "Welcome"));
+
+        reload(sync, snapshot(pois("castle", "Old walls.", "park", "Trees."), "Hello"));
+        SyncDelta delta = sync.changesSince(epoch, 1);
+
+        assertEquals(3, delta.revision());
+        assertEquals(List.of("park"), names(delta));
+        assertEquals(3, delta.pois().get(0).revision());
+        assertEquals(List.of(), delta.deleted());
+        assertNotNull(delta.texts());
+        assertEquals("Hello", delta.texts().get("EN").get("welcome"));
+    }
+
+    @Test
+    void clientsFromAnotherEpochOrTheFutureStartOver() {
+        CatalogSync sync = sync(snapshot(pois("castle", "Old walls.", "park", "Trees."), "Welcome"));
+        String epoch = sync.changesSince("", 0).epoch();
+        reload(sync, snapshot(pois("castle", "Old walls."), "Welcome"));
+
+        for (SyncDelta delta : List.of(sync.changesSince("other", 2), sync.changesSince(epoch, 3),
+                sync.changesSince(epoch, -1))) {
+            assertTrue(delta.reset());
+            assertEquals(List.of("castle"), names(delta));
+            // The client drops its copy, so it needs no tombstones
+            assertEquals(List.of(), delta.deleted());
+            assertNotNull(delta.texts());
+        }
+    }
+}
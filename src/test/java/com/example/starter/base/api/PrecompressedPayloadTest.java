@@ -0,0 +1,87 @@
+package com.example.starter.base.api;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrecompressedPayloadTest {
+
+    private static final PrecompressedPayload PAYLOAD =
+            PrecompressedPayload.of("{\"pois\":[]}".repeat(100), "application/json");
+
+    @Test
+    void prefersBrotliThenGzip() {
+        assertEquals("br", PrecompressedPayload.negotiate("gzip, deflate, br", true, true));
+        assertEquals("gzip", PrecompressedPayload.negotiate("gzip, deflate, br", false, true));
+        assertEquals("gzip", PrecompressedPayload.negotiate("GZIP", true, true));
+        assertEquals("br", PrecompressedPayload.negotiate("*", true, true));
+        assertNull(PrecompressedPayload.negotiate("deflate", true, true));
+        assertNull(PrecompressedPayload.negotiate("br", false, true));
+        assertNull(PrecompressedPayload.negotiate("", true, true));
+        assertNull(PrecompressedPayload.negotiate(null, true, true));
+    }
+
+    @Test
+    void honoursQZero() {
+        assertEquals("gzip", PrecompressedPayload.negotiate("br;q=0, gzip", true, true));
+        assertEquals("gzip", PrecompressedPayload.negotiate("br; q=0.0, gzip;q=0.5", true, true));
+        assertNull(PrecompressedPayload.negotiate("gzip;q=0", false, true));
+        assertEquals("gzip", PrecompressedPayload.negotiate("*, br;q=0", true, true));
+        assertEquals("gzip", PrecompressedPayload.negotiate("br;q=0, *", true, true));
+        assertEquals("br", PrecompressedPayload.negotiate("*;q=0, br", true, true));
+        assertNull(PrecompressedPayload.negotiate("*;q=0", true, true));
+        // An unreadable weight does not reject the coding
+        assertEquals("gzip", PrecompressedPayload.negotiate("gzip;q=high", false, true));
+    }
+
+    @Test
+    void servesTheNegotiatedBody() {
+        assertEquals("gzip", PAYLOAD.negotiate("gzip"));
+        assertNull(PAYLOAD.negotiate("identity"));
+        assertEquals(PAYLOAD.size(), PAYLOAD.getBody(null).length);
+        assertTrue(PAYLOAD.getBody("gzip").length < PAYLOAD.size());
+        assertArrayEquals(PAYLOAD.getBody(null), PAYLOAD.getBody("identity"));
+    }
+
+    @Test
+    void dropsEncodingsThatDoNotShrinkTheBody() {
+        PrecompressedPayload tiny = PrecompressedPayload.of("{}", "application/json");
+
+        assertNull(tiny.negotiate("gzip, br"));
+    }
+
+    @Test
+    void eachEncodingHasItsOwnEtag() {
+        String etag = PAYLOAD.getEtag();
+
+        assertTrue(etag.startsWith("\"") && etag.endsWith("\""));
+        assertEquals(etag, PAYLOAD.getEtag(null));
+        assertEquals(etag.replaceAll("\"$", "-gzip\""), PAYLOAD.getEtag("gzip"));
+        assertEquals(etag.replaceAll("\"$", "-br\""), PAYLOAD.getEtag("br"));
+        assertEquals(etag, PrecompressedPayload.of("{\"pois\":[]}".repeat(100), "application/json").getEtag());
+        assertNotEquals(etag, PrecompressedPayload.of("{\"pois\":[1]}", "application/json").getEtag());
+    }
+
+    @Test
+    void ifNoneMatchAcceptsTheEtagOfAnyEncoding() {
+        String etag = PAYLOAD.getEtag();
+
+        assertTrue(PAYLOAD.matches(etag));
+        assertTrue(PAYLOAD.matches(PAYLOAD.getEtag("gzip")));
+        assertTrue(PAYLOAD.matches(PAYLOAD.getEtag("br")));
+        assertTrue(PAYLOAD.matches("W/" + PAYLOAD.getEtag("gzip")));
+        assertTrue(PAYLOAD.matches("\"other\", " + etag));
+        assertTrue(PAYLOAD.matches("*"));
+
+        assertFalse(PAYLOAD.matches(null));
+        assertFalse(PAYLOAD.matches(" "));
+        assertFalse(PAYLOAD.matches("\"other\""));
+        assertFalse(PAYLOAD.matches(etag.replaceAll("\"$", "-deflate\"")));
+        assertFalse(PAYLOAD.matches(etag.substring(0, 10) + "\""));
+    }
+}
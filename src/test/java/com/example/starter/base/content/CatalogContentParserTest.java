@@ -0,0 +1,155 @@
+package com.example.starter.base.content;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogContentParserTest {
+
+    private static final String CASTLE = "castle;Castle;castle.txt;https://www.openstreetmap.org/#map=18/46.0569/14.5058;"
+            + "https://maps.google.com/?daddr=46.0569,14.5058;https://maps.apple.com/?daddr=46.0569,14.5058";
+    private static final String MILL = "mill;Mill;mill.txt;https://example.com/mill;https://example.com/mill;https://example.com/mill";
+
+    private static ContentSource source(Map<String, String> files) {
+        return new ContentSource() {
+            @Override
+            public boolean exists(String relativePath) {
+                return files.containsKey(relativePath);
+            }
+
+            @Override
+            public List<String> readLines(String relativePath) throws IOException {
+                String text = files.get(relativePath);
+                if (text == null) {
+                    throw new IOException("Not found: " + relativePath);
+                }
+                return Arrays.asList(text.split("\n", -1));
+            }
+        };
+    }
+
+    @Test
+    void parsesValidContent() throws IOException {
+        CatalogContentParser parser = new CatalogContentParser();
+        CatalogContent content = parser.parse(source(Map.of(
+                ContentSource.POIS_FILE, CASTLE + "\n\n",
+                ContentSource.TITLES_FILE, "castle;EN:Castle;DE-AT:Burg\ntakeme;EN:Take me there!;SL:Pelji me",
+                ContentSource.DESCRIPTIONS_DIR + "castle.txt", "EN:First.\nSecond.\nDE-AT:\nErster.")));
+
+        assertFalse(parser.hasErrors(), parser.getErrors().toString());
+        assertEquals(List.of(), parser.getWarnings());
+
+        POIRecord castle = content.getPointsOfInterest().get(0);
+        assertEquals("castle", castle.name());
+        assertEquals(46.0569, castle.latitude());
+        assertEquals(14.5058, castle.longitude());
+        assertEquals(Map.of("EN", Map.of("castle", "Castle"), "DE-AT", Map.of("castle", "Burg")), content.getTitles());
+        assertEquals(Map.of("EN", Map.of("takeme", "Take me there!"), "SL", Map.of("takeme", "Pelji me")),
+                content.getUiStrings());
+        assertEquals(Map.of("EN", List.of("First.", "Second."), "DE-AT", List.of("Erster.")),
+                content.getDescriptions().get("castle"));
+    }
+
+    @Test
+    void recordsMalformedLinesAsErrors() {
+        CatalogContentParser parser = new CatalogContentParser();
+        List<POIRecord> pois = parser.parsePointsOfInterest(List.of(
+                CASTLE,
+                "too;few;fields",
+                "bad name;Bad;bad.txt;a;b;c",
+                CASTLE,
+                "far;Far;far.txt;https://www.openstreetmap.org/#map=18/95.0/14.5;b;c"));
+
+        assertEquals(1, pois.size());
+        assertEquals(List.of(
+                "pointsofinterest/pois.txt:2: expected 6 fields separated by ';' but found 3",
+                "pointsofinterest/pois.txt:3: invalid POI name 'bad name'",
+                "pointsofinterest/pois.txt:4: duplicate POI name 'castle'",
+                "pointsofinterest/pois.txt:5: coordinates out of range for POI 'far'"), parser.getErrors());
+    }
+
+    @Test
+    void recordsBadTitlesAndDescriptionsAsErrors() {
+        CatalogContentParser parser = new CatalogContentParser();
+        parser.parseTitles(List.of("castle", "castle;EN:Castle", "castle;EN:Again", "mill;english:Mill;EN:Mill"),
+                Set.of("castle", "mill"), new LinkedHashMap<>(), new LinkedHashMap<>());
+        Map<String, List<String>> description = parser.parseDescription("mill.txt", List.of("Orphan text.", "EN:Mill."));
+
+        assertEquals(Map.of("EN", List.of("Mill.")), description);
+        assertEquals(List.of(
+                "pointsofinterest/poititles.txt:1: expected a key followed by LANG:text entries",
+                "pointsofinterest/poititles.txt:3: duplicate key 'castle'",
+                "pointsofinterest/poititles.txt:4: entry 'english:Mill' for 'mill' does not start with a language tag like EN:",
+                "mill.txt:1: text before the first language prefix"), parser.getErrors());
+    }
+
+    @Test
+    void recordsGapsAsWarnings() throws IOException {
+        String mismatched = "castle;Castle;castle.txt;https://www.openstreetmap.org/#map=18/46.0569/14.5058;"
+                + "https://example.com;https://maps.apple.com/?daddr=46.0600,14.5058";
+        CatalogContentParser parser = new CatalogContentParser();
+        CatalogContent content = parser.parse(source(Map.of(
+                ContentSource.POIS_FILE, mismatched + "\n" + MILL,
+                ContentSource.TITLES_FILE, "castle;EN:Castle",
+                ContentSource.DESCRIPTIONS_DIR + "castle.txt", "EN:\nSL:Grad.")));
+
+        assertFalse(parser.hasErrors(), parser.getErrors().toString());
+        assertEquals(List.of(
+                "pointsofinterest/pois.txt:1: map and Apple Maps URLs of POI 'castle' are 345 m apart, using the map URL",
+                "pointsofinterest/pois.txt:2: POI 'mill' has no coordinates in its map URLs",
+                "poi-descriptions/castle.txt: empty EN description",
+                "poi-descriptions/mill.txt: missing, POI 'mill' has no description"), parser.getWarnings());
+        assertFalse(content.getPointsOfInterest().get(1).hasCoordinates());
+        assertEquals(Map.of("SL", List.of("Grad.")), content.getDescriptions().get("castle"));
+    }
+
+    @Test
+    void theArtifactRoundTrips() throws IOException {
+        CatalogContent content = new CatalogContent(
+                List.of(new POIRecord("castle", "Šenek", "castle.txt", "m", "n", "a", 46.0569, 14.5058),
+                        new POIRecord("mill", "Mill", "mill.txt", "m", "n", "a", Double.NaN, Double.NaN)),
+                Map.of("EN", Map.of("castle", "Castle"), "DE-AT", Map.of("castle", "Burg")),
+                Map.of("EN", Map.of("takeme", "Take me there!")),
+                Map.of("castle", Map.of("EN", List.of("x".repeat(70_000), "Čevapčiči."))));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CatalogArtifact.write(content, out);
+        CatalogContent read = CatalogArtifact.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(content.getPointsOfInterest(), read.getPointsOfInterest());
+        assertEquals(content.getTitles(), read.getTitles());
+        assertEquals(content.getUiStrings(), read.getUiStrings());
+        assertEquals(content.getDescriptions(), read.getDescriptions());
+    }
+
+    @Test
+    void rejectsForeignAndNewerArtifacts() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        CatalogArtifact.write(new CatalogContent(List.of(), Map.of(), Map.of(), Map.of()), out);
+        byte[] bytes = out.toByteArray();
+
+        byte[] foreign = bytes.clone();
+        foreign[0] = 'X';
+        assertThrows(IOException.class, () -> CatalogArtifact.read(new ByteArrayInputStream(foreign)));
+
+        byte[] newer = bytes.clone();
+        newer[7] = 2;
+        IOException e = assertThrows(IOException.class, () -> CatalogArtifact.read(new ByteArrayInputStream(newer)));
+        assertTrue(e.getMessage().contains("version 2"));
+
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 1);
+        assertThrows(IOException.class, () -> CatalogArtifact.read(new ByteArrayInputStream(truncated)));
+    }
+}
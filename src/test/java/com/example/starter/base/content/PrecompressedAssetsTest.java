@@ -0,0 +1,66 @@
+package com.example.starter.base.content;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrecompressedAssetsTest {
+
+    private static PrecompressedAssets read(String text) throws IOException {
+        return PrecompressedAssets.read(new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void theListRoundTrips() throws IOException {
+        PrecompressedAssets assets = new PrecompressedAssets(Map.of(
+                "sw.js", new PrecompressedAssets.Asset(List.of("br", "gzip"), 18342),
+                "VAADIN/build/index-3f2a.css", new PrecompressedAssets.Asset(List.of("gzip"), 2048)));
+
+        StringWriter out = new StringWriter();
+        assets.write(out);
+        PrecompressedAssets read = read(out.toString());
+
+        assertEquals(assets.getAssets(), read.getAssets());
+        assertTrue(read.get("sw.js").has(PrecompressedAssets.BROTLI));
+        assertFalse(read.get("VAADIN/build/index-3f2a.css").has(PrecompressedAssets.BROTLI));
+        assertNull(read.get("icons/icon.png"));
+    }
+
+    @Test
+    void rejectsMalformedLines() {
+        assertThrows(IOException.class, () -> read("sw.js;br"));
+        assertThrows(IOException.class, () -> read("sw.js;;120"));
+        assertThrows(IOException.class, () -> read("sw.js;br;big"));
+    }
+
+    @Test
+    void namesSiblingsByEncoding() {
+        assertEquals("sw.js", PrecompressedAssets.siblingPath("sw.js", null));
+        assertEquals("sw.js.br", PrecompressedAssets.siblingPath("sw.js", PrecompressedAssets.BROTLI));
+        assertEquals("sw.js.gz", PrecompressedAssets.siblingPath("sw.js", PrecompressedAssets.GZIP));
+        assertTrue(PrecompressedAssets.isSibling("sw.js.br"));
+        assertTrue(PrecompressedAssets.isSibling("styles.css.gz"));
+        assertFalse(PrecompressedAssets.isSibling("sw.js"));
+    }
+
+    @Test
+    void onlyTextFormatsAreCompressible() {
+        assertEquals("text/javascript;charset=UTF-8", PrecompressedAssets.contentType("VAADIN/build/index.JS"));
+        assertEquals("application/manifest+json", PrecompressedAssets.contentType("manifest.webmanifest"));
+        assertTrue(PrecompressedAssets.isCompressible("icons/logo.svg"));
+        assertFalse(PrecompressedAssets.isCompressible("images/castle.webp"));
+        assertFalse(PrecompressedAssets.isCompressible("v1.2/LICENSE"));
+        assertNull(PrecompressedAssets.contentType("README"));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.starter.base.services;
+
+import com.example.starter.base.content.CatalogContent;
+import com.example.starter.base.content.POIRecord;
+import com.example.starter.base.entity.PointOfInterest;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CatalogCursorTest {
+
+    private static POICatalog catalog(String... names) {
+        List<POIRecord> pois = new ArrayList<>();
+        for (String name : names) {
+            pois.add(new POIRecord(name, name, name + ".txt", "", "", "", Double.NaN, Double.NaN));
+        }
+        return TestSnapshots.of(new CatalogContent(pois, Map.of(), Map.of(), Map.of())).catalog();
+    }
+
+    private static String encode(String text) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void roundTripsAsAUrlSafeString() {
+        CatalogCursor cursor = new CatalogCursor(41, "grad-šenek");
+
+        String encoded = cursor.encode();
+
+        assertTrue(encoded.matches("[A-Za-z0-9_-]+"), encoded);
+        assertEquals(cursor, CatalogCursor.decode(encoded));
+    }
+
+    @Test
+    void rejectsMalformedCursors() {
+        for (String malformed : List.of("not base64!", encode("castle"), encode(":castle"), encode("3:"),
+                encode("-1:castle"), encode("three:castle"))) {
+            assertThrows(IllegalArgumentException.class, () -> CatalogCursor.decode(malformed), malformed);
+        }
+    }
+
+    @Test
+    void resumesAfterTheNamedPoi() {
+        CatalogCursor cursor = new CatalogCursor(1, "mill");
+
+        assertEquals(2, cursor.resumeIn(catalog("castle", "mill", "park")));
+        // Moved by a reload: still right after it
+        assertEquals(4, cursor.resumeIn(catalog("bridge", "chapel", "castle", "mill", "park")));
+    }
+
+    @Test
+    void resumesAtTheOldPositionIfThePoiIsGone() {
+        CatalogCursor cursor = new CatalogCursor(1, "mill");
+
+        assertEquals(1, cursor.resumeIn(catalog("castle", "park", "bridge")));
+        assertEquals(1, new CatalogCursor(5, "mill").resumeIn(catalog("castle")));
+    }
+
+    @Test
+    void pagesWalkTheWholeCatalogOnce() {
+        POICatalog catalog = catalog("a", "b", "c", "d", "e");
+        List<String> seen = new ArrayList<>();
+
+        int from = 0;
+        while (from >= 0) {
+            POICatalog.Page page = catalog.page("EN", from, 2, poi -> !poi.getName().equals("c"));
+            page.pois().stream().map(POICatalog.Listed::poi).map(PointOfInterest::getName).forEach(seen::add);
+            String next = CatalogCursor.after(page.pois().get(page.pois().size() - 1)).encode();
+            from = page.next() >= 0 ? CatalogCursor.decode(next).resumeIn(catalog) : -1;
+        }
+
+        assertEquals(List.of("a", "b", "d", "e"), seen);
+    }
+}
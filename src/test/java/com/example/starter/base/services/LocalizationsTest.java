@@ -0,0 +1,57 @@
+package com.example.starter.base.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class LocalizationsTest {
+
+    private static final Localizations LOCALIZATIONS = new Localizations(
+            Map.of(
+                    "EN", Map.of("castle", "Šenek Castle", "park", "Park", "mill", "Mill"),
+                    "DE", Map.of("castle", "Burg Schöneck", "park", "Park (DE)"),
+                    "DE-AT", Map.of("castle", "Burg Schöneck (AT)"),
+                    "SL", Map.of("castle", "Grad Šenek")),
+            Map.of(
+                    "EN", Map.of("takeme", "Take me there!", "search", "Search"),
+                    "DE", Map.of("takeme", "Bring mich hin!")));
+
+    @Test
+    void resolvesTheMostSpecificLanguage() {
+        assertEquals("DE-AT", LOCALIZATIONS.resolveLanguage(Locale.forLanguageTag("de-AT")));
+        assertEquals("DE", LOCALIZATIONS.resolveLanguage(Locale.forLanguageTag("de-CH")));
+        assertEquals("DE", LOCALIZATIONS.resolveLanguage(Locale.GERMAN));
+        assertEquals("SL", LOCALIZATIONS.resolveLanguage(Locale.forLanguageTag("sl-SI")));
+        assertEquals("EN", LOCALIZATIONS.resolveLanguage(Locale.FRENCH));
+        assertEquals("EN", LOCALIZATIONS.resolveLanguage(Locale.ROOT));
+        assertEquals("EN", LOCALIZATIONS.resolveLanguage(null));
+    }
+
+    @Test
+    void fallsBackFromRegionToLanguageToEnglish() {
+        assertEquals("Burg Schöneck (AT)", LOCALIZATIONS.getTitle("DE-AT", "castle"));
+        assertEquals("Park (DE)", LOCALIZATIONS.getTitle("DE-AT", "park"));
+        assertEquals("Mill", LOCALIZATIONS.getTitle("DE-AT", "mill"));
+        assertEquals("Mill", LOCALIZATIONS.getTitle("SL", "mill"));
+        assertNull(LOCALIZATIONS.getTitle("SL", "unknown"));
+
+        assertEquals("Bring mich hin!", LOCALIZATIONS.getText("DE-AT", "takeme", "?"));
+        assertEquals("Search", LOCALIZATIONS.getText("DE-AT", "search", "?"));
+        assertEquals("?", LOCALIZATIONS.getText("DE-AT", "unknown", "?"));
+        // A language without any UI strings gets the English ones
+        assertEquals("Take me there!", LOCALIZATIONS.getText("SL", "takeme", "?"));
+    }
+
+    @Test
+    void anUnknownLanguageReadsEnglish() {
+        assertEquals("Šenek Castle", LOCALIZATIONS.getTitle("FR", "castle"));
+        assertEquals("Take me there!", LOCALIZATIONS.getText("FR", "takeme", "?"));
+        assertEquals(Set.of("EN", "DE", "DE-AT", "SL"), LOCALIZATIONS.getLanguages());
+        assertEquals(3, LOCALIZATIONS.getTitles("DE-AT").size());
+    }
+}
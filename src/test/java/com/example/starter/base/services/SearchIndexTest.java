@@ -0,0 +1,91 @@
+package com.example.starter.base.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchIndexTest {
+
+    private static final List<SearchIndex.Document> DOCUMENTS = List.of(
+            new SearchIndex.Document("Grad Šenek", List.of("Burg Schöneck"), "Ruins above the valley",
+                    List.of("The castle was first mentioned in 1278.")),
+            new SearchIndex.Document("Župnijska cerkev", List.of("Parish church"), "Church of the Nativity of Mary",
+                    List.of("A baroque church in the centre of Polzela.")),
+            new SearchIndex.Document("Savinja", List.of(), "River walk", List.of("Paths along the river Savinja.")),
+            new SearchIndex.Document("Castle garden", List.of(), "Garden below the castle", List.of()));
+
+    private static SearchIndex index() {
+        return new SearchIndex(DOCUMENTS.stream().map(SearchIndex::analyze).toList());
+    }
+
+    private static List<Integer> positions(String query) {
+        return index().search(query, 10).stream().map(SearchIndex.Hit::position).toList();
+    }
+
+    @Test
+    void foldsCaseAndDiacritics() {
+        assertEquals("senek", SearchIndex.fold("Šenek"));
+        assertEquals("schoneck", SearchIndex.fold("SCHÖNECK"));
+        assertEquals("strasse", SearchIndex.fold("Straße"));
+        assertEquals("dakovo", SearchIndex.fold("Đakovo"));
+        assertEquals(List.of("zupnijska", "cerkev", "1278"), SearchIndex.tokenize("Župnijska-cerkev (1278)"));
+
+        assertEquals(List.of(0), positions("senek"));
+        assertEquals(List.of(0), positions("ŠENEK"));
+        assertEquals(List.of(1), positions("zupnijska "));
+        assertEquals(List.of(0), positions("schöneck"));
+    }
+
+    @Test
+    void matchesTheLastTermAsAPrefixWhileTyping() {
+        assertEquals(List.of(2), positions("savi"));
+        assertEquals(List.of(0), positions("grad še"));
+        // A trailing space ends the word
+        assertEquals(List.of(), positions("savi "));
+        // Only the last term is a prefix
+        assertEquals(List.of(), positions("gra senek"));
+        // One letter would match too much
+        assertEquals(List.of(), positions("s"));
+    }
+
+    @Test
+    void toleratesOneTypoInLongerTerms() {
+        // Substitution, insertion, deletion and swapped neighbours
+        assertEquals(List.of(2), positions("savinia "));
+        assertEquals(List.of(2), positions("savinnja "));
+        assertEquals(List.of(2), positions("savnja "));
+        assertEquals(List.of(2), positions("sacinja "));
+        assertEquals(List.of(2), positions("saivnja "));
+        // Two typos are too many
+        assertEquals(List.of(), positions("sacinia "));
+        // Terms under four letters must be exact: "rad" is not read as "grad"
+        assertEquals(List.of(), positions("rad "));
+
+        assertTrue(SearchIndex.withinOneEdit("cerkev", "crekev"));
+        assertTrue(SearchIndex.withinOneEdit("cerkev", "cerkve"));
+        assertFalse(SearchIndex.withinOneEdit("cerkev", "ckreev"));
+        assertFalse(SearchIndex.withinOneEdit("cerkev", "cerkevv1"));
+    }
+
+    @Test
+    void ranksExactMatchesAndTitlesFirst() {
+        // "castle" is a title word of the garden but only in the description of Šenek
+        assertEquals(List.of(3, 0), positions("castle "));
+        // The exact term beats a typo of it
+        List<SearchIndex.Hit> hits = index().search("church", 10);
+        assertEquals(1, hits.get(0).position());
+    }
+
+    @Test
+    void requiresEveryTerm() {
+        assertEquals(List.of(1), positions("baroque church"));
+        assertEquals(List.of(), positions("baroque river"));
+        assertEquals(List.of(), positions("   "));
+        assertEquals(List.of(), new SearchIndex(List.<Map<String, Float>>of()).search("senek", 10));
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.starter.base.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotCacheTest {
+
+    private final AtomicReference<ContentSnapshot> content = new AtomicReference<>(snapshot());
+    private final AtomicInteger builds = new AtomicInteger();
+    private final List<Runnable> queued = new ArrayList<>();
+
+    private static ContentSnapshot snapshot() {
+        return new ContentSnapshot(null, null, Map.of(), null, null, null, null);
+    }
+
+    private SnapshotCache<String> cache() {
+        return new SnapshotCache<>("test", content::get,
+                (previous, snapshot) -> previous + "/" + builds.incrementAndGet(), queued::add);
+    }
+
+    private void runQueued() {
+        List<Runnable> tasks = new ArrayList<>(queued);
+        queued.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    @Test
+    void buildsOncePerSnapshot() {
+        SnapshotCache<String> cache = cache();
+
+        assertEquals("null/1", cache.refresh());
+        assertEquals("null/1", cache.get());
+        assertEquals("null/1", cache.refresh());
+        assertTrue(cache.isCurrent());
+        assertEquals(1, builds.get());
+    }
+
+    @Test
+    void readersKeepThePreviousValueWhileOneRebuildRuns() {
+        SnapshotCache<String> cache = cache();
+        cache.refresh();
+        content.set(snapshot());
+
+        assertEquals("null/1", cache.get());
+        assertEquals("null/1", cache.get());
+        assertFalse(cache.isCurrent());
+        // The first stale read schedules the rebuild, the others do not
+        assertEquals(1, queued.size());
+        assertEquals(1, builds.get());
+
+        runQueued();
+
+        // The builder got the previous value to reuse
+        assertEquals("null/1/2", cache.get());
+        assertTrue(cache.isCurrent());
+        assertEquals(List.of(), queued);
+    }
+
+    @Test
+    void theObserverRebuildsBeforeAnyReader() {
+        SnapshotCache<String> cache = cache();
+        cache.refresh();
+        content.set(snapshot());
+
+        cache.refresh();
+
+        assertEquals("null/1/2", cache.get());
+        assertEquals(List.of(), queued);
+    }
+
+    @Test
+    void aFailedRebuildKeepsTheValueAndIsRetried() {
+        AtomicBoolean fail = new AtomicBoolean(true);
+        SnapshotCache<String> cache = new SnapshotCache<>("test", content::get, (previous, snapshot) -> {
+            if (previous != null && fail.getAndSet(false)) {
+                throw new IllegalStateException("broken");
+            }
+            return "v" + builds.incrementAndGet();
+        }, queued::add);
+        cache.refresh();
+        content.set(snapshot());
+
+        cache.get();
+        runQueued();
+        assertEquals("v1", cache.get());
+        assertFalse(cache.isCurrent());
+
+        runQueued();
+        assertEquals("v2", cache.get());
+    }
+
+    @Test
+    void buildsOnTheCallerIfNothingWasBuilt() {
+        SnapshotCache<String> cache = cache();
+
+        assertEquals("null/1", cache.get());
+        assertEquals(List.of(), queued);
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.starter.base.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the k-d tree against a brute-force haversine scan over random points.
+ */
+class SpatialIndexTest {
+
+    // The tree measures chords, the scan haversine; both agree to well under a millimeter
+    private static final double TOLERANCE_METERS = 1e-3;
+
+    private record Points(double[] latitudes, double[] longitudes) {
+
+        int length() {
+            return latitudes.length;
+        }
+    }
+
+    /**
+     * Random points anywhere, clustered at the poles, along the antimeridian and around
+     * Polzela, about one in twenty with a NaN coordinate.
+     */
+    private static Points randomPoints(Random random, int n) {
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        for (int i = 0; i < n; i++) {
+            switch (random.nextInt(5)) {
+                case 0 -> {
+                    latitudes[i] = (random.nextBoolean() ? 1 : -1) * (90 - random.nextDouble() * 0.5);
+                    longitudes[i] = random.nextDouble() * 360 - 180;
+                }
+                case 1 -> {
+                    latitudes[i] = random.nextDouble() * 20 - 10;
+                    longitudes[i] = (random.nextBoolean() ? 180 : -180) - Math.signum(random.nextGaussian()) * random.nextDouble() * 0.5;
+                }
+                case 2 -> {
+                    latitudes[i] = 46.28 + random.nextGaussian() * 0.02;
+                    longitudes[i] = 15.07 + random.nextGaussian() * 0.02;
+                }
+                default -> {
+                    latitudes[i] = Math.toDegrees(Math.asin(random.nextDouble() * 2 - 1));
+                    longitudes[i] = random.nextDouble() * 360 - 180;
+                }
+            }
+            if (random.nextInt(20) == 0) {
+                if (random.nextBoolean()) {
+                    latitudes[i] = Double.NaN;
+                } else {
+                    longitudes[i] = Double.NaN;
+                }
+            }
+            longitudes[i] = Math.max(-180, Math.min(180, longitudes[i]));
+        }
+        return new Points(latitudes, longitudes);
+    }
+
+    private static double[] randomQuery(Random random, Points points) {
+        // Half the queries land on or next to a point, where ties and tiny distances are
+        if (points.length() > 0 && random.nextBoolean()) {
+            int i = random.nextInt(points.length());
+            if (!Double.isNaN(points.latitudes()[i]) && !Double.isNaN(points.longitudes()[i])) {
+                return new double[]{points.latitudes()[i], points.longitudes()[i]};
+            }
+        }
+        return new double[]{Math.toDegrees(Math.asin(random.nextDouble() * 2 - 1)), random.nextDouble() * 360 - 180};
+    }
+
+    private static List<SpatialIndex.Hit> bruteForce(Points points, double latitude, double longitude) {
+        List<SpatialIndex.Hit> hits = new ArrayList<>();
+        for (int i = 0; i < points.length(); i++) {
+            if (!Double.isNaN(points.latitudes()[i]) && !Double.isNaN(points.longitudes()[i])) {
+                hits.add(new SpatialIndex.Hit(i, SpatialIndex.distanceMeters(latitude, longitude,
+                        points.latitudes()[i], points.longitudes()[i])));
+            }
+        }
+        hits.sort(Comparator.comparingDouble(SpatialIndex.Hit::distanceMeters));
+        return hits;
+    }
+
+    private static void assertMatches(Points points, double latitude, double longitude,
+                                      List<SpatialIndex.Hit> expected, List<SpatialIndex.Hit> actual) {
+        assertEquals(expected.size(), actual.size());
+        Set<Integer> seen = new HashSet<>();
+        for (int i = 0; i < actual.size(); i++) {
+            SpatialIndex.Hit hit = actual.get(i);
+            assertTrue(seen.add(hit.position()), "Position returned twice: " + hit.position());
+            // Equal distances may come in any order, so compare ranks by distance
+            assertEquals(expected.get(i).distanceMeters(), hit.distanceMeters(), TOLERANCE_METERS);
+            double haversine = SpatialIndex.distanceMeters(latitude, longitude,
+                    points.latitudes()[hit.position()], points.longitudes()[hit.position()]);
+            assertEquals(haversine, hit.distanceMeters(), TOLERANCE_METERS);
+        }
+    }
+
+    @Test
+    void nearestMatchesABruteForceScan() {
+        Random random = new Random(20241017);
+        for (int round = 0; round < 300; round++) {
+            Points points = randomPoints(random, random.nextInt(200));
+            SpatialIndex index = new SpatialIndex(points.latitudes(), points.longitudes());
+            double[] query = randomQuery(random, points);
+            int k = 1 + random.nextInt(20);
+
+            List<SpatialIndex.Hit> all = bruteForce(points, query[0], query[1]);
+            assertEquals(all.size(), index.size());
+            assertMatches(points, query[0], query[1], all.subList(0, Math.min(k, all.size())),
+                    index.nearest(query[0], query[1], k));
+        }
+    }
+
+    @Test
+    void withinRadiusMatchesABruteForceScan() {
+        Random random = new Random(46281507);
+        for (int round = 0; round < 300; round++) {
+            Points points = randomPoints(random, random.nextInt(200));
+            SpatialIndex index = new SpatialIndex(points.latitudes(), points.longitudes());
+            double[] query = randomQuery(random, points);
+            // From a few meters to more than half the circumference
+            double radius = Math.pow(10, random.nextDouble() * 7.5);
+            int k = random.nextBoolean() ? 1 + random.nextInt(20) : Integer.MAX_VALUE;
+
+            List<SpatialIndex.Hit> actual = index.withinRadius(query[0], query[1], radius, k);
+            for (SpatialIndex.Hit hit : actual) {
+                assertTrue(hit.distanceMeters() <= radius + TOLERANCE_METERS, hit + " is outside " + radius);
+            }
+            // Points right on the boundary may fall either way
+            List<SpatialIndex.Hit> all = bruteForce(points, query[0], query[1]);
+            long inside = all.stream().filter(hit -> hit.distanceMeters() <= radius - TOLERANCE_METERS).count();
+            long nearBoundary = all.stream().filter(hit -> hit.distanceMeters() <= radius + TOLERANCE_METERS).count();
+            assertTrue(actual.size() >= Math.min(k, inside) && actual.size() <= Math.min(k, nearBoundary),
+                    actual.size() + " hits for " + inside + " to " + nearBoundary + " inside, k " + k);
+            assertMatches(points, query[0], query[1], all.subList(0, actual.size()), actual);
+        }
+    }
+
+    @Test
+    void aRadiusAroundTheWholeEarthOnlyKeepsTheNearest() {
+        Random random = new Random(7);
+        Points points = randomPoints(random, 5000);
+        SpatialIndex index = new SpatialIndex(points.latitudes(), points.longitudes());
+
+        List<SpatialIndex.Hit> hits = index.withinRadius(46.28, 15.07, 2e7, 5);
+
+        assertEquals(5, hits.size());
+        assertMatches(points, 46.28, 15.07, bruteForce(points, 46.28, 15.07).subList(0, 5), hits);
+        assertEquals(index.nearest(46.28, 15.07, 5), hits);
+    }
+
+    @Test
+    void findsNeighborsAcrossThePoles() {
+        double[] latitudes = {89.99, 89.99, 80, -89.99};
+        double[] longitudes = {0, 180, 0, 90};
+        SpatialIndex index = new SpatialIndex(latitudes, longitudes);
+
+        List<SpatialIndex.Hit> hits = index.nearest(90, -45, 2);
+
+        // Both points near the north pole are about 1.1 km away, whatever their longitude
+        assertEquals(Set.of(0, 1), Set.of(hits.get(0).position(), hits.get(1).position()));
+        assertEquals(1112, hits.get(1).distanceMeters(), 1);
+        assertEquals(List.of(0, 1), index.withinRadius(89.995, 0, 2000, 10).stream()
+                .map(SpatialIndex.Hit::position).toList());
+    }
+
+    @Test
+    void findsNeighborsAcrossTheAntimeridian() {
+        double[] latitudes = {0, 0, 0};
+        double[] longitudes = {179.999, -179.999, 170};
+        SpatialIndex index = new SpatialIndex(latitudes, longitudes);
+
+        List<SpatialIndex.Hit> hits = index.nearest(0, -179.9995, 2);
+
+        assertEquals(List.of(1, 0), hits.stream().map(SpatialIndex.Hit::position).toList());
+        assertEquals(SpatialIndex.distanceMeters(0, -179.9995, 0, 179.999), hits.get(1).distanceMeters(), TOLERANCE_METERS);
+        assertEquals(2, index.withinRadius(0, 180, 200, 10).size());
+    }
+
+    @Test
+    void returnsEveryPointWhenKExceedsThem() {
+        double[] latitudes = {46.28, 46.29, Double.NaN, 46.30};
+        double[] longitudes = {15.07, 15.08, 15.09, Double.NaN};
+        SpatialIndex index = new SpatialIndex(latitudes, longitudes);
+
+        assertEquals(2, index.size());
+        assertEquals(List.of(1, 0), index.nearest(46.3, 15.1, 10).stream()
+                .map(SpatialIndex.Hit::position).toList());
+        assertEquals(List.of(), index.nearest(46.3, 15.1, 0));
+        assertEquals(List.of(), SpatialIndex.empty().nearest(46.3, 15.1, 10));
+    }
+
+    @Test
+    void findsNothingNearANaNCoordinate() {
+        SpatialIndex index = new SpatialIndex(new double[]{46.28, 0}, new double[]{15.07, 0});
+
+        assertEquals(List.of(), index.nearest(Double.NaN, 15.07, 5));
+        assertEquals(List.of(), index.nearest(46.28, Double.NaN, 5));
+        assertEquals(List.of(), index.withinRadius(Double.NaN, 15.07, 1e9, 5));
+        assertEquals(List.of(), index.withinRadius(46.28, 15.07, Double.NaN, 5));
+        assertEquals(List.of(), index.withinRadius(46.28, 15.07, -1, 5));
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.starter.base.services;
+
+import com.example.starter.base.content.AssetManifest;
+import com.example.starter.base.content.CatalogContent;
+import com.example.starter.base.content.ImageVariants;
+import com.example.starter.base.content.PrecompressedAssets;
+import com.example.starter.base.entity.POIDescription;
+
+import java.util.Map;
+
+/**
+ * Builds {@link ContentSnapshot}s the way {@link ContentState} does, without the container
+ * or any assets, for tests in other packages.
+ */
+public final class TestSnapshots {
+
+    private TestSnapshots() {
+    }
+
+    public static ContentSnapshot of(CatalogContent content) {
+        Localizations localizations = new Localizations(content.getTitles(), content.getUiStrings());
+        Map<String, Map<String, POIDescription>> descriptions = new DescriptionService().build(content, localizations);
+        POICatalog catalog = POIService.buildCatalog(content, localizations, descriptions, AssetManifest.empty(),
+                ImageVariants.empty());
+        return new ContentSnapshot(content, localizations, descriptions, AssetManifest.empty(),
+                PrecompressedAssets.empty(), ImageVariants.empty(), catalog);
+    }
+}
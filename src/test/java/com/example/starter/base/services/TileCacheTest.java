@@ -0,0 +1,215 @@
+package com.example.starter.base.services;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TileCacheTest {
+
+    private static final int TILE_BYTES = 100;
+
+    @TempDir
+    Path cacheDir;
+
+    private HttpServer upstream;
+    private ExecutorService upstreamExecutor;
+
+    // Status per tile path, 200 when absent
+    private final Map<String, Integer> statuses = new ConcurrentHashMap<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile CountDownLatch release = new CountDownLatch(0);
+
+    @BeforeEach
+    void startUpstream() throws IOException {
+        upstream = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        upstreamExecutor = Executors.newCachedThreadPool();
+        upstream.setExecutor(upstreamExecutor);
+        upstream.createContext("/", this::serve);
+        upstream.start();
+    }
+
+    @AfterEach
+    void stopUpstream() {
+        release.countDown();
+        upstream.stop(0);
+        upstreamExecutor.shutdownNow();
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        String path = exchange.getRequestURI().getPath();
+        int status = statuses.getOrDefault(path, 200);
+        byte[] body = status == 200 ? tileBytes(path) : new byte[0];
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static byte[] tileBytes(String path) {
+        byte[] bytes = new byte[TILE_BYTES];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (path.hashCode() + i);
+        }
+        return bytes;
+    }
+
+    private TileCache cache(long maxBytes, Duration maxAge) {
+        return new TileCache("http://127.0.0.1:" + upstream.getAddress().getPort() + "/{z}/{x}/{y}.png",
+                cacheDir, maxBytes, maxAge, 19, "test", Duration.ofSeconds(5));
+    }
+
+    private static TileCache.CachedTile fetched(TileCache cache, int z, int x, int y) throws Exception {
+        return cache.get(z, x, y).get(10, TimeUnit.SECONDS).orElseThrow();
+    }
+
+    private List<Path> tempFiles() throws IOException {
+        try (Stream<Path> files = Files.walk(cacheDir)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(".tmp")).toList();
+        }
+    }
+
+    @Test
+    void storesTheTileAsZxyOnDisk() throws Exception {
+        TileCache cache = cache(10_000, Duration.ofDays(1));
+
+        TileCache.CachedTile tile = fetched(cache, 15, 17760, 11507);
+
+        assertEquals(cacheDir.resolve("15/17760/11507.png"), tile.path());
+        assertArrayEquals(tileBytes("/15/17760/11507.png"), Files.readAllBytes(tile.path()));
+        assertTrue(cache.getIfFresh(15, 17760, 11507).isPresent());
+        assertEquals(TILE_BYTES, cache.getTotalBytes());
+    }
+
+    @Test
+    void concurrentMissesShareOneUpstreamRequest() throws Exception {
+        TileCache cache = cache(10_000, Duration.ofDays(1));
+        release = new CountDownLatch(1);
+
+        List<CompletableFuture<Optional<TileCache.CachedTile>>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            futures.add(cache.get(3, 1, 2));
+        }
+        release.countDown();
+
+        for (CompletableFuture<Optional<TileCache.CachedTile>> future : futures) {
+            assertEquals(cacheDir.resolve("3/1/2.png"), future.get(10, TimeUnit.SECONDS).orElseThrow().path());
+        }
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    void missingUpstreamTileCompletesEmpty() throws Exception {
+        TileCache cache = cache(10_000, Duration.ofDays(1));
+        statuses.put("/3/1/2.png", 404);
+
+        assertTrue(cache.get(3, 1, 2).get(10, TimeUnit.SECONDS).isEmpty());
+        assertEquals(0, cache.size());
+        assertEquals(List.of(), tempFiles());
+    }
+
+    @Test
+    void upstreamErrorWithoutACopyFails() throws IOException {
+        TileCache cache = cache(10_000, Duration.ofDays(1));
+        statuses.put("/3/1/2.png", 500);
+
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> cache.get(3, 1, 2).get(10, TimeUnit.SECONDS));
+        assertTrue(error.getCause().getMessage().contains("500"), error.getCause().getMessage());
+        assertEquals(0, cache.size());
+        assertEquals(List.of(), tempFiles());
+    }
+
+    @Test
+    void upstreamErrorServesTheStaleCopy() throws Exception {
+        Path stored = fetched(cache(10_000, Duration.ofDays(1)), 3, 1, 2).path();
+        Files.setLastModifiedTime(stored, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+        statuses.put("/3/1/2.png", 500);
+
+        // A new cache picks the tile up from disk, stale by its modification time
+        TileCache cache = cache(10_000, Duration.ofDays(1));
+        assertTrue(cache.getIfFresh(3, 1, 2).isEmpty());
+
+        assertEquals(stored, fetched(cache, 3, 1, 2).path());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void evictsTheLeastRecentlyServedTiles() throws Exception {
+        TileCache cache = cache(2 * TILE_BYTES + TILE_BYTES / 2, Duration.ofDays(1));
+        Path first = fetched(cache, 3, 0, 0).path();
+        Path second = fetched(cache, 3, 0, 1).path();
+        assertTrue(cache.getIfFresh(3, 0, 0).isPresent());
+
+        fetched(cache, 3, 0, 2);
+
+        assertEquals(2, cache.size());
+        assertEquals(2 * TILE_BYTES, cache.getTotalBytes());
+        assertTrue(Files.exists(first));
+        assertFalse(Files.exists(second));
+        assertTrue(cache.getIfFresh(3, 0, 1).isEmpty());
+    }
+
+    @Test
+    void reloadsTheIndexFromDiskAndDropsPartialDownloads() throws Exception {
+        TileCache previous = cache(10_000, Duration.ofDays(1));
+        fetched(previous, 3, 0, 0);
+        fetched(previous, 3, 0, 1);
+        Files.write(cacheDir.resolve("3/0/.fetch123.tmp"), new byte[]{1, 2, 3});
+
+        TileCache cache = cache(10_000, Duration.ofDays(1));
+
+        assertEquals(2, cache.size());
+        assertEquals(2 * TILE_BYTES, cache.getTotalBytes());
+        assertTrue(cache.getIfFresh(3, 0, 1).isPresent());
+        assertEquals(List.of(), tempFiles());
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    void rejectsTilesOutsideTheGrid() throws Exception {
+        TileCache cache = cache(10_000, Duration.ofDays(1));
+
+        assertFalse(cache.isValid(3, 8, 0));
+        assertFalse(cache.isValid(20, 0, 0));
+        assertTrue(cache.get(3, -1, 0).get(10, TimeUnit.SECONDS).isEmpty());
+        assertEquals(0, requests.get());
+    }
+}
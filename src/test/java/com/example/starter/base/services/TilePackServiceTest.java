@@ -0,0 +1,117 @@
+package com.example.starter.base.services;
+
+import com.example.starter.base.services.TilePackService.TileAddress;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TilePackServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private Optional<TileCache.CachedTile> tile(String name, String content) throws IOException {
+        Path path = dir.resolve(name);
+        Files.writeString(path, content);
+        return Optional.of(new TileCache.CachedTile(path, content.length(), 0));
+    }
+
+    @Test
+    void writesTheHeaderLengthHeaderAndTileData() throws IOException {
+        List<TileAddress> addresses = List.of(new TileAddress(15, 1, 2), new TileAddress(15, 1, 3),
+                new TileAddress(15, 2, 2));
+        List<Optional<TileCache.CachedTile>> tiles = List.of(tile("a.png", "one"), Optional.empty(),
+                tile("b.png", "three"));
+
+        TilePackService.TilePack pack = TilePackService.write(dir.resolve("packs"), addresses, tiles);
+
+        byte[] bytes = Files.readAllBytes(pack.path());
+        int headerLength = ByteBuffer.wrap(bytes, 0, 4).getInt();
+        String header = new String(bytes, 4, headerLength, StandardCharsets.UTF_8);
+        // Offsets count from the end of the header; the tile the upstream lacks is left out
+        assertEquals("{\"tiles\":[[15,1,2,0,3],[15,2,2,3,5]]}", header);
+        assertArrayEquals("onethree".getBytes(StandardCharsets.UTF_8),
+                Arrays.copyOfRange(bytes, 4 + headerLength, bytes.length));
+        assertEquals(2, pack.tileCount());
+        assertEquals(bytes.length, pack.size());
+        assertEquals("tiles-" + pack.etagValue() + ".pack", pack.path().getFileName().toString());
+        try (Stream<Path> files = Files.list(dir.resolve("packs"))) {
+            assertEquals(List.of(pack.path()), files.toList());
+        }
+    }
+
+    @Test
+    void theEtagFollowsTheContent() throws IOException {
+        List<TileAddress> addresses = List.of(new TileAddress(15, 1, 2));
+
+        String first = TilePackService.write(dir.resolve("packs"), addresses, List.of(tile("a.png", "one"))).etagValue();
+        String same = TilePackService.write(dir.resolve("packs"), addresses, List.of(tile("a.png", "one"))).etagValue();
+        String changed = TilePackService.write(dir.resolve("packs"), addresses, List.of(tile("a.png", "two"))).etagValue();
+
+        assertEquals(first, same);
+        assertNotEquals(first, changed);
+    }
+
+    @Test
+    void findsTheNewestPackOnDisk() throws IOException {
+        Path packs = dir.resolve("packs");
+        assertTrue(TilePackService.latest(packs).isEmpty());
+        List<TileAddress> addresses = List.of(new TileAddress(15, 1, 2), new TileAddress(15, 1, 3));
+
+        TilePackService.TilePack old = TilePackService.write(packs, addresses,
+                List.of(tile("a.png", "one"), tile("b.png", "two")));
+        Files.setLastModifiedTime(old.path(), FileTime.from(Instant.now().minus(Duration.ofDays(1))));
+        TilePackService.TilePack written = TilePackService.write(packs, addresses,
+                List.of(tile("a.png", "one"), Optional.empty()));
+        Files.writeString(packs.resolve(".pack123.tmp"), "partial");
+
+        assertEquals(Optional.of(written), TilePackService.latest(packs));
+        assertEquals(old, TilePackService.read(old.path()));
+    }
+
+    @Test
+    void rejectsATruncatedPack() throws IOException {
+        Path file = dir.resolve("tiles-abc.pack");
+        Files.write(file, new byte[]{0, 0, 1, 0, '{'});
+
+        assertThrows(IOException.class, () -> TilePackService.read(file));
+    }
+
+    @Test
+    void recognizesTheOpenStreetMapTileServers() {
+        assertTrue(TilePackService.isOpenStreetMap("https://tile.openstreetmap.org/{z}/{x}/{y}.png"));
+        assertTrue(TilePackService.isOpenStreetMap("https://a.tile.openstreetmap.org/{z}/{x}/{y}.png"));
+        assertFalse(TilePackService.isOpenStreetMap("http://localhost:9000/{z}/{x}/{y}.png"));
+        assertFalse(TilePackService.isOpenStreetMap("https://tiles.example.com/osm/{z}/{x}/{y}.png"));
+    }
+
+    @Test
+    void listsTheTilesOfTheBoundingBoxInZoomXyOrder() {
+        assertEquals(List.of(new TileAddress(0, 0, 0),
+                        new TileAddress(1, 0, 0), new TileAddress(1, 0, 1),
+                        new TileAddress(1, 1, 0), new TileAddress(1, 1, 1)),
+                TilePackService.tilesFor(-10, -10, 10, 10, 0, 1));
+        // Polzela's town centre
+        assertEquals(List.of(new TileAddress(15, 17755, 11620)),
+                TilePackService.tilesFor(46.2835, 15.0725, 46.2835, 15.0725, 15, 15));
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.starter.base.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketsTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    // 10 requests per second, bursts of 5; 1000 bytes per second, bursts of 10000
+    private static TokenBuckets buckets(int maxClients) {
+        return new TokenBuckets(new TokenBuckets.Budget(10, 5), new TokenBuckets.Budget(1000, 10_000), maxClients);
+    }
+
+    @Test
+    void admitsTheBurstThenRefillsAtTheRate() {
+        TokenBuckets buckets = buckets(10);
+        long now = 0;
+        TokenBuckets.Client client = buckets.client("a", now);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, client.tryAcquire(now));
+        }
+        assertEquals(SECOND / 10, client.tryAcquire(now));
+        assertFalse(client.isOverBytes(now));
+        assertEquals(0, client.tryAcquire(now + SECOND / 10));
+    }
+
+    @Test
+    void refusesAClientInByteDebtUntilItIsPaidOff() {
+        TokenBuckets buckets = buckets(10);
+        TokenBuckets.Client client = buckets.client("a", 0);
+        client.charge(0, 15_000);
+
+        assertEquals(5 * SECOND, client.tryAcquire(0));
+        assertTrue(client.isOverBytes(0));
+        assertEquals(0, client.tryAcquire(5 * SECOND));
+    }
+
+    @Test
+    void concurrentRequestsTakeExactlyTheBurst() throws InterruptedException {
+        TokenBuckets buckets = buckets(10);
+        TokenBuckets.Client client = buckets.client("a", 0);
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                if (client.tryAcquire(0) == 0) {
+                    admitted.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(5, admitted.get());
+    }
+
+    @Test
+    void newClientsPastTheLimitGetBucketsOfTheirOwn() {
+        TokenBuckets buckets = buckets(100);
+        for (int i = 0; i < 10_000; i++) {
+            TokenBuckets.Client client = buckets.client("attacker-" + i, i);
+            for (int request = 0; request < 5; request++) {
+                client.tryAcquire(i);
+            }
+            assertTrue(buckets.size() <= 100);
+        }
+
+        TokenBuckets.Client visitor = buckets.client("visitor", 10_000);
+        assertEquals(0, visitor.tryAcquire(10_000));
+        assertTrue(buckets.size() <= 100);
+    }
+
+    @Test
+    void makesRoomFromTheLeastRecentlySeenClients() {
+        TokenBuckets buckets = buckets(10);
+        TokenBuckets.Client regular = buckets.client("regular", 0);
+        for (int i = 0; i < 5; i++) {
+            regular.tryAcquire(0);
+        }
+        for (int i = 1; i <= 9; i++) {
+            buckets.client("other-" + i, i).tryAcquire(i);
+        }
+        // Seen last, so it keeps its (empty) buckets when room is made
+        regular.tryAcquire(100);
+
+        buckets.client("new", 101);
+
+        assertTrue(buckets.client("regular", 101).tryAcquire(101) > 0);
+    }
+
+    @Test
+    void sweepDropsOnlyRefilledClients() {
+        TokenBuckets buckets = buckets(10);
+        buckets.client("idle", 0).tryAcquire(0);
+        buckets.client("downloader", 0).charge(0, 5_000);
+
+        assertEquals(1, buckets.sweep(SECOND));
+        assertEquals(1, buckets.size());
+    }
+
+    @Test
+    void bytesOfAResponseOpenWhileItsClientIsDroppedAreNotLost() {
+        TokenBuckets buckets = buckets(10);
+        TokenBuckets.Client client = buckets.client("a", 0);
+        assertEquals(0, client.tryAcquire(0));
+
+        // The request token has been paid back, so the sweep drops the client mid-response
+        assertEquals(1, buckets.sweep(SECOND));
+        client.charge(SECOND, 15_000);
+
+        TokenBuckets.Client current = buckets.client("a", SECOND);
+        assertNotSame(client, current);
+        assertTrue(current.isOverBytes(SECOND));
+        assertEquals(5 * SECOND, client.tryAcquire(SECOND));
+    }
+
+    @Test
+    void handlesOfDroppedClientsKeepWorkingWhileOthersEvictThem() throws InterruptedException {
+        // With room for one client, "a" and "b" keep evicting each other
+        TokenBuckets buckets = buckets(1);
+        TokenBuckets.Client stale = buckets.client("a", 0);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int thread = 0; thread < 8; thread++) {
+            boolean evicting = thread % 2 == 0;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 20_000; i++) {
+                        if (evicting) {
+                            buckets.client(i % 2 == 0 ? "a" : "b", i).tryAcquire(i);
+                            buckets.sweep(i);
+                        } else {
+                            stale.charge(i, 1);
+                            stale.tryAcquire(i);
+                        }
+                    }
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertNull(failure.get());
+        // The handle now charges whatever buckets "a" has
+        stale.charge(30_000, 15_000);
+        assertTrue(buckets.client("a", 30_000).isOverBytes(30_000));
+    }
+}